@@ -1,8 +1,15 @@
 package hotelgame;
 
+import hotelgame.model.BoardDefinition;
 import hotelgame.model.Hotel;
 import hotelgame.model.GameModel;
+import hotelgame.search.Advice;
+import hotelgame.search.MoveAdvisor;
+import hotelgame.store.GameJournal;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Paths;
 import java.util.Scanner;
 
 public class CLIMain {
@@ -22,33 +29,76 @@ public class CLIMain {
      */
     private final Scanner reader;
 
+    /**
+     * The journal the game is saved in, or null if games are not saved
+     */
+    private final GameJournal journal;
+
+    /**
+     * The advisor giving hints before buy and rating decisions, or null if hints are off
+     */
+    private MoveAdvisor advisor;
+
+    /**
+     * The number of the game in the journal
+     */
+    private static final long SAVED_GAME = 0;
+
     /**
      * Instantiate the model and reader
      */
     public CLIMain(boolean cheatMode) {
+        this(cheatMode, BoardDefinition.standard(), null);
+    }
+
+    /**
+     * Instantiate the model on a board and the reader
+     * @param journal The journal to save the game in, or null
+     */
+    public CLIMain(boolean cheatMode, BoardDefinition board, GameJournal journal) {
         this.cheatMode = cheatMode;
-        this.model = new GameModel();
+        this.model = new GameModel(board);
         this.reader = new Scanner(System.in);
+        this.journal = journal;
+    }
+
+    /**
+     * Show a hint before each buy and rating decision.
+     */
+    public void showHints() {
+        advisor = new MoveAdvisor(model.getBoard());
     }
 
-    public static void main(String[] args) {
+    /**
+     * Usage: CLIMain [cheat mode] [board file] [save directory] [hints]
+     */
+    public static void main(String[] args) throws IOException {
         System.out.println("Welcome to the Hotel Game!");
 
         boolean cheatMode = args.length > 0 && Boolean.parseBoolean(args[0]);
+        BoardDefinition board = args.length > 1 && !args[1].isEmpty() ? BoardDefinition.load(Paths.get(args[1])) : BoardDefinition.standard();
+        GameJournal journal = args.length > 2 && !args[2].isEmpty() ? new GameJournal(Paths.get(args[2]), board, 1 << 20) : null;
 
-        CLIMain cli = new CLIMain(cheatMode);
+        CLIMain cli = new CLIMain(cheatMode, board, journal);
+        if (args.length > 3 && Boolean.parseBoolean(args[3])) {
+            cli.showHints();
+        }
         cli.promptNewGame();
     }
 
     /**
-     * Prompt the user to start a new game.
+     * Prompt the user to start a new game, or resume the saved one.
      */
     private void promptNewGame() {
-        System.out.print("Press s to start a new game or q to quit: ");
+        boolean saved = journal != null && journal.getSavedGames().contains(SAVED_GAME);
+        System.out.print(saved ? "Press r to resume the saved game, s to start a new game or q to quit: "
+                : "Press s to start a new game or q to quit: ");
         String answer = reader.nextLine();
 
         if (answer.equalsIgnoreCase("s")) {
             startNewGame();
+        } else if (saved && answer.equalsIgnoreCase("r")) {
+            resumeGame();
         } else if (answer.equalsIgnoreCase("q"))  {
             quitGame();
         } else {
@@ -63,6 +113,26 @@ public class CLIMain {
     private void quitGame() {
         System.out.println("Thanks for playing the Hotel Game!");
         reader.close();
+        if (journal != null) {
+            try {
+                journal.close();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+    }
+
+    /**
+     * Resume the saved game.
+     */
+    private void resumeGame() {
+        journal.load(SAVED_GAME, model);
+        System.out.println("Resuming the game with " + model.getCurrentTurn().getName() + " to play.");
+        System.out.println(model.getPlayerOne().getName() + " has " + model.getPlayerOne().getMoney() + " money.");
+        System.out.println(model.getPlayerTwo().getName() + " has " + model.getPlayerTwo().getMoney() + " money.");
+        System.out.println();
+        printBoard();
+        playGame();
     }
 
     /**
@@ -70,6 +140,10 @@ public class CLIMain {
      */
     private void startNewGame() {
         model.reset();
+        if (journal != null) {
+            // saved from the moment the players are created, replacing any saved game
+            journal.attach(SAVED_GAME, model);
+        }
 
         String playerOneName = "";
         String playerTwoName = "";
@@ -143,22 +217,30 @@ public class CLIMain {
             model.nextTurn();
         }
         System.out.println(model.getWinner().getName() + " wins the game!");
+        if (journal != null) {
+            try {
+                journal.end(SAVED_GAME);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
     }
 
 
     /**
      * Retrieve the cheat mode input for moving a player.
-     * @return An input from the player that is constrained to 1-12.
+     * @return An input from the player that is constrained to 1 to the number of dice sides.
      */
     private int getCheatModeRoll() {
         int diceRoll = 0;
+        int diceSides = model.getDiceSides();
         while(diceRoll == 0) {
-            System.out.print(model.getCurrentTurn().getName() + " enter the amount of spaces to move(1-12): ");
+            System.out.print(model.getCurrentTurn().getName() + " enter the amount of spaces to move(1-" + diceSides + "): ");
             try {
                 diceRoll = Integer.parseInt(reader.next());
-                diceRoll = Math.min(Math.max(diceRoll, 1), 12);
+                diceRoll = Math.min(Math.max(diceRoll, 1), diceSides);
             } catch (Exception e) {
-                System.out.println("Invalid input entered. Please enter a number of spaces to move from 1-12.");
+                System.out.println("Invalid input entered. Please enter a number of spaces to move from 1-" + diceSides + ".");
             }
         }
         return diceRoll;
@@ -188,11 +270,24 @@ public class CLIMain {
         }
     }
 
+    /**
+     * Print a hint for the current player's decision, if hints are on.
+     */
+    private void showHint() {
+        if (advisor != null) {
+            Advice advice = advisor.advise(model);
+            if (advice != Advice.NONE) {
+                System.out.println(advice);
+            }
+        }
+    }
+
     /**
      * Show options for purchasing a hotel.
      */
     public void showPurchaseOptions() {
         Hotel hotel = model.getCurrentPlayerPositionHotel();
+        showHint();
         System.out.println("Would you like to buy this hotel for " + hotel.getPrice() + " ?");
         System.out.print("Press y to buy or any other key to skip: ");
         String answer = reader.next();
@@ -216,24 +311,26 @@ public class CLIMain {
      */
     private void showIncreaseRatingOptions() {
         Hotel hotel = model.getCurrentPlayerPositionHotel();
-        System.out.println("The current rating of your hotel is " + hotel.getStarRating() + "/5 stars.");
+        int maxRating = hotel.getMaxRating();
+        System.out.println("The current rating of your hotel is " + hotel.getStarRating() + "/" + maxRating + " stars.");
 
         if (!hotel.canAffordRatingIncrease()) {
             System.out.println("You cannot afford to increase this hotel's star rating.");
             System.out.println();
-        } else if (hotel.getStarRating() < 5) {
+        } else if (hotel.getStarRating() < maxRating) {
+            showHint();
             int desiredRating = -1;  // Set initial value to -1 to allow entering the loop
-            while(desiredRating < 0 || desiredRating > 5) {
-                System.out.print("Enter the desired rating (1-5) or 0 to cancel: ");
+            while(desiredRating < 0 || desiredRating > maxRating) {
+                System.out.print("Enter the desired rating (1-" + maxRating + ") or 0 to cancel: ");
                 try {
                     desiredRating = Integer.parseInt(reader.next());
-                    desiredRating = Math.min(Math.max(desiredRating, 0), 5);  // Allow 0 as valid input
+                    desiredRating = Math.min(Math.max(desiredRating, 0), maxRating);  // Allow 0 as valid input
                     if(desiredRating == 0) {
                         System.out.println("Upgrade cancelled.");
                         return;  // Exit the method if the user chooses to cancel
                     }
                 } catch (NumberFormatException e) {
-                    System.out.println("Invalid input entered. Please enter a desired rating from 1-5 or 0 to cancel.");
+                    System.out.println("Invalid input entered. Please enter a desired rating from 1-" + maxRating + " or 0 to cancel.");
                 }
             }
 
@@ -241,15 +338,10 @@ public class CLIMain {
             double costForIncrease = hotel.getIncreaseRatingFee() * difference;
 
             if(model.getCurrentTurn().getMoney() >= costForIncrease) {
-                for (int i = 0; i < difference; i++) {
-                    if (hotel.canAffordRatingIncrease()) {
-                        model.increaseStarRating();
-                    } else {
-                        System.out.println("You cannot afford to further increase the hotel's star rating.");
-                        break;
-                    }
+                if (model.increaseStarRatingTo(desiredRating) < desiredRating) {
+                    System.out.println("You cannot afford to further increase the hotel's star rating.");
                 }
-                System.out.println("You increased the hotel rating to " + hotel.getStarRating() + "/5 stars. You now have £" + model.getCurrentTurn().getMoney());
+                System.out.println("You increased the hotel rating to " + hotel.getStarRating() + "/" + maxRating + " stars. You now have £" + model.getCurrentTurn().getMoney());
                 System.out.println();
             } else {
                 System.out.println("You cannot afford to increase the hotel's star rating to " + desiredRating);
@@ -268,7 +360,7 @@ public class CLIMain {
             if (hotel != null) {
                 System.out.print("Tile " + (position + 1) + " is hotel " + hotel.getName() + ".");
                 System.out.print(" Price: " + hotel.getPrice() + ". ");
-                System.out.print("Rating: " + hotel.getStarRating() + "/5 stars. ");
+                System.out.print("Rating: " + hotel.getStarRating() + "/" + hotel.getMaxRating() + " stars. ");
                 System.out.print("Owner: " + (hotel.getOwner() != null ? hotel.getOwner().getName() : "None."));
             } else if (position > 0) {
                 System.out.print("Tile " + (position + 1) + " is a blank tile.");
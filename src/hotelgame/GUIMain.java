@@ -1,11 +1,32 @@
 package hotelgame;
 
+import hotelgame.model.BoardDefinition;
+import hotelgame.store.GameJournal;
 import hotelgame.view.GameView;
 
+import java.io.IOException;
+import java.nio.file.Paths;
+
 public class GUIMain {
-    public static void main(String[] args) {
+
+    /**
+     * Usage: GUIMain [cheat mode] [board file] [painted board] [save directory] [heatmap] [hints] [off EDT]
+     */
+    public static void main(String[] args) throws IOException {
         boolean cheatMode = args.length > 0 && Boolean.parseBoolean(args[0]);
-        GameView gameView = new GameView(cheatMode);
+        BoardDefinition board = args.length > 1 && !args[1].isEmpty() ? BoardDefinition.load(Paths.get(args[1])) : BoardDefinition.standard();
+        boolean paintedBoard = args.length > 2 && Boolean.parseBoolean(args[2]);
+        boolean offEdt = args.length > 6 && Boolean.parseBoolean(args[6]);
+        GameView gameView = new GameView(cheatMode, board, paintedBoard, offEdt);
+        if (args.length > 3 && !args[3].isEmpty()) {
+            gameView.setJournal(new GameJournal(Paths.get(args[3]), board, 1 << 20), 0);
+        }
+        if (args.length > 4 && Boolean.parseBoolean(args[4])) {
+            gameView.showHeatmap();
+        }
+        if (args.length > 5 && Boolean.parseBoolean(args[5])) {
+            gameView.showHints();
+        }
         gameView.start();
     }
 }
@@ -0,0 +1,60 @@
+package hotelgame;
+
+import hotelgame.model.BoardDefinition;
+import hotelgame.model.GameModel;
+import hotelgame.model.Policy;
+import hotelgame.stream.GameRecording;
+import hotelgame.view.ReplayView;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+
+public class ReplayMain {
+
+    /**
+     * The number of turns between keyframes in simulated recordings.
+     */
+    private static final int KEYFRAME_INTERVAL = 32;
+
+    /**
+     * Show a recording written by GameRecording.write(), or a simulated game if no recording is given.
+     * Arguments: [recording file or "-"] [board file] [painted board]
+     */
+    public static void main(String[] args) throws IOException {
+        BoardDefinition board = args.length > 1 ? BoardDefinition.load(Paths.get(args[1])) : BoardDefinition.standard();
+        boolean paintedBoard = args.length > 2 && Boolean.parseBoolean(args[2]);
+
+        GameRecording recording;
+        if (args.length > 0 && !args[0].equals("-")) {
+            try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(Paths.get(args[0]))))) {
+                recording = GameRecording.read(in);
+            }
+        } else {
+            recording = simulate(board);
+        }
+
+        ReplayView view = new ReplayView(recording, board, paintedBoard);
+        view.start();
+    }
+
+    /**
+     * Record a simulated game, one event per turn.
+     * @param board The board to play on
+     * @return The recording
+     */
+    private static GameRecording simulate(BoardDefinition board) {
+        GameModel model = new GameModel(board);
+        GameRecording recording = new GameRecording(KEYFRAME_INTERVAL);
+        model.reset();
+        model.createPlayers("Player One", "Player Two");
+        model.addObserver(recording);
+        recording.record(model);
+        for (int turn = 0; turn < 5000 && !model.isGameOver(); turn++) {
+            model.playTurns(1, Policy.GREEDY);
+        }
+        return recording;
+    }
+}
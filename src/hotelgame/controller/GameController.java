@@ -1,9 +1,14 @@
 package hotelgame.controller;
 
+import hotelgame.model.BoardDefinition;
 import hotelgame.model.Hotel;
 import hotelgame.model.GameModel;
+import hotelgame.store.GameJournal;
 import hotelgame.view.GameView;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+
 /**
  * The Hotel controller
  */
@@ -15,21 +20,78 @@ public class GameController {
     private final GameModel model;
 
     /**
-     * The reference to the HotelView.
+     * The reference to the HotelView, or null when running without a view.
      */
     private final GameView view;
 
+    /**
+     * The player controls to enable and disable.
+     */
+    private TurnControls controls = TurnControls.NONE;
+
+    /**
+     * The journal the game is saved in, or null if it is not saved.
+     */
+    private GameJournal journal;
+
+    /**
+     * The number of the game in the journal.
+     */
+    private long savedGame;
+
     public GameController(GameView view) {
-        this.model = new GameModel();
+        this(view, BoardDefinition.standard());
+    }
+
+    /**
+     * Create a controller for a game on a board.
+     * @param view The view observing the game
+     * @param board The board definition
+     */
+    public GameController(GameView view, BoardDefinition board) {
+        this.model = new GameModel(board);
         this.view = view;
         this.model.addObserver(this.view);
     }
 
     /**
-     * Start a game.
+     * Create a controller without a view, for tests and tools that drive the game directly.
+     * @param board The board definition
+     */
+    public GameController(BoardDefinition board) {
+        this.model = new GameModel(board);
+        this.view = null;
+    }
+
+    /**
+     * Set the player controls the controller enables and disables.
+     * @param controls The controls
+     */
+    public void setControls(TurnControls controls) {
+        this.controls = controls;
+    }
+
+    /**
+     * Save the game in a journal, resuming the game saved there by start().
+     * @param journal The journal
+     * @param savedGame The number of the game in the journal
+     */
+    public void setJournal(GameJournal journal, long savedGame) {
+        this.journal = journal;
+        this.savedGame = savedGame;
+    }
+
+    /**
+     * Start a game, or resume the saved game if there is one.
      */
     public void start() {
+        if (journal != null && journal.load(savedGame, model)) {
+            return;
+        }
         this.model.reset();
+        if (journal != null) {
+            journal.attach(savedGame, model);
+        }
         this.model.createPlayers("Player One", "Player Two");
     }
 
@@ -37,6 +99,9 @@ public class GameController {
      * Roll the current player's turn.
      */
     public String rollTurn(int amount) {
+        if (amount > model.getDiceSides()) {
+            return "You can only move between 1 and " + model.getDiceSides() + " spaces.";
+        }
         int diceRoll = amount > 0 ? amount : model.rollDice();
         model.movePlayer(diceRoll);
 
@@ -53,10 +118,10 @@ public class GameController {
     public String getHotelResult() {
         Hotel hotel = model.getCurrentPlayerPositionHotel();
         if (hotel.getOwner() == model.getCurrentTurn()) {
-            if (hotel.getStarRating() < 5) {
-                view.getActionBar().enableIncreaseRating();
+            if (hotel.getStarRating() < hotel.getMaxRating()) {
+                controls.enableIncreaseRating();
             }
-            return model.getCurrentTurn().getName() + " landed at your " + hotel.getName() + " hotel. The current rating of your hotel is " + hotel.getStarRating() + "/5 stars.";
+            return model.getCurrentTurn().getName() + " landed at your " + hotel.getName() + " hotel. The current rating of your hotel is " + hotel.getStarRating() + "/" + hotel.getMaxRating() + " stars.";
         } else if (hotel.getOwner() == model.getOpposingTurn()) {
             double amountPaid = model.payOvernightFee();
             String result = amountPaid > 0 ?
@@ -65,7 +130,7 @@ public class GameController {
             return model.getCurrentTurn().getName() + " landed at " + model.getOpposingTurn().getName() + "'s " + hotel.getName() + " hotel. " + result;
         } else {
             if (hotel.canAffordPurchase(model.getCurrentTurn())) {
-                view.getActionBar().enableBuyHotel();
+                controls.enableBuyHotel();
             }
             return model.getCurrentTurn().getName() + " landed at the un-purchased " + hotel.getName() + " hotel.";
         }
@@ -77,14 +142,17 @@ public class GameController {
      */
     public String buyHotel() {
         Hotel hotel = model.getCurrentPlayerPositionHotel();
+        if (hotel == null || hotel.getOwner() != null) {
+            return "There is no hotel for sale here";
+        }
         if(!hotel.canAffordPurchase(model.getCurrentTurn())) {
             return "You cannot afford this hotel";
         }
         model.buyHotel();
-        view.getActionBar().disableBuyHotel();
+        controls.disableBuyHotel();
 
         if (hotel.getOwner() == model.getCurrentTurn()) {
-            view.getActionBar().enableIncreaseRating();
+            controls.enableIncreaseRating();
         }
         return "You successfully purchased the " + hotel.getName() + " hotel for £" + hotel.getPrice() + ".";
     }
@@ -92,48 +160,69 @@ public class GameController {
     public String increaseRating(int increaseBy) {
         Hotel hotel = model.getCurrentPlayerPositionHotel();
 
-        if (hotel.getOwner() != model.getCurrentTurn()) {
+        if (hotel == null || hotel.getOwner() != model.getCurrentTurn()) {
             return "You do not own this hotel";
         } else if (!hotel.canAffordRatingIncrease()) {
             return "You cannot afford to increase the rating of this hotel.";
         }
 
-        if (hotel.getStarRating() + increaseBy > 5) {
-            return "Increasing the rating by this amount would exceed the maximum rating of 5.";
+        if (hotel.getStarRating() + increaseBy > hotel.getMaxRating()) {
+            return "Increasing the rating by this amount would exceed the maximum rating of " + hotel.getMaxRating() + ".";
         }
 
-        for (int i = 0; i < increaseBy; i++) {
-            if (!hotel.canAffordRatingIncrease()) {
-                view.getActionBar().disableIncreaseRating();
-                return "You increase the hotel rating to " + hotel.getStarRating() + ". You cannot afford to increase the rating of this hotel any higher.";
-            }
-            model.increaseStarRating();
+        int target = hotel.getStarRating() + increaseBy;
+        if (model.increaseStarRatingTo(target) < target) {
+            controls.disableIncreaseRating();
+            return "You increase the hotel rating to " + hotel.getStarRating() + ". You cannot afford to increase the rating of this hotel any higher.";
         }
 
-        if (hotel.getStarRating() >= 5) {
-            view.getActionBar().disableIncreaseRating();
+        if (hotel.getStarRating() >= hotel.getMaxRating()) {
+            controls.disableIncreaseRating();
         }
 
-        return "You increase the hotel rating to " + hotel.getStarRating() + " /5 stars.";
+        return "You increase the hotel rating to " + hotel.getStarRating() + " /" + hotel.getMaxRating() + " stars.";
     }
 
 
 
+    /**
+     * Get the model the controller drives.
+     * @return The game model
+     */
+    public GameModel getModel() {
+        return model;
+    }
+
+    /**
+     * Get the board the game is played on.
+     * @return The board definition
+     */
+    public BoardDefinition getBoard() {
+        return model.getBoard();
+    }
+
     /**
      * End the current player's turn.
      */
     public String endTurn() {
         double money = model.getCurrentTurn().getMoney();
         String player = model.getCurrentTurn().getName();
-        view.getActionBar().disableBuyHotel();
-        view.getActionBar().disableIncreaseRating();
-        view.getActionBar().disableEndTurnButton();
+        controls.disableBuyHotel();
+        controls.disableIncreaseRating();
+        controls.disableEndTurnButton();
 
         if (model.isGameOver()) {
-            view.getActionBar().disableRollButton();
+            controls.disableRollButton();
+            if (journal != null) {
+                try {
+                    journal.end(savedGame);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }
             return model.getCurrentTurn().getName() + " have ran out of money. Game over! " + model.getOpposingTurn().getName() + " wins!";
         }
-        view.getActionBar().enableRollButton();
+        controls.enableRollButton();
         model.nextTurn();
         return player + "'s turn has ended with £" + money + ".";
     }
@@ -0,0 +1,85 @@
+package hotelgame.controller;
+
+/**
+ * The player controls the controller enables and disables as a turn goes on.
+ * Implemented by the view's ActionBar; NONE lets a controller run without a view.
+ */
+public interface TurnControls {
+
+    /**
+     * Controls that ignore every change, for a controller with no view.
+     */
+    TurnControls NONE = new TurnControls() {
+        @Override
+        public void enableRollButton() {
+        }
+
+        @Override
+        public void enableBuyHotel() {
+        }
+
+        @Override
+        public void enableIncreaseRating() {
+        }
+
+        @Override
+        public void enableEndTurnButton() {
+        }
+
+        @Override
+        public void disableRollButton() {
+        }
+
+        @Override
+        public void disableBuyHotel() {
+        }
+
+        @Override
+        public void disableIncreaseRating() {
+        }
+
+        @Override
+        public void disableEndTurnButton() {
+        }
+    };
+
+    /**
+     * Enable the roll button
+     */
+    void enableRollButton();
+
+    /**
+     * Enable the buy hotel button
+     */
+    void enableBuyHotel();
+
+    /**
+     * Enable the increase rating button
+     */
+    void enableIncreaseRating();
+
+    /**
+     * Enable the end turn button
+     */
+    void enableEndTurnButton();
+
+    /**
+     * Disable the roll button
+     */
+    void disableRollButton();
+
+    /**
+     * Disable the buy hotel button
+     */
+    void disableBuyHotel();
+
+    /**
+     * Disable the increase rating button
+     */
+    void disableIncreaseRating();
+
+    /**
+     * Disable the end turn button
+     */
+    void disableEndTurnButton();
+}
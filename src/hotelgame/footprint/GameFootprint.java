@@ -0,0 +1,358 @@
+package hotelgame.footprint;
+
+import hotelgame.model.BoardDefinition;
+import hotelgame.model.DiceDistribution;
+import hotelgame.model.GameModel;
+import hotelgame.model.GameProbe;
+import hotelgame.model.Policy;
+import hotelgame.model.RuleSet;
+import hotelgame.model.RuleTables;
+
+import java.lang.management.ManagementFactory;
+import java.lang.ref.Reference;
+import java.lang.reflect.Array;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.ArrayDeque;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Observer;
+import java.util.Set;
+import java.util.Vector;
+
+/**
+ * The heap a GameModel keeps alive, broken down by part: the model itself, its Hotel tiles, its Players,
+ * its observer list and its dice. The object graph is walked from the model's fields and every object is
+ * sized from its class layout as HotSpot lays it out: a header, the fields, and padding to 8 bytes.
+ * What games share is not counted: the board and its keys, the compiled rules, the dice distribution, the probe,
+ * and the observers themselves (the list holding them is counted).
+ * JDK classes cannot be walked into, so they are sized shallowly, except for strings and vectors, which are
+ * sized through their public methods.
+ * Usage: GameFootprint [games]
+ */
+public class GameFootprint {
+
+    /**
+     * Whether references take 4 bytes rather than 8.
+     */
+    private static final boolean COMPRESSED_OOPS = compressedOops();
+
+    /**
+     * The size of a reference.
+     */
+    private static final int REFERENCE = COMPRESSED_OOPS ? 4 : 8;
+
+    /**
+     * The size of an object header.
+     */
+    private static final int HEADER = COMPRESSED_OOPS ? 12 : 16;
+
+    /**
+     * The size of an array header, including its length.
+     */
+    private static final int ARRAY_HEADER = COMPRESSED_OOPS ? 16 : 20;
+
+    /**
+     * Types shared between games, which are neither counted nor walked into.
+     */
+    private static final Class<?>[] SHARED = {BoardDefinition.class, RuleSet.class, RuleTables.class,
+            DiceDistribution.class, GameProbe.class, Observer.class};
+
+    /**
+     * The part each field of the model belongs to; fields not listed belong to the model.
+     */
+    private static final Map<String, String> PARTS = Map.of("tiles", "tiles", "playerOne", "players",
+            "playerTwo", "players", "currentTurn", "players", "obs", "observers", "observers", "observers", "dice", "dice");
+
+    /**
+     * The bytes of each part, in the order first seen.
+     */
+    private final Map<String, Long> parts = new LinkedHashMap<>();
+
+    /**
+     * The objects already counted.
+     */
+    private final Set<Object> visited = Collections.newSetFromMap(new IdentityHashMap<>());
+
+    /**
+     * Measure the footprint of a model.
+     * @param model The model
+     */
+    public GameFootprint(GameModel model) {
+        parts.put("model", shallowSize(model.getClass()));
+        visited.add(model);
+        for (Class<?> type = model.getClass(); type != Object.class; type = type.getSuperclass()) {
+            for (Field field : type.getDeclaredFields()) {
+                if (Modifier.isStatic(field.getModifiers()) || field.getType().isPrimitive()) {
+                    continue;
+                }
+                String part = PARTS.getOrDefault(field.getName(), "model");
+                parts.merge(part, deepSize(read(field, model)), Long::sum);
+            }
+        }
+    }
+
+    /**
+     * Get the bytes of a part.
+     * @param part model, tiles, players, observers or dice
+     * @return The bytes, or 0 for an unknown part
+     */
+    public long getPart(String part) {
+        return parts.getOrDefault(part, 0L);
+    }
+
+    /**
+     * Get the bytes of every part.
+     * @return The bytes of each part
+     */
+    public Map<String, Long> getParts() {
+        return Collections.unmodifiableMap(parts);
+    }
+
+    /**
+     * Get the bytes a game keeps alive.
+     * @return The total bytes
+     */
+    public long getTotal() {
+        return parts.values().stream().mapToLong(Long::longValue).sum();
+    }
+
+    /**
+     * Measure how much a model's footprint grows per reset, playing a few turns between resets.
+     * @param model The model, with players
+     * @param resets The number of resets
+     * @return The average growth per reset in bytes; 0 when nothing is retained
+     */
+    public static double growthPerReset(GameModel model, int resets) {
+        long before = new GameFootprint(model).getTotal();
+        for (int reset = 0; reset < resets; reset++) {
+            String playerOne = model.getPlayerOne().getName();
+            String playerTwo = model.getPlayerTwo().getName();
+            model.reset();
+            model.createPlayers(playerOne, playerTwo);
+            model.playTurns(10, Policy.GREEDY);
+        }
+        return (double) (new GameFootprint(model).getTotal() - before) / resets;
+    }
+
+    /**
+     * Measure the heap retained per game by creating many and comparing the used heap before and after.
+     * Less exact than walking the model, as the collector does not promise a full collection, but independent of it.
+     * @param board The board
+     * @param games The number of games
+     * @return The retained bytes per game
+     */
+    public static double measureRetained(BoardDefinition board, int games) {
+        GameModel[] models = new GameModel[games];
+        long before = usedHeap();
+        for (int game = 0; game < games; game++) {
+            models[game] = new GameModel(board);
+            models[game].reset();
+            models[game].createPlayers("Player One", "Player Two");
+        }
+        long after = usedHeap();
+        Reference.reachabilityFence(models);
+        return (double) (after - before) / games;
+    }
+
+    /**
+     * Get the used heap after collecting garbage.
+     * @return The used heap in bytes
+     */
+    private static long usedHeap() {
+        Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+
+    /**
+     * Size an object and everything it reaches that is not shared or already counted.
+     * @param root The object, or null
+     * @return The bytes
+     */
+    private long deepSize(Object root) {
+        long total = 0;
+        ArrayDeque<Object> pending = new ArrayDeque<>();
+        if (root != null) {
+            pending.push(root);
+        }
+        while (!pending.isEmpty()) {
+            Object object = pending.pop();
+            if (isShared(object.getClass()) || !visited.add(object)) {
+                continue;
+            }
+            Class<?> type = object.getClass();
+            if (type.isArray()) {
+                int length = Array.getLength(object);
+                Class<?> component = type.getComponentType();
+                total += align(ARRAY_HEADER + (long) length * (component.isPrimitive() ? primitiveSize(component) : REFERENCE));
+                if (!component.isPrimitive()) {
+                    for (int i = 0; i < length; i++) {
+                        Object element = Array.get(object, i);
+                        if (element != null) {
+                            pending.push(element);
+                        }
+                    }
+                }
+            } else if (object instanceof String) {
+                String string = (String) object;
+                boolean latin1 = string.chars().allMatch(c -> c < 256);
+                total += shallowSize(type) + align(ARRAY_HEADER + (long) string.length() * (latin1 ? 1 : 2));
+            } else if (object instanceof Vector) {
+                Vector<?> vector = (Vector<?>) object;
+                total += shallowSize(type) + align(ARRAY_HEADER + (long) vector.capacity() * REFERENCE);
+                for (Object element : vector) {
+                    if (element != null) {
+                        pending.push(element);
+                    }
+                }
+            } else {
+                total += shallowSize(type);
+                if (type.getModule().isNamed()) {
+                    continue;
+                }
+                for (Class<?> c = type; c != Object.class; c = c.getSuperclass()) {
+                    for (Field field : c.getDeclaredFields()) {
+                        if (!Modifier.isStatic(field.getModifiers()) && !field.getType().isPrimitive()) {
+                            Object value = read(field, object);
+                            if (value != null) {
+                                pending.push(value);
+                            }
+                        }
+                    }
+                }
+            }
+        }
+        return total;
+    }
+
+    /**
+     * Is a type shared between games?
+     * @param type The type
+     * @return True if objects of the type are not counted
+     */
+    private static boolean isShared(Class<?> type) {
+        for (Class<?> shared : SHARED) {
+            if (shared.isAssignableFrom(type)) {
+                return true;
+            }
+        }
+        return type.getSimpleName().equals("ZobristKeys");
+    }
+
+    /**
+     * Read a field, or null if the JDK does not allow it.
+     * @param field The field
+     * @param object The object holding it
+     * @return The value
+     */
+    private static Object read(Field field, Object object) {
+        if (field.getDeclaringClass().getModule().isNamed()) {
+            return readJdk(field, object);
+        }
+        try {
+            field.setAccessible(true);
+            return field.get(object);
+        } catch (IllegalAccessException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Read a field of a JDK class that has a public way to reach it, or null.
+     * Observable's private Vector of observers is left empty, as GameModel keeps its observers in an array of its own,
+     * so it is rebuilt here as an empty Vector of the default capacity.
+     * @param field The field
+     * @param object The object holding it
+     * @return The value, or null
+     */
+    private static Object readJdk(Field field, Object object) {
+        if (field.getName().equals("obs") && object instanceof java.util.Observable) {
+            return new Vector<>();
+        }
+        return null;
+    }
+
+    /**
+     * Size an instance of a class from its fields, without anything it refers to.
+     * @param type The class
+     * @return The bytes
+     */
+    private static long shallowSize(Class<?> type) {
+        long size = HEADER;
+        for (Class<?> c = type; c != null; c = c.getSuperclass()) {
+            for (Field field : c.getDeclaredFields()) {
+                if (!Modifier.isStatic(field.getModifiers())) {
+                    size += field.getType().isPrimitive() ? primitiveSize(field.getType()) : REFERENCE;
+                }
+            }
+        }
+        return align(size);
+    }
+
+    /**
+     * Get the size of a primitive type.
+     * @param type The primitive type
+     * @return The bytes
+     */
+    private static int primitiveSize(Class<?> type) {
+        if (type == long.class || type == double.class) {
+            return 8;
+        } else if (type == int.class || type == float.class) {
+            return 4;
+        } else if (type == short.class || type == char.class) {
+            return 2;
+        }
+        return 1;
+    }
+
+    /**
+     * Round a size up to the 8 byte object alignment.
+     * @param size The size
+     * @return The aligned size
+     */
+    private static long align(long size) {
+        return (size + 7) & ~7L;
+    }
+
+    /**
+     * Ask the JVM whether references are compressed, assuming they are if it cannot say.
+     * @return True if references take 4 bytes
+     */
+    private static boolean compressedOops() {
+        try {
+            return Boolean.parseBoolean(ManagementFactory.getPlatformMXBean(com.sun.management.HotSpotDiagnosticMXBean.class)
+                    .getVMOption("UseCompressedOops").getValue());
+        } catch (RuntimeException | LinkageError e) {
+            return true;
+        }
+    }
+
+    /**
+     * Describe the footprint part by part.
+     */
+    @Override
+    public String toString() {
+        StringBuilder text = new StringBuilder();
+        parts.forEach((part, bytes) -> text.append(String.format("%-10s %,8d bytes%n", part, bytes)));
+        return text.append(String.format("%-10s %,8d bytes", "total", getTotal())).toString();
+    }
+
+    /**
+     * Report the footprint of a game on the standard board, its growth per reset, and the heap retained per game.
+     */
+    public static void main(String[] args) {
+        int games = args.length > 0 ? Integer.parseInt(args[0]) : 10_000;
+        BoardDefinition board = BoardDefinition.standard();
+        GameModel model = new GameModel(board);
+        model.reset();
+        model.createPlayers("Player One", "Player Two");
+        System.out.println(new GameFootprint(model));
+        System.out.printf("growth per reset: %.1f bytes%n", growthPerReset(model, 1000));
+        System.out.printf("retained per game: %,.0f bytes (measured over %,d games)%n", measureRetained(board, games), games);
+    }
+}
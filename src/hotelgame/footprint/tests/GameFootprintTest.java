@@ -0,0 +1,76 @@
+package hotelgame.footprint.tests;
+
+import hotelgame.footprint.GameFootprint;
+import hotelgame.model.GameModel;
+import hotelgame.model.Policy;
+import org.junit.jupiter.api.Test;
+
+import java.util.Observer;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class GameFootprintTest {
+
+    /**
+     * The most bytes a game on the standard board may keep alive, set with -Dhotelgame.footprint.gameBytes.
+     */
+    private static final long GAME_BYTES = Long.getLong("hotelgame.footprint.gameBytes", 8192);
+
+    /**
+     * The most bytes a game may grow by per reset, set with -Dhotelgame.footprint.resetBytes.
+     */
+    private static final long RESET_BYTES = Long.getLong("hotelgame.footprint.resetBytes", 0);
+
+    /**
+     * Create a game on the standard board with players and a few turns played.
+     */
+    private static GameModel playedGame() {
+        GameModel model = new GameModel();
+        model.reset();
+        model.createPlayers("Player One", "Player Two");
+        model.playTurns(20, Policy.GREEDY);
+        return model;
+    }
+
+    /**
+     * Measure a played game on the standard board
+     * Assert every part is counted and the total is within the budget
+     */
+    @Test
+    void testGameWithinBudget() {
+        GameFootprint footprint = new GameFootprint(playedGame());
+        for (String part : new String[] {"model", "tiles", "players", "observers", "dice"}) {
+            assertTrue(footprint.getPart(part) > 0, part);
+        }
+        assertTrue(footprint.getTotal() <= GAME_BYTES, footprint.toString());
+    }
+
+    /**
+     * Reset a game observed by a view 500 times, playing a few turns each time
+     * Assert it grows by no more than the budget per reset
+     */
+    @Test
+    void testResetGrowthWithinBudget() {
+        GameModel model = playedGame();
+        model.addObserver((observable, arg) -> { });
+        double growth = GameFootprint.growthPerReset(model, 500);
+        assertTrue(growth <= RESET_BYTES, "grew " + growth + " bytes per reset");
+    }
+
+    /**
+     * Add an observer holding a megabyte to a game
+     * Assert only the observer list is counted, not the observer
+     */
+    @Test
+    void testObserversAreNotCounted() {
+        GameModel model = playedGame();
+        long before = new GameFootprint(model).getTotal();
+        byte[] held = new byte[1 << 20];
+        Observer observer = (observable, arg) -> held[0]++;
+        model.addObserver(observer);
+
+        GameFootprint footprint = new GameFootprint(model);
+        assertTrue(footprint.getTotal() - before < 128, footprint.toString());
+        assertTrue(footprint.getPart("observers") > 0);
+    }
+}
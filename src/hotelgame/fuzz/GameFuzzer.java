@@ -0,0 +1,466 @@
+package hotelgame.fuzz;
+
+import hotelgame.controller.GameController;
+import hotelgame.model.BoardDefinition;
+import hotelgame.model.DiceDistribution;
+import hotelgame.model.DiceEngine;
+import hotelgame.model.GameAction;
+import hotelgame.model.GameModel;
+import hotelgame.model.GameSnapshot;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
+
+/**
+ * Fires random sequences of legal and illegal actions at a GameModel, or at a GameController without a view,
+ * and checks the invariants after every step.
+ * A run is fully determined by its seed, which seeds both the action sequence and the dice, so any failure
+ * can be replayed and shrunk to a minimal sequence that still fails the same way.
+ */
+public class GameFuzzer {
+
+    /**
+     * The board the games are played on.
+     */
+    private final BoardDefinition board;
+
+    /**
+     * Whether actions go through a GameController rather than straight to the model.
+     */
+    private final boolean throughController;
+
+    /**
+     * The number of actions in each generated sequence.
+     */
+    private final int length;
+
+    /**
+     * The invariant checked after every step, returning null or "kind: detail".
+     */
+    private final Function<GameModel, String> invariant;
+
+    /**
+     * Create a fuzzer checking GameInvariants.
+     * @param board The board definition
+     * @param throughController Whether to drive a GameController rather than the model
+     * @param length The number of actions in each sequence
+     */
+    public GameFuzzer(BoardDefinition board, boolean throughController, int length) {
+        this(board, throughController, length, GameInvariants::check);
+    }
+
+    /**
+     * Create a fuzzer checking an invariant.
+     * @param board The board definition
+     * @param throughController Whether to drive a GameController rather than the model
+     * @param length The number of actions in each sequence
+     * @param invariant Returns null if the model is valid, else "kind: detail"
+     */
+    public GameFuzzer(BoardDefinition board, boolean throughController, int length, Function<GameModel, String> invariant) {
+        this.board = board;
+        this.throughController = throughController;
+        this.length = length;
+        this.invariant = invariant;
+    }
+
+    /**
+     * Generate the action sequence of a run.
+     * Rolls include cheat amounts outside the dice range and ratings include impossible star counts.
+     * @param seed The seed of the run
+     * @return The encoded actions (see GameAction)
+     */
+    public int[] generate(long seed) {
+        SplittableRandom random = new SplittableRandom(seed);
+        int[] actions = new int[length];
+        for (int i = 0; i < length; i++) {
+            int choice = random.nextInt(100);
+            if (choice < 35) {
+                int amount = random.nextBoolean() ? 0 : random.nextInt(-2, board.getDiceSides() + 3);
+                actions[i] = GameAction.of(GameAction.ROLL, amount);
+            } else if (choice < 55) {
+                actions[i] = GameAction.of(GameAction.BUY, 0);
+            } else if (choice < 72) {
+                actions[i] = GameAction.of(GameAction.RATE, random.nextInt(-1, 8));
+            } else if (choice < 99) {
+                actions[i] = GameAction.of(GameAction.END_TURN, 0);
+            } else {
+                actions[i] = GameAction.of(GameAction.RESET, 0);
+            }
+        }
+        return actions;
+    }
+
+    /**
+     * Generate and execute a run.
+     * @param seed The seed of the run
+     * @return null if every step passed, else the failure
+     */
+    public Failure run(long seed) {
+        return execute(seed, generate(seed));
+    }
+
+    /**
+     * Execute an action sequence, checking the invariant after every step.
+     * When driving the model, a rejected action must also leave the state unchanged.
+     * @param seed The seed for the dice
+     * @param actions The encoded actions
+     * @return null if every step passed, else the failure
+     */
+    public Failure execute(long seed, int[] actions) {
+        GameController controller = throughController ? new GameController(board) : null;
+        GameModel model = throughController ? controller.getModel() : new GameModel(board);
+        model.setDice(new DiceEngine(DiceDistribution.uniform(board.getDiceSides()), seed));
+        GameSnapshot before = new GameSnapshot();
+        GameSnapshot after = new GameSnapshot();
+
+        int step = -1;
+        try {
+            if (throughController) {
+                controller.start();
+            } else {
+                model.reset();
+                model.createPlayers("one", "two");
+            }
+            String violation = invariant.apply(model);
+            if (violation != null) {
+                return new Failure(seed, actions, -1, violation);
+            }
+
+            for (step = 0; step < actions.length; step++) {
+                if (throughController) {
+                    perform(controller, actions[step]);
+                } else {
+                    before.capture(model);
+                    if (!GameAction.apply(model, actions[step])) {
+                        after.capture(model);
+                        if (!after.equals(before)) {
+                            return new Failure(seed, actions, step, "rejected action: " + GameAction.toString(actions[step]) + " changed the state");
+                        }
+                    }
+                }
+                violation = invariant.apply(model);
+                if (violation != null) {
+                    return new Failure(seed, actions, step, violation);
+                }
+            }
+            return null;
+        } catch (RuntimeException | AssertionError e) {
+            return new Failure(seed, actions, step, e.getClass().getName() + ": " + e.getMessage());
+        }
+    }
+
+    /**
+     * Shrink a failing sequence to one where removing any single action, or setting any argument to 0,
+     * no longer fails the same way.
+     * @param failure The failure to shrink
+     * @return The shrunk failure
+     */
+    public Failure shrink(Failure failure) {
+        Failure smallest = truncate(failure);
+
+        // Remove chunks of actions, halving the chunk size whenever nothing more can be removed
+        int chunk = Math.max(1, smallest.getActions().length / 2);
+        while (true) {
+            boolean removed = false;
+            int start = 0;
+            while (start < smallest.getActions().length) {
+                int[] actions = smallest.getActions();
+                int end = Math.min(actions.length, start + chunk);
+                int[] candidate = new int[actions.length - (end - start)];
+                System.arraycopy(actions, 0, candidate, 0, start);
+                System.arraycopy(actions, end, candidate, start, actions.length - end);
+
+                Failure result = execute(failure.getSeed(), candidate);
+                if (result != null && result.getKind().equals(failure.getKind())) {
+                    smallest = truncate(result);
+                    removed = true;
+                } else {
+                    start += chunk;
+                }
+            }
+            if (!removed) {
+                if (chunk == 1) {
+                    break;
+                }
+                chunk /= 2;
+            }
+        }
+
+        // Simplify arguments
+        for (int i = 0; i < smallest.getActions().length; i++) {
+            int action = smallest.getActions()[i];
+            if (GameAction.argument(action) != 0) {
+                int[] candidate = smallest.getActions().clone();
+                candidate[i] = GameAction.of(GameAction.opcode(action), 0);
+                Failure result = execute(failure.getSeed(), candidate);
+                if (result != null && result.getKind().equals(failure.getKind())) {
+                    smallest = result;
+                }
+            }
+        }
+        return smallest;
+    }
+
+    /**
+     * Drop the actions after the failing step.
+     * @param failure The failure
+     * @return A failure with the same step and message and no actions after the step
+     */
+    private static Failure truncate(Failure failure) {
+        int[] actions = Arrays.copyOf(failure.getActions(), failure.getStep() + 1);
+        return new Failure(failure.getSeed(), actions, failure.getStep(), failure.getMessage());
+    }
+
+    /**
+     * Execute runs for consecutive seeds on all cores.
+     * @param firstSeed The seed of the first run
+     * @param runs The number of runs
+     * @return The report, with the failure of the lowest seed shrunk
+     */
+    public Report fuzz(long firstSeed, int runs) {
+        LongAdder steps = new LongAdder();
+        List<Failure> failures = LongStream.range(firstSeed, firstSeed + runs).parallel()
+                .mapToObj(seed -> {
+                    Failure failure = run(seed);
+                    steps.add(failure == null ? length : failure.getStep() + 1);
+                    return failure;
+                })
+                .filter(failure -> failure != null)
+                .collect(Collectors.toList());
+
+        Failure shrunk = failures.isEmpty() ? null : shrink(failures.get(0));
+        return new Report(runs, steps.sum(), failures, shrunk);
+    }
+
+    /**
+     * Perform an encoded action through a controller, the way the ActionBar buttons would.
+     * @param controller The controller
+     * @param action The encoded action
+     */
+    private static void perform(GameController controller, int action) {
+        switch (GameAction.opcode(action)) {
+            case GameAction.ROLL:
+                controller.rollTurn(GameAction.argument(action));
+                break;
+            case GameAction.BUY:
+                controller.buyHotel();
+                break;
+            case GameAction.RATE:
+                controller.increaseRating(GameAction.argument(action));
+                break;
+            case GameAction.END_TURN:
+                controller.endTurn();
+                break;
+            case GameAction.RESET:
+                controller.start();
+                break;
+            default:
+                throw new IllegalArgumentException("Unknown action " + action);
+        }
+    }
+
+    /**
+     * Fuzz for a number of seconds and print the throughput and any failures.
+     * Arguments: [seconds] [model|controller] [first seed] [sequence length]
+     */
+    public static void main(String[] args) {
+        int seconds = args.length > 0 ? Integer.parseInt(args[0]) : 60;
+        boolean throughController = args.length > 1 && args[1].equals("controller");
+        long seed = args.length > 2 ? Long.parseLong(args[2]) : System.nanoTime();
+        int length = args.length > 3 ? Integer.parseInt(args[3]) : 200;
+
+        GameFuzzer fuzzer = new GameFuzzer(BoardDefinition.standard(), throughController, length);
+        System.out.printf("Fuzzing the %s from seed %d for %d s on %d cores%n",
+                throughController ? "controller" : "model", seed, seconds, Runtime.getRuntime().availableProcessors());
+
+        long start = System.nanoTime();
+        long deadline = start + seconds * 1_000_000_000L;
+        long steps = 0;
+        long runs = 0;
+        while (System.nanoTime() < deadline) {
+            Report report = fuzzer.fuzz(seed + runs, 20_000);
+            runs += report.getRuns();
+            steps += report.getSteps();
+            if (report.getShrunk() != null) {
+                System.out.println(report.getFailures().size() + " failing runs, shrunk reproduction:");
+                System.out.println(report.getShrunk());
+                return;
+            }
+        }
+        double minutes = (System.nanoTime() - start) / 60e9;
+        System.out.printf("%d runs, %d steps, %.0f steps per minute, no failures%n", runs, steps, steps / minutes);
+    }
+
+    /**
+     * A failed run.
+     */
+    public static class Failure {
+
+        /**
+         * The seed of the run.
+         */
+        private final long seed;
+
+        /**
+         * The executed actions.
+         */
+        private final int[] actions;
+
+        /**
+         * The step that failed, or -1 if the game failed before the first action.
+         */
+        private final int step;
+
+        /**
+         * The violated invariant or thrown exception, as "kind: detail".
+         */
+        private final String message;
+
+        /**
+         * Record a failure.
+         * @param seed The seed of the run
+         * @param actions The executed actions
+         * @param step The failing step
+         * @param message The violation or exception
+         */
+        Failure(long seed, int[] actions, int step, String message) {
+            this.seed = seed;
+            this.actions = actions;
+            this.step = step;
+            this.message = message;
+        }
+
+        /**
+         * Get the seed of the run.
+         * @return The seed
+         */
+        public long getSeed() {
+            return seed;
+        }
+
+        /**
+         * Get the executed actions.
+         * @return The encoded actions
+         */
+        public int[] getActions() {
+            return actions;
+        }
+
+        /**
+         * Get the step that failed.
+         * @return The action index
+         */
+        public int getStep() {
+            return step;
+        }
+
+        /**
+         * Get the violation or exception.
+         * @return The message
+         */
+        public String getMessage() {
+            return message;
+        }
+
+        /**
+         * Get the kind of failure, the part of the message before the first colon.
+         * @return The kind
+         */
+        public String getKind() {
+            int colon = message.indexOf(':');
+            return colon < 0 ? message : message.substring(0, colon);
+        }
+
+        /**
+         * Describe the failure with the actions up to the failing step, so it can be reproduced.
+         */
+        @Override
+        public String toString() {
+            StringBuilder builder = new StringBuilder();
+            builder.append("seed ").append(seed).append(", step ").append(step).append(": ").append(message).append('\n');
+            for (int i = 0; i <= step && i < actions.length; i++) {
+                builder.append("  ").append(i).append(' ').append(GameAction.toString(actions[i])).append('\n');
+            }
+            return builder.toString();
+        }
+    }
+
+    /**
+     * The results of a batch of runs.
+     */
+    public static class Report {
+
+        /**
+         * The number of runs.
+         */
+        private final int runs;
+
+        /**
+         * The number of steps executed.
+         */
+        private final long steps;
+
+        /**
+         * The failed runs, in seed order.
+         */
+        private final List<Failure> failures;
+
+        /**
+         * The shrunk failure of the lowest failing seed, or null if every run passed.
+         */
+        private final Failure shrunk;
+
+        /**
+         * Record a report.
+         * @param runs The number of runs
+         * @param steps The number of steps
+         * @param failures The failed runs
+         * @param shrunk The shrunk failure
+         */
+        Report(int runs, long steps, List<Failure> failures, Failure shrunk) {
+            this.runs = runs;
+            this.steps = steps;
+            this.failures = Collections.unmodifiableList(new ArrayList<>(failures));
+            this.shrunk = shrunk;
+        }
+
+        /**
+         * Get the number of runs.
+         * @return The run count
+         */
+        public int getRuns() {
+            return runs;
+        }
+
+        /**
+         * Get the number of steps executed.
+         * @return The step count
+         */
+        public long getSteps() {
+            return steps;
+        }
+
+        /**
+         * Get the failed runs.
+         * @return The failures, in seed order
+         */
+        public List<Failure> getFailures() {
+            return failures;
+        }
+
+        /**
+         * Get the shrunk failure of the lowest failing seed.
+         * @return The failure, or null if every run passed
+         */
+        public Failure getShrunk() {
+            return shrunk;
+        }
+    }
+}
@@ -0,0 +1,82 @@
+package hotelgame.fuzz;
+
+import hotelgame.model.BoardDefinition;
+import hotelgame.model.GameModel;
+import hotelgame.model.Hotel;
+import hotelgame.model.Player;
+
+/**
+ * Checks the invariants every game state must satisfy.
+ * Violations are reported as "kind: detail" so failures of the same kind can be matched while shrinking.
+ */
+public final class GameInvariants {
+
+    private GameInvariants() {
+    }
+
+    /**
+     * Check a model.
+     * @param model The model, which may not have players yet
+     * @return null if every invariant holds, else a description of the first violation
+     */
+    public static String check(GameModel model) {
+        Player playerOne = model.getPlayerOne();
+        Player playerTwo = model.getPlayerTwo();
+        Hotel[] tiles = model.getTiles();
+        if (playerOne == null || tiles == null) {
+            return null;
+        }
+        BoardDefinition board = model.getBoard();
+
+        if (!(playerOne.getMoney() >= 0) || !(playerTwo.getMoney() >= 0)) {
+            return "money: " + playerOne.getMoney() + " and " + playerTwo.getMoney();
+        }
+        if (model.getCurrentTurn() != playerOne && model.getCurrentTurn() != playerTwo) {
+            return "turn: the current player is not playing";
+        }
+        for (Player player : new Player[] {playerOne, playerTwo}) {
+            if (player.getPosition() < 0 || player.getPosition() >= board.getTileCount()) {
+                return "position: " + player.getName() + " is at " + player.getPosition();
+            }
+        }
+        if (tiles.length != board.getTileCount()) {
+            return "tiles: " + tiles.length + " tiles on a board of " + board.getTileCount();
+        }
+
+        int[] owned = new int[board.getGroupCount() * 2];
+        for (int position = 0; position < tiles.length; position++) {
+            Hotel hotel = tiles[position];
+            if ((hotel != null) != board.isHotel(position)) {
+                return "tiles: tile " + position + " does not match the board";
+            } else if (hotel == null) {
+                continue;
+            }
+            if (hotel.getStarRating() < 0 || hotel.getStarRating() > hotel.getMaxRating()) {
+                return "rating: " + hotel.getName() + " is rated " + hotel.getStarRating();
+            }
+            if (hotel.getOwner() == null) {
+                if (hotel.getStarRating() != 0) {
+                    return "ownership: unowned " + hotel.getName() + " is rated " + hotel.getStarRating();
+                }
+            } else if (hotel.getOwner() == playerOne || hotel.getOwner() == playerTwo) {
+                owned[board.getGroup(position) * 2 + (hotel.getOwner() == playerOne ? 0 : 1)]++;
+            } else {
+                return "ownership: " + hotel.getName() + " is owned by " + hotel.getOwner().getName() + ", who is not playing";
+            }
+        }
+
+        for (int group = 0; group < board.getGroupCount(); group++) {
+            for (int player = 0; player < 2; player++) {
+                if (owned[group * 2 + player] != model.getGroupOwned(group, player)) {
+                    return "group index: group " + board.getGroupName(group) + " player " + (player + 1) + " owns "
+                            + owned[group * 2 + player] + " but the model counts " + model.getGroupOwned(group, player);
+                }
+            }
+        }
+
+        if (model.getHash() != model.computeHash()) {
+            return "hash: incremental " + Long.toHexString(model.getHash()) + " but recomputed " + Long.toHexString(model.computeHash());
+        }
+        return null;
+    }
+}
@@ -0,0 +1,89 @@
+package hotelgame.fuzz.tests;
+
+import hotelgame.fuzz.GameFuzzer;
+import hotelgame.model.BoardDefinition;
+import hotelgame.model.GameAction;
+import hotelgame.model.GameModel;
+import hotelgame.model.Hotel;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class GameFuzzerTest {
+
+    /**
+     * Fuzz the model and the controller for a few thousand runs
+     * Assert no run breaks an invariant
+     */
+    @Test
+    void testNoFailures() {
+        for (boolean throughController : new boolean[] {false, true}) {
+            GameFuzzer fuzzer = new GameFuzzer(BoardDefinition.standard(), throughController, 200);
+            GameFuzzer.Report report = fuzzer.fuzz(1, 2000);
+            assertEquals(2000, report.getRuns());
+            assertNull(report.getShrunk(), () -> String.valueOf(report.getShrunk()));
+        }
+    }
+
+    /**
+     * Execute the same seed twice
+     * Assert both runs fail at the same step the same way
+     */
+    @Test
+    void testReproducible() {
+        GameFuzzer fuzzer = new GameFuzzer(BoardDefinition.standard(), false, 500, GameFuzzerTest::ownsTwoHotels);
+        GameFuzzer.Failure first = fuzzer.run(42);
+        GameFuzzer.Failure second = fuzzer.run(42);
+        assertNotNull(first);
+        assertEquals(first.getStep(), second.getStep());
+        assertEquals(first.getMessage(), second.getMessage());
+    }
+
+    /**
+     * Fuzz with an invariant that fails once player one owns two hotels
+     * Shrink the failure
+     * Assert the shrunk sequence still fails and needs every remaining action
+     */
+    @Test
+    void testShrink() {
+        GameFuzzer fuzzer = new GameFuzzer(BoardDefinition.standard(), false, 500, GameFuzzerTest::ownsTwoHotels);
+        GameFuzzer.Report report = fuzzer.fuzz(1, 50);
+        GameFuzzer.Failure shrunk = report.getShrunk();
+        assertNotNull(shrunk);
+        assertTrue(shrunk.getActions().length <= report.getFailures().get(0).getStep() + 1);
+        assertEquals("owns two", shrunk.getKind());
+        assertNotNull(fuzzer.execute(shrunk.getSeed(), shrunk.getActions()));
+
+        int buys = 0;
+        for (int action : shrunk.getActions()) {
+            if (GameAction.opcode(action) == GameAction.BUY) {
+                buys++;
+            }
+        }
+        assertEquals(2, buys);
+
+        for (int i = 0; i < shrunk.getActions().length; i++) {
+            int[] without = new int[shrunk.getActions().length - 1];
+            System.arraycopy(shrunk.getActions(), 0, without, 0, i);
+            System.arraycopy(shrunk.getActions(), i + 1, without, i, without.length - i);
+            GameFuzzer.Failure result = fuzzer.execute(shrunk.getSeed(), without);
+            assertTrue(result == null || !result.getKind().equals("owns two"));
+        }
+    }
+
+    /**
+     * An invariant that fails when player one owns two hotels.
+     */
+    private static String ownsTwoHotels(GameModel model) {
+        if (model.getPlayerOne() == null) {
+            return null;
+        }
+        int owned = 0;
+        for (Hotel hotel : model.getTiles()) {
+            if (hotel != null && hotel.getOwner() == model.getPlayerOne()) {
+                owned++;
+            }
+        }
+        return owned >= 2 ? "owns two: " + owned : null;
+    }
+}
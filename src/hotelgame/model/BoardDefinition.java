@@ -0,0 +1,336 @@
+package hotelgame.model;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+
+/**
+ * The immutable layout of a board: its tiles, hotel groups and prices, the die and the starting money.
+ * A definition holds no game state, so one instance is shared by every GameModel using it.
+ *
+ * Board definition files are plain text with one entry per line. Blank lines and lines starting with # are ignored.
+ *  dice 12            the number of sides of the die (default 12)
+ *  money 2000         the money each player starts with (default 2000)
+ *  blank              a blank tile
+ *  hotel A 50         a hotel tile in group A costing 50; hotels are numbered in order within their group
+ * The first tile is the GO tile and must be blank.
+ */
+public class BoardDefinition {
+
+    /**
+     * The most sides a die can have, so a roll fits the unsigned byte it is saved in.
+     */
+    public static final int MAX_DICE_SIDES = 255;
+
+    /**
+     * The standard 40 tile board with 8 groups of 3 hotels.
+     */
+    private static final BoardDefinition STANDARD = generate(8);
+
+    /**
+     * The number of sides of the die.
+     */
+    private final int diceSides;
+
+    /**
+     * The money each player starts with.
+     */
+    private final double startingMoney;
+
+    /**
+     * The name of each group.
+     */
+    private final String[] groupNames;
+
+    /**
+     * The number of hotels in each group.
+     */
+    private final int[] groupSizes;
+
+    /**
+     * The group index of each tile, or -1 for blank tiles.
+     */
+    private final int[] tileGroups;
+
+    /**
+     * The hotel number of each tile within its group, or 0 for blank tiles.
+     */
+    private final int[] tileNumbers;
+
+    /**
+     * The hotel price of each tile, or 0 for blank tiles.
+     */
+    private final int[] tilePrices;
+
+    /**
+     * The keys of the Zobrist hash of games on this board.
+     */
+    private final ZobristKeys zobristKeys;
+
+    /**
+     * Create a board definition.
+     * Pre: all tile arrays have the same length, groups are numbered from 0, the first tile is blank
+     * @param diceSides The number of sides of the die
+     * @param startingMoney The money each player starts with
+     * @param groupNames The name of each group
+     * @param tileGroups The group index of each tile, or -1 for blank tiles
+     * @param tilePrices The hotel price of each tile, or 0 for blank tiles
+     */
+    private BoardDefinition(int diceSides, double startingMoney, String[] groupNames, int[] tileGroups, int[] tilePrices) {
+        assert diceSides > 0 && diceSides <= MAX_DICE_SIDES && startingMoney > 0 && tileGroups.length == tilePrices.length && tileGroups[0] == -1;
+        this.diceSides = diceSides;
+        this.startingMoney = startingMoney;
+        this.groupNames = groupNames;
+        this.tileGroups = tileGroups;
+        this.tilePrices = tilePrices;
+        this.groupSizes = new int[groupNames.length];
+        this.tileNumbers = new int[tileGroups.length];
+        for (int position = 0; position < tileGroups.length; position++) {
+            if (tileGroups[position] >= 0) {
+                tileNumbers[position] = ++groupSizes[tileGroups[position]];
+            }
+        }
+        this.zobristKeys = new ZobristKeys(tileGroups.length);
+    }
+
+    /**
+     * Get the standard 40 tile board.
+     * @return The shared standard board
+     */
+    public static BoardDefinition standard() {
+        return STANDARD;
+    }
+
+    /**
+     * Generate a board following the standard pattern, for any number of groups.
+     * Every group takes 5 tiles: a blank, a hotel, a blank and two hotels.
+     * Hotels in group n (from 0) cost (n + 1) * 50, and the last hotel of each group costs 20 more.
+     * Groups are named A to Z, then AA, AB and so on.
+     * Pre: groupCount > 0
+     * @param groupCount The number of groups
+     * @return The generated board
+     */
+    public static BoardDefinition generate(int groupCount) {
+        assert groupCount > 0;
+        String[] groupNames = new String[groupCount];
+        int[] tileGroups = new int[groupCount * 5];
+        int[] tilePrices = new int[groupCount * 5];
+        for (int group = 0; group < groupCount; group++) {
+            groupNames[group] = groupName(group);
+            for (int tileNumber = 0; tileNumber < 5; tileNumber++) {
+                int position = group * 5 + tileNumber;
+                if (tileNumber == 0 || tileNumber == 2) {
+                    tileGroups[position] = -1;
+                } else {
+                    tileGroups[position] = group;
+                    tilePrices[position] = (group + 1) * 50 + (tileNumber == 4 ? 20 : 0);
+                }
+            }
+        }
+        return new BoardDefinition(12, 2000, groupNames, tileGroups, tilePrices);
+    }
+
+    /**
+     * Load a board definition file.
+     * @param path The path of the file
+     * @return The loaded board
+     * @throws IOException If the file cannot be read
+     * @throws IllegalArgumentException If the file is not a valid board definition
+     */
+    public static BoardDefinition load(Path path) throws IOException {
+        try (Reader reader = Files.newBufferedReader(path, StandardCharsets.UTF_8)) {
+            return parse(reader);
+        }
+    }
+
+    /**
+     * Parse a board definition.
+     * @param reader The definition text
+     * @return The parsed board
+     * @throws IOException If the text cannot be read
+     * @throws IllegalArgumentException If the text is not a valid board definition
+     */
+    public static BoardDefinition parse(Reader reader) throws IOException {
+        BufferedReader lines = new BufferedReader(reader);
+        int diceSides = 12;
+        double startingMoney = 2000;
+        HashMap<String, Integer> groupIndexes = new HashMap<>();
+        ArrayList<String> groupNames = new ArrayList<>();
+        int[] tileGroups = new int[64];
+        int[] tilePrices = new int[64];
+        int tileCount = 0;
+
+        String line;
+        int lineNumber = 0;
+        while ((line = lines.readLine()) != null) {
+            lineNumber++;
+            line = line.trim();
+            if (line.isEmpty() || line.startsWith("#")) {
+                continue;
+            }
+            String[] parts = line.split("\\s+");
+            try {
+                if (parts[0].equals("dice") && parts.length == 2) {
+                    diceSides = Integer.parseInt(parts[1]);
+                } else if (parts[0].equals("money") && parts.length == 2) {
+                    startingMoney = Double.parseDouble(parts[1]);
+                } else if (parts[0].equals("blank") && parts.length == 1) {
+                    if (tileCount == tileGroups.length) {
+                        tileGroups = Arrays.copyOf(tileGroups, tileCount * 2);
+                        tilePrices = Arrays.copyOf(tilePrices, tileCount * 2);
+                    }
+                    tileGroups[tileCount] = -1;
+                    tilePrices[tileCount] = 0;
+                    tileCount++;
+                } else if (parts[0].equals("hotel") && parts.length == 3) {
+                    int price = Integer.parseInt(parts[2]);
+                    if (price <= 0) {
+                        throw new IllegalArgumentException("Line " + lineNumber + ": hotel price must be positive");
+                    }
+                    Integer group = groupIndexes.get(parts[1]);
+                    if (group == null) {
+                        group = groupNames.size();
+                        groupIndexes.put(parts[1], group);
+                        groupNames.add(parts[1]);
+                    }
+                    if (tileCount == tileGroups.length) {
+                        tileGroups = Arrays.copyOf(tileGroups, tileCount * 2);
+                        tilePrices = Arrays.copyOf(tilePrices, tileCount * 2);
+                    }
+                    tileGroups[tileCount] = group;
+                    tilePrices[tileCount] = price;
+                    tileCount++;
+                } else {
+                    throw new IllegalArgumentException("Line " + lineNumber + ": unknown entry '" + line + "'");
+                }
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("Line " + lineNumber + ": invalid number in '" + line + "'", e);
+            }
+        }
+
+        if (tileCount < 4) {
+            throw new IllegalArgumentException("A board needs at least 4 tiles");
+        } else if (tileGroups[0] != -1) {
+            throw new IllegalArgumentException("The first tile is the GO tile and must be blank");
+        } else if (diceSides < 1 || startingMoney <= 0) {
+            throw new IllegalArgumentException("The dice and starting money must be positive");
+        } else if (diceSides > MAX_DICE_SIDES) {
+            throw new IllegalArgumentException("The die can have at most " + MAX_DICE_SIDES + " sides");
+        }
+        return new BoardDefinition(diceSides, startingMoney, groupNames.toArray(new String[0]),
+                Arrays.copyOf(tileGroups, tileCount), Arrays.copyOf(tilePrices, tileCount));
+    }
+
+    /**
+     * Get the name of a generated group: A to Z, then AA, AB and so on.
+     * @param group The group index
+     * @return The group name
+     */
+    private static String groupName(int group) {
+        StringBuilder name = new StringBuilder();
+        for (int n = group + 1; n > 0; n = (n - 1) / 26) {
+            name.insert(0, (char) ('A' + (n - 1) % 26));
+        }
+        return name.toString();
+    }
+
+    /**
+     * Get the number of tiles on the board.
+     * @return The tile count
+     */
+    public int getTileCount() {
+        return tileGroups.length;
+    }
+
+    /**
+     * Get the number of sides of the die.
+     * @return The highest possible roll
+     */
+    public int getDiceSides() {
+        return diceSides;
+    }
+
+    /**
+     * Get the money each player starts with.
+     * @return The starting money
+     */
+    public double getStartingMoney() {
+        return startingMoney;
+    }
+
+    /**
+     * Get the number of hotel groups.
+     * @return The group count
+     */
+    public int getGroupCount() {
+        return groupNames.length;
+    }
+
+    /**
+     * Get the name of a group.
+     * @param group The group index
+     * @return The group name
+     */
+    public String getGroupName(int group) {
+        return groupNames[group];
+    }
+
+    /**
+     * Get the number of hotels in a group.
+     * @param group The group index
+     * @return The group size
+     */
+    public int getGroupSize(int group) {
+        return groupSizes[group];
+    }
+
+    /**
+     * Is there a hotel on a tile?
+     * @param position The tile position
+     * @return True if the tile has a hotel
+     */
+    public boolean isHotel(int position) {
+        return tileGroups[position] >= 0;
+    }
+
+    /**
+     * Get the group of a tile's hotel.
+     * @param position The tile position
+     * @return The group index, or -1 for blank tiles
+     */
+    public int getGroup(int position) {
+        return tileGroups[position];
+    }
+
+    /**
+     * Get the number of a tile's hotel within its group.
+     * @param position The tile position
+     * @return The hotel number (from 1), or 0 for blank tiles
+     */
+    public int getNumber(int position) {
+        return tileNumbers[position];
+    }
+
+    /**
+     * Get the price of a tile's hotel.
+     * @param position The tile position
+     * @return The hotel price, or 0 for blank tiles
+     */
+    public int getPrice(int position) {
+        return tilePrices[position];
+    }
+
+    /**
+     * Get the keys of the Zobrist hash of games on this board.
+     * @return The keys
+     */
+    ZobristKeys getZobristKeys() {
+        return zobristKeys;
+    }
+}
@@ -0,0 +1,226 @@
+package hotelgame.model;
+
+import java.util.random.RandomGenerator;
+
+/**
+ * An immutable probability distribution of dice rolls, sampled in constant time with the alias method.
+ * A roll is encoded as its total, with the DOUBLES bit set when two dice showed the same face.
+ */
+public class DiceDistribution {
+
+    /**
+     * Bit set on an encoded roll when two dice showed the same face.
+     */
+    public static final int DOUBLES = 1 << 16;
+
+    /**
+     * The encoded roll of each outcome.
+     */
+    private final int[] outcomes;
+
+    /**
+     * The probability of keeping each outcome rather than its alias.
+     */
+    private final double[] keep;
+
+    /**
+     * The alias outcome of each outcome.
+     */
+    private final int[] alias;
+
+    /**
+     * Whether all outcomes are equally likely, so sampling needs no alias lookup.
+     */
+    private final boolean uniform;
+
+    /**
+     * The highest possible total.
+     */
+    private final int maxRoll;
+
+    /**
+     * Build an alias table (Vose's method).
+     * Pre: outcomes and weights have the same length, weights are >= 0 and not all 0
+     * @param outcomes The encoded roll of each outcome
+     * @param weights The relative weight of each outcome
+     * @param uniform Whether all weights are equal
+     */
+    private DiceDistribution(int[] outcomes, double[] weights, boolean uniform) {
+        assert outcomes.length == weights.length && outcomes.length > 0;
+        int n = outcomes.length;
+        this.outcomes = outcomes;
+        this.keep = new double[n];
+        this.alias = new int[n];
+        this.uniform = uniform;
+
+        int max = 0;
+        double total = 0;
+        for (int i = 0; i < n; i++) {
+            assert weights[i] >= 0;
+            total += weights[i];
+            if (weights[i] > 0) {
+                max = Math.max(max, total(outcomes[i]));
+            }
+        }
+        assert total > 0;
+        this.maxRoll = max;
+
+        double[] scaled = new double[n];
+        int[] small = new int[n];
+        int[] large = new int[n];
+        int smallCount = 0;
+        int largeCount = 0;
+        for (int i = 0; i < n; i++) {
+            scaled[i] = weights[i] * n / total;
+            if (scaled[i] < 1) {
+                small[smallCount++] = i;
+            } else {
+                large[largeCount++] = i;
+            }
+        }
+        while (smallCount > 0 && largeCount > 0) {
+            int less = small[--smallCount];
+            int more = large[--largeCount];
+            keep[less] = scaled[less];
+            alias[less] = more;
+            scaled[more] = (scaled[more] + scaled[less]) - 1;
+            if (scaled[more] < 1) {
+                small[smallCount++] = more;
+            } else {
+                large[largeCount++] = more;
+            }
+        }
+        // Whatever is left over is 1 up to rounding error
+        while (largeCount > 0) {
+            int i = large[--largeCount];
+            keep[i] = 1;
+            alias[i] = i;
+        }
+        while (smallCount > 0) {
+            int i = small[--smallCount];
+            keep[i] = 1;
+            alias[i] = i;
+        }
+    }
+
+    /**
+     * A single fair die.
+     * Pre: sides > 0
+     * @param sides The number of sides
+     * @return The distribution of rolls 1 to sides
+     */
+    public static DiceDistribution uniform(int sides) {
+        assert sides > 0;
+        int[] outcomes = new int[sides];
+        double[] weights = new double[sides];
+        for (int face = 1; face <= sides; face++) {
+            outcomes[face - 1] = face;
+            weights[face - 1] = 1;
+        }
+        return new DiceDistribution(outcomes, weights, true);
+    }
+
+    /**
+     * The total of two fair dice, with doubles marked.
+     * Pre: sides > 0
+     * @param sides The number of sides of each die
+     * @return The distribution of rolls 2 to 2 * sides
+     */
+    public static DiceDistribution twoDice(int sides) {
+        assert sides > 0;
+        int[] outcomes = new int[sides * sides];
+        double[] weights = new double[sides * sides];
+        for (int first = 1; first <= sides; first++) {
+            for (int second = 1; second <= sides; second++) {
+                int i = (first - 1) * sides + second - 1;
+                outcomes[i] = (first + second) | (first == second ? DOUBLES : 0);
+                weights[i] = 1;
+            }
+        }
+        return new DiceDistribution(outcomes, weights, true);
+    }
+
+    /**
+     * A single weighted die.
+     * Pre: weights are >= 0 and not all 0
+     * @param weights The relative weight of each face, from face 1
+     * @return The distribution of rolls 1 to weights.length
+     */
+    public static DiceDistribution weighted(double... weights) {
+        int[] outcomes = new int[weights.length];
+        for (int face = 1; face <= weights.length; face++) {
+            outcomes[face - 1] = face;
+        }
+        return new DiceDistribution(outcomes, weights.clone(), false);
+    }
+
+    /**
+     * Get the total of an encoded roll.
+     * @param roll The encoded roll
+     * @return The number of spaces to move
+     */
+    public static int total(int roll) {
+        return roll & (DOUBLES - 1);
+    }
+
+    /**
+     * Is an encoded roll a double?
+     * @param roll The encoded roll
+     * @return True if two dice showed the same face
+     */
+    public static boolean isDoubles(int roll) {
+        return (roll & DOUBLES) != 0;
+    }
+
+    /**
+     * Draw one encoded roll.
+     * @param random The random source
+     * @return The encoded roll
+     */
+    public int sample(RandomGenerator random) {
+        int i = random.nextInt(outcomes.length);
+        if (uniform || random.nextDouble() < keep[i]) {
+            return outcomes[i];
+        }
+        return outcomes[alias[i]];
+    }
+
+    /**
+     * Fill an array with encoded rolls.
+     * @param random The random source
+     * @param rolls The array to fill
+     */
+    public void fill(RandomGenerator random, int[] rolls) {
+        for (int i = 0; i < rolls.length; i++) {
+            rolls[i] = sample(random);
+        }
+    }
+
+    /**
+     * Get the probability of each total, read back from the alias table.
+     * @return The probability of each total, indexed 0 to the highest roll
+     */
+    public double[] getProbabilities() {
+        double[] probabilities = new double[maxRoll + 1];
+        int n = outcomes.length;
+        for (int i = 0; i < n; i++) {
+            double kept = uniform ? 1 : keep[i];
+            // A face of weight 0 is only ever kept through rounding error, and may be above the highest roll
+            if (kept > 0 && total(outcomes[i]) <= maxRoll) {
+                probabilities[total(outcomes[i])] += kept / n;
+            }
+            if (kept < 1) {
+                probabilities[total(outcomes[alias[i]])] += (1 - kept) / n;
+            }
+        }
+        return probabilities;
+    }
+
+    /**
+     * Get the highest possible total.
+     * @return The highest roll
+     */
+    public int getMaxRoll() {
+        return maxRoll;
+    }
+}
@@ -0,0 +1,109 @@
+package hotelgame.model;
+
+import java.util.random.RandomGenerator;
+import java.util.random.RandomGeneratorFactory;
+
+/**
+ * Rolls dice from a buffer that is filled in bulk from a fast generator (L64X128MixRandom).
+ * Drawing a roll is an array read; the distribution is only sampled when the buffer runs out.
+ * An engine is not thread safe: give every game or simulation thread its own.
+ */
+public class DiceEngine {
+
+    /**
+     * The generator algorithm used for every engine.
+     */
+    private static final String ALGORITHM = "L64X128MixRandom";
+
+    /**
+     * The factory of the generator algorithm, looked up once rather than for every engine.
+     */
+    private static final RandomGeneratorFactory<RandomGenerator> FACTORY = RandomGeneratorFactory.of(ALGORITHM);
+
+    /**
+     * The number of rolls drawn each time the buffer is filled.
+     */
+    private static final int BUFFER_SIZE = 1024;
+
+    /**
+     * The distribution the rolls are drawn from.
+     */
+    private final DiceDistribution distribution;
+
+    /**
+     * The random generator.
+     */
+    private final RandomGenerator random;
+
+    /**
+     * The buffered encoded rolls.
+     */
+    private final int[] buffer = new int[BUFFER_SIZE];
+
+    /**
+     * The index of the next unused roll in the buffer.
+     */
+    private int next = BUFFER_SIZE;
+
+    /**
+     * The latest encoded roll.
+     */
+    private int last;
+
+    /**
+     * Create an engine with a random seed.
+     * @param distribution The distribution to roll from
+     */
+    public DiceEngine(DiceDistribution distribution) {
+        this.distribution = distribution;
+        this.random = FACTORY.create();
+    }
+
+    /**
+     * Create an engine that always produces the same rolls for the same seed.
+     * @param distribution The distribution to roll from
+     * @param seed The seed
+     */
+    public DiceEngine(DiceDistribution distribution, long seed) {
+        this.distribution = distribution;
+        this.random = FACTORY.create(seed);
+    }
+
+    /**
+     * Roll the dice.
+     * @return The total to move
+     */
+    public int roll() {
+        if (next == BUFFER_SIZE) {
+            distribution.fill(random, buffer);
+            next = 0;
+        }
+        last = buffer[next++];
+        return DiceDistribution.total(last);
+    }
+
+    /**
+     * Was the latest roll a double?
+     * @return True if two dice showed the same face
+     */
+    public boolean isDoubles() {
+        return DiceDistribution.isDoubles(last);
+    }
+
+    /**
+     * Draw a uniform number from the engine's generator, for other random game decisions.
+     * @param bound The exclusive upper bound
+     * @return A number from 0 to bound - 1
+     */
+    public int nextInt(int bound) {
+        return random.nextInt(bound);
+    }
+
+    /**
+     * Get the distribution the rolls are drawn from.
+     * @return The distribution
+     */
+    public DiceDistribution getDistribution() {
+        return distribution;
+    }
+}
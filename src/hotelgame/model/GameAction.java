@@ -0,0 +1,168 @@
+package hotelgame.model;
+
+/**
+ * Player actions encoded in a single int: an opcode in the top 8 bits and a signed 24 bit argument.
+ * Encoded actions can be stored in plain int arrays and sent or logged in four bytes each.
+ * apply() plays an action on a model with the same rules as GameController, rejecting illegal actions
+ * without changing anything.
+ */
+public final class GameAction {
+
+    /**
+     * Roll and move. The argument is the number of spaces to move, or 0 to roll the model's dice.
+     * Landing on the opponent's hotel pays the overnight fee.
+     */
+    public static final int ROLL = 0;
+
+    /**
+     * Buy the hotel at the current player's position.
+     */
+    public static final int BUY = 1;
+
+    /**
+     * Raise the rating of the current player's hotel at their position. The argument is the number of stars.
+     */
+    public static final int RATE = 2;
+
+    /**
+     * End the current player's turn.
+     */
+    public static final int END_TURN = 3;
+
+    /**
+     * Reset the model and create the same players again.
+     */
+    public static final int RESET = 4;
+
+    /**
+     * The names of the opcodes, for toString().
+     */
+    private static final String[] NAMES = {"roll", "buy", "rate", "end", "reset"};
+
+    private GameAction() {
+    }
+
+    /**
+     * Encode an action.
+     * Pre: 0 <= opcode <= RESET, argument fits in 24 bits
+     * @param opcode The opcode
+     * @param argument The argument
+     * @return The encoded action
+     */
+    public static int of(int opcode, int argument) {
+        assert opcode >= 0 && opcode <= RESET;
+        assert argument >= -(1 << 23) && argument < (1 << 23);
+        return opcode << 24 | (argument & 0xFFFFFF);
+    }
+
+    /**
+     * Get the opcode of an action.
+     * @param action The encoded action
+     * @return The opcode
+     */
+    public static int opcode(int action) {
+        return action >>> 24;
+    }
+
+    /**
+     * Get the argument of an action.
+     * @param action The encoded action
+     * @return The signed argument
+     */
+    public static int argument(int action) {
+        return (action << 8) >> 8;
+    }
+
+    /**
+     * Apply an action to a model.
+     * Pre: the model has players
+     * @param model The model
+     * @param action The encoded action
+     * @return True if the action was legal and applied, false if it was rejected and the model is unchanged
+     */
+    public static boolean apply(GameModel model, int action) {
+        int argument = argument(action);
+        switch (opcode(action)) {
+            case ROLL:
+                return roll(model, argument);
+            case BUY:
+                return buy(model);
+            case RATE:
+                return rate(model, argument);
+            case END_TURN:
+                if (model.isGameOver()) {
+                    return false;
+                }
+                model.nextTurn();
+                return true;
+            case RESET:
+                String playerOne = model.getPlayerOne().getName();
+                String playerTwo = model.getPlayerTwo().getName();
+                model.reset();
+                model.createPlayers(playerOne, playerTwo);
+                return true;
+            default:
+                return false;
+        }
+    }
+
+    /**
+     * Describe an action.
+     * @param action The encoded action
+     * @return The opcode name, followed by the argument for roll and rate
+     */
+    public static String toString(int action) {
+        int opcode = opcode(action);
+        String name = opcode < NAMES.length ? NAMES[opcode] : "op" + opcode;
+        return opcode == ROLL || opcode == RATE ? name + " " + argument(action) : name;
+    }
+
+    /**
+     * Move the current player and pay any overnight fee.
+     * @param model The model
+     * @param amount The number of spaces, or 0 to roll the dice
+     * @return False if the game is over or the amount is out of range
+     */
+    private static boolean roll(GameModel model, int amount) {
+        if (model.isGameOver() || amount < 0 || amount > model.getDiceSides()) {
+            return false;
+        }
+        model.movePlayer(amount > 0 ? amount : model.rollDice());
+
+        Hotel hotel = model.getCurrentPlayerPositionHotel();
+        if (hotel != null && hotel.getOwner() == model.getOpposingTurn()) {
+            model.payOvernightFee();
+        }
+        return true;
+    }
+
+    /**
+     * Buy the hotel at the current player's position.
+     * @param model The model
+     * @return False if there is no unowned hotel the player can afford
+     */
+    private static boolean buy(GameModel model) {
+        Hotel hotel = model.getCurrentPlayerPositionHotel();
+        if (model.isGameOver() || hotel == null || hotel.getOwner() != null
+                || !hotel.canAffordPurchase(model.getCurrentTurn())) {
+            return false;
+        }
+        return model.buyHotel();
+    }
+
+    /**
+     * Raise the rating of the current player's hotel by up to a number of stars, stopping when they run short.
+     * @param model The model
+     * @param stars The number of stars
+     * @return False if the player does not own the hotel or the rating would pass the highest
+     */
+    private static boolean rate(GameModel model, int stars) {
+        Hotel hotel = model.getCurrentPlayerPositionHotel();
+        if (model.isGameOver() || stars < 1 || hotel == null || hotel.getOwner() != model.getCurrentTurn()
+                || hotel.getStarRating() + stars > hotel.getMaxRating()) {
+            return false;
+        }
+        model.increaseStarRatingTo(hotel.getStarRating() + stars);
+        return true;
+    }
+}
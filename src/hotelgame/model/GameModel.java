@@ -1,21 +1,21 @@
 package hotelgame.model;
 
-import java.util.ArrayList;
-import java.util.HashMap;
-import java.util.List;
+import java.util.Arrays;
+import java.util.Objects;
 import java.util.Observable;
+import java.util.Observer;
 
 public class GameModel extends Observable {
 
     /**
-     * The maximum number of tiles on this board.
+     * The number of tiles on the standard board.
      */
     public final static int MAX_TILES = 40;
 
     /**
-     * The total amount of sides for the die.
+     * The board this game is played on, shared with every other game on the same board.
      */
-    private final int DICE_ROLL = 12;
+    private final BoardDefinition board;
 
     /**
      * The Player whose turn it currently is
@@ -33,23 +33,173 @@ public class GameModel extends Observable {
     private Player playerTwo;
 
     /**
-     * All the tiles in the game.
-     * There are always 40 total.
+     * All the tiles in the game, one per board tile.
      * If a tile is null, there is not a Hotel located there.
      */
     private Hotel[] tiles;
 
     /**
-     * A HashMap of Hotel group to an array of hotels in the group
-     * Example: "A" -> ["A1", "A2", "A3"]
+     * The number of hotels each player owns in each group, at index group * 2 + player (0 = one, 1 = two).
+     * Lets the overnight fee check the rest of a group in constant time, however large the group is.
      */
-    private final HashMap<String, ArrayList<Hotel>> hotelGroups = new HashMap<>();
+    private final int[] groupOwned;
+
+    /**
+     * Incremented whenever tiles may have changed anywhere on the board (reset, restore and batches of turns).
+     * Between changes of generation, tiles only change at the current player's position.
+     */
+    private int generation;
 
     /**
      * The latest dice roll by the current player.
      */
     private int currentRoll;
 
+    /**
+     * The dice the players roll. Also decides who goes first.
+     */
+    private DiceEngine dice;
+
+    /**
+     * The house rules compiled for the board, shared by every game using them.
+     */
+    private final RuleTables rules;
+
+    /**
+     * The keys of the Zobrist hash, shared by every game on the board.
+     */
+    private final ZobristKeys keys;
+
+    /**
+     * The Zobrist hash of the current state, kept up to date by every change (see getHash()).
+     */
+    private long hash;
+
+    /**
+     * Whether every change cross-checks the hash against a full recomputation.
+     */
+    private boolean verifyHash;
+
+    /**
+     * Told about purchases, rating increases and fees as they happen.
+     */
+    private GameProbe probe = GameProbe.NONE;
+
+    /**
+     * The observers, replaced by a new array whenever one is added or deleted.
+     * Observable copies its observers into a new array on every notification; a copy-on-write array lets
+     * a notification read them without allocating, and observers change far less often than turns are played.
+     */
+    private volatile Observer[] observers = new Observer[0];
+
+    /**
+     * Create a model on the standard board.
+     */
+    public GameModel() {
+        this(BoardDefinition.standard());
+    }
+
+    /**
+     * Create a model on a board.
+     * @param board The board definition
+     */
+    public GameModel(BoardDefinition board) {
+        this(board, RuleSet.STANDARD);
+    }
+
+    /**
+     * Create a model on a board with house rules.
+     * @param board The board definition
+     * @param rules The rules, compiled for the board when first used and shared with every game using them
+     */
+    public GameModel(BoardDefinition board, RuleSet rules) {
+        this.board = board;
+        this.rules = rules.compile(board);
+        this.groupOwned = new int[board.getGroupCount() * 2];
+        this.dice = new DiceEngine(DiceDistribution.uniform(board.getDiceSides()));
+        this.keys = board.getZobristKeys();
+    }
+
+    /**
+     * Add an observer, unless it is already observing.
+     * @param observer The observer
+     * @throws NullPointerException If the observer is null
+     */
+    @Override
+    public synchronized void addObserver(Observer observer) {
+        Objects.requireNonNull(observer);
+        for (Observer existing : observers) {
+            if (existing.equals(observer)) {
+                return;
+            }
+        }
+        Observer[] added = Arrays.copyOf(observers, observers.length + 1);
+        added[observers.length] = observer;
+        observers = added;
+    }
+
+    /**
+     * Delete an observer.
+     * @param observer The observer
+     */
+    @Override
+    public synchronized void deleteObserver(Observer observer) {
+        for (int i = 0; i < observers.length; i++) {
+            if (observers[i].equals(observer)) {
+                Observer[] deleted = new Observer[observers.length - 1];
+                System.arraycopy(observers, 0, deleted, 0, i);
+                System.arraycopy(observers, i + 1, deleted, i, deleted.length - i);
+                observers = deleted;
+                return;
+            }
+        }
+    }
+
+    /**
+     * Delete every observer.
+     */
+    @Override
+    public synchronized void deleteObservers() {
+        observers = new Observer[0];
+    }
+
+    /**
+     * Get the number of observers.
+     * @return The number of observers
+     */
+    @Override
+    public int countObservers() {
+        return observers.length;
+    }
+
+    /**
+     * Notify the observers if the model has changed, without an argument.
+     */
+    @Override
+    public void notifyObservers() {
+        notifyObservers(null);
+    }
+
+    /**
+     * Notify the observers if the model has changed, most recently added first as Observable does,
+     * then mark the model unchanged.
+     * @param arg The argument passed to each observer
+     */
+    @Override
+    public void notifyObservers(Object arg) {
+        Observer[] notified;
+        synchronized (this) {
+            if (!hasChanged()) {
+                return;
+            }
+            notified = observers;
+            clearChanged();
+        }
+        for (int i = notified.length - 1; i >= 0; i--) {
+            notified[i].update(this, arg);
+        }
+    }
+
     public Player getPlayerOne() {
         return playerOne;
     }
@@ -62,8 +212,8 @@ public class GameModel extends Observable {
      * Roll the dice for the current player.
      */
     public int rollDice() {
-        currentRoll = (int) Math.ceil(Math.random() * DICE_ROLL);
-        assert currentRoll >= 1 && currentRoll <= DICE_ROLL;
+        currentRoll = dice.roll();
+        assert currentRoll >= 1 && currentRoll <= dice.getDistribution().getMaxRoll();
         return currentRoll;
     }
 
@@ -97,18 +247,61 @@ public class GameModel extends Observable {
         // the hotel should not have an owner & the player should be able to afford the hotel.
         assert hotel != null && hotel.getOwner() == null && hotel.canAffordPurchase(player);
 
+        applyBuyHotel(hotel, player);
+        checkHash();
+
+        this.setChanged();
+        notifyObservers();
+        return true;
+    }
+
+    /**
+     * Transfer a hotel to a player without notifying observers.
+     * @param hotel The hotel being bought
+     * @param player The buying player
+     */
+    private void applyBuyHotel(Hotel hotel, Player player) {
+        int position = player.getPosition();
+        hash ^= tileKey(position) ^ moneyKey(player);
+
         // purchase the hotel
         player.deductMoney(hotel.getPrice());
         if (player.getMoney() > 0) {
             hotel.setOwner(player);
+            groupOwned[board.getGroup(position) * 2 + playerIndex(player)]++;
+            probe.hotelBought(position, playerIndex(player), hotel.getPrice());
         }
+        hash ^= tileKey(position) ^ moneyKey(player);
 
-        // The hotel owner should now be the current player.
-        assert hotel.getOwner() == player;
+        // The hotel owner should now be the current player, unless the purchase spent all their money.
+        assert hotel.getOwner() == player || player.getMoney() == 0;
+    }
 
+    /**
+     * Sell the un-owned hotel at the current player's position to the winner of an auction, at their bid.
+     * Either player may win, not only the current one.
+     * Pre: the hotel has no owner, 0 < price < the winner's money
+     * Post: the winner owns the hotel and has paid the price
+     * @param player The winning player (0 or 1)
+     * @param price The winning bid
+     */
+    public void awardHotel(int player, double price) {
+        Hotel hotel = this.getCurrentPlayerPositionHotel();
+        Player winner = player == 0 ? playerOne : playerTwo;
+        assert hotel != null && hotel.getOwner() == null;
+        assert price > 0 && price < winner.getMoney();
+
+        int position = currentTurn.getPosition();
+        hash ^= tileKey(position) ^ moneyKey(winner);
+        winner.deductMoney(price);
+        hotel.setOwner(winner);
+        groupOwned[board.getGroup(position) * 2 + player]++;
+        hash ^= tileKey(position) ^ moneyKey(winner);
+        probe.hotelBought(position, player, price);
+
+        checkHash();
         this.setChanged();
-        notifyObservers();
-        return true;
+        this.notifyObservers();
     }
 
     /**
@@ -119,10 +312,11 @@ public class GameModel extends Observable {
         Hotel hotel = this.getCurrentPlayerPositionHotel();
         // Ensure player owns hotel.
         assert hotel != null && hotel.getOwner() == currentTurn;
-        // Ensure hotel rating is less than 5 before attempting increase.
-        assert hotel.getStarRating() < 5;
+        // Ensure hotel rating is less than the highest before attempting increase.
+        assert hotel.getStarRating() < rules.getMaxRating();
 
-        if (hotel.increaseStarRating()) {
+        if (applyIncreaseStarRating(hotel)) {
+            checkHash();
             this.setChanged();
             this.notifyObservers();
             return true;
@@ -131,6 +325,52 @@ public class GameModel extends Observable {
         }
     }
 
+    /**
+     * Increase the rating of a hotel to a target as far as the current player can afford, in one change.
+     * The current player will be the one increasing. Observers are notified once if the rating changed.
+     * Pre: the current player owns the hotel at their position, target <= the highest rating
+     * @param target The desired star rating
+     * @return The star rating reached
+     */
+    public int increaseStarRatingTo(int target) {
+        Hotel hotel = this.getCurrentPlayerPositionHotel();
+        assert hotel != null && hotel.getOwner() == currentTurn;
+        assert target <= rules.getMaxRating();
+
+        int position = currentTurn.getPosition();
+        hash ^= tileKey(position) ^ moneyKey(currentTurn);
+        double cost = hotel.getIncreaseRatingFee();
+        int stars = hotel.increaseStarRatingTo(target);
+        hash ^= tileKey(position) ^ moneyKey(currentTurn);
+        for (int star = stars - 1; star >= 0; star--) {
+            probe.ratingIncreased(position, playerIndex(currentTurn), hotel.getStarRating() - star, cost);
+        }
+
+        if (stars > 0) {
+            checkHash();
+            this.setChanged();
+            this.notifyObservers();
+        }
+        return hotel.getStarRating();
+    }
+
+    /**
+     * Increase the rating of the hotel at the current player's position without notifying observers.
+     * @param hotel The current player's hotel
+     * @return True if the rating was increased
+     */
+    private boolean applyIncreaseStarRating(Hotel hotel) {
+        int position = currentTurn.getPosition();
+        hash ^= tileKey(position) ^ moneyKey(currentTurn);
+        double cost = hotel.getIncreaseRatingFee();
+        boolean increased = hotel.increaseStarRating();
+        hash ^= tileKey(position) ^ moneyKey(currentTurn);
+        if (increased) {
+            probe.ratingIncreased(position, playerIndex(currentTurn), hotel.getStarRating(), cost);
+        }
+        return increased;
+    }
+
     /**
      * Pay overnight fees for the current player.
      */
@@ -141,12 +381,30 @@ public class GameModel extends Observable {
         // Ensure this hotel has an owner that is not the current player.
         assert hotel != null && hotel.getOwner() != null && hotel.getOwner() != player;
 
-        double overnightCost = calculateCurrentHotelFee();
+        double overnightCost = applyOvernightFee(player);
+        checkHash();
         if (overnightCost > 0) {
-            player.deductMoney(overnightCost);
-            this.getOpposingTurn().addMoney(overnightCost);
             this.setChanged();
             this.notifyObservers();
+        }
+        return overnightCost;
+    }
+
+    /**
+     * Move the overnight fee from the current player to the opposing player without notifying observers.
+     * @param player The current player
+     * @return The fee paid
+     */
+    private double applyOvernightFee(Player player) {
+        double overnightCost = calculateCurrentHotelFee();
+        if (overnightCost > 0) {
+            Player owner = this.getOpposingTurn();
+            hash ^= moneyKey(player) ^ moneyKey(owner);
+            player.deductMoney(overnightCost);
+            owner.addMoney(overnightCost);
+            hash ^= moneyKey(player) ^ moneyKey(owner);
+            int position = player.getPosition();
+            probe.feePaid(position, playerIndex(player), overnightCost, feeModifier(board.getGroup(position), playerIndex(player)));
             return overnightCost;
         }
         return 0;
@@ -155,38 +413,43 @@ public class GameModel extends Observable {
     /**
      * Calculate the current player's hotel fees.
      * @return the calculated overnight fee
-     *  The fee is 200% if the surrounding hotels are owned by the opponent.
+     *  Under the standard rules, the fee is 200% if the surrounding hotels are owned by the opponent.
      *  The fee is 50% if the surrounding hotels are owned by the player.
      */
     private double calculateCurrentHotelFee() {
-        Hotel hotel = this.getCurrentPlayerPositionHotel();
-        Player player = this.getCurrentTurn();
+        return calculateFee(currentTurn.getPosition(), playerIndex(currentTurn));
+    }
 
-        if (hotel == null || hotel.getOwner() == player) {
+    /**
+     * Calculate the overnight fee a player would pay landing on a tile, at the hotel's current rating and owner.
+     * Pre: the players have been created
+     * @param position The tile position
+     * @param lander The index of the player landing (0 = one, 1 = two)
+     * @return The fee, or 0 if there is no hotel, it has no owner, or the player owns it
+     */
+    public double calculateFee(int position, int lander) {
+        Hotel hotel = tiles[position];
+        if (hotel == null || hotel.getOwner() == null || hotel.getOwner() == (lander == 0 ? playerOne : playerTwo)) {
             return 0;
         }
 
-        Player opposingPlayer = this.getOpposingTurn();
-        double overnightCost = hotel.getOvernightFee();
-        List<Hotel> hotelsInGroup = hotelGroups.get(hotel.getGroup());
-
-        boolean anyOwnedByPlayer = false;
-        boolean allOthersOwnedByOpposingPlayer = true;
-        for (Hotel hotelInGroup : hotelsInGroup) {
-            if (hotelInGroup.getOwner() == player) {
-                anyOwnedByPlayer = true;
-            } else if (hotelInGroup.getOwner() != opposingPlayer) {
-                allOthersOwnedByOpposingPlayer = false;
-            }
-        }
+        return hotel.getOvernightFee(feeModifier(board.getGroup(position), lander));
+    }
 
-        if (anyOwnedByPlayer) {
-            overnightCost /= 2;
-        } else if (allOthersOwnedByOpposingPlayer) {
-            overnightCost *= 2;
+    /**
+     * Decide how the rest of a group changes a fee.
+     * @param group The group of the hotel landed on
+     * @param index The index of the paying player
+     * @return FEE_HALF if the payer owns a hotel in the group, FEE_DOUBLE if the owner owns the whole group,
+     *  else FEE_NORMAL (see GameProbe)
+     */
+    private int feeModifier(int group, int index) {
+        if (groupOwned[group * 2 + index] > 0) {
+            return GameProbe.FEE_HALF;
+        } else if (groupOwned[group * 2 + (1 - index)] == board.getGroupSize(group)) {
+            return GameProbe.FEE_DOUBLE;
         }
-
-        return overnightCost;
+        return GameProbe.FEE_NORMAL;
     }
 
     /**
@@ -194,31 +457,105 @@ public class GameModel extends Observable {
      * @param amount The amount of tiles to move.
      */
     public void movePlayer(int amount) {
+        applyMove(amount);
+        checkHash();
+
+        this.setChanged();
+        this.notifyObservers();
+    }
+
+    /**
+     * Move the current player without notifying observers.
+     * @param amount The amount of tiles to move.
+     */
+    private void applyMove(int amount) {
         int currentPosition = this.getCurrentTurn().getPosition();
-        int newPosition = currentPosition + amount;
-        if (newPosition > MAX_TILES - 1) {
-            newPosition -= MAX_TILES;
-        }
+        // a roll may be larger than the board, so it can wrap around more than once
+        int newPosition = (currentPosition + amount) % board.getTileCount();
+        int player = playerIndex(currentTurn);
+        hash ^= keys.position(player, currentPosition) ^ keys.position(player, newPosition);
         this.getCurrentTurn().setPosition(newPosition);
 
         // Ensure the player moved positions
         assert this.getCurrentTurn().getPosition() == newPosition;
+    }
 
+    /**
+     * Shift the turn to the next player.
+     */
+    public void nextTurn() {
+        applyNextTurn();
+        checkHash();
         this.setChanged();
         this.notifyObservers();
     }
 
     /**
-     * Shift the turn to the next player.
+     * Shift the turn to the next player without notifying observers.
      */
-    public void nextTurn() {
+    private void applyNextTurn() {
         if (this.currentTurn == this.playerOne) {
             this.currentTurn = this.playerTwo;
         } else {
             this.currentTurn = this.playerOne;
         }
-        this.setChanged();
-        this.notifyObservers();
+        hash ^= keys.playerTwoTurn();
+    }
+
+    /**
+     * Play whole turns in a tight loop, for simulations.
+     * Each turn rolls the dice, moves, pays any overnight fee, lets the policy decide whether to buy and
+     * how far to raise the rating, then passes the turn. Stops early when the game is over, without passing
+     * the turn, like GameController.endTurn().
+     * Observers are notified once at the end rather than after every step, and nothing is allocated per turn.
+     * Playing more than one turn changes the generation, since hotels may have changed at every tile landed on.
+     * Pre: players have been created
+     * @param turns The maximum number of turns to play
+     * @param policy The policy deciding purchases and rating increases
+     * @return The number of turns played
+     */
+    public int playTurns(int turns, Policy policy) {
+        assert playerOne != null && playerTwo != null && tiles != null;
+
+        int played = 0;
+        while (played < turns && !isGameOver()) {
+            Player player = currentTurn;
+            applyMove(rollDice());
+
+            int position = player.getPosition();
+            Hotel hotel = tiles[position];
+            if (hotel != null) {
+                if (hotel.getOwner() == null) {
+                    if (hotel.canAffordPurchase(player) && policy.shouldBuy(this, position)) {
+                        applyBuyHotel(hotel, player);
+                    }
+                } else if (hotel.getOwner() != player) {
+                    applyOvernightFee(player);
+                }
+
+                if (hotel.getOwner() == player) {
+                    int targetRating = Math.min(policy.targetRating(this, position), rules.getMaxRating());
+                    while (hotel.getStarRating() < targetRating && applyIncreaseStarRating(hotel)) {
+                        // keep increasing until the target or the player runs short
+                    }
+                }
+            }
+
+            played++;
+            if (!isGameOver()) {
+                applyNextTurn();
+            }
+            checkHash();
+        }
+
+        if (played > 1) {
+            generation++;
+        }
+        if (played > 0) {
+            this.setChanged();
+            this.notifyObservers();
+        }
+        return played;
     }
 
     /**
@@ -235,9 +572,10 @@ public class GameModel extends Observable {
      * @param playerTwoName The name of player two
      */
     public void createPlayers(String playerOneName, String playerTwoName) {
-        playerOne = new Player(playerOneName);
-        playerTwo = new Player(playerTwoName);
-        currentTurn = Math.ceil(Math.random() * 2) == 1 ? playerOne : playerTwo;
+        playerOne = new Player(playerOneName, board.getStartingMoney());
+        playerTwo = new Player(playerTwoName, board.getStartingMoney());
+        currentTurn = dice.nextInt(2) == 0 ? playerOne : playerTwo;
+        hash = computeHash();
         this.setChanged();
         this.notifyObservers();
     }
@@ -251,46 +589,154 @@ public class GameModel extends Observable {
         currentTurn = null;
 
         tiles = generateTiles();
+        Arrays.fill(groupOwned, 0);
+        generation++;
+        hash = 0;
         this.notifyObservers();
     }
 
     /**
-     * Generate the game's Hotel tiles.
+     * Restore this model to the state held in a snapshot.
+     * Observers are notified once after the whole state has been restored.
+     * @param snapshot The snapshot to restore
+     */
+    public void restore(GameSnapshot snapshot) {
+        assert snapshot.getTileCount() == board.getTileCount();
+        if (tiles == null) {
+            tiles = generateTiles();
+        }
+        Arrays.fill(groupOwned, 0);
+        generation++;
+
+        if (playerOne == null || !playerOne.getName().equals(snapshot.getName(0))) {
+            playerOne = new Player(snapshot.getName(0), board.getStartingMoney());
+        }
+        if (playerTwo == null || !playerTwo.getName().equals(snapshot.getName(1))) {
+            playerTwo = new Player(snapshot.getName(1), board.getStartingMoney());
+        }
+        playerOne.setPosition(snapshot.getPosition(0));
+        playerOne.setMoney(snapshot.getMoney(0));
+        playerTwo.setPosition(snapshot.getPosition(1));
+        playerTwo.setMoney(snapshot.getMoney(1));
+        currentTurn = snapshot.getCurrentTurn() == GameSnapshot.PLAYER_ONE ? playerOne : playerTwo;
+        currentRoll = snapshot.getCurrentRoll();
+
+        for (int position = 0; position < tiles.length; position++) {
+            Hotel hotel = tiles[position];
+            if (hotel != null) {
+                byte tile = snapshot.getTile(position);
+                int owner = GameSnapshot.ownerOf(tile);
+                hotel.restore(owner == GameSnapshot.NO_OWNER ? null : owner == GameSnapshot.PLAYER_ONE ? playerOne : playerTwo,
+                        GameSnapshot.ratingOf(tile));
+                if (owner != GameSnapshot.NO_OWNER) {
+                    groupOwned[board.getGroup(position) * 2 + owner - 1]++;
+                }
+            }
+        }
+        hash = computeHash();
+
+        this.setChanged();
+        this.notifyObservers();
+    }
+
+    /**
+     * Generate the game's Hotel tiles from the board definition.
      * @return The generated tiles array
      */
     private Hotel[] generateTiles() {
-        Hotel[] tiles = new Hotel[MAX_TILES];
-        char startingHotelLetter = 65;
-        for(int hotelLetter = 0; hotelLetter < 8; hotelLetter++) {
-            int hotelNumber = 1;
-            for (int tileNumber = 0; tileNumber < 5; tileNumber++) {
-                int tilePosition = (hotelLetter * 5) + tileNumber;
-                if (tileNumber == 0 || tileNumber == 2) {
-                    tiles[tilePosition] = null;
-                } else {
-                    int price = (hotelLetter + 1) * 50 + (tileNumber == 4 ? 20 : 0);
-                    String hotelGroup = String.valueOf((char) (startingHotelLetter + hotelLetter));
-                    tiles[tilePosition] = new Hotel(hotelGroup, hotelNumber, price);
-                    addHotelToGroup(tiles[tilePosition]);
-                    hotelNumber++;
-                }
+        Hotel[] tiles = new Hotel[board.getTileCount()];
+        for (int position = 0; position < tiles.length; position++) {
+            if (board.isHotel(position)) {
+                tiles[position] = new Hotel(board.getGroupName(board.getGroup(position)), board.getNumber(position), board.getPrice(position),
+                        rules, position);
             }
         }
         return tiles;
     }
 
     /**
-     * Add a Hotel to the hotelGroup hashmap.
-     * @param hotel The hotel to add
+     * Get the Zobrist hash of the current state.
+     * The hash covers every tile's owner and rating, both players' positions and money (in buckets of £50)
+     * and whose turn it is. It is updated in constant time by every change made through the model;
+     * changes made directly to a Player or Hotel are not seen until the next reset, restore or createPlayers.
+     * @return The hash, or 0 before players are created
      */
-    private void addHotelToGroup(Hotel hotel) {
-        if (hotelGroups.containsKey(hotel.getGroup())) {
-            hotelGroups.get(hotel.getGroup()).add(hotel);
-        } else {
-            ArrayList<Hotel> hotelGroup = new ArrayList<>();
-            hotelGroup.add(hotel);
-            hotelGroups.put(hotel.getGroup(), hotelGroup);
+    public long getHash() {
+        return hash;
+    }
+
+    /**
+     * Compute the Zobrist hash of the current state from scratch by scanning every tile.
+     * @return The hash, equal to getHash() unless the state was changed behind the model's back
+     */
+    public long computeHash() {
+        if (playerOne == null || playerTwo == null || tiles == null) {
+            return 0;
+        }
+        long fullHash = 0;
+        for (int position = 0; position < tiles.length; position++) {
+            fullHash ^= tileKey(position);
         }
+        fullHash ^= keys.position(0, playerOne.getPosition()) ^ keys.position(1, playerTwo.getPosition());
+        fullHash ^= moneyKey(playerOne) ^ moneyKey(playerTwo);
+        if (currentTurn == playerTwo) {
+            fullHash ^= keys.playerTwoTurn();
+        }
+        return fullHash;
+    }
+
+    /**
+     * Turn on or off cross-checking the incremental hash against computeHash() after every change.
+     * This scans the whole board on every change, so it is meant for tests and debugging.
+     * @param verifyHash Whether to cross-check
+     */
+    public void setVerifyHash(boolean verifyHash) {
+        this.verifyHash = verifyHash;
+        checkHash();
+    }
+
+    /**
+     * Cross-check the incremental hash when verification is on.
+     * @throws IllegalStateException If the hash differs from a full recomputation
+     */
+    private void checkHash() {
+        if (verifyHash && hash != computeHash()) {
+            throw new IllegalStateException("Incremental hash " + Long.toHexString(hash)
+                    + " differs from the recomputed hash " + Long.toHexString(computeHash()));
+        }
+    }
+
+    /**
+     * Get the hash key of a tile's owner and rating.
+     * @param position The tile position
+     * @return The key, or 0 for a blank tile
+     */
+    private long tileKey(int position) {
+        Hotel hotel = tiles[position];
+        if (hotel == null) {
+            return 0;
+        }
+        int owner = hotel.getOwner() == null ? GameSnapshot.NO_OWNER
+                : hotel.getOwner() == playerOne ? GameSnapshot.PLAYER_ONE : GameSnapshot.PLAYER_TWO;
+        return keys.tile(position, owner, hotel.getStarRating());
+    }
+
+    /**
+     * Get the hash key of a player's money.
+     * @param player One of the two players
+     * @return The key of the player's money bucket
+     */
+    private long moneyKey(Player player) {
+        return keys.money(playerIndex(player), player.getMoney());
+    }
+
+    /**
+     * Get the index of a player.
+     * @param player One of the two players
+     * @return 0 for player one, 1 for player two
+     */
+    private int playerIndex(Player player) {
+        return player == playerOne ? 0 : 1;
     }
 
     /**
@@ -318,6 +764,77 @@ public class GameModel extends Observable {
         return currentRoll;
     }
 
+    /**
+     * Get the highest possible dice roll.
+     * @return The highest possible roll
+     */
+    public int getDiceSides() {
+        return dice.getDistribution().getMaxRoll();
+    }
+
+    /**
+     * Replace the dice, for example with a seeded engine to make games reproducible
+     * or with a different distribution.
+     * @param dice The new dice
+     */
+    public void setDice(DiceEngine dice) {
+        this.dice = dice;
+    }
+
+    /**
+     * Set the probe told about purchases, rating increases and fees, including those inside playTurns().
+     * @param probe The probe, or GameProbe.NONE
+     */
+    public void setProbe(GameProbe probe) {
+        this.probe = probe;
+    }
+
+    /**
+     * Get the dice the players roll.
+     * @return The dice engine
+     */
+    public DiceEngine getDice() {
+        return dice;
+    }
+
+    /**
+     * Get the board this game is played on.
+     * @return The board definition
+     */
+    public BoardDefinition getBoard() {
+        return board;
+    }
+
+    /**
+     * Get the house rules of this game, compiled for its board.
+     * @return The rule tables
+     */
+    public RuleTables getRules() {
+        return rules;
+    }
+
+    /**
+     * Get the generation of the tiles.
+     * The generation changes whenever tiles may have changed anywhere on the board
+     * (reset, restore and playTurns() playing more than one turn).
+     * While it stays the same, tiles only change at the current player's position, so views
+     * only need to refresh the tiles under the players.
+     * @return The tile generation
+     */
+    public int getGeneration() {
+        return generation;
+    }
+
+    /**
+     * Get the number of hotels a player owns in a group, as counted by the model for the overnight fee.
+     * @param group The group index
+     * @param player The player index (0 = one, 1 = two)
+     * @return The number of hotels owned
+     */
+    public int getGroupOwned(int group, int player) {
+        return groupOwned[group * 2 + player];
+    }
+
     /**
      * Get the current hotel tiles.
      * @return The board tiles
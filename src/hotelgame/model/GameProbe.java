@@ -0,0 +1,67 @@
+package hotelgame.model;
+
+/**
+ * Told about the money-moving events of a GameModel as they happen, including those inside playTurns(),
+ * so statistics can be gathered while games are played instead of from stored games.
+ * Implementations are called from a tight simulation loop, so they should not allocate.
+ */
+public interface GameProbe {
+
+    /**
+     * Fee modifier: the full overnight fee was paid.
+     */
+    int FEE_NORMAL = 0;
+
+    /**
+     * Fee modifier: the fee was halved because the payer owns a hotel in the group.
+     */
+    int FEE_HALF = 1;
+
+    /**
+     * Fee modifier: the fee was doubled because the owner owns the whole group.
+     */
+    int FEE_DOUBLE = 2;
+
+    /**
+     * A probe that ignores every event.
+     */
+    GameProbe NONE = new GameProbe() {
+        @Override
+        public void hotelBought(int position, int player, double price) {
+        }
+
+        @Override
+        public void ratingIncreased(int position, int player, int rating, double cost) {
+        }
+
+        @Override
+        public void feePaid(int position, int payer, double fee, int modifier) {
+        }
+    };
+
+    /**
+     * A player bought a hotel.
+     * @param position The position of the hotel
+     * @param player The buyer's index (0 = one, 1 = two)
+     * @param price The price paid
+     */
+    void hotelBought(int position, int player, double price);
+
+    /**
+     * A player raised the rating of their hotel by one star.
+     * @param position The position of the hotel
+     * @param player The owner's index
+     * @param rating The new rating
+     * @param cost The cost of the increase
+     */
+    void ratingIncreased(int position, int player, int rating, double cost);
+
+    /**
+     * A player paid an overnight fee to the owner of the hotel they landed on.
+     * @param position The position of the hotel
+     * @param payer The payer's index; the owner is the other player
+     * @param fee The fee paid
+     * @param modifier FEE_NORMAL, FEE_HALF or FEE_DOUBLE
+     */
+    void feePaid(int position, int payer, double fee, int modifier);
+}
@@ -0,0 +1,331 @@
+package hotelgame.model;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.Arrays;
+
+/**
+ * A copy of the mutable state of a GameModel.
+ * A snapshot is reusable: capturing into it again overwrites the previous state without allocating,
+ * as long as the board size does not change.
+ */
+public class GameSnapshot {
+
+    /**
+     * Owner value of a tile that has no owner (or no hotel).
+     */
+    public static final int NO_OWNER = 0;
+
+    /**
+     * Owner/turn value for player one.
+     */
+    public static final int PLAYER_ONE = 1;
+
+    /**
+     * Owner/turn value for player two.
+     */
+    public static final int PLAYER_TWO = 2;
+
+    /**
+     * The player names, indexed by player (0 = player one, 1 = player two).
+     */
+    private final String[] names = new String[2];
+
+    /**
+     * The player positions, indexed by player.
+     */
+    private final int[] positions = new int[2];
+
+    /**
+     * The player money, indexed by player.
+     */
+    private final double[] money = new double[2];
+
+    /**
+     * The player whose turn it is (PLAYER_ONE, PLAYER_TWO or NO_OWNER if there are no players).
+     */
+    private int currentTurn;
+
+    /**
+     * The latest dice roll.
+     */
+    private int currentRoll;
+
+    /**
+     * The owner and star rating of every tile, packed with pack().
+     */
+    private byte[] tiles = new byte[0];
+
+    /**
+     * Pack a tile owner and star rating into a single byte.
+     * @param owner The owner value (NO_OWNER, PLAYER_ONE or PLAYER_TWO)
+     * @param starRating The star rating (0-31)
+     * @return The packed tile state
+     */
+    public static byte pack(int owner, int starRating) {
+        assert owner >= NO_OWNER && owner <= PLAYER_TWO && starRating >= 0 && starRating < 32;
+        return (byte) (owner << 5 | starRating);
+    }
+
+    /**
+     * Get the owner from a packed tile state.
+     * @param tile The packed tile state
+     * @return The owner value
+     */
+    public static int ownerOf(byte tile) {
+        return (tile >> 5) & 0x3;
+    }
+
+    /**
+     * Get the star rating from a packed tile state.
+     * @param tile The packed tile state
+     * @return The star rating
+     */
+    public static int ratingOf(byte tile) {
+        return tile & 0x1F;
+    }
+
+    /**
+     * Copy the state of a model into this snapshot.
+     * Pre: model has been reset and has players
+     * @param model The model to copy
+     */
+    public void capture(GameModel model) {
+        Player playerOne = model.getPlayerOne();
+        Player playerTwo = model.getPlayerTwo();
+        assert playerOne != null && playerTwo != null && model.getTiles() != null;
+
+        names[0] = playerOne.getName();
+        names[1] = playerTwo.getName();
+        positions[0] = playerOne.getPosition();
+        positions[1] = playerTwo.getPosition();
+        money[0] = playerOne.getMoney();
+        money[1] = playerTwo.getMoney();
+        currentTurn = model.getCurrentTurn() == playerOne ? PLAYER_ONE : PLAYER_TWO;
+        currentRoll = model.getCurrentRoll();
+
+        Hotel[] modelTiles = model.getTiles();
+        if (tiles.length != modelTiles.length) {
+            tiles = new byte[modelTiles.length];
+        }
+        for (int position = 0; position < modelTiles.length; position++) {
+            Hotel hotel = modelTiles[position];
+            if (hotel == null || hotel.getOwner() == null) {
+                tiles[position] = pack(NO_OWNER, hotel == null ? 0 : hotel.getStarRating());
+            } else {
+                tiles[position] = pack(hotel.getOwner() == playerOne ? PLAYER_ONE : PLAYER_TWO, hotel.getStarRating());
+            }
+        }
+    }
+
+    /**
+     * Copy another snapshot into this one.
+     * @param other The snapshot to copy
+     */
+    public void copyFrom(GameSnapshot other) {
+        names[0] = other.names[0];
+        names[1] = other.names[1];
+        positions[0] = other.positions[0];
+        positions[1] = other.positions[1];
+        money[0] = other.money[0];
+        money[1] = other.money[1];
+        currentTurn = other.currentTurn;
+        currentRoll = other.currentRoll;
+        if (tiles.length != other.tiles.length) {
+            tiles = new byte[other.tiles.length];
+        }
+        System.arraycopy(other.tiles, 0, tiles, 0, tiles.length);
+    }
+
+    /**
+     * Write this snapshot.
+     * @param out The output to write to
+     * @throws IOException If the output cannot be written
+     */
+    public void write(DataOutput out) throws IOException {
+        out.writeUTF(names[0]);
+        out.writeUTF(names[1]);
+        for (int player = 0; player < 2; player++) {
+            out.writeInt(positions[player]);
+            out.writeDouble(money[player]);
+        }
+        out.writeByte(currentTurn);
+        out.writeByte(currentRoll);
+        out.writeInt(tiles.length);
+        out.write(tiles);
+    }
+
+    /**
+     * Read a snapshot written by write().
+     * @param in The input to read from
+     * @throws IOException If the input cannot be read
+     */
+    public void read(DataInput in) throws IOException {
+        names[0] = in.readUTF();
+        names[1] = in.readUTF();
+        for (int player = 0; player < 2; player++) {
+            positions[player] = in.readInt();
+            money[player] = in.readDouble();
+        }
+        currentTurn = in.readUnsignedByte();
+        currentRoll = in.readUnsignedByte();
+        int tileCount = in.readInt();
+        if (tiles.length != tileCount) {
+            tiles = new byte[tileCount];
+        }
+        in.readFully(tiles);
+    }
+
+    /**
+     * Get a player's name.
+     * @param player The player index (0 = player one, 1 = player two)
+     * @return The player's name
+     */
+    public String getName(int player) {
+        return names[player];
+    }
+
+    /**
+     * Set a player's name.
+     * @param player The player index
+     * @param name The player's name
+     */
+    public void setName(int player, String name) {
+        names[player] = name;
+    }
+
+    /**
+     * Get a player's position.
+     * @param player The player index
+     * @return The player's position
+     */
+    public int getPosition(int player) {
+        return positions[player];
+    }
+
+    /**
+     * Set a player's position.
+     * @param player The player index
+     * @param position The player's position
+     */
+    public void setPosition(int player, int position) {
+        positions[player] = position;
+    }
+
+    /**
+     * Get a player's money.
+     * @param player The player index
+     * @return The player's money
+     */
+    public double getMoney(int player) {
+        return money[player];
+    }
+
+    /**
+     * Set a player's money.
+     * @param player The player index
+     * @param money The player's money
+     */
+    public void setMoney(int player, double money) {
+        this.money[player] = money;
+    }
+
+    /**
+     * Get the player whose turn it is.
+     * @return PLAYER_ONE or PLAYER_TWO
+     */
+    public int getCurrentTurn() {
+        return currentTurn;
+    }
+
+    /**
+     * Set the player whose turn it is.
+     * @param currentTurn PLAYER_ONE or PLAYER_TWO
+     */
+    public void setCurrentTurn(int currentTurn) {
+        this.currentTurn = currentTurn;
+    }
+
+    /**
+     * Get the latest dice roll.
+     * @return The latest dice roll
+     */
+    public int getCurrentRoll() {
+        return currentRoll;
+    }
+
+    /**
+     * Set the latest dice roll.
+     * @param currentRoll The latest dice roll
+     */
+    public void setCurrentRoll(int currentRoll) {
+        this.currentRoll = currentRoll;
+    }
+
+    /**
+     * Get the number of tiles on the board.
+     * @return The tile count
+     */
+    public int getTileCount() {
+        return tiles.length;
+    }
+
+    /**
+     * Set the number of tiles on the board, clearing every tile.
+     * @param tileCount The tile count
+     */
+    public void setTileCount(int tileCount) {
+        if (tiles.length != tileCount) {
+            tiles = new byte[tileCount];
+        } else {
+            Arrays.fill(tiles, (byte) 0);
+        }
+    }
+
+    /**
+     * Get the packed state of a tile.
+     * @param position The tile position
+     * @return The packed owner and star rating
+     */
+    public byte getTile(int position) {
+        return tiles[position];
+    }
+
+    /**
+     * Set the packed state of a tile.
+     * @param position The tile position
+     * @param tile The packed owner and star rating
+     */
+    public void setTile(int position, byte tile) {
+        tiles[position] = tile;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof GameSnapshot)) {
+            return false;
+        }
+        GameSnapshot other = (GameSnapshot) o;
+        return currentTurn == other.currentTurn
+                && currentRoll == other.currentRoll
+                && Arrays.equals(names, other.names)
+                && Arrays.equals(positions, other.positions)
+                && Arrays.equals(money, other.money)
+                && Arrays.equals(tiles, other.tiles);
+    }
+
+    @Override
+    public int hashCode() {
+        int result = Arrays.hashCode(names);
+        result = 31 * result + Arrays.hashCode(positions);
+        result = 31 * result + Arrays.hashCode(money);
+        result = 31 * result + currentTurn;
+        result = 31 * result + currentRoll;
+        result = 31 * result + Arrays.hashCode(tiles);
+        return result;
+    }
+}
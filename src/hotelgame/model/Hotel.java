@@ -15,6 +15,11 @@ public class Hotel {
      */
     private final int number;
 
+    /**
+     * The hotel name, the group followed by the number (A1, B2, etc..).
+     */
+    private final String name;
+
     /**
      * The rating the hotel has.
      */
@@ -30,11 +35,36 @@ public class Hotel {
      */
     private Player owner;
 
+    /**
+     * The rule tables the hotel's fees are looked up in.
+     */
+    private final RuleTables rules;
+
+    /**
+     * The hotel's position in the rule tables.
+     */
+    private final int position;
+
     public Hotel(String group, int number, int price) {
+        this(group, number, price, new RuleTables(RuleSet.STANDARD, new int[] {price}), 0);
+    }
+
+    /**
+     * Create a hotel of a board, with the board's compiled rules.
+     * @param group The hotel group
+     * @param number The hotel number
+     * @param price The price
+     * @param rules The rule tables of the board
+     * @param position The hotel's position on the board
+     */
+    Hotel(String group, int number, int price, RuleTables rules, int position) {
         this.group = group;
         this.number = number;
+        this.name = group + number;
         this.price = price;
         this.starRating = 0;
+        this.rules = rules;
+        this.position = position;
     }
 
     /**
@@ -42,7 +72,7 @@ public class Hotel {
      * @return name
      */
     public String getName() {
-        return this.group + this.number;
+        return this.name;
     }
 
     /**
@@ -81,6 +111,19 @@ public class Hotel {
         assert this.owner == owner;
     }
 
+    /**
+     * Overwrite the owner and star rating of this hotel.
+     * Used when restoring a model from a snapshot.
+     * Pre: starRating >= 0 and <= the highest rating
+     * @param owner The new owner, or null for no owner
+     * @param starRating The new star rating
+     */
+    void restore(Player owner, int starRating) {
+        assert starRating >= 0 && starRating <= getMaxRating();
+        this.owner = owner;
+        this.starRating = starRating;
+    }
+
     /**
      * Get the hotel price
      * @return price
@@ -91,18 +134,35 @@ public class Hotel {
 
     /**
      * Get the hotel overnight fee.
-     * @return 10% of price * starRating^2
+     * @return 10% of price * starRating^2 under the standard rules
      */
     public double getOvernightFee() {
-        return this.starRating == 0 ? 0.0 : (0.10 * this.price) * Math.pow(this.starRating, 2);
+        return rules.getFee(position, starRating, GameProbe.FEE_NORMAL);
+    }
+
+    /**
+     * Get the hotel overnight fee as changed by the rest of its group.
+     * @param modifier FEE_NORMAL, FEE_HALF or FEE_DOUBLE (see GameProbe)
+     * @return The fee
+     */
+    public double getOvernightFee(int modifier) {
+        return rules.getFee(position, starRating, modifier);
     }
 
     /**
      * Get the increase rating fee
-     * @return 50% of price
+     * @return 50% of price under the standard rules
      */
     public double getIncreaseRatingFee() {
-        return this.price * 0.50;
+        return rules.getIncreaseFee(position);
+    }
+
+    /**
+     * Get the highest star rating the rules allow.
+     * @return The highest rating, 5 under the standard rules
+     */
+    public int getMaxRating() {
+        return rules.getMaxRating();
     }
 
     /**
@@ -131,20 +191,53 @@ public class Hotel {
 
     /**
      * Attempt to increase the star rating.
-     * Pre: owner != null, starRating < 5
+     * Pre: owner != null, starRating < the highest rating
      * Post: if owner's money > increaseRatingCost, starRating is increased by 1 and returns true; else returns false
      * @return True if the rating was successfully increased.
      */
     public boolean increaseStarRating() {
-        assert this.owner != null && this.starRating < 5;
+        assert this.owner != null && this.starRating < getMaxRating();
         double increaseRatingCost = this.getIncreaseRatingFee();
         if (this.owner.getMoney() > increaseRatingCost) {
             this.owner.deductMoney(increaseRatingCost);
             this.starRating++;
-            assert this.starRating <= 5;
+            assert this.starRating <= getMaxRating();
             return true;
         } else {
             return false;
         }
     }
+
+    /**
+     * Attempt to increase the star rating to a target in one step, raising it as far as the owner can afford.
+     * A star is affordable when the owner's money before paying for it is more than the fee, as in increaseStarRating(),
+     * so with money m and fee f the owner can afford k stars while m > k * f.
+     * Pre: owner != null, target <= the highest rating
+     * Post: starRating is raised by the affordable stars up to target and their fees are deducted once
+     * @param target The desired star rating
+     * @return The number of stars added
+     */
+    public int increaseStarRatingTo(int target) {
+        assert this.owner != null && target <= getMaxRating();
+        int wanted = target - this.starRating;
+        if (wanted <= 0) {
+            return 0;
+        }
+        double fee = this.getIncreaseRatingFee();
+        double money = this.owner.getMoney();
+        assert fee > 0;
+        // k < m / f; correct the rounded quotient against the exact comparison
+        int stars = (int) Math.min(wanted, Math.max(0, Math.ceil(money / fee) - 1));
+        if (stars < wanted && money > (stars + 1) * fee) {
+            stars++;
+        } else if (stars > 0 && !(money > stars * fee)) {
+            stars--;
+        }
+        if (stars > 0) {
+            this.owner.deductMoney(stars * fee);
+            this.starRating += stars;
+        }
+        assert this.starRating <= getMaxRating();
+        return stars;
+    }
 }
\ No newline at end of file
@@ -0,0 +1,134 @@
+package hotelgame.model;
+
+import java.util.Arrays;
+
+/**
+ * The exact probability of each player landing on each tile over their next turns, from where they stand now.
+ * Each player's position is a Markov chain moved by the dice, so the distribution of where they stand is
+ * carried forward one turn at a time and added up; nothing is sampled. The forecast is refined one turn
+ * at a time, so it can be shown before it reaches its horizon.
+ * Landings only depend on positions and dice, not on who owns what, so a forecast stays valid across
+ * purchases and rating increases until a player moves.
+ */
+public class LandingForecast {
+
+    /**
+     * The probability of each dice total.
+     */
+    private final double[] rolls;
+
+    /**
+     * The starting positions of player one and player two.
+     */
+    private final int[] start;
+
+    /**
+     * The probability of each player standing on each tile after the turns so far, at index player * tiles + position.
+     */
+    private double[] standing;
+
+    /**
+     * The distribution after one more turn, swapped with standing.
+     */
+    private double[] next;
+
+    /**
+     * The expected number of landings of each player on each tile over the turns so far, indexed as standing.
+     */
+    private final double[] landings;
+
+    /**
+     * The number of tiles on the board.
+     */
+    private final int tiles;
+
+    /**
+     * The number of turns forecast so far.
+     */
+    private int turns;
+
+    /**
+     * Start a forecast with no turns.
+     * Pre: 0 <= playerOne, playerTwo < tileCount
+     * @param dice The dice the players roll
+     * @param tileCount The number of tiles on the board
+     * @param playerOne The position of player one
+     * @param playerTwo The position of player two
+     */
+    public LandingForecast(DiceDistribution dice, int tileCount, int playerOne, int playerTwo) {
+        assert playerOne >= 0 && playerOne < tileCount && playerTwo >= 0 && playerTwo < tileCount;
+        this.rolls = dice.getProbabilities();
+        this.tiles = tileCount;
+        this.start = new int[] {playerOne, playerTwo};
+        this.standing = new double[2 * tileCount];
+        this.next = new double[2 * tileCount];
+        this.landings = new double[2 * tileCount];
+        standing[playerOne] = 1;
+        standing[tileCount + playerTwo] = 1;
+    }
+
+    /**
+     * Forecast one more turn of each player.
+     * Post: getTurns() is one higher
+     */
+    public void advance() {
+        Arrays.fill(next, 0);
+        for (int player = 0; player < 2; player++) {
+            int offset = player * tiles;
+            for (int from = 0; from < tiles; from++) {
+                double p = standing[offset + from];
+                if (p == 0) {
+                    continue;
+                }
+                for (int roll = 1; roll < rolls.length; roll++) {
+                    next[offset + (from + roll) % tiles] += p * rolls[roll];
+                }
+            }
+        }
+        double[] swap = standing;
+        standing = next;
+        next = swap;
+        for (int i = 0; i < landings.length; i++) {
+            landings[i] += standing[i];
+        }
+        turns++;
+    }
+
+    /**
+     * Get the number of turns forecast so far.
+     * @return The number of turns
+     */
+    public int getTurns() {
+        return turns;
+    }
+
+    /**
+     * Does this forecast start from the given positions?
+     * @param playerOne The position of player one
+     * @param playerTwo The position of player two
+     * @return True if the players started there
+     */
+    public boolean startsAt(int playerOne, int playerTwo) {
+        return start[0] == playerOne && start[1] == playerTwo;
+    }
+
+    /**
+     * Get the expected number of times a player lands on a tile over the turns so far.
+     * @param player The player index (0 = one, 1 = two)
+     * @param position The tile position
+     * @return The expected landings
+     */
+    public double getExpectedLandings(int player, int position) {
+        return landings[player * tiles + position];
+    }
+
+    /**
+     * Get the probability of a player landing on a tile in a turn, averaged over the turns so far.
+     * @param player The player index (0 = one, 1 = two)
+     * @param position The tile position
+     * @return The probability per turn, or 0 before the first turn
+     */
+    public double getLandingProbability(int player, int position) {
+        return turns == 0 ? 0 : landings[player * tiles + position] / turns;
+    }
+}
@@ -25,9 +25,19 @@ public class Player {
     private int position;
 
     public Player(String name) {
-        assert name != null && !name.isEmpty();
+        this(name, 2000);
+    }
+
+    /**
+     * Create a player with an amount of starting money.
+     * Pre: name is not empty, startingMoney >= 0
+     * @param name The player's display name
+     * @param startingMoney The money the player starts with
+     */
+    public Player(String name, double startingMoney) {
+        assert name != null && !name.isEmpty() && startingMoney >= 0;
         this.name = name;
-        this.money = 2000;
+        this.money = startingMoney;
         this.position = 0;
     }
 
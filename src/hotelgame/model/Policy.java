@@ -0,0 +1,41 @@
+package hotelgame.model;
+
+/**
+ * Decides purchases and rating increases for GameModel.playTurns().
+ * Implementations are called from a tight simulation loop, so they should not allocate.
+ */
+public interface Policy {
+
+    /**
+     * Buy every affordable hotel and raise it as far as the money allows.
+     */
+    Policy GREEDY = new Policy() {
+        @Override
+        public boolean shouldBuy(GameModel model, int position) {
+            return true;
+        }
+
+        @Override
+        public int targetRating(GameModel model, int position) {
+            return 5;
+        }
+    };
+
+    /**
+     * Decide whether the current player buys the un-owned hotel they landed on.
+     * Only called when the player can afford the hotel.
+     * @param model The game model
+     * @param position The position of the hotel
+     * @return True to buy the hotel
+     */
+    boolean shouldBuy(GameModel model, int position);
+
+    /**
+     * Decide the star rating the current player wants for the hotel they own and landed on.
+     * The rating is raised one star at a time until it reaches the target or the player cannot afford more.
+     * @param model The game model
+     * @param position The position of the hotel
+     * @return The desired star rating (0-5)
+     */
+    int targetRating(GameModel model, int position);
+}
@@ -0,0 +1,182 @@
+package hotelgame.model;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.WeakHashMap;
+
+/**
+ * The house rules of a game: how overnight fees and rating increases are priced, how the rest of a group
+ * changes a fee, and the highest star rating.
+ * A rule set is compiled once per board into RuleTables shared by every game using it,
+ * so games look fees up rather than working them out each turn.
+ */
+public class RuleSet {
+
+    /**
+     * The standard rules: a fee of 10% of the price times the rating squared, raising a rating costs 50% of the price,
+     * the fee is halved when the payer owns part of the group and doubled when the owner owns all of it, and at most 5 stars.
+     */
+    public static final RuleSet STANDARD = new RuleSet(0.10, 2, 0.50, 0.5, 2, 5);
+
+    /**
+     * The highest star rating any rule set may allow, the most a GameSnapshot can hold.
+     */
+    public static final int MAX_RATING = 5;
+
+    /**
+     * The fraction of the price charged per unit of rating^feeExponent.
+     */
+    private final double feeRate;
+
+    /**
+     * The power of the rating in the fee.
+     */
+    private final double feeExponent;
+
+    /**
+     * The fraction of the price a one star increase costs.
+     */
+    private final double increaseRate;
+
+    /**
+     * The multiplier of the fee when the payer owns a hotel in the group.
+     */
+    private final double halfMultiplier;
+
+    /**
+     * The multiplier of the fee when the owner owns the whole group.
+     */
+    private final double doubleMultiplier;
+
+    /**
+     * The highest star rating.
+     */
+    private final int maxRating;
+
+    /**
+     * The tables compiled for each board.
+     */
+    private final Map<BoardDefinition, RuleTables> compiled = Collections.synchronizedMap(new WeakHashMap<>());
+
+    /**
+     * Create a rule set.
+     * @param feeRate The fraction of the price charged per unit of rating^feeExponent
+     * @param feeExponent The power of the rating in the fee
+     * @param increaseRate The fraction of the price a one star increase costs
+     * @param halfMultiplier The multiplier of the fee when the payer owns a hotel in the group
+     * @param doubleMultiplier The multiplier of the fee when the owner owns the whole group
+     * @param maxRating The highest star rating, from 1 to MAX_RATING
+     * @throws IllegalArgumentException If a rate or multiplier is negative or the highest rating is out of range
+     */
+    public RuleSet(double feeRate, double feeExponent, double increaseRate, double halfMultiplier,
+                   double doubleMultiplier, int maxRating) {
+        if (!(feeRate >= 0) || !(increaseRate > 0) || !(halfMultiplier >= 0) || !(doubleMultiplier >= 0)
+                || Double.isNaN(feeExponent) || maxRating < 1 || maxRating > MAX_RATING) {
+            throw new IllegalArgumentException("Invalid rule set");
+        }
+        this.feeRate = feeRate;
+        this.feeExponent = feeExponent;
+        this.increaseRate = increaseRate;
+        this.halfMultiplier = halfMultiplier;
+        this.doubleMultiplier = doubleMultiplier;
+        this.maxRating = maxRating;
+    }
+
+    /**
+     * Parse a rule set from the standard rules with some changed, as comma separated name=value pairs.
+     * The names are fee, exponent, increase, half, double and max, e.g. "fee=0.15,max=3".
+     * @param text The changed rules, or an empty string for the standard rules
+     * @return The rule set
+     * @throws IllegalArgumentException If a pair is malformed or a rule unknown or out of range
+     */
+    public static RuleSet parse(String text) {
+        double feeRate = STANDARD.feeRate, feeExponent = STANDARD.feeExponent, increaseRate = STANDARD.increaseRate;
+        double halfMultiplier = STANDARD.halfMultiplier, doubleMultiplier = STANDARD.doubleMultiplier;
+        int maxRating = STANDARD.maxRating;
+        for (String pair : text.split(",")) {
+            if (pair.isBlank()) {
+                continue;
+            }
+            String[] parts = pair.split("=");
+            if (parts.length != 2) {
+                throw new IllegalArgumentException("Expected name=value: " + pair);
+            }
+            String value = parts[1].trim();
+            try {
+                switch (parts[0].trim()) {
+                    case "fee": feeRate = Double.parseDouble(value); break;
+                    case "exponent": feeExponent = Double.parseDouble(value); break;
+                    case "increase": increaseRate = Double.parseDouble(value); break;
+                    case "half": halfMultiplier = Double.parseDouble(value); break;
+                    case "double": doubleMultiplier = Double.parseDouble(value); break;
+                    case "max": maxRating = Integer.parseInt(value); break;
+                    default: throw new IllegalArgumentException("Unknown rule: " + parts[0]);
+                }
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("Invalid number: " + pair, e);
+            }
+        }
+        return new RuleSet(feeRate, feeExponent, increaseRate, halfMultiplier, doubleMultiplier, maxRating);
+    }
+
+    /**
+     * Get the tables of this rule set for a board, compiling them the first time.
+     * @param board The board definition
+     * @return The tables, shared by every game on the board with these rules
+     */
+    public RuleTables compile(BoardDefinition board) {
+        return compiled.computeIfAbsent(board, b -> {
+            int[] prices = new int[b.getTileCount()];
+            for (int position = 0; position < prices.length; position++) {
+                prices[position] = b.getPrice(position);
+            }
+            return new RuleTables(this, prices);
+        });
+    }
+
+    /**
+     * Work out the overnight fee of a hotel before the group modifier.
+     * @param price The hotel price
+     * @param rating The star rating
+     * @return The fee, 0 for no stars
+     */
+    double overnightFee(double price, int rating) {
+        // Same expression as the hardwired rules so the standard fees are bit-for-bit identical
+        return rating == 0 ? 0.0 : (feeRate * price) * Math.pow(rating, feeExponent);
+    }
+
+    /**
+     * Work out the cost of raising a hotel's rating by one star.
+     * @param price The hotel price
+     * @return The cost
+     */
+    double increaseFee(double price) {
+        return price * increaseRate;
+    }
+
+    /**
+     * Get the multiplier of a fee modifier.
+     * @param modifier FEE_NORMAL, FEE_HALF or FEE_DOUBLE (see GameProbe)
+     * @return The multiplier
+     */
+    double multiplier(int modifier) {
+        return modifier == GameProbe.FEE_HALF ? halfMultiplier : modifier == GameProbe.FEE_DOUBLE ? doubleMultiplier : 1;
+    }
+
+    /**
+     * Get the highest star rating.
+     * @return The highest rating
+     */
+    public int getMaxRating() {
+        return maxRating;
+    }
+
+    /**
+     * Describe the rule set in the form parse() reads.
+     */
+    @Override
+    public String toString() {
+        return "fee=" + feeRate + ",exponent=" + feeExponent + ",increase=" + increaseRate
+                + ",half=" + halfMultiplier + ",double=" + doubleMultiplier + ",max=" + maxRating;
+    }
+}
@@ -0,0 +1,87 @@
+package hotelgame.model;
+
+/**
+ * A RuleSet compiled for the hotel prices of a board: every fee and rating cost looked up by position.
+ * Immutable, and shared by every game on the board with the same rules.
+ */
+public class RuleTables {
+
+    /**
+     * The rules the tables were compiled from.
+     */
+    private final RuleSet rules;
+
+    /**
+     * The number of ratings, 0 to the highest.
+     */
+    private final int ratings;
+
+    /**
+     * The overnight fee by position, modifier and rating, at index (position * 3 + modifier) * ratings + rating.
+     */
+    private final double[] fees;
+
+    /**
+     * The cost of a one star increase by position.
+     */
+    private final double[] increaseFees;
+
+    /**
+     * Compile the tables of a rule set.
+     * @param rules The rules
+     * @param prices The hotel price of each position, or 0 for blank tiles
+     */
+    RuleTables(RuleSet rules, int[] prices) {
+        this.rules = rules;
+        this.ratings = rules.getMaxRating() + 1;
+        this.fees = new double[prices.length * 3 * ratings];
+        this.increaseFees = new double[prices.length];
+        for (int position = 0; position < prices.length; position++) {
+            increaseFees[position] = rules.increaseFee(prices[position]);
+            for (int modifier = GameProbe.FEE_NORMAL; modifier <= GameProbe.FEE_DOUBLE; modifier++) {
+                for (int rating = 0; rating < ratings; rating++) {
+                    double fee = rules.overnightFee(prices[position], rating);
+                    fees[(position * 3 + modifier) * ratings + rating] =
+                            modifier == GameProbe.FEE_NORMAL ? fee : fee * rules.multiplier(modifier);
+                }
+            }
+        }
+    }
+
+    /**
+     * Get the overnight fee of a hotel.
+     * Pre: 0 <= rating <= the highest rating
+     * @param position The hotel's position
+     * @param rating The hotel's star rating
+     * @param modifier FEE_NORMAL, FEE_HALF or FEE_DOUBLE (see GameProbe)
+     * @return The fee
+     */
+    public double getFee(int position, int rating, int modifier) {
+        return fees[(position * 3 + modifier) * ratings + rating];
+    }
+
+    /**
+     * Get the cost of raising a hotel's rating by one star.
+     * @param position The hotel's position
+     * @return The cost
+     */
+    public double getIncreaseFee(int position) {
+        return increaseFees[position];
+    }
+
+    /**
+     * Get the highest star rating.
+     * @return The highest rating
+     */
+    public int getMaxRating() {
+        return ratings - 1;
+    }
+
+    /**
+     * Get the rules the tables were compiled from.
+     * @return The rule set
+     */
+    public RuleSet getRules() {
+        return rules;
+    }
+}
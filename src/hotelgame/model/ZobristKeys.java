@@ -0,0 +1,123 @@
+package hotelgame.model;
+
+/**
+ * The random keys of the Zobrist hash of a game on a board of a given size.
+ * A state's hash is the XOR of one key per feature (each tile's owner and rating, each player's position
+ * and money bucket, the side to move), so changing a feature costs two XORs.
+ * Keys come from a fixed splitmix64 sequence, so every process computes the same hash for the same state.
+ */
+final class ZobristKeys {
+
+    /**
+     * The number of owner and rating combinations per tile: 3 owners by 6 ratings.
+     */
+    static final int TILE_STATES = 18;
+
+    /**
+     * The width of a money bucket.
+     */
+    static final double MONEY_BUCKET = 50;
+
+    /**
+     * The number of money buckets. Money beyond the last bucket shares it.
+     */
+    static final int MONEY_BUCKETS = 256;
+
+    /**
+     * The key of each tile state, at position * TILE_STATES + owner * 6 + rating.
+     */
+    private final long[] tiles;
+
+    /**
+     * The key of each player position, at player * tileCount + position.
+     */
+    private final long[] positions;
+
+    /**
+     * The key of each player money bucket, at player * MONEY_BUCKETS + bucket.
+     */
+    private final long[] money;
+
+    /**
+     * The key toggled when it is player two's turn.
+     */
+    private final long playerTwoTurn;
+
+    /**
+     * The number of tiles on the board.
+     */
+    private final int tileCount;
+
+    /**
+     * Generate the keys for a board.
+     * @param tileCount The number of tiles on the board
+     */
+    ZobristKeys(int tileCount) {
+        this.tileCount = tileCount;
+        long state = 0x5EED_0F_407E1L;
+        tiles = new long[tileCount * TILE_STATES];
+        for (int i = 0; i < tiles.length; i++) {
+            tiles[i] = splitMix(state += 0x9E3779B97F4A7C15L);
+        }
+        positions = new long[2 * tileCount];
+        for (int i = 0; i < positions.length; i++) {
+            positions[i] = splitMix(state += 0x9E3779B97F4A7C15L);
+        }
+        money = new long[2 * MONEY_BUCKETS];
+        for (int i = 0; i < money.length; i++) {
+            money[i] = splitMix(state += 0x9E3779B97F4A7C15L);
+        }
+        playerTwoTurn = splitMix(state + 0x9E3779B97F4A7C15L);
+    }
+
+    /**
+     * Get the key of a tile state.
+     * @param position The tile position
+     * @param owner The owner code (see GameSnapshot)
+     * @param rating The star rating
+     * @return The key
+     */
+    long tile(int position, int owner, int rating) {
+        return tiles[position * TILE_STATES + owner * 6 + rating];
+    }
+
+    /**
+     * Get the key of a player position.
+     * @param player The player index
+     * @param position The position
+     * @return The key
+     */
+    long position(int player, int position) {
+        return positions[player * tileCount + position];
+    }
+
+    /**
+     * Get the key of a player's money bucket.
+     * @param player The player index
+     * @param amount The player's money
+     * @return The key
+     */
+    long money(int player, double amount) {
+        int bucket = (int) Math.min(MONEY_BUCKETS - 1, Math.max(0, amount / MONEY_BUCKET));
+        return money[player * MONEY_BUCKETS + bucket];
+    }
+
+    /**
+     * Get the key toggled when it is player two's turn.
+     * @return The key
+     */
+    long playerTwoTurn() {
+        return playerTwoTurn;
+    }
+
+    /**
+     * The splitmix64 finaliser.
+     * @param z The input
+     * @return The mixed value
+     */
+    static long splitMix(long z) {
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+}
@@ -0,0 +1,137 @@
+package hotelgame.model.tests;
+
+import hotelgame.model.BoardDefinition;
+import hotelgame.model.GameModel;
+import hotelgame.model.Player;
+import hotelgame.sim.LockstepEngine;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.StringReader;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BoardDefinitionTest {
+
+    /**
+     * Test the standard board layout
+     * Assert 40 tiles, 8 groups of 3 hotels, a 12 sided die and 2000 starting money
+     * Assert blanks at offsets 0 and 2 of each group and the price formula
+     */
+    @Test
+    void testStandardBoard() {
+        BoardDefinition board = BoardDefinition.standard();
+        assertEquals(GameModel.MAX_TILES, board.getTileCount());
+        assertEquals(8, board.getGroupCount());
+        assertEquals(12, board.getDiceSides());
+        assertEquals(2000, board.getStartingMoney());
+
+        assertFalse(board.isHotel(0));
+        assertFalse(board.isHotel(2));
+        assertEquals("A", board.getGroupName(board.getGroup(1)));
+        assertEquals(1, board.getNumber(1));
+        assertEquals(50, board.getPrice(1));
+        assertEquals(3, board.getNumber(4));
+        assertEquals(70, board.getPrice(4));
+        assertEquals("H", board.getGroupName(board.getGroup(39)));
+        assertEquals(420, board.getPrice(39));
+        for (int group = 0; group < board.getGroupCount(); group++) {
+            assertEquals(3, board.getGroupSize(group));
+        }
+    }
+
+    /**
+     * Test parsing a board definition
+     * Assert the dice, money, groups, numbers and prices are read
+     */
+    @Test
+    void testParse() throws IOException {
+        String definition = "# a small board\n"
+                + "dice 6\n"
+                + "money 500\n"
+                + "blank\n"
+                + "hotel X 100\n"
+                + "hotel Y 40\n"
+                + "\n"
+                + "hotel X 120\n";
+        BoardDefinition board = BoardDefinition.parse(new StringReader(definition));
+
+        assertEquals(4, board.getTileCount());
+        assertEquals(6, board.getDiceSides());
+        assertEquals(500, board.getStartingMoney());
+        assertEquals(2, board.getGroupCount());
+        assertEquals(2, board.getGroupSize(board.getGroup(1)));
+        assertEquals(2, board.getNumber(3));
+        assertEquals(120, board.getPrice(3));
+    }
+
+    /**
+     * Test invalid board definitions are rejected
+     * Assert a board starting with a hotel and an unknown entry throw IllegalArgumentException
+     */
+    @Test
+    void testParseInvalid() {
+        assertThrows(IllegalArgumentException.class,
+                () -> BoardDefinition.parse(new StringReader("hotel A 50\nblank\nblank\nblank\n")));
+        assertThrows(IllegalArgumentException.class,
+                () -> BoardDefinition.parse(new StringReader("blank\nblank\nblank\nfree parking\n")));
+    }
+
+    /**
+     * Test a die with more sides than the board has tiles
+     * Create a model on a 4 tile board with a 12 sided die and move every roll up to 12
+     * Assert the player wraps around the board as many times as the roll needs
+     * Step a lockstep engine with the same rolls and assert its positions match
+     * Assert a die with more sides than a saved roll holds is rejected
+     */
+    @Test
+    void testDiceLargerThanBoard() throws IOException {
+        BoardDefinition board = BoardDefinition.parse(new StringReader("dice 12\nblank\nhotel A 50\nblank\nhotel A 60\n"));
+        GameModel model = new GameModel(board);
+        model.reset();
+        model.createPlayers("one", "two");
+        LockstepEngine engine = new LockstepEngine(board, 1, 0);
+        engine.reset(board.getStartingMoney(), new int[] {0});
+        Player first = model.getCurrentTurn();
+
+        int expected = 0;
+        for (int roll = 1; roll <= board.getDiceSides(); roll++) {
+            model.movePlayer(roll);
+            engine.step(new int[] {roll});
+            expected = (expected + roll) % 4;
+            assertEquals(expected, first.getPosition());
+            assertEquals(expected, engine.getPosition(0, 0));
+            model.nextTurn();
+            model.movePlayer(4);
+            model.nextTurn();
+            engine.step(new int[] {4});
+        }
+
+        assertEquals(BoardDefinition.MAX_DICE_SIDES,
+                BoardDefinition.parse(new StringReader("dice 255\nblank\nblank\nblank\nblank\n")).getDiceSides());
+        assertThrows(IllegalArgumentException.class,
+                () -> BoardDefinition.parse(new StringReader("dice 256\nblank\nblank\nblank\nblank\n")));
+    }
+
+    /**
+     * Test a stress board with 10k tiles
+     * Create a model on it, buy the last hotel of the last group
+     * Assert the player starts with the board's money and the hotel name uses the generated group name
+     */
+    @Test
+    void testLargeBoard() {
+        BoardDefinition board = BoardDefinition.generate(2000);
+        assertEquals(10000, board.getTileCount());
+        assertEquals("BXX", board.getGroupName(1999));
+
+        GameModel model = new GameModel(board);
+        model.reset();
+        model.createPlayers("one", "two");
+        model.getCurrentTurn().setMoney(1_000_000);
+        model.movePlayer(9999);
+        model.buyHotel();
+
+        assertEquals("BXX3", model.getCurrentPlayerPositionHotel().getName());
+        assertEquals(board.getStartingMoney(), model.getOpposingTurn().getMoney());
+    }
+}
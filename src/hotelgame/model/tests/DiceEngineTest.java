@@ -0,0 +1,93 @@
+package hotelgame.model.tests;
+
+import hotelgame.model.DiceDistribution;
+import hotelgame.model.DiceEngine;
+import hotelgame.model.GameModel;
+import hotelgame.model.Policy;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DiceEngineTest {
+
+    /**
+     * Test seeded engines are reproducible
+     * Roll two engines with the same seed past a buffer refill
+     * Assert they produce the same rolls in range
+     */
+    @Test
+    void testSeededRollsRepeat() {
+        DiceEngine first = new DiceEngine(DiceDistribution.uniform(12), 7);
+        DiceEngine second = new DiceEngine(DiceDistribution.uniform(12), 7);
+        for (int i = 0; i < 5000; i++) {
+            int roll = first.roll();
+            assertTrue(roll >= 1 && roll <= 12);
+            assertEquals(roll, second.roll());
+        }
+    }
+
+    /**
+     * Test two dice totals and doubles
+     * Roll 2d6 many times
+     * Assert totals are 2-12, 7 is the most common total and doubles come up about 1 in 6
+     */
+    @Test
+    void testTwoDice() {
+        DiceEngine dice = new DiceEngine(DiceDistribution.twoDice(6), 3);
+        int rolls = 120_000;
+        int[] counts = new int[13];
+        int doubles = 0;
+        for (int i = 0; i < rolls; i++) {
+            int roll = dice.roll();
+            assertTrue(roll >= 2 && roll <= 12);
+            counts[roll]++;
+            if (dice.isDoubles()) {
+                doubles++;
+                assertEquals(0, roll % 2);
+            }
+        }
+        for (int total = 2; total <= 12; total++) {
+            assertTrue(counts[7] >= counts[total]);
+        }
+        assertEquals(1.0 / 6, (double) doubles / rolls, 0.01);
+        assertEquals(12, DiceDistribution.twoDice(6).getMaxRoll());
+    }
+
+    /**
+     * Test a weighted die
+     * Weight faces 1 and 3 at 1:3 with face 2 never rolled
+     * Assert face 2 never comes up and face 3 is about three times as common as face 1
+     */
+    @Test
+    void testWeightedDie() {
+        DiceEngine dice = new DiceEngine(DiceDistribution.weighted(1, 0, 3), 11);
+        int[] counts = new int[4];
+        for (int i = 0; i < 40_000; i++) {
+            counts[dice.roll()]++;
+        }
+        assertEquals(0, counts[2]);
+        assertEquals(3.0, (double) counts[3] / counts[1], 0.2);
+    }
+
+    /**
+     * Test seeded models play the same game
+     * Play two models with the same seed to the end
+     * Assert the same first player, number of turns and final money
+     */
+    @Test
+    void testSeededModelsRepeat() {
+        GameModel first = new GameModel();
+        GameModel second = new GameModel();
+        first.setDice(new DiceEngine(DiceDistribution.uniform(12), 99));
+        second.setDice(new DiceEngine(DiceDistribution.uniform(12), 99));
+        first.reset();
+        second.reset();
+        first.createPlayers("one", "two");
+        second.createPlayers("one", "two");
+
+        assertEquals(first.getCurrentTurn().getName(), second.getCurrentTurn().getName());
+        assertEquals(first.playTurns(100_000, Policy.GREEDY), second.playTurns(100_000, Policy.GREEDY));
+        assertEquals(first.getPlayerOne().getMoney(), second.getPlayerOne().getMoney());
+        assertEquals(first.getPlayerTwo().getMoney(), second.getPlayerTwo().getMoney());
+    }
+}
@@ -1,9 +1,15 @@
 package hotelgame.model.tests;
 
 import hotelgame.model.GameModel;
+import hotelgame.model.GameSnapshot;
 import hotelgame.model.Player;
+import hotelgame.model.Policy;
 import org.junit.jupiter.api.Test;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Observer;
+
 import static org.junit.jupiter.api.Assertions.*;
 
 class GameModelTest {
@@ -308,4 +314,231 @@ class GameModelTest {
 
         assertThrows(AssertionError.class, model::payOvernightFee);
     }
+
+    /**
+     * Test playing turns in bulk
+     * Register an observer counting notifications
+     * Play 10 turns with the greedy policy
+     * Assert 10 turns were played and observers were notified once
+     */
+    @Test
+    void testPlayTurns() {
+        GameModel model = new GameModel();
+        model.reset();
+        model.createPlayers("one", "two");
+        int[] notifications = {0};
+        model.addObserver((observable, arg) -> notifications[0]++);
+
+        int played = model.playTurns(10, Policy.GREEDY);
+
+        assertEquals(10, played);
+        assertEquals(1, notifications[0]);
+    }
+
+    /**
+     * Test a batch of turns makes views refresh every tile
+     * Register an observer recording the generation when notified
+     * Play one turn and assert the generation is unchanged, since only the landed tile can have changed
+     * Play 30 turns and assert observers saw a new generation, since hotels may have changed anywhere
+     */
+    @Test
+    void testPlayTurnsChangesGeneration() {
+        GameModel model = new GameModel();
+        model.reset();
+        model.createPlayers("one", "two");
+        int[] notified = {-1};
+        model.addObserver((observable, arg) -> notified[0] = model.getGeneration());
+        int generation = model.getGeneration();
+
+        assertEquals(1, model.playTurns(1, Policy.GREEDY));
+        assertEquals(generation, notified[0]);
+
+        assertTrue(model.playTurns(30, Policy.GREEDY) > 1);
+        assertNotEquals(generation, notified[0]);
+        assertEquals(model.getGeneration(), notified[0]);
+    }
+
+    /**
+     * Test bulk turns stop when the game is over
+     * Play until the game ends
+     * Assert fewer turns than requested were played and the game is over
+     * Assert no more turns are played afterwards
+     */
+    @Test
+    void testPlayTurnsStopsAtGameOver() {
+        GameModel model = new GameModel();
+        model.reset();
+        model.createPlayers("one", "two");
+
+        int played = model.playTurns(1_000_000, Policy.GREEDY);
+
+        assertTrue(played < 1_000_000);
+        assertTrue(model.isGameOver());
+        assertEquals(0, model.playTurns(10, Policy.GREEDY));
+    }
+
+    /**
+     * Test the double fee still applies after the model has been reset
+     * Reset the model twice
+     * Buy all three A hotels and rate them 1/5 stars
+     * Switch to the other player and move them to A1
+     * Assert the fee is doubled
+     */
+    @Test
+    void testPayOvernightFeeDoubleAfterReset() {
+        GameModel model = new GameModel();
+        model.reset();
+        model.reset();
+        model.createPlayers("one", "two");
+        model.movePlayer(1);
+        model.buyHotel();
+        model.increaseStarRating();
+        model.movePlayer(2);
+        model.buyHotel();
+        model.increaseStarRating();
+        model.movePlayer(1);
+        model.buyHotel();
+        model.increaseStarRating();
+
+        model.nextTurn();
+        model.movePlayer(1);
+
+        assertEquals(10.0, model.payOvernightFee());
+    }
+
+    /**
+     * Test the incremental hash
+     * Turn on hash verification, which throws if the hash ever differs from a full recomputation
+     * Play a game through both the single step methods and playTurns
+     * Assert the hash changes with the state
+     */
+    @Test
+    void testHashMatchesRecomputation() {
+        GameModel model = new GameModel();
+        model.reset();
+        model.createPlayers("one", "two");
+        model.setVerifyHash(true);
+
+        long start = model.getHash();
+        model.movePlayer(1);
+        assertNotEquals(start, model.getHash());
+        model.buyHotel();
+        model.increaseStarRating();
+        model.nextTurn();
+        model.movePlayer(1);
+        model.payOvernightFee();
+        model.nextTurn();
+
+        model.playTurns(1_000, Policy.GREEDY);
+        assertEquals(model.computeHash(), model.getHash());
+    }
+
+    /**
+     * Test equal states have equal hashes
+     * Play a game on one model and restore its state into another
+     * Assert both have the same hash
+     * Pass the turn on one of them
+     * Assert the hashes differ
+     */
+    @Test
+    void testHashOfRestoredState() {
+        GameModel source = new GameModel();
+        source.reset();
+        source.createPlayers("one", "two");
+        source.playTurns(30, Policy.GREEDY);
+
+        GameSnapshot snapshot = new GameSnapshot();
+        snapshot.capture(source);
+        GameModel copy = new GameModel();
+        copy.restore(snapshot);
+
+        assertEquals(source.getHash(), copy.getHash());
+        copy.nextTurn();
+        assertNotEquals(source.getHash(), copy.getHash());
+    }
+
+    /**
+     * Test increasing a hotel's star rating to a target in one change
+     * Move the current turn's player to A1 and buy it
+     * Increase the rating to 3 stars
+     * Assert the rating, the money spent and a single notification
+     */
+    @Test
+    void testIncreaseStarRatingTo() {
+        GameModel model = new GameModel();
+        model.reset();
+        model.createPlayers("one", "two");
+        model.movePlayer(1);
+        model.buyHotel();
+        double money = model.getCurrentTurn().getMoney();
+        int[] notifications = {0};
+        model.addObserver((observable, arg) -> notifications[0]++);
+
+        assertEquals(3, model.increaseStarRatingTo(3));
+        assertEquals(3, model.getCurrentPlayerPositionHotel().getStarRating());
+        assertEquals(money - 3 * model.getCurrentPlayerPositionHotel().getIncreaseRatingFee(), model.getCurrentTurn().getMoney());
+        assertEquals(1, notifications[0]);
+        assertEquals(model.computeHash(), model.getHash());
+
+        assertEquals(3, model.increaseStarRatingTo(2));
+        assertEquals(1, notifications[0]);
+    }
+
+    /**
+     * Test increasing to a target matches increasing one star at a time
+     * For each amount of money around multiples of the fee, buy A1 on two models
+     * Increase one to 5 stars in one change and the other one star at a time
+     * Assert both reach the same rating and money
+     */
+    @Test
+    void testIncreaseStarRatingToMatchesSteps() {
+        for (int cents = 0; cents <= 15_000; cents += 25) {
+            GameModel atOnce = new GameModel();
+            GameModel steps = new GameModel();
+            for (GameModel model : new GameModel[] {atOnce, steps}) {
+                model.reset();
+                model.createPlayers("one", "two");
+                model.movePlayer(1);
+                model.buyHotel();
+                model.getCurrentTurn().setMoney(cents / 100.0);
+            }
+
+            atOnce.increaseStarRatingTo(5);
+            while (steps.getCurrentPlayerPositionHotel().getStarRating() < 5 && steps.increaseStarRating()) {
+                // keep increasing until the player runs short
+            }
+            assertEquals(steps.getCurrentPlayerPositionHotel().getStarRating(), atOnce.getCurrentPlayerPositionHotel().getStarRating());
+            assertEquals(steps.getCurrentTurn().getMoney(), atOnce.getCurrentTurn().getMoney(), 1e-9);
+        }
+    }
+
+    /**
+     * Add two observers, one of them twice, and buy a hotel
+     * Assert each observer is told once, most recently added first
+     * Delete the first observer and end the turn
+     * Assert only the second observer is told
+     */
+    @Test
+    void testObserversNotifiedOnceInReverseOrder() {
+        GameModel model = new GameModel();
+        model.reset();
+        model.createPlayers("Player One", "Player Two");
+        List<String> told = new ArrayList<>();
+        Observer first = (observable, arg) -> told.add("first");
+        Observer second = (observable, arg) -> told.add("second");
+        model.addObserver(first);
+        model.addObserver(second);
+        model.addObserver(first);
+        assertEquals(2, model.countObservers());
+
+        model.movePlayer(1);
+        told.clear();
+        model.buyHotel();
+        assertEquals(List.of("second", "first"), told);
+
+        told.clear();
+        model.deleteObserver(first);
+        model.nextTurn();
+        assertEquals(List.of("second"), told);
+    }
 }
\ No newline at end of file
@@ -0,0 +1,72 @@
+package hotelgame.model.tests;
+
+import hotelgame.model.DiceDistribution;
+import hotelgame.model.LandingForecast;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LandingForecastTest {
+
+    /**
+     * Read back the probabilities of a fair die, two dice and a weighted die
+     * Assert they match the faces and their weights
+     */
+    @Test
+    void testDiceProbabilities() {
+        double[] die = DiceDistribution.uniform(6).getProbabilities();
+        assertEquals(0, die[0]);
+        for (int face = 1; face <= 6; face++) {
+            assertEquals(1.0 / 6, die[face], 1e-12);
+        }
+
+        double[] twoDice = DiceDistribution.twoDice(6).getProbabilities();
+        assertEquals(1.0 / 36, twoDice[2], 1e-12);
+        assertEquals(6.0 / 36, twoDice[7], 1e-12);
+        assertEquals(1.0 / 36, twoDice[12], 1e-12);
+
+        double[] weighted = DiceDistribution.weighted(1, 0, 3).getProbabilities();
+        assertEquals(0.25, weighted[1], 1e-12);
+        assertEquals(0, weighted[2], 1e-12);
+        assertEquals(0.75, weighted[3], 1e-12);
+    }
+
+    /**
+     * Forecast one turn with a fair die from positions 0 and 38 of 40
+     * Assert each player lands on the six tiles ahead with probability 1/6, wrapping past the end
+     */
+    @Test
+    void testOneTurn() {
+        LandingForecast forecast = new LandingForecast(DiceDistribution.uniform(6), 40, 0, 38);
+        forecast.advance();
+        assertEquals(1, forecast.getTurns());
+        for (int roll = 1; roll <= 6; roll++) {
+            assertEquals(1.0 / 6, forecast.getLandingProbability(0, roll), 1e-12);
+            assertEquals(1.0 / 6, forecast.getLandingProbability(1, (38 + roll) % 40), 1e-12);
+        }
+        assertEquals(0, forecast.getLandingProbability(0, 0));
+        assertEquals(0, forecast.getLandingProbability(1, 38));
+    }
+
+    /**
+     * Forecast 2000 turns with two dice
+     * Assert each player lands once per turn in total, and every tile tends to the same probability
+     */
+    @Test
+    void testTendsToUniform() {
+        LandingForecast forecast = new LandingForecast(DiceDistribution.twoDice(6), 40, 5, 17);
+        for (int turn = 0; turn < 2000; turn++) {
+            forecast.advance();
+        }
+        for (int player = 0; player < 2; player++) {
+            double landings = 0;
+            for (int position = 0; position < 40; position++) {
+                landings += forecast.getExpectedLandings(player, position);
+                assertEquals(1.0 / 40, forecast.getLandingProbability(player, position), 1e-3);
+            }
+            assertEquals(2000, landings, 1e-6);
+        }
+        assertTrue(forecast.startsAt(5, 17));
+        assertFalse(forecast.startsAt(17, 5));
+    }
+}
@@ -0,0 +1,93 @@
+package hotelgame.model.tests;
+
+import hotelgame.model.BoardDefinition;
+import hotelgame.model.GameModel;
+import hotelgame.model.GameProbe;
+import hotelgame.model.RuleSet;
+import hotelgame.model.RuleTables;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RuleSetTest {
+
+    /**
+     * Compile the standard rules for the standard board
+     * Assert every fee and rating cost is exactly what the hardwired rules worked out
+     */
+    @Test
+    void testStandardMatchesHardwiredRules() {
+        BoardDefinition board = BoardDefinition.standard();
+        RuleTables tables = RuleSet.STANDARD.compile(board);
+        assertEquals(5, tables.getMaxRating());
+        for (int position = 0; position < board.getTileCount(); position++) {
+            double price = board.getPrice(position);
+            assertEquals(price * 0.50, tables.getIncreaseFee(position));
+            for (int rating = 0; rating <= 5; rating++) {
+                double fee = rating == 0 ? 0.0 : (0.10 * price) * Math.pow(rating, 2);
+                assertEquals(fee, tables.getFee(position, rating, GameProbe.FEE_NORMAL));
+                assertEquals(fee / 2, tables.getFee(position, rating, GameProbe.FEE_HALF));
+                assertEquals(fee * 2, tables.getFee(position, rating, GameProbe.FEE_DOUBLE));
+            }
+        }
+    }
+
+    /**
+     * Create two games with the same rules on the same board, and one on another board
+     * Assert the games on the same board share one set of tables and the other board has its own
+     */
+    @Test
+    void testTablesAreShared() {
+        RuleSet rules = RuleSet.parse("fee=0.2");
+        BoardDefinition board = BoardDefinition.standard();
+        GameModel one = new GameModel(board, rules);
+        GameModel two = new GameModel(board, rules);
+        GameModel other = new GameModel(BoardDefinition.generate(3), rules);
+        assertSame(one.getRules(), two.getRules());
+        assertNotSame(one.getRules(), other.getRules());
+        assertSame(rules, other.getRules().getRules());
+        assertSame(RuleSet.STANDARD.compile(board), new GameModel(board).getRules());
+    }
+
+    /**
+     * Play with a 20% fee, cubed ratings, a triple fee for a whole group and at most 3 stars
+     * Buy A1, A2 and A3 for player one and raise A1 as far as possible
+     * Land player two on A1 and assert they pay the triple fee of a 3 star hotel
+     */
+    @Test
+    void testHouseRules() {
+        RuleSet rules = RuleSet.parse("fee=0.2, exponent=3, double=3, max=3");
+        GameModel model = new GameModel(BoardDefinition.standard(), rules);
+        model.reset();
+        model.createPlayers("one", "two");
+        model.movePlayer(1);
+        model.buyHotel();
+        assertEquals(3, model.increaseStarRatingTo(3));
+        assertEquals(3, model.getCurrentPlayerPositionHotel().getMaxRating());
+        double price = model.getCurrentPlayerPositionHotel().getPrice();
+        model.movePlayer(2);
+        model.buyHotel();
+        model.movePlayer(1);
+        model.buyHotel();
+        model.nextTurn();
+        model.movePlayer(1);
+
+        assertEquals((0.2 * price) * 27 * 3, model.payOvernightFee());
+    }
+
+    /**
+     * Assert malformed pairs, unknown rules and ratings out of range are rejected
+     * Assert a rule set reads back from its description
+     */
+    @Test
+    void testParse() {
+        assertThrows(IllegalArgumentException.class, () -> RuleSet.parse("fee"));
+        assertThrows(IllegalArgumentException.class, () -> RuleSet.parse("tax=1"));
+        assertThrows(IllegalArgumentException.class, () -> RuleSet.parse("fee=x"));
+        assertThrows(IllegalArgumentException.class, () -> RuleSet.parse("max=6"));
+        assertThrows(IllegalArgumentException.class, () -> RuleSet.parse("increase=0"));
+        assertEquals(RuleSet.STANDARD.toString(), RuleSet.parse("").toString());
+        RuleSet rules = RuleSet.parse("half=0.25,max=4");
+        assertEquals(rules.toString(), RuleSet.parse(rules.toString()).toString());
+    }
+}
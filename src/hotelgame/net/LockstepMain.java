@@ -0,0 +1,75 @@
+package hotelgame.net;
+
+import hotelgame.model.BoardDefinition;
+import hotelgame.model.Policy;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.net.Socket;
+
+/**
+ * Plays a lockstep game between two processes, each peer playing its turns with the greedy policy.
+ * Run "host port [seed] [corrupt turn]" in one process and "join hostname port [corrupt turn]" in another.
+ * A corrupt turn changes this peer's money on its first turn from then on to show a desync being detected and resolved.
+ */
+public class LockstepMain {
+
+    /**
+     * The most turns to play before stopping.
+     */
+    private static final int MAX_TURNS = 2000;
+
+    public static void main(String[] args) throws IOException {
+        boolean host = args[0].equals("host");
+        int corruptTurn;
+        Socket socket;
+        long seed = 0;
+        if (host) {
+            int port = Integer.parseInt(args[1]);
+            seed = args.length > 2 ? Long.parseLong(args[2]) : System.nanoTime();
+            corruptTurn = args.length > 3 ? Integer.parseInt(args[3]) : -1;
+            try (ServerSocket server = new ServerSocket(port)) {
+                System.out.println("Waiting for a guest on port " + port);
+                socket = server.accept();
+            }
+        } else {
+            socket = new Socket(args[1], Integer.parseInt(args[2]));
+            corruptTurn = args.length > 3 ? Integer.parseInt(args[3]) : -1;
+        }
+
+        try (Socket connection = socket) {
+            connection.setTcpNoDelay(true);
+            DataInputStream in = new DataInputStream(new BufferedInputStream(connection.getInputStream()));
+            DataOutputStream out = new DataOutputStream(new BufferedOutputStream(connection.getOutputStream()));
+            LockstepSession session = new LockstepSession(BoardDefinition.standard(), host, in, out);
+            if (host) {
+                session.start(seed, "Host", "Guest");
+            } else {
+                session.join();
+            }
+
+            long start = System.nanoTime();
+            while (!session.getModel().isGameOver() && session.getTurns() < MAX_TURNS) {
+                if (session.isLocalTurn()) {
+                    if (corruptTurn >= 0 && session.getTurns() >= corruptTurn) {
+                        session.getModel().getCurrentTurn().addMoney(1);
+                        System.out.println("Corrupted the local state on turn " + session.getTurns());
+                        corruptTurn = -1;
+                    }
+                    session.playTurn(Policy.GREEDY);
+                } else if (!session.receiveTurn()) {
+                    System.out.println("Desync detected after turn " + session.getTurns() + ", resynchronised from a snapshot");
+                }
+            }
+
+            System.out.printf("%d turns in %.1f ms, %d bytes sent (%.1f per turn), %d desyncs, checksum %016x%n",
+                    session.getTurns(), (System.nanoTime() - start) / 1e6, session.getBytesSent(),
+                    session.getBytesSent() / (double) Math.max(1, session.getTurns()), session.getDesyncs(),
+                    session.getChecksum());
+        }
+    }
+}
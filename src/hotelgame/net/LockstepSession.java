@@ -0,0 +1,395 @@
+package hotelgame.net;
+
+import hotelgame.model.BoardDefinition;
+import hotelgame.model.DiceDistribution;
+import hotelgame.model.DiceEngine;
+import hotelgame.model.GameAction;
+import hotelgame.model.GameModel;
+import hotelgame.model.GameSnapshot;
+import hotelgame.model.Hotel;
+import hotelgame.model.Policy;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.DataOutputStream;
+import java.io.IOException;
+
+/**
+ * One side of a two player game played in lockstep over a stream.
+ * Both peers run their own GameModel with dice seeded by the host, and only the actions are sent:
+ * a byte per action plus a varint argument for rolls and ratings. Every end of turn carries a 32 bit
+ * checksum of the sender's state, built from the model's incrementally updated Zobrist hash.
+ * A peer that sees a different checksum reports a desync and the host, which is authoritative,
+ * answers with a full snapshot and a fresh dice seed.
+ * The host plays player one and the guest player two.
+ */
+public class LockstepSession {
+
+    /**
+     * Message: start a game. Followed by the dice seed and both player names.
+     */
+    static final int HELLO = 0x10;
+
+    /**
+     * Message: the receiver's state differs from the sender's at the last end of turn.
+     */
+    static final int DESYNC = 0x11;
+
+    /**
+     * Message: replace the state. Followed by a new dice seed and a GameSnapshot.
+     */
+    static final int SNAPSHOT = 0x12;
+
+    /**
+     * The model this peer plays on.
+     */
+    private final GameModel model;
+
+    /**
+     * Whether this peer is the host.
+     */
+    private final boolean host;
+
+    /**
+     * Where messages from the other peer are read.
+     */
+    private final DataInput in;
+
+    /**
+     * Where messages to the other peer are written.
+     */
+    private final DataOutputStream out;
+
+    /**
+     * The snapshot used to send and receive full states.
+     */
+    private final GameSnapshot snapshot = new GameSnapshot();
+
+    /**
+     * The number of turns ended by either peer.
+     */
+    private int turns;
+
+    /**
+     * The number of desyncs detected by either peer.
+     */
+    private int desyncs;
+
+    /**
+     * Create a session.
+     * @param board The board definition, which must be the same on both peers
+     * @param host Whether this peer is the host
+     * @param in Where messages from the other peer are read
+     * @param out Where messages to the other peer are written
+     */
+    public LockstepSession(BoardDefinition board, boolean host, DataInput in, DataOutputStream out) {
+        this.model = new GameModel(board);
+        this.host = host;
+        this.in = in;
+        this.out = out;
+    }
+
+    /**
+     * Start the game as the host, sending the dice seed and player names.
+     * Pre: this peer is the host
+     * @param seed The dice seed
+     * @param playerOne Player one's name
+     * @param playerTwo Player two's name
+     * @throws IOException If the stream fails
+     */
+    public void start(long seed, String playerOne, String playerTwo) throws IOException {
+        assert host;
+        out.writeByte(HELLO);
+        out.writeLong(seed);
+        out.writeUTF(playerOne);
+        out.writeUTF(playerTwo);
+        out.flush();
+        begin(seed, playerOne, playerTwo);
+    }
+
+    /**
+     * Join the game as the guest, waiting for the host's seed and player names.
+     * Pre: this peer is the guest
+     * @throws IOException If the stream fails or the host sent something else
+     */
+    public void join() throws IOException {
+        assert !host;
+        int type = in.readUnsignedByte();
+        if (type != HELLO) {
+            throw new IOException("Expected a hello from the host, got message " + type);
+        }
+        long seed = in.readLong();
+        String playerOne = in.readUTF();
+        String playerTwo = in.readUTF();
+        begin(seed, playerOne, playerTwo);
+    }
+
+    /**
+     * Is it this peer's turn to act?
+     * @return True if this peer controls the current player
+     */
+    public boolean isLocalTurn() {
+        return (model.getCurrentTurn() == model.getPlayerOne()) == host;
+    }
+
+    /**
+     * Apply an action for this peer's player and send it.
+     * END_TURN actions also send the checksum of the state after the turn.
+     * Pre: isLocalTurn()
+     * @param action The encoded action (see GameAction)
+     * @return True if the action was legal and applied
+     * @throws IOException If the stream fails
+     */
+    public boolean act(int action) throws IOException {
+        assert isLocalTurn();
+        int opcode = GameAction.opcode(action);
+        boolean applied = applyAction(action);
+        if (!applied && opcode != GameAction.END_TURN) {
+            return false;
+        }
+
+        out.writeByte(opcode);
+        if (opcode == GameAction.ROLL || opcode == GameAction.RATE) {
+            writeVarInt(out, zigzag(GameAction.argument(action)));
+        } else if (opcode == GameAction.END_TURN) {
+            out.writeInt((int) getChecksum());
+            out.flush();
+            turns++;
+        }
+        return applied;
+    }
+
+    /**
+     * Play a whole turn for this peer's player: roll, buy and raise the rating as the policy decides, then end the turn.
+     * Pre: isLocalTurn()
+     * @param policy The policy deciding purchases and rating increases
+     * @throws IOException If the stream fails
+     */
+    public void playTurn(Policy policy) throws IOException {
+        act(GameAction.of(GameAction.ROLL, 0));
+        int position = model.getCurrentTurn().getPosition();
+        Hotel hotel = model.getCurrentPlayerPositionHotel();
+        if (hotel != null && !model.isGameOver()) {
+            if (hotel.getOwner() == null && hotel.canAffordPurchase(model.getCurrentTurn()) && policy.shouldBuy(model, position)) {
+                act(GameAction.of(GameAction.BUY, 0));
+            }
+            int stars = Math.min(policy.targetRating(model, position), hotel.getMaxRating()) - hotel.getStarRating();
+            if (hotel.getOwner() == model.getCurrentTurn() && stars > 0) {
+                act(GameAction.of(GameAction.RATE, stars));
+            }
+        }
+        act(GameAction.of(GameAction.END_TURN, 0));
+    }
+
+    /**
+     * Receive and apply the other peer's actions up to the end of their turn,
+     * resolving any desync before returning.
+     * Pre: !isLocalTurn()
+     * @return False if the checksum at the end of the turn did not match and the state was resynchronised
+     * @throws IOException If the stream fails or a message is not understood
+     */
+    public boolean receiveTurn() throws IOException {
+        while (true) {
+            int type = in.readUnsignedByte();
+            switch (type) {
+                case GameAction.ROLL:
+                case GameAction.RATE:
+                    applyAction(GameAction.of(type, unzigzag(readVarInt(in))));
+                    break;
+                case GameAction.BUY:
+                case GameAction.RESET:
+                    applyAction(GameAction.of(type, 0));
+                    break;
+                case GameAction.END_TURN:
+                    applyAction(GameAction.of(GameAction.END_TURN, 0));
+                    int expected = in.readInt();
+                    turns++;
+                    if (expected == (int) getChecksum()) {
+                        return true;
+                    }
+                    desyncs++;
+                    if (host) {
+                        sendSnapshot();
+                    } else {
+                        out.writeByte(DESYNC);
+                        out.flush();
+                        receiveSnapshot();
+                    }
+                    return false;
+                case DESYNC:
+                    desyncs++;
+                    sendSnapshot();
+                    break;
+                case SNAPSHOT:
+                    desyncs++;
+                    receiveState();
+                    break;
+                default:
+                    throw new IOException("Unknown lockstep message " + type);
+            }
+        }
+    }
+
+    /**
+     * Get the model this peer plays on.
+     * @return The game model
+     */
+    public GameModel getModel() {
+        return model;
+    }
+
+    /**
+     * Get the checksum of the current state.
+     * The Zobrist hash only sees money in buckets, so the exact amounts are mixed in to catch small differences.
+     * @return The 64 bit checksum, of which the low 32 bits are sent
+     */
+    public long getChecksum() {
+        long z = Double.doubleToLongBits(model.getPlayerOne().getMoney()) * 31
+                + Double.doubleToLongBits(model.getPlayerTwo().getMoney());
+        // splitmix64 finaliser, so the high mantissa bits also reach the low 32 bits that are sent
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return model.getHash() ^ z ^ (z >>> 31);
+    }
+
+    /**
+     * Get the number of bytes written, including the hello and any snapshots.
+     * @return The byte count
+     */
+    public long getBytesSent() {
+        return out.size();
+    }
+
+    /**
+     * Get the number of turns ended by either peer.
+     * @return The turn count
+     */
+    public int getTurns() {
+        return turns;
+    }
+
+    /**
+     * Get the number of desyncs detected by either peer.
+     * @return The desync count
+     */
+    public int getDesyncs() {
+        return desyncs;
+    }
+
+    /**
+     * Set up the model for a new game.
+     * @param seed The dice seed
+     * @param playerOne Player one's name
+     * @param playerTwo Player two's name
+     */
+    private void begin(long seed, String playerOne, String playerTwo) {
+        reseed(seed);
+        model.reset();
+        model.createPlayers(playerOne, playerTwo);
+    }
+
+    /**
+     * Apply an action to the model.
+     * END_TURN is skipped once the game is over, so both peers stop on the same state.
+     * @param action The encoded action
+     * @return True if the action was applied
+     */
+    private boolean applyAction(int action) {
+        return GameAction.apply(model, action);
+    }
+
+    /**
+     * Send the whole state and a fresh dice seed to the other peer, and adopt the seed.
+     * @throws IOException If the stream fails
+     */
+    private void sendSnapshot() throws IOException {
+        long seed = model.getDice().nextInt(Integer.MAX_VALUE) * 31L + turns;
+        snapshot.capture(model);
+        out.writeByte(SNAPSHOT);
+        out.writeLong(seed);
+        snapshot.write(out);
+        out.flush();
+        reseed(seed);
+    }
+
+    /**
+     * Wait for the host's snapshot after reporting a desync.
+     * @throws IOException If the stream fails or the host sent something else
+     */
+    private void receiveSnapshot() throws IOException {
+        int type = in.readUnsignedByte();
+        if (type != SNAPSHOT) {
+            throw new IOException("Expected a snapshot from the host, got message " + type);
+        }
+        receiveState();
+    }
+
+    /**
+     * Read a dice seed and snapshot and restore them.
+     * @throws IOException If the stream fails
+     */
+    private void receiveState() throws IOException {
+        long seed = in.readLong();
+        snapshot.read(in);
+        model.restore(snapshot);
+        reseed(seed);
+    }
+
+    /**
+     * Replace the model's dice with dice seeded the same way on both peers.
+     * @param seed The seed
+     */
+    private void reseed(long seed) {
+        model.setDice(new DiceEngine(DiceDistribution.uniform(model.getBoard().getDiceSides()), seed));
+    }
+
+    /**
+     * Zigzag encode a signed value so small negative numbers stay small.
+     * @param value The signed value
+     * @return The zigzag encoded value
+     */
+    private static int zigzag(int value) {
+        return (value << 1) ^ (value >> 31);
+    }
+
+    /**
+     * Decode a zigzag encoded value.
+     * @param value The zigzag encoded value
+     * @return The signed value
+     */
+    private static int unzigzag(int value) {
+        return (value >>> 1) ^ -(value & 1);
+    }
+
+    /**
+     * Write an unsigned varint.
+     * @param out The output
+     * @param value The value
+     * @throws IOException If the output fails
+     */
+    private static void writeVarInt(DataOutput out, int value) throws IOException {
+        while ((value & ~0x7F) != 0) {
+            out.writeByte((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        out.writeByte(value);
+    }
+
+    /**
+     * Read an unsigned varint.
+     * @param in The input
+     * @return The value
+     * @throws IOException If the input fails
+     */
+    private static int readVarInt(DataInput in) throws IOException {
+        int value = 0;
+        int shift = 0;
+        int b;
+        do {
+            b = in.readUnsignedByte();
+            value |= (b & 0x7F) << shift;
+            shift += 7;
+        } while ((b & 0x80) != 0);
+        return value;
+    }
+}
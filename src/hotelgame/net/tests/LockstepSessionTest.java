@@ -0,0 +1,109 @@
+package hotelgame.net.tests;
+
+import hotelgame.model.BoardDefinition;
+import hotelgame.model.GameSnapshot;
+import hotelgame.model.Policy;
+import hotelgame.net.LockstepSession;
+import org.junit.jupiter.api.Test;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.PipedInputStream;
+import java.io.PipedOutputStream;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LockstepSessionTest {
+
+    /**
+     * Play a session until the game is over or the turn limit,
+     * corrupting the local state on the first local turn from a given turn.
+     */
+    private static void play(LockstepSession session, int corruptTurn) throws IOException {
+        while (!session.getModel().isGameOver() && session.getTurns() < 400) {
+            if (session.isLocalTurn()) {
+                if (corruptTurn >= 0 && session.getTurns() >= corruptTurn) {
+                    session.getModel().getCurrentTurn().addMoney(1);
+                    corruptTurn = -1;
+                }
+                session.playTurn(Policy.GREEDY);
+            } else {
+                session.receiveTurn();
+            }
+        }
+    }
+
+    /**
+     * Connect a host and a guest with pipes and play a game between them on two threads.
+     */
+    private static LockstepSession[] playPair(int hostCorruptTurn, int guestCorruptTurn)
+            throws IOException, InterruptedException, ExecutionException, TimeoutException {
+        PipedInputStream hostIn = new PipedInputStream(1 << 16);
+        PipedInputStream guestIn = new PipedInputStream(1 << 16);
+        DataOutputStream hostOut = new DataOutputStream(new PipedOutputStream(guestIn));
+        DataOutputStream guestOut = new DataOutputStream(new PipedOutputStream(hostIn));
+
+        LockstepSession host = new LockstepSession(BoardDefinition.standard(), true, new DataInputStream(hostIn), hostOut);
+        LockstepSession guest = new LockstepSession(BoardDefinition.standard(), false, new DataInputStream(guestIn), guestOut);
+
+        CompletableFuture<Void> guestGame = CompletableFuture.runAsync(() -> {
+            try {
+                guest.join();
+                play(guest, guestCorruptTurn);
+            } catch (IOException e) {
+                throw new RuntimeException(e);
+            }
+        });
+        host.start(12345, "Host", "Guest");
+        play(host, hostCorruptTurn);
+        guestGame.get(10, TimeUnit.SECONDS);
+        return new LockstepSession[] {host, guest};
+    }
+
+    /**
+     * Play a whole game in lockstep
+     * Assert both peers end on the same state with no desyncs
+     * Assert only a few bytes were sent per turn
+     */
+    @Test
+    void testPeersStayInStep() throws Exception {
+        LockstepSession[] peers = playPair(-1, -1);
+        assertEquals(peers[0].getTurns(), peers[1].getTurns());
+        assertEquals(peers[0].getChecksum(), peers[1].getChecksum());
+        assertEquals(0, peers[0].getDesyncs());
+        assertEquals(0, peers[1].getDesyncs());
+
+        GameSnapshot hostState = new GameSnapshot();
+        GameSnapshot guestState = new GameSnapshot();
+        hostState.capture(peers[0].getModel());
+        guestState.capture(peers[1].getModel());
+        assertEquals(hostState, guestState);
+
+        long bytes = peers[0].getBytesSent() + peers[1].getBytesSent();
+        assertTrue(bytes / (double) peers[0].getTurns() < 12, bytes + " bytes for " + peers[0].getTurns() + " turns");
+    }
+
+    /**
+     * Corrupt the guest's state, then the host's
+     * Assert each desync is detected at the end of that turn and both peers end on the same state
+     */
+    @Test
+    void testDesyncResolvedFromSnapshot() throws Exception {
+        for (int[] corrupt : new int[][] {{-1, 11}, {10, -1}}) {
+            LockstepSession[] peers = playPair(corrupt[0], corrupt[1]);
+            assertEquals(1, peers[0].getDesyncs());
+            assertEquals(1, peers[1].getDesyncs());
+
+            GameSnapshot hostState = new GameSnapshot();
+            GameSnapshot guestState = new GameSnapshot();
+            hostState.capture(peers[0].getModel());
+            guestState.capture(peers[1].getModel());
+            assertEquals(hostState, guestState);
+        }
+    }
+}
@@ -0,0 +1,140 @@
+package hotelgame.search;
+
+/**
+ * A MoveAdvisor's recommendation for the hotel the current player landed on: whether to buy it, the star rating
+ * to raise it to, and how much more often the player is estimated to win by following it.
+ * Immutable.
+ */
+public class Advice {
+
+    /**
+     * No advice: the player has no decision to make on the tile they landed on.
+     */
+    public static final Advice NONE = new Advice(false, false, 0, 0, 0, 0, false);
+
+    /**
+     * Whether the advice is about an un-owned hotel, so buying it is part of the decision.
+     */
+    private final boolean purchase;
+
+    /**
+     * Whether to buy the hotel.
+     */
+    private final boolean buy;
+
+    /**
+     * The hotel's star rating when the advice was given.
+     */
+    private final int currentRating;
+
+    /**
+     * The star rating to raise the hotel to.
+     */
+    private final int targetRating;
+
+    /**
+     * The estimated gain in win probability from following the advice.
+     */
+    private final double winDelta;
+
+    /**
+     * The number of games played out per choice to reach the advice.
+     */
+    private final int playouts;
+
+    /**
+     * Whether the advice was found in the cache rather than searched for.
+     */
+    private final boolean cached;
+
+    /**
+     * Create advice.
+     * @param purchase Whether the advice is about an un-owned hotel
+     * @param buy Whether to buy the hotel
+     * @param currentRating The hotel's star rating
+     * @param targetRating The star rating to raise the hotel to
+     * @param winDelta The estimated gain in win probability from following the advice
+     * @param playouts The number of games played out per choice
+     * @param cached Whether the advice was found in the cache
+     */
+    public Advice(boolean purchase, boolean buy, int currentRating, int targetRating, double winDelta, int playouts,
+                  boolean cached) {
+        this.purchase = purchase;
+        this.buy = buy;
+        this.currentRating = currentRating;
+        this.targetRating = targetRating;
+        this.winDelta = winDelta;
+        this.playouts = playouts;
+        this.cached = cached;
+    }
+
+    /**
+     * Is the advice about an un-owned hotel?
+     * @return True if buying the hotel is part of the decision
+     */
+    public boolean isPurchase() {
+        return purchase;
+    }
+
+    /**
+     * Should the player buy the hotel?
+     * @return True to buy it
+     */
+    public boolean isBuy() {
+        return buy;
+    }
+
+    /**
+     * Get the star rating to raise the hotel to.
+     * @return The target rating; the current rating means no increase
+     */
+    public int getTargetRating() {
+        return targetRating;
+    }
+
+    /**
+     * Get the estimated gain in win probability from following the advice, over doing nothing,
+     * or over the best action when doing nothing is the advice.
+     * @return The gain, from 0 to 1
+     */
+    public double getWinDelta() {
+        return winDelta;
+    }
+
+    /**
+     * Get the number of games played out per choice to reach the advice.
+     * @return The number of playouts
+     */
+    public int getPlayouts() {
+        return playouts;
+    }
+
+    /**
+     * Was the advice found in the cache?
+     * @return True if it was not searched for
+     */
+    public boolean isCached() {
+        return cached;
+    }
+
+    /**
+     * Describe the advice as a hint for the player.
+     */
+    @Override
+    public String toString() {
+        if (this == NONE) {
+            return "";
+        }
+        String action;
+        if (purchase && !buy) {
+            action = "skip this hotel";
+        } else if (purchase) {
+            action = targetRating > 0 ? "buy, then raise to " + targetRating + " stars" : "buy without raising the rating";
+        } else if (targetRating > currentRating) {
+            action = "raise to " + targetRating + " stars";
+        } else {
+            action = "keep the rating at " + currentRating + " stars";
+        }
+        return String.format("Hint: %s (%+.1f%% chance to win)", action, winDelta * 100);
+    }
+}
@@ -0,0 +1,316 @@
+package hotelgame.search;
+
+import hotelgame.model.BoardDefinition;
+import hotelgame.model.DiceDistribution;
+import hotelgame.model.DiceEngine;
+import hotelgame.model.GameModel;
+import hotelgame.model.GameSnapshot;
+import hotelgame.model.Hotel;
+import hotelgame.model.Player;
+import hotelgame.model.Policy;
+import hotelgame.model.RuleSet;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+/**
+ * Advises the current player on the hotel they landed on: buy it or not, and the star rating to raise it to.
+ * Every choice is tried on a private copy of the state and the rest of the game played out with both players
+ * following Policy.GREEDY, in rounds until a time budget runs out; the choice won most often is the advice.
+ * Each round plays every choice with the same dice, so the choices are compared on the same luck.
+ * Advice is cached in a TranspositionTable by the state's Zobrist hash, so a repeated position or a refreshed
+ * view is answered without searching.
+ * An advisor is not thread safe: give every thread its own, sharing the table if they should share advice.
+ */
+public class MoveAdvisor {
+
+    /**
+     * The default time budget of a search, leaving headroom under 100 ms for the rest of a hint.
+     */
+    public static final long DEFAULT_BUDGET_NANOS = 50_000_000;
+
+    /**
+     * The default size of the advice cache, 4 MB.
+     */
+    public static final long DEFAULT_TABLE_BYTES = 4L << 20;
+
+    /**
+     * The number of games played out per choice in a round.
+     */
+    private static final int ROUND_PLAYOUTS = 16;
+
+    /**
+     * The most turns a game is played out for; an unfinished game is won by the player with more money.
+     */
+    private static final int PLAYOUT_TURNS = 500;
+
+    /**
+     * The cache of advice, keyed by GameModel.getHash().
+     */
+    private final TranspositionTable table;
+
+    /**
+     * The time budget of a search in nanoseconds.
+     */
+    private final long budgetNanos;
+
+    /**
+     * The model choices are tried and games played out on.
+     */
+    private final GameModel scratch;
+
+    /**
+     * The dice the players roll.
+     */
+    private final DiceDistribution dice;
+
+    /**
+     * The state advice is asked for, captured from a live model by advise(GameModel).
+     */
+    private final GameSnapshot captured = new GameSnapshot();
+
+    /**
+     * The number of wins of each choice in the current search.
+     */
+    private final double[] wins;
+
+    /**
+     * The number of searches run.
+     */
+    private long searches;
+
+    /**
+     * The number of answers found in the cache.
+     */
+    private long cacheHits;
+
+    /**
+     * Create an advisor for games on a board with the standard rules, with its own cache and the default budget.
+     * @param board The board definition
+     */
+    public MoveAdvisor(BoardDefinition board) {
+        this(board, RuleSet.STANDARD, new TranspositionTable(DEFAULT_TABLE_BYTES), DEFAULT_BUDGET_NANOS);
+    }
+
+    /**
+     * Create an advisor.
+     * @param board The board definition
+     * @param rules The house rules of the games
+     * @param table The cache of advice, which may be shared with other advisors for the same board and rules
+     * @param budgetNanos The time budget of a search in nanoseconds; at least one round is always played
+     */
+    public MoveAdvisor(BoardDefinition board, RuleSet rules, TranspositionTable table, long budgetNanos) {
+        this.table = table;
+        this.budgetNanos = budgetNanos;
+        this.scratch = new GameModel(board, rules);
+        this.dice = scratch.getDice().getDistribution();
+        // doing nothing, then buying or raising to each rating
+        this.wins = new double[rules.getMaxRating() + 2];
+    }
+
+    /**
+     * Advise the current player of a model on the hotel they landed on.
+     * The model is only read.
+     * @param model The model, after the current player has moved
+     * @return The advice, or Advice.NONE if there is nothing to decide
+     */
+    public Advice advise(GameModel model) {
+        captured.capture(model);
+        return advise(captured);
+    }
+
+    /**
+     * Advise the current player of a state on the hotel they landed on.
+     * @param snapshot The state, after the current player has moved
+     * @return The advice, or Advice.NONE if there is nothing to decide
+     */
+    public Advice advise(GameSnapshot snapshot) {
+        scratch.restore(snapshot);
+        Player player = scratch.getCurrentTurn();
+        Hotel hotel = scratch.getCurrentPlayerPositionHotel();
+        if (hotel == null || scratch.isGameOver()) {
+            return Advice.NONE;
+        }
+        boolean purchase = hotel.getOwner() == null;
+        if (purchase ? !hotel.canAffordPurchase(player)
+                : hotel.getOwner() != player || hotel.getStarRating() >= hotel.getMaxRating() || !hotel.canAffordRatingIncrease()) {
+            return Advice.NONE;
+        }
+        int currentRating = hotel.getStarRating();
+
+        long hash = scratch.getHash();
+        long data = table.probe(hash);
+        if (data != TranspositionTable.MISS) {
+            cacheHits++;
+            int move = TranspositionTable.move(data);
+            return new Advice(purchase, purchase && move > 0, currentRating, choiceRating(move, purchase, currentRating),
+                    TranspositionTable.value(data), TranspositionTable.depth(data) * ROUND_PLAYOUTS, true);
+        }
+
+        searches++;
+        int choices = hotel.getMaxRating() - currentRating + 1 + (purchase ? 1 : 0);
+        Arrays.fill(wins, 0);
+        long deadline = System.nanoTime() + budgetNanos;
+        SplittableRandom seeds = new SplittableRandom(hash);
+        int rounds = 0;
+        do {
+            long seed = seeds.nextLong();
+            for (int choice = 0; choice < choices; choice++) {
+                scratch.setDice(new DiceEngine(dice, seed));
+                for (int playout = 0; playout < ROUND_PLAYOUTS; playout++) {
+                    wins[choice] += playOut(snapshot, purchase, choice, currentRating);
+                }
+            }
+            rounds++;
+        } while (System.nanoTime() < deadline && rounds < TranspositionTable.MAX_DEPTH);
+
+        int best = 0;
+        for (int choice = 1; choice < choices; choice++) {
+            if (wins[choice] > wins[best]) {
+                best = choice;
+            }
+        }
+        double other = -1;
+        if (best == 0) {
+            for (int choice = 1; choice < choices; choice++) {
+                other = Math.max(other, wins[choice]);
+            }
+        } else {
+            other = wins[0];
+        }
+        int playouts = rounds * ROUND_PLAYOUTS;
+        double winDelta = (wins[best] - other) / playouts;
+        table.store(hash, (float) winDelta, rounds, TranspositionTable.EXACT, best);
+        return new Advice(purchase, purchase && best > 0, currentRating, choiceRating(best, purchase, currentRating),
+                winDelta, playouts, false);
+    }
+
+    /**
+     * Get the star rating a choice raises the hotel to.
+     * Choice 0 does nothing; choice c buys a hotel for sale and raises it to c - 1 stars,
+     * or raises an owned hotel by c stars.
+     * @param choice The choice
+     * @param purchase Whether the hotel is for sale
+     * @param currentRating The hotel's star rating
+     * @return The rating after the choice
+     */
+    private static int choiceRating(int choice, boolean purchase, int currentRating) {
+        if (choice == 0) {
+            return currentRating;
+        }
+        return purchase ? choice - 1 : currentRating + choice;
+    }
+
+    /**
+     * Play out the rest of a game after a choice.
+     * @param snapshot The state the choice is made in
+     * @param purchase Whether the hotel is for sale
+     * @param choice The choice
+     * @param currentRating The hotel's star rating
+     * @return 1 if the player making the choice wins, 0.5 for a draw, else 0
+     */
+    private double playOut(GameSnapshot snapshot, boolean purchase, int choice, int currentRating) {
+        scratch.restore(snapshot);
+        Player player = scratch.getCurrentTurn();
+        Player opponent = scratch.getOpposingTurn();
+        if (choice > 0) {
+            if (purchase) {
+                scratch.buyHotel();
+            }
+            int target = choiceRating(choice, purchase, currentRating);
+            if (target > scratch.getCurrentPlayerPositionHotel().getStarRating()) {
+                scratch.increaseStarRatingTo(target);
+            }
+        }
+        if (!scratch.isGameOver()) {
+            scratch.nextTurn();
+            scratch.playTurns(PLAYOUT_TURNS, Policy.GREEDY);
+        }
+        if (player.getMoney() > opponent.getMoney()) {
+            return 1;
+        }
+        return player.getMoney() == opponent.getMoney() ? 0.5 : 0;
+    }
+
+    /**
+     * Get the number of searches run.
+     * @return The number of searches
+     */
+    public long getSearches() {
+        return searches;
+    }
+
+    /**
+     * Get the number of answers found in the cache.
+     * @return The number of cache hits
+     */
+    public long getCacheHits() {
+        return cacheHits;
+    }
+
+    /**
+     * Get the advice cache.
+     * @return The table
+     */
+    public TranspositionTable getTable() {
+        return table;
+    }
+
+    /**
+     * Measure hint latency on decisions met in games played with Policy.GREEDY: the first answer, searched for,
+     * and a repeated answer, from the cache.
+     * Usage: MoveAdvisor [decisions] [budget ms]
+     */
+    public static void main(String[] args) {
+        int decisions = args.length > 0 ? Integer.parseInt(args[0]) : 200;
+        long budgetNanos = args.length > 1 ? Long.parseLong(args[1]) * 1_000_000 : DEFAULT_BUDGET_NANOS;
+        BoardDefinition board = BoardDefinition.standard();
+        MoveAdvisor advisor = new MoveAdvisor(board, RuleSet.STANDARD, new TranspositionTable(DEFAULT_TABLE_BYTES), budgetNanos);
+        GameModel game = new GameModel(board);
+        game.reset();
+        game.createPlayers("Player One", "Player Two");
+
+        long[] searched = new long[decisions];
+        long[] cached = new long[decisions];
+        int found = 0;
+        long playouts = 0;
+        while (found < decisions) {
+            if (game.isGameOver()) {
+                game.reset();
+                game.createPlayers("Player One", "Player Two");
+            }
+            game.movePlayer(game.rollDice());
+            long start = System.nanoTime();
+            Advice advice = advisor.advise(game);
+            long first = System.nanoTime();
+            advisor.advise(game);
+            long repeated = System.nanoTime();
+            if (advice != Advice.NONE) {
+                searched[found] = first - start;
+                cached[found] = repeated - first;
+                playouts += advice.getPlayouts();
+                found++;
+            }
+            Hotel hotel = game.getCurrentPlayerPositionHotel();
+            if (hotel != null && hotel.getOwner() != null && hotel.getOwner() != game.getCurrentTurn()) {
+                game.payOvernightFee();
+            } else if (advice.isBuy()) {
+                game.buyHotel();
+            }
+            if (!game.isGameOver() && advice != Advice.NONE && advice.getTargetRating() > hotel.getStarRating()) {
+                game.increaseStarRatingTo(advice.getTargetRating());
+            }
+            if (!game.isGameOver()) {
+                game.nextTurn();
+            }
+        }
+        Arrays.sort(searched);
+        Arrays.sort(cached);
+        System.out.printf("searched: p50 %.1f ms, p99 %.1f ms, max %.1f ms, %,d playouts per choice on average%n",
+                searched[decisions / 2] / 1e6, searched[decisions * 99 / 100] / 1e6, searched[decisions - 1] / 1e6,
+                playouts / decisions);
+        System.out.printf("cached:   p50 %.3f ms, p99 %.3f ms, max %.3f ms%n",
+                cached[decisions / 2] / 1e6, cached[decisions * 99 / 100] / 1e6, cached[decisions - 1] / 1e6);
+        System.out.println("cache: " + advisor.getTable());
+    }
+}
@@ -0,0 +1,357 @@
+package hotelgame.search;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.Arrays;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A fixed-size table of search results keyed by GameModel.getHash(), shared by any number of searching threads.
+ * Entries live in one long array, two longs each, so the table allocates nothing after construction and
+ * the garbage collector only ever sees a single object. Each entry stores (key XOR data, data); a reader
+ * accepts an entry only if the two words XOR back to its key, so a torn concurrent write reads as a miss
+ * and no locks are needed.
+ * Slots are grouped in buckets of two. A store to a full bucket replaces the entry from the oldest search,
+ * or else the shallowest one.
+ */
+public class TranspositionTable {
+
+    /**
+     * Bound type: the value is exact.
+     */
+    public static final int EXACT = 0;
+
+    /**
+     * Bound type: the value is a lower bound.
+     */
+    public static final int LOWER = 1;
+
+    /**
+     * Bound type: the value is an upper bound.
+     */
+    public static final int UPPER = 2;
+
+    /**
+     * The result of probe() when the table holds nothing for the key.
+     */
+    public static final long MISS = 0;
+
+    /**
+     * The largest depth an entry can hold.
+     */
+    public static final int MAX_DEPTH = 255;
+
+    /**
+     * The largest move an entry can hold.
+     */
+    public static final int MAX_MOVE = (1 << 13) - 1;
+
+    /**
+     * The smallest table size, 1 MB.
+     */
+    public static final long MIN_BYTES = 1L << 20;
+
+    /**
+     * The largest table size, 8 GB: the largest power of two number of longs one array can index.
+     */
+    public static final long MAX_BYTES = 1L << 33;
+
+    /**
+     * Bytes per entry: two longs.
+     */
+    private static final int ENTRY_BYTES = 16;
+
+    /**
+     * Entries per bucket.
+     */
+    private static final int BUCKET_SIZE = 2;
+
+    /**
+     * Set in the data of every stored entry, so stored data is never MISS.
+     */
+    private static final long VALID = 1L << 63;
+
+    /**
+     * Atomic (opaque) access to the elements of the entry array.
+     */
+    private static final VarHandle SLOTS = MethodHandles.arrayElementVarHandle(long[].class);
+
+    /**
+     * The entries: slot i holds key ^ data at 2i and data at 2i + 1.
+     */
+    private final long[] slots;
+
+    /**
+     * The mask selecting a bucket from a hash.
+     */
+    private final long bucketMask;
+
+    /**
+     * The current search age, stored in new entries and used to replace entries from older searches first.
+     */
+    private volatile int age;
+
+    /**
+     * The number of probes.
+     */
+    private final LongAdder probes = new LongAdder();
+
+    /**
+     * The number of probes that found their key.
+     */
+    private final LongAdder hits = new LongAdder();
+
+    /**
+     * The number of probes that missed in a bucket holding other positions.
+     */
+    private final LongAdder collisions = new LongAdder();
+
+    /**
+     * The number of stores.
+     */
+    private final LongAdder stores = new LongAdder();
+
+    /**
+     * The number of stores that replaced the entry of a different position.
+     */
+    private final LongAdder evictions = new LongAdder();
+
+    /**
+     * Create a table.
+     * Pre: MIN_BYTES <= bytes <= MAX_BYTES
+     * @param bytes The memory to use, rounded down to a power of two
+     */
+    public TranspositionTable(long bytes) {
+        if (bytes < MIN_BYTES || bytes > MAX_BYTES) {
+            throw new IllegalArgumentException("A transposition table must use between 1 MB and 8 GB, not " + bytes + " bytes");
+        }
+        long entries = Long.highestOneBit(bytes) / ENTRY_BYTES;
+        this.slots = new long[(int) (entries * 2)];
+        this.bucketMask = slots.length / 2 / BUCKET_SIZE - 1;
+    }
+
+    /**
+     * Look up a position.
+     * @param hash The position's hash
+     * @return The stored data (see value(), depth(), bound() and move()), or MISS
+     */
+    public long probe(long hash) {
+        probes.increment();
+        int first = bucket(hash);
+        boolean occupied = false;
+        for (int slot = first; slot < first + BUCKET_SIZE; slot++) {
+            long check = (long) SLOTS.getOpaque(slots, 2 * slot);
+            long data = (long) SLOTS.getOpaque(slots, 2 * slot + 1);
+            if (data != MISS) {
+                if ((check ^ data) == hash) {
+                    hits.increment();
+                    return data;
+                }
+                occupied = true;
+            }
+        }
+        if (occupied) {
+            collisions.increment();
+        }
+        return MISS;
+    }
+
+    /**
+     * Store the result of searching a position.
+     * An existing entry for the same position is only replaced by a search at least as deep, unless it is
+     * from an older search.
+     * Pre: 0 <= depth <= MAX_DEPTH, bound is EXACT, LOWER or UPPER, 0 <= move <= MAX_MOVE
+     * @param hash The position's hash
+     * @param value The value of the position
+     * @param depth The depth searched
+     * @param bound Whether the value is exact or a bound
+     * @param move The best move found, in a caller-defined encoding
+     */
+    public void store(long hash, float value, int depth, int bound, int move) {
+        assert depth >= 0 && depth <= MAX_DEPTH && bound >= EXACT && bound <= UPPER && move >= 0 && move <= MAX_MOVE;
+        stores.increment();
+        int currentAge = age;
+        long data = VALID | (long) move << 50 | (long) bound << 48 | (long) (currentAge & 0xFF) << 40
+                | (long) depth << 32 | Float.floatToRawIntBits(value) & 0xFFFFFFFFL;
+
+        int first = bucket(hash);
+        int victim = first;
+        int victimPriority = Integer.MAX_VALUE;
+        for (int slot = first; slot < first + BUCKET_SIZE; slot++) {
+            long check = (long) SLOTS.getOpaque(slots, 2 * slot);
+            long old = (long) SLOTS.getOpaque(slots, 2 * slot + 1);
+            if (old == MISS) {
+                victim = slot;
+                victimPriority = -1;
+                break;
+            }
+            if ((check ^ old) == hash) {
+                if (depth < depth(old) && age(old) == (currentAge & 0xFF)) {
+                    return;
+                }
+                victim = slot;
+                victimPriority = -1;
+                break;
+            }
+            // Entries from the current search outrank older ones; within a search deeper entries outrank shallower
+            int priority = (age(old) == (currentAge & 0xFF) ? 256 : 0) + depth(old);
+            if (priority < victimPriority) {
+                victim = slot;
+                victimPriority = priority;
+            }
+        }
+        if (victimPriority >= 0) {
+            evictions.increment();
+        }
+        SLOTS.setOpaque(slots, 2 * victim, hash ^ data);
+        SLOTS.setOpaque(slots, 2 * victim + 1, data);
+    }
+
+    /**
+     * Start a new search, so entries from earlier searches are replaced first.
+     */
+    public void newSearch() {
+        age = (age + 1) & 0xFF;
+    }
+
+    /**
+     * Empty the table and reset the statistics.
+     * Must not be called while other threads use the table.
+     */
+    public void clear() {
+        Arrays.fill(slots, 0);
+        probes.reset();
+        hits.reset();
+        collisions.reset();
+        stores.reset();
+        evictions.reset();
+    }
+
+    /**
+     * Get the value of stored data.
+     * @param data Data returned by probe()
+     * @return The value
+     */
+    public static float value(long data) {
+        return Float.intBitsToFloat((int) data);
+    }
+
+    /**
+     * Get the depth of stored data.
+     * @param data Data returned by probe()
+     * @return The depth searched
+     */
+    public static int depth(long data) {
+        return (int) (data >>> 32) & 0xFF;
+    }
+
+    /**
+     * Get the bound type of stored data.
+     * @param data Data returned by probe()
+     * @return EXACT, LOWER or UPPER
+     */
+    public static int bound(long data) {
+        return (int) (data >>> 48) & 0x3;
+    }
+
+    /**
+     * Get the best move of stored data.
+     * @param data Data returned by probe()
+     * @return The move
+     */
+    public static int move(long data) {
+        return (int) (data >>> 50) & MAX_MOVE;
+    }
+
+    /**
+     * Get the number of entries the table can hold.
+     * @return The capacity
+     */
+    public long getCapacity() {
+        return slots.length / 2;
+    }
+
+    /**
+     * Get the memory used by the entries.
+     * @return The number of bytes
+     */
+    public long getBytes() {
+        return (long) slots.length * Long.BYTES;
+    }
+
+    /**
+     * Get the number of probes.
+     * @return The probe count
+     */
+    public long getProbes() {
+        return probes.sum();
+    }
+
+    /**
+     * Get the number of probes that found their key.
+     * @return The hit count
+     */
+    public long getHits() {
+        return hits.sum();
+    }
+
+    /**
+     * Get the number of probes that missed in a bucket holding other positions.
+     * @return The collision count
+     */
+    public long getCollisions() {
+        return collisions.sum();
+    }
+
+    /**
+     * Get the number of stores.
+     * @return The store count
+     */
+    public long getStores() {
+        return stores.sum();
+    }
+
+    /**
+     * Get the number of stores that replaced the entry of a different position.
+     * @return The eviction count
+     */
+    public long getEvictions() {
+        return evictions.sum();
+    }
+
+    /**
+     * Get the fraction of probes that hit.
+     * @return The hit rate, or 0 before the first probe
+     */
+    public double getHitRate() {
+        long probeCount = probes.sum();
+        return probeCount == 0 ? 0 : hits.sum() / (double) probeCount;
+    }
+
+    /**
+     * Summarise the statistics.
+     */
+    @Override
+    public String toString() {
+        return String.format("%d MB, %d probes, %.1f%% hits, %d collisions, %d stores, %d evictions",
+                getBytes() >> 20, getProbes(), getHitRate() * 100, getCollisions(), getStores(), getEvictions());
+    }
+
+    /**
+     * Get the age of stored data.
+     * @param data Stored data
+     * @return The search age
+     */
+    private static int age(long data) {
+        return (int) (data >>> 40) & 0xFF;
+    }
+
+    /**
+     * Get the first slot of a hash's bucket.
+     * @param hash The hash
+     * @return The slot index
+     */
+    private int bucket(long hash) {
+        return (int) (hash & bucketMask) * BUCKET_SIZE;
+    }
+}
@@ -0,0 +1,119 @@
+package hotelgame.search.tests;
+
+import hotelgame.model.BoardDefinition;
+import hotelgame.model.GameModel;
+import hotelgame.model.GameSnapshot;
+import hotelgame.model.RuleSet;
+import hotelgame.search.Advice;
+import hotelgame.search.MoveAdvisor;
+import hotelgame.search.TranspositionTable;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MoveAdvisorTest {
+
+    /**
+     * Create an advisor for the standard board with a search budget.
+     * @param budgetMillis The search budget in milliseconds
+     */
+    private static MoveAdvisor advisor(long budgetMillis) {
+        return new MoveAdvisor(BoardDefinition.standard(), RuleSet.STANDARD,
+                new TranspositionTable(TranspositionTable.MIN_BYTES), budgetMillis * 1_000_000);
+    }
+
+    /**
+     * Create a state with player one to play on the hotel at position 1, player two on GO.
+     * @param playerOneMoney Player one's money
+     * @param playerTwoMoney Player two's money
+     */
+    private static GameSnapshot onFirstHotel(double playerOneMoney, double playerTwoMoney) {
+        GameModel model = new GameModel();
+        model.reset();
+        model.createPlayers("Player One", "Player Two");
+        GameSnapshot snapshot = new GameSnapshot();
+        snapshot.capture(model);
+        snapshot.setCurrentTurn(GameSnapshot.PLAYER_ONE);
+        snapshot.setPosition(0, 1);
+        snapshot.setMoney(0, playerOneMoney);
+        snapshot.setMoney(1, playerTwoMoney);
+        return snapshot;
+    }
+
+    /**
+     * Ask for advice on GO, on a hotel the player cannot afford, and on a hotel the opponent owns
+     * Assert there is no advice and nothing was searched
+     */
+    @Test
+    void testNothingToDecide() {
+        MoveAdvisor advisor = advisor(10);
+        GameSnapshot onGo = onFirstHotel(1000, 1000);
+        onGo.setPosition(0, 0);
+        assertSame(Advice.NONE, advisor.advise(onGo));
+        assertSame(Advice.NONE, advisor.advise(onFirstHotel(1, 1000)));
+
+        GameSnapshot owned = onFirstHotel(1000, 1000);
+        owned.setTile(1, GameSnapshot.pack(GameSnapshot.PLAYER_TWO, 2));
+        assertSame(Advice.NONE, advisor.advise(owned));
+        assertEquals("", Advice.NONE.toString());
+        assertEquals(0, advisor.getSearches());
+    }
+
+    /**
+     * Ask for advice on an un-owned hotel when the opponent has £300 left, twice, searching a single round
+     * so the advice does not depend on how fast the machine is
+     * Assert buying and raising the rating is advised as a gain, and the second answer comes from the cache unchanged
+     */
+    @Test
+    void testAdvisesBuyingAndCaches() {
+        MoveAdvisor advisor = advisor(0);
+        GameSnapshot snapshot = onFirstHotel(2000, 300);
+        Advice advice = advisor.advise(snapshot);
+        assertTrue(advice.isPurchase());
+        assertTrue(advice.isBuy());
+        assertTrue(advice.getTargetRating() > 0);
+        assertTrue(advice.getWinDelta() > 0);
+        assertTrue(advice.getPlayouts() > 0);
+        assertFalse(advice.isCached());
+        assertTrue(advice.toString().startsWith("Hint: buy"), advice.toString());
+
+        Advice again = advisor.advise(snapshot);
+        assertTrue(again.isCached());
+        assertEquals(advice.isBuy(), again.isBuy());
+        assertEquals(advice.getTargetRating(), again.getTargetRating());
+        assertEquals(advice.getWinDelta(), again.getWinDelta(), 1e-6);
+        assertEquals(1, advisor.getSearches());
+        assertEquals(1, advisor.getCacheHits());
+    }
+
+    /**
+     * Ask for advice on an owned two star hotel
+     * Assert the advice is about its rating, at least the current one
+     */
+    @Test
+    void testAdvisesRating() {
+        MoveAdvisor advisor = advisor(10);
+        GameSnapshot snapshot = onFirstHotel(5000, 5000);
+        snapshot.setTile(1, GameSnapshot.pack(GameSnapshot.PLAYER_ONE, 2));
+        Advice advice = advisor.advise(snapshot);
+        assertFalse(advice.isPurchase());
+        assertFalse(advice.isBuy());
+        assertTrue(advice.getTargetRating() >= 2 && advice.getTargetRating() <= 5);
+    }
+
+    /**
+     * Ask for advice once to load and compile the advisor, then on 30 decisions with the default budget
+     * Assert every answer takes under 100 ms
+     */
+    @Test
+    void testSearchIsTimeBoxed() {
+        MoveAdvisor advisor = new MoveAdvisor(BoardDefinition.standard());
+        advisor.advise(onFirstHotel(300, 300));
+        for (int i = 0; i < 30; i++) {
+            GameSnapshot snapshot = onFirstHotel(500 + 100 * i, 2000);
+            long start = System.nanoTime();
+            advisor.advise(snapshot);
+            assertTrue(System.nanoTime() - start < 100_000_000, "decision " + i);
+        }
+    }
+}
@@ -0,0 +1,95 @@
+package hotelgame.search.tests;
+
+import hotelgame.model.GameModel;
+import hotelgame.model.Policy;
+import hotelgame.search.TranspositionTable;
+import org.junit.jupiter.api.Test;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TranspositionTableTest {
+
+    /**
+     * Store a position and probe it
+     * Assert every field comes back and an unknown position misses
+     */
+    @Test
+    void testStoreAndProbe() {
+        TranspositionTable table = new TranspositionTable(TranspositionTable.MIN_BYTES);
+        GameModel model = new GameModel();
+        model.reset();
+        model.createPlayers("one", "two");
+        model.playTurns(5, Policy.GREEDY);
+
+        table.store(model.getHash(), -12.5f, 7, TranspositionTable.LOWER, 300);
+        long data = table.probe(model.getHash());
+        assertNotEquals(TranspositionTable.MISS, data);
+        assertEquals(-12.5f, TranspositionTable.value(data));
+        assertEquals(7, TranspositionTable.depth(data));
+        assertEquals(TranspositionTable.LOWER, TranspositionTable.bound(data));
+        assertEquals(300, TranspositionTable.move(data));
+
+        model.nextTurn();
+        assertEquals(TranspositionTable.MISS, table.probe(model.getHash()));
+        assertEquals(2, table.getProbes());
+        assertEquals(1, table.getHits());
+    }
+
+    /**
+     * Store a deep result, then a shallower one for the same position
+     * Assert the deep result is kept until a new search starts
+     */
+    @Test
+    void testDepthPreferredReplacement() {
+        TranspositionTable table = new TranspositionTable(TranspositionTable.MIN_BYTES);
+        table.store(42, 1f, 10, TranspositionTable.EXACT, 1);
+        table.store(42, 2f, 3, TranspositionTable.EXACT, 2);
+        assertEquals(10, TranspositionTable.depth(table.probe(42)));
+
+        table.newSearch();
+        table.store(42, 2f, 3, TranspositionTable.EXACT, 2);
+        assertEquals(3, TranspositionTable.depth(table.probe(42)));
+    }
+
+    /**
+     * Fill a small table from several threads at once, each storing values derived from the key
+     * Assert every hit returns the data stored for that key, never a mix of two writes
+     */
+    @Test
+    void testConcurrentAccess() {
+        TranspositionTable table = new TranspositionTable(TranspositionTable.MIN_BYTES);
+        CompletableFuture<?>[] workers = IntStream.range(0, 4).mapToObj(worker -> CompletableFuture.runAsync(() -> {
+            SplittableRandom random = new SplittableRandom(worker);
+            for (int i = 0; i < 500_000; i++) {
+                long hash = random.nextLong(200_000) * 0x9E3779B97F4A7C15L;
+                long data = table.probe(hash);
+                if (data != TranspositionTable.MISS) {
+                    assertEquals((float) (hash >>> 40), TranspositionTable.value(data));
+                    assertEquals((int) (hash >>> 58), TranspositionTable.depth(data));
+                } else {
+                    table.store(hash, (float) (hash >>> 40), (int) (hash >>> 58), TranspositionTable.EXACT, 0);
+                }
+            }
+        })).toArray(CompletableFuture[]::new);
+        CompletableFuture.allOf(workers).join();
+
+        assertTrue(table.getHits() > 0);
+        assertTrue(table.getCollisions() > 0);
+        assertEquals(2_000_000, table.getProbes());
+    }
+
+    /**
+     * Ask for sizes outside the supported range
+     * Assert they are refused
+     */
+    @Test
+    void testSizeLimits() {
+        assertThrows(IllegalArgumentException.class, () -> new TranspositionTable(1024));
+        assertThrows(IllegalArgumentException.class, () -> new TranspositionTable(TranspositionTable.MAX_BYTES * 2));
+        assertEquals(TranspositionTable.MIN_BYTES / 16, new TranspositionTable(TranspositionTable.MIN_BYTES + 5).getCapacity());
+    }
+}
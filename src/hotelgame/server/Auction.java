@@ -0,0 +1,255 @@
+package hotelgame.server;
+
+import hotelgame.model.GameModel;
+import hotelgame.model.Hotel;
+
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * A sealed-bid auction of a hotel the current player declined to buy.
+ * Each player may place one bid, unseen by the other, until the auction closes at its deadline
+ * or as soon as both have bid. The highest bid wins and pays what it bid; a tie goes to the first bid placed.
+ * A bid must be positive and less than the bidder's money when the auction opened, so a winner never goes broke.
+ * Bids may be placed from any thread.
+ */
+public class Auction {
+
+    /**
+     * The winner of an auction nobody bid in.
+     */
+    public static final int NO_WINNER = -1;
+
+    /**
+     * The game the hotel is in.
+     */
+    private final long game;
+
+    /**
+     * The position of the hotel.
+     */
+    private final int position;
+
+    /**
+     * The list price of the hotel.
+     */
+    private final double listPrice;
+
+    /**
+     * Each player's money when the auction opened; bids must be below it.
+     */
+    private final double[] limits = new double[2];
+
+    /**
+     * The time the auction closes, from System.nanoTime().
+     */
+    private final long deadline;
+
+    /**
+     * Each player's bid, or 0 if they have not bid. Guarded by this.
+     */
+    private final double[] bids = new double[2];
+
+    /**
+     * The player who bid first, or NO_WINNER if nobody has bid. Guarded by this.
+     */
+    private int firstBidder = NO_WINNER;
+
+    /**
+     * The number of bids placed. Guarded by this.
+     */
+    private int bidCount;
+
+    /**
+     * Whether the auction has closed. Guarded by this.
+     */
+    private boolean closed;
+
+    /**
+     * The winning player, or NO_WINNER. Set when the auction closes.
+     */
+    private int winner = NO_WINNER;
+
+    /**
+     * The winning bid, or 0 if there is no winner. Set when the auction closes.
+     */
+    private double price;
+
+    /**
+     * Completed with this auction when it closes.
+     */
+    private final CompletableFuture<Auction> result = new CompletableFuture<>();
+
+    /**
+     * Open an auction of the un-owned hotel at the current player's position.
+     * Pre: the hotel at the current player's position has no owner
+     * @param game The game the hotel is in
+     * @param model The game's model
+     * @param deadline The time the auction closes, from System.nanoTime()
+     */
+    Auction(long game, GameModel model, long deadline) {
+        Hotel hotel = model.getCurrentPlayerPositionHotel();
+        assert hotel != null && hotel.getOwner() == null;
+        this.game = game;
+        this.position = model.getCurrentTurn().getPosition();
+        this.listPrice = hotel.getPrice();
+        this.limits[0] = model.getPlayerOne().getMoney();
+        this.limits[1] = model.getPlayerTwo().getMoney();
+        this.deadline = deadline;
+    }
+
+    /**
+     * Place a sealed bid.
+     * @param player The bidding player (0 or 1)
+     * @param amount The bid
+     * @return False if the auction has closed, the player has already bid, or the bid is out of range
+     */
+    public synchronized boolean bid(int player, double amount) {
+        if (closed || bids[player] > 0 || !(amount > 0) || amount >= limits[player]) {
+            return false;
+        }
+        bids[player] = amount;
+        if (bidCount++ == 0) {
+            firstBidder = player;
+        }
+        return true;
+    }
+
+    /**
+     * Whether every player has bid, so the auction can close before its deadline.
+     * @return True if both players have bid
+     */
+    synchronized boolean isComplete() {
+        return bidCount == 2;
+    }
+
+    /**
+     * Close the auction and choose the winner. Later bids are rejected.
+     * Pre: the auction is open
+     * Post: the winner and price are set; the result is not yet completed
+     */
+    synchronized void close() {
+        assert !closed;
+        closed = true;
+        if (bidCount > 0) {
+            int second = 1 - firstBidder;
+            winner = bids[second] > bids[firstBidder] ? second : firstBidder;
+            price = bids[winner];
+        }
+    }
+
+    /**
+     * Complete the result of the closed auction.
+     */
+    void complete() {
+        result.complete(this);
+    }
+
+    /**
+     * Complete the result of an auction that failed to close.
+     * @param failure Why it failed
+     */
+    void fail(RuntimeException failure) {
+        result.completeExceptionally(failure);
+    }
+
+    /**
+     * Apply the result to the game's model, restored after the auction closed.
+     * Nothing happens if there is no winner or the game has moved on from the auctioned hotel.
+     * Pre: the auction has closed
+     * @param model The game's model
+     * @return True if the hotel was sold to the winner
+     */
+    public boolean award(GameModel model) {
+        int winner = getWinner();
+        double price = getPrice();
+        Hotel hotel = model.getCurrentPlayerPositionHotel();
+        if (winner == NO_WINNER || model.getCurrentTurn().getPosition() != position
+                || hotel == null || hotel.getOwner() != null) {
+            return false;
+        }
+        double money = (winner == 0 ? model.getPlayerOne() : model.getPlayerTwo()).getMoney();
+        if (price >= money) {
+            return false;
+        }
+        model.awardHotel(winner, price);
+        return true;
+    }
+
+    /**
+     * Get the game the hotel is in.
+     * @return The game
+     */
+    public long getGame() {
+        return game;
+    }
+
+    /**
+     * Get the position of the hotel.
+     * @return The position
+     */
+    public int getPosition() {
+        return position;
+    }
+
+    /**
+     * Get the list price of the hotel.
+     * @return The list price
+     */
+    public double getListPrice() {
+        return listPrice;
+    }
+
+    /**
+     * Get a player's money when the auction opened; their bid must be below it.
+     * @param player The player (0 or 1)
+     * @return The player's money
+     */
+    public double getLimit(int player) {
+        return limits[player];
+    }
+
+    /**
+     * Get the time the auction closes.
+     * @return The deadline, from System.nanoTime()
+     */
+    public long getDeadline() {
+        return deadline;
+    }
+
+    /**
+     * Whether the auction has closed.
+     * @return True once closed
+     */
+    public synchronized boolean isClosed() {
+        return closed;
+    }
+
+    /**
+     * Get the winner.
+     * Pre: the auction has closed
+     * @return The winning player, or NO_WINNER if nobody bid
+     */
+    public synchronized int getWinner() {
+        assert closed;
+        return winner;
+    }
+
+    /**
+     * Get the winning bid.
+     * Pre: the auction has closed
+     * @return The price the winner pays, or 0 if there is no winner
+     */
+    public synchronized double getPrice() {
+        assert closed;
+        return price;
+    }
+
+    /**
+     * Get the result, completed with this auction when it closes.
+     * Callbacks run on the auction house's scheduler unless an executor is given.
+     * @return The result
+     */
+    public CompletableFuture<Auction> getResult() {
+        return result;
+    }
+}
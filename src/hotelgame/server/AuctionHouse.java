@@ -0,0 +1,194 @@
+package hotelgame.server;
+
+import hotelgame.model.GameModel;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * Runs the auctions of many concurrent games on one shared scheduler thread.
+ * Opening an auction only queues it; no game thread waits for bids. Every batch period the scheduler
+ * closes, in one batch, each open auction whose deadline has passed or whose players have all bid,
+ * then completes their results. A game continues from its auction's result.
+ * An auction that fails to close has its result completed exceptionally, and the failure is reported
+ * to the house's error handler; the rest of its batch still closes.
+ */
+public class AuctionHouse implements AutoCloseable {
+
+    /**
+     * The scheduler resolving batches.
+     */
+    private final ScheduledExecutorService scheduler;
+
+    /**
+     * Auctions opened since the last batch.
+     */
+    private final ConcurrentLinkedQueue<Auction> opened = new ConcurrentLinkedQueue<>();
+
+    /**
+     * Auctions waiting for bids or their deadline, only used on the scheduler.
+     */
+    private final List<Auction> waiting = new ArrayList<>();
+
+    /**
+     * The time bids are collected for, in nanoseconds.
+     */
+    private final long biddingNanos;
+
+    /**
+     * Told about every failure on the scheduler, which carries on with later batches.
+     */
+    private final Consumer<RuntimeException> errors;
+
+    /**
+     * The number of batches that closed at least one auction.
+     */
+    private volatile long batches;
+
+    /**
+     * The number of auctions closed.
+     */
+    private volatile long closedAuctions;
+
+    /**
+     * The most auctions closed in one batch.
+     */
+    private volatile int largestBatch;
+
+    /**
+     * Start an auction house reporting failures to the scheduler thread's uncaught exception handler.
+     * @param biddingMillis The time bids are collected for, in milliseconds
+     * @param batchMillis The period of resolving batches, in milliseconds
+     */
+    public AuctionHouse(long biddingMillis, long batchMillis) {
+        this(biddingMillis, batchMillis, e -> Thread.currentThread().getUncaughtExceptionHandler()
+                .uncaughtException(Thread.currentThread(), e));
+    }
+
+    /**
+     * Start an auction house.
+     * @param biddingMillis The time bids are collected for, in milliseconds
+     * @param batchMillis The period of resolving batches, in milliseconds
+     * @param errors Told about every failure, on the scheduler thread
+     */
+    public AuctionHouse(long biddingMillis, long batchMillis, Consumer<RuntimeException> errors) {
+        this.biddingNanos = TimeUnit.MILLISECONDS.toNanos(biddingMillis);
+        this.errors = errors;
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "auctions");
+            thread.setDaemon(true);
+            return thread;
+        });
+        scheduler.scheduleAtFixedRate(this::resolve, batchMillis, batchMillis, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Open an auction of the un-owned hotel at the current player's position and ask both players to bid.
+     * Pre: the hotel at the current player's position has no owner
+     * @param game The game the hotel is in
+     * @param model The game's model
+     * @param bidders Player one's and player two's bidders
+     * @return The auction, whose result completes when it closes
+     */
+    public Auction open(long game, GameModel model, Bidder[] bidders) {
+        Auction auction = new Auction(game, model, System.nanoTime() + biddingNanos);
+        opened.add(auction);
+        for (int player = 0; player < 2; player++) {
+            bidders[player].requestBid(auction, player);
+        }
+        return auction;
+    }
+
+    /**
+     * Close every auction that is due in one batch and complete their results.
+     */
+    private void resolve() {
+        try {
+            closeDue(false);
+        } catch (RuntimeException e) {
+            // a failure must not cancel the periodic task, leaving every later auction open
+            errors.accept(e);
+        }
+    }
+
+    /**
+     * Close the auctions that are due, or all of them.
+     * Pre: called on the scheduler
+     * @param all Whether to close every auction, due or not
+     */
+    private void closeDue(boolean all) {
+        for (Auction auction = opened.poll(); auction != null; auction = opened.poll()) {
+            waiting.add(auction);
+        }
+        long now = System.nanoTime();
+        List<Auction> batch = new ArrayList<>();
+        for (int i = waiting.size() - 1; i >= 0; i--) {
+            Auction auction = waiting.get(i);
+            if (all || auction.isComplete() || now - auction.getDeadline() >= 0) {
+                waiting.set(i, waiting.get(waiting.size() - 1));
+                waiting.remove(waiting.size() - 1);
+                try {
+                    auction.close();
+                    batch.add(auction);
+                } catch (RuntimeException e) {
+                    // its bidders must not wait forever, nor the rest of the batch
+                    auction.fail(e);
+                    errors.accept(e);
+                }
+            }
+        }
+        if (batch.isEmpty()) {
+            return;
+        }
+        batches++;
+        closedAuctions += batch.size();
+        largestBatch = Math.max(largestBatch, batch.size());
+        for (Auction auction : batch) {
+            auction.complete();
+        }
+    }
+
+    /**
+     * Get the number of batches that closed at least one auction.
+     * @return The number of batches
+     */
+    public long getBatches() {
+        return batches;
+    }
+
+    /**
+     * Get the number of auctions closed.
+     * @return The number of auctions
+     */
+    public long getClosedAuctions() {
+        return closedAuctions;
+    }
+
+    /**
+     * Get the most auctions closed in one batch.
+     * @return The largest batch
+     */
+    public int getLargestBatch() {
+        return largestBatch;
+    }
+
+    /**
+     * Close every open auction at once and stop the scheduler.
+     * If interrupted while waiting for the scheduler, returns with the thread's interrupt status set.
+     */
+    @Override
+    public void close() {
+        scheduler.execute(() -> closeDue(true));
+        scheduler.shutdown();
+        try {
+            scheduler.awaitTermination(1, TimeUnit.MINUTES);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
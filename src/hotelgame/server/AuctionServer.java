@@ -0,0 +1,191 @@
+package hotelgame.server;
+
+import hotelgame.model.BoardDefinition;
+import hotelgame.model.GameAction;
+import hotelgame.model.GameModel;
+import hotelgame.model.Hotel;
+import hotelgame.store.GameStore;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Plays many concurrent games from a GameStore with the auction rule: a hotel the current player
+ * declines to buy is auctioned to both players, and the turn ends once the auction closes.
+ * Turns run on a pool of workers and never wait for bids; a game whose auction is open is parked
+ * until the auction house resolves it, with the auctions of every game resolved in shared batches.
+ */
+public class AuctionServer {
+
+    /**
+     * The games.
+     */
+    private final GameStore store;
+
+    /**
+     * The auction house.
+     */
+    private final AuctionHouse house;
+
+    /**
+     * The workers playing turns.
+     */
+    private final ExecutorService workers;
+
+    /**
+     * The bidders of games with an even number, and of games with an odd number.
+     * Player two of an odd game never bids, as a human who lets the deadline pass.
+     */
+    private final Bidder[][] bidders = {
+            {Bidder.valuing(0.8), Bidder.valuing(0.9)},
+            {Bidder.valuing(0.8), Bidder.NONE}
+    };
+
+    /**
+     * Counts down as each game finishes.
+     */
+    private final CountDownLatch finished;
+
+    /**
+     * The number of turns played.
+     */
+    private final AtomicLong turns = new AtomicLong();
+
+    /**
+     * The number of auctioned hotels sold.
+     */
+    private final AtomicLong sold = new AtomicLong();
+
+    /**
+     * Create a server for the games of a store.
+     * @param store The store
+     * @param house The auction house
+     * @param workers The workers playing turns
+     * @param games The number of games that will be played
+     */
+    public AuctionServer(GameStore store, AuctionHouse house, ExecutorService workers, int games) {
+        this.store = store;
+        this.house = house;
+        this.workers = workers;
+        this.finished = new CountDownLatch(games);
+    }
+
+    /**
+     * Start playing a game on the workers.
+     * @param id The game's number
+     * @param maxTurns The most turns to play
+     */
+    public void play(int id, int maxTurns) {
+        workers.execute(() -> turn(id, maxTurns));
+    }
+
+    /**
+     * Play a turn of a game, then schedule the next turn, directly or once the turn's auction closes.
+     * The current player buys an affordable hotel only if it costs under half their money, declining the rest.
+     * @param id The game's number
+     * @param turnsLeft The turns left to play, including this one
+     */
+    private void turn(int id, int turnsLeft) {
+        turns.incrementAndGet();
+        Auction auction = store.update(id, model -> {
+            GameAction.apply(model, GameAction.of(GameAction.ROLL, 0));
+            Hotel hotel = model.getCurrentPlayerPositionHotel();
+            if (!model.isGameOver() && hotel != null && hotel.getOwner() == null) {
+                if (hotel.getPrice() * 2 < model.getCurrentTurn().getMoney()) {
+                    model.buyHotel();
+                } else {
+                    return house.open(id, model, bidders[id % 2]);
+                }
+            }
+            GameAction.apply(model, GameAction.of(GameAction.END_TURN, 0));
+            return null;
+        });
+
+        if (auction == null) {
+            next(id, turnsLeft - 1);
+        } else {
+            auction.getResult().thenAcceptAsync(closed -> {
+                boolean gameOver = store.update(id, model -> {
+                    if (closed.award(model)) {
+                        sold.incrementAndGet();
+                    }
+                    return !GameAction.apply(model, GameAction.of(GameAction.END_TURN, 0));
+                });
+                next(id, gameOver ? 0 : turnsLeft - 1);
+            }, workers);
+        }
+    }
+
+    /**
+     * Schedule a game's next turn, or finish the game.
+     * @param id The game's number
+     * @param turnsLeft The turns left to play
+     */
+    private void next(int id, int turnsLeft) {
+        if (turnsLeft <= 0 || store.update(id, GameModel::isGameOver)) {
+            finished.countDown();
+        } else {
+            workers.execute(() -> turn(id, turnsLeft));
+        }
+    }
+
+    /**
+     * Wait for every game to finish.
+     * @throws InterruptedException If interrupted while waiting
+     */
+    public void await() throws InterruptedException {
+        finished.await();
+    }
+
+    /**
+     * Get the number of turns played.
+     * @return The number of turns
+     */
+    public long getTurns() {
+        return turns.get();
+    }
+
+    /**
+     * Get the number of auctioned hotels sold.
+     * @return The number of hotels sold at auction
+     */
+    public long getSold() {
+        return sold.get();
+    }
+
+    /**
+     * Play concurrent games with auctions and report how the auctions were batched.
+     * Usage: AuctionServer [games] [turns] [bidding ms] [batch ms]
+     */
+    public static void main(String[] args) throws IOException, InterruptedException {
+        int games = args.length > 0 ? Integer.parseInt(args[0]) : 10_000;
+        int maxTurns = args.length > 1 ? Integer.parseInt(args[1]) : 200;
+        long biddingMillis = args.length > 2 ? Long.parseLong(args[2]) : 50;
+        long batchMillis = args.length > 3 ? Long.parseLong(args[3]) : 10;
+        Path path = Files.createTempFile("auctions", ".hgs");
+        ExecutorService workers = Executors.newFixedThreadPool(Runtime.getRuntime().availableProcessors());
+        try (GameStore store = new GameStore(path, BoardDefinition.standard(), games);
+             AuctionHouse house = new AuctionHouse(biddingMillis, batchMillis)) {
+            AuctionServer server = new AuctionServer(store, house, workers, games);
+            long start = System.nanoTime();
+            for (int game = 0; game < games; game++) {
+                server.play(store.create("one", "two", game), maxTurns);
+            }
+            server.await();
+            double seconds = (System.nanoTime() - start) / 1e9;
+            System.out.printf("%,d games, %,d turns in %.1f s%n", games, server.getTurns(), seconds);
+            System.out.printf("%,d auctions in %,d batches (%.1f per batch, largest %,d), %,d hotels sold%n",
+                    house.getClosedAuctions(), house.getBatches(),
+                    (double) house.getClosedAuctions() / Math.max(1, house.getBatches()), house.getLargestBatch(),
+                    server.getSold());
+        } finally {
+            workers.shutdown();
+            Files.delete(path);
+        }
+    }
+}
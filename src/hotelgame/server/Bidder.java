@@ -0,0 +1,31 @@
+package hotelgame.server;
+
+/**
+ * Asked for a player's bid when an auction opens.
+ * A bot bids straight away or schedules its own work; a human's bid arrives later through Auction.bid().
+ * Bidders are called on the thread that opens the auction, so they must not block.
+ */
+public interface Bidder {
+
+    /**
+     * A bidder that does nothing when asked, for a player who bids through Auction.bid() or not at all.
+     */
+    Bidder NONE = (auction, player) -> { };
+
+    /**
+     * Ask for a player's bid.
+     * @param auction The auction
+     * @param player The player (0 or 1)
+     */
+    void requestBid(Auction auction, int player);
+
+    /**
+     * A bot that bids a fraction of the list price, never more than half its money.
+     * @param fraction The fraction of the list price to bid
+     * @return The bidder
+     */
+    static Bidder valuing(double fraction) {
+        return (auction, player) -> auction.bid(player,
+                Math.min(auction.getListPrice() * fraction, auction.getLimit(player) / 2));
+    }
+}
@@ -0,0 +1,266 @@
+package hotelgame.server;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A hierarchical timing wheel of timeouts measured in ticks, for deadlines across many games.
+ * Level 0 has a slot for each of the next 256 ticks; each higher level has 256 slots, each covering
+ * a whole turn of the level below. A timeout is linked into the slot of its deadline on the lowest
+ * level that reaches it, so scheduling and cancelling are O(1). When the wheel advances past a turn
+ * of a level, the next slot of the level above is cascaded down. Every timeout due at a tick is
+ * collected in one batch and run once the wheel's lock is released.
+ * Deadlines past the top level's reach wait in its last slot and are placed again when it cascades.
+ * The wheel may be used from many threads; its tasks run on the thread that advances it.
+ */
+public class TimingWheel {
+
+    /**
+     * The bits of a slot index on each level.
+     */
+    private static final int SLOT_BITS = 8;
+
+    /**
+     * The number of slots on each level.
+     */
+    private static final int SLOTS = 1 << SLOT_BITS;
+
+    /**
+     * The mask of a slot index.
+     */
+    private static final int SLOT_MASK = SLOTS - 1;
+
+    /**
+     * The number of levels; together they reach 2^32 ticks ahead.
+     */
+    private static final int LEVELS = 4;
+
+    /**
+     * The first timeout in each slot, level by level, or null for an empty slot. Guarded by this.
+     */
+    private final Timeout[] slots = new Timeout[LEVELS * SLOTS];
+
+    /**
+     * The last tick the wheel advanced to. Guarded by this.
+     */
+    private long tick;
+
+    /**
+     * The number of scheduled timeouts that have not run or been cancelled. Guarded by this.
+     */
+    private int pending;
+
+    /**
+     * Schedule a task to run after a delay.
+     * @param delayTicks The delay in ticks; a delay under one tick runs at the next tick
+     * @param task The task
+     * @return The timeout, which can be cancelled until it runs
+     */
+    public synchronized Timeout schedule(long delayTicks, Runnable task) {
+        Timeout timeout = new Timeout(this, tick + Math.max(1, delayTicks), task);
+        link(timeout);
+        pending++;
+        return timeout;
+    }
+
+    /**
+     * Cancel a timeout.
+     * @param timeout The timeout
+     * @return False if it has already run or been cancelled
+     */
+    synchronized boolean cancel(Timeout timeout) {
+        if (timeout.slot < 0) {
+            return false;
+        }
+        unlink(timeout);
+        pending--;
+        return true;
+    }
+
+    /**
+     * Advance the wheel, running every timeout that falls due in a batch per tick.
+     * A task that throws does not stop the rest of its batch: the first failure is rethrown once the batch
+     * has run, with any later ones suppressed, and the ticks after it are left for the next advance.
+     * @param ticks The number of ticks to advance
+     * @return The number of timeouts run
+     */
+    public int advance(long ticks) {
+        int run = 0;
+        List<Timeout> batch = new ArrayList<>();
+        for (long step = 0; step < ticks; step++) {
+            synchronized (this) {
+                tick++;
+                cascade();
+                int slot = (int) (tick & SLOT_MASK);
+                for (Timeout timeout = slots[slot]; timeout != null; timeout = slots[slot]) {
+                    assert timeout.deadline == tick;
+                    unlink(timeout);
+                    batch.add(timeout);
+                }
+                pending -= batch.size();
+            }
+            Throwable failure = null;
+            for (Timeout timeout : batch) {
+                try {
+                    timeout.task.run();
+                } catch (RuntimeException | Error e) {
+                    // the rest of the batch is already unlinked, so it must still run
+                    if (failure == null) {
+                        failure = e;
+                    } else {
+                        failure.addSuppressed(e);
+                    }
+                }
+            }
+            run += batch.size();
+            batch.clear();
+            if (failure instanceof RuntimeException) {
+                throw (RuntimeException) failure;
+            } else if (failure != null) {
+                throw (Error) failure;
+            }
+        }
+        return run;
+    }
+
+    /**
+     * Cascade the slots of the higher levels the wheel has just reached down to the levels below.
+     * Pre: the tick has just advanced
+     */
+    private void cascade() {
+        for (int level = 1; level < LEVELS; level++) {
+            int shift = level * SLOT_BITS;
+            if ((tick & ((1L << shift) - 1)) != 0) {
+                return;
+            }
+            int slot = level * SLOTS + (int) ((tick >>> shift) & SLOT_MASK);
+            Timeout timeout = slots[slot];
+            slots[slot] = null;
+            while (timeout != null) {
+                Timeout next = timeout.next;
+                link(timeout);
+                timeout = next;
+            }
+        }
+    }
+
+    /**
+     * Link a timeout into the slot of its deadline on the lowest level reaching it.
+     * @param timeout The timeout
+     */
+    private void link(Timeout timeout) {
+        long delta = timeout.deadline - tick;
+        assert delta > 0 || (delta == 0 && (tick & SLOT_MASK) == 0);
+        int slot = -1;
+        for (int level = 0; level < LEVELS && slot < 0; level++) {
+            if (delta < 1L << ((level + 1) * SLOT_BITS)) {
+                slot = level * SLOTS + (int) ((timeout.deadline >>> (level * SLOT_BITS)) & SLOT_MASK);
+            }
+        }
+        if (slot < 0) {
+            // beyond reach: wait in the top level's last slot before the current one
+            int shift = (LEVELS - 1) * SLOT_BITS;
+            slot = (LEVELS - 1) * SLOTS + (int) (((tick >>> shift) + SLOT_MASK) & SLOT_MASK);
+        }
+        timeout.slot = slot;
+        timeout.previous = null;
+        timeout.next = slots[slot];
+        if (timeout.next != null) {
+            timeout.next.previous = timeout;
+        }
+        slots[slot] = timeout;
+    }
+
+    /**
+     * Unlink a timeout from its slot.
+     * @param timeout The timeout
+     */
+    private void unlink(Timeout timeout) {
+        if (timeout.previous == null) {
+            slots[timeout.slot] = timeout.next;
+        } else {
+            timeout.previous.next = timeout.next;
+        }
+        if (timeout.next != null) {
+            timeout.next.previous = timeout.previous;
+        }
+        timeout.previous = null;
+        timeout.next = null;
+        timeout.slot = -1;
+    }
+
+    /**
+     * Get the last tick the wheel advanced to.
+     * @return The tick, counted from 0
+     */
+    public synchronized long getTick() {
+        return tick;
+    }
+
+    /**
+     * Get the number of timeouts waiting to run.
+     * @return The number of pending timeouts
+     */
+    public synchronized int getPending() {
+        return pending;
+    }
+
+    /**
+     * A scheduled task, linked into a slot of its wheel until it runs or is cancelled.
+     */
+    public static class Timeout {
+
+        /**
+         * The wheel.
+         */
+        private final TimingWheel wheel;
+
+        /**
+         * The tick the task runs at.
+         */
+        private final long deadline;
+
+        /**
+         * The task.
+         */
+        private final Runnable task;
+
+        /**
+         * The slot the timeout is linked into, or -1 once it has run or been cancelled. Guarded by the wheel.
+         */
+        private int slot;
+
+        /**
+         * The neighbours in the slot. Guarded by the wheel.
+         */
+        private Timeout previous, next;
+
+        /**
+         * Create a timeout.
+         * @param wheel The wheel
+         * @param deadline The tick the task runs at
+         * @param task The task
+         */
+        private Timeout(TimingWheel wheel, long deadline, Runnable task) {
+            this.wheel = wheel;
+            this.deadline = deadline;
+            this.task = task;
+        }
+
+        /**
+         * Cancel the timeout.
+         * @return False if it has already run or been cancelled
+         */
+        public boolean cancel() {
+            return wheel.cancel(this);
+        }
+
+        /**
+         * Get the tick the task runs at.
+         * @return The deadline
+         */
+        public long getDeadline() {
+            return deadline;
+        }
+    }
+}
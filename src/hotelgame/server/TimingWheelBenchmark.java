@@ -0,0 +1,90 @@
+package hotelgame.server;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares schedule and cancel throughput of a TimingWheel and a ScheduledThreadPoolExecutor
+ * with a million timers pending, as turn deadlines of a million hosted games would be.
+ * Each timer is rescheduled by cancelling it and scheduling a new one, as a player's action restarts their deadline.
+ * Usage: TimingWheelBenchmark [timers] [reschedules]
+ */
+public class TimingWheelBenchmark {
+
+    /**
+     * The longest delay, in ticks of a millisecond: ten minutes.
+     */
+    private static final int MAX_DELAY = 600_000;
+
+    public static void main(String[] args) {
+        int timers = args.length > 0 ? Integer.parseInt(args[0]) : 1_000_000;
+        int reschedules = args.length > 1 ? Integer.parseInt(args[1]) : 1_000_000;
+
+        for (int round = 0; round < 3; round++) {
+            wheel(timers, reschedules);
+            executor(timers, reschedules);
+        }
+    }
+
+    /**
+     * Schedule timers on a wheel, reschedule random ones, then advance until every timer has run.
+     * @param timers The number of pending timers
+     * @param reschedules The number of reschedules
+     */
+    private static void wheel(int timers, int reschedules) {
+        SplittableRandom random = new SplittableRandom(1);
+        TimingWheel wheel = new TimingWheel();
+        TimingWheel.Timeout[] pending = new TimingWheel.Timeout[timers];
+        Runnable task = () -> { };
+
+        long start = System.nanoTime();
+        for (int timer = 0; timer < timers; timer++) {
+            pending[timer] = wheel.schedule(1 + random.nextInt(MAX_DELAY), task);
+        }
+        long scheduled = System.nanoTime();
+        for (int i = 0; i < reschedules; i++) {
+            int timer = random.nextInt(timers);
+            pending[timer].cancel();
+            pending[timer] = wheel.schedule(1 + random.nextInt(MAX_DELAY), task);
+        }
+        long rescheduled = System.nanoTime();
+        int run = wheel.advance(MAX_DELAY);
+        long expired = System.nanoTime();
+        assert run == timers && wheel.getPending() == 0;
+
+        System.out.printf("wheel:    schedule %,.0f/s, cancel+schedule %,.0f/s, expire %,.0f/s%n",
+                timers / ((scheduled - start) / 1e9), reschedules / ((rescheduled - scheduled) / 1e9),
+                run / ((expired - rescheduled) / 1e9));
+    }
+
+    /**
+     * Schedule timers on an executor and reschedule random ones.
+     * @param timers The number of pending timers
+     * @param reschedules The number of reschedules
+     */
+    private static void executor(int timers, int reschedules) {
+        SplittableRandom random = new SplittableRandom(1);
+        ScheduledThreadPoolExecutor executor = new ScheduledThreadPoolExecutor(1);
+        executor.setRemoveOnCancelPolicy(true);
+        ScheduledFuture<?>[] pending = new ScheduledFuture<?>[timers];
+        Runnable task = () -> { };
+
+        long start = System.nanoTime();
+        for (int timer = 0; timer < timers; timer++) {
+            pending[timer] = executor.schedule(task, 1 + random.nextInt(MAX_DELAY), TimeUnit.MILLISECONDS);
+        }
+        long scheduled = System.nanoTime();
+        for (int i = 0; i < reschedules; i++) {
+            int timer = random.nextInt(timers);
+            pending[timer].cancel(false);
+            pending[timer] = executor.schedule(task, 1 + random.nextInt(MAX_DELAY), TimeUnit.MILLISECONDS);
+        }
+        long rescheduled = System.nanoTime();
+        executor.shutdownNow();
+
+        System.out.printf("executor: schedule %,.0f/s, cancel+schedule %,.0f/s%n",
+                timers / ((scheduled - start) / 1e9), reschedules / ((rescheduled - scheduled) / 1e9));
+    }
+}
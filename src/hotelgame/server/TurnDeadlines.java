@@ -0,0 +1,230 @@
+package hotelgame.server;
+
+import hotelgame.model.GameAction;
+import hotelgame.store.GameStore;
+
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * Turn timeouts for the games of a GameStore, kept in one TimingWheel driven by one scheduler thread.
+ * A player who goes idle has their turn played for them when its deadline passes: the dice are rolled
+ * if they have not rolled, then the turn is ended, as GameController.endTurn() would, and the next
+ * player's deadline starts. A player's own actions restart or stop their deadline.
+ * A deadline that fails is reported to the error handler; the other deadlines of its tick still pass,
+ * and the wheel keeps advancing.
+ */
+public class TurnDeadlines implements AutoCloseable {
+
+    /**
+     * The phase of a game whose player has not rolled this turn.
+     */
+    private static final byte WAITING_TO_ROLL = 0;
+
+    /**
+     * The phase of a game whose player has rolled this turn.
+     */
+    private static final byte ROLLED = 1;
+
+    /**
+     * The games.
+     */
+    private final GameStore store;
+
+    /**
+     * The wheel of deadlines.
+     */
+    private final TimingWheel wheel = new TimingWheel();
+
+    /**
+     * The scheduler advancing the wheel.
+     */
+    private final ScheduledExecutorService scheduler;
+
+    /**
+     * The length of a tick in nanoseconds.
+     */
+    private final long tickNanos;
+
+    /**
+     * The time the wheel's tick 0 began, from System.nanoTime().
+     */
+    private final long origin;
+
+    /**
+     * The ticks a player has to act.
+     */
+    private final long turnTicks;
+
+    /**
+     * Told about every failure on the scheduler, which keeps advancing the wheel.
+     */
+    private final Consumer<RuntimeException> errors;
+
+    /**
+     * The pending deadline of each game, or null. Guarded by this.
+     */
+    private final TimingWheel.Timeout[] deadlines;
+
+    /**
+     * The phase of each game's turn. Guarded by this.
+     */
+    private final byte[] phases;
+
+    /**
+     * The number of deadlines each game has had, so a deadline that passes as it is replaced is ignored. Guarded by this.
+     */
+    private final int[] generations;
+
+    /**
+     * The number of turns played for idle players.
+     */
+    private volatile long timedOut;
+
+    /**
+     * Start keeping the turn deadlines of a store's games, reporting failures to the scheduler thread's
+     * uncaught exception handler.
+     * @param store The store
+     * @param tickMillis The length of a tick in milliseconds
+     * @param turnMillis The time a player has to act in milliseconds
+     */
+    public TurnDeadlines(GameStore store, long tickMillis, long turnMillis) {
+        this(store, tickMillis, turnMillis, e -> Thread.currentThread().getUncaughtExceptionHandler()
+                .uncaughtException(Thread.currentThread(), e));
+    }
+
+    /**
+     * Start keeping the turn deadlines of a store's games.
+     * @param store The store
+     * @param tickMillis The length of a tick in milliseconds
+     * @param turnMillis The time a player has to act in milliseconds
+     * @param errors Told about every failure, on the scheduler thread
+     */
+    public TurnDeadlines(GameStore store, long tickMillis, long turnMillis, Consumer<RuntimeException> errors) {
+        this.store = store;
+        this.errors = errors;
+        this.tickNanos = TimeUnit.MILLISECONDS.toNanos(tickMillis);
+        this.turnTicks = Math.max(1, turnMillis / tickMillis);
+        this.deadlines = new TimingWheel.Timeout[store.getCapacity()];
+        this.phases = new byte[store.getCapacity()];
+        this.generations = new int[store.getCapacity()];
+        this.origin = System.nanoTime();
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "turn-deadlines");
+            thread.setDaemon(true);
+            return thread;
+        });
+        scheduler.scheduleAtFixedRate(this::advance, tickMillis, tickMillis, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Advance the wheel to the current time, timing out every idle turn that is due.
+     */
+    private void advance() {
+        try {
+            long due = (System.nanoTime() - origin) / tickNanos;
+            wheel.advance(due - wheel.getTick());
+        } catch (RuntimeException e) {
+            // a failure must not cancel the periodic task, leaving every later deadline pending
+            errors.accept(e);
+        }
+    }
+
+    /**
+     * Start the deadline of the current player's turn, replacing any pending deadline of the game.
+     * @param id The game's number
+     */
+    public synchronized void startTurn(int id) {
+        phases[id] = WAITING_TO_ROLL;
+        restart(id);
+    }
+
+    /**
+     * Record that the current player has rolled, restarting their deadline for the rest of the turn.
+     * @param id The game's number
+     */
+    public synchronized void rolled(int id) {
+        phases[id] = ROLLED;
+        restart(id);
+    }
+
+    /**
+     * Stop the deadline of a game, when it is over or suspended.
+     * @param id The game's number
+     */
+    public synchronized void stop(int id) {
+        generations[id]++;
+        if (deadlines[id] != null) {
+            deadlines[id].cancel();
+            deadlines[id] = null;
+        }
+    }
+
+    /**
+     * Replace the pending deadline of a game with a new one.
+     * @param id The game's number
+     */
+    private void restart(int id) {
+        stop(id);
+        int generation = generations[id];
+        deadlines[id] = wheel.schedule(turnTicks, () -> timeOut(id, generation));
+    }
+
+    /**
+     * Play the turn of a game's idle player: roll if they have not, end the turn, and start the next deadline.
+     * @param id The game's number
+     * @param generation The generation of the deadline that passed
+     */
+    private void timeOut(int id, int generation) {
+        boolean roll;
+        synchronized (this) {
+            if (generations[id] != generation) {
+                return;
+            }
+            roll = phases[id] == WAITING_TO_ROLL;
+            deadlines[id] = null;
+        }
+        boolean ended = store.update(id, model -> {
+            if (roll) {
+                GameAction.apply(model, GameAction.of(GameAction.ROLL, 0));
+            }
+            return GameAction.apply(model, GameAction.of(GameAction.END_TURN, 0));
+        });
+        timedOut++;
+        if (ended) {
+            startTurn(id);
+        }
+    }
+
+    /**
+     * Get the number of turns played for idle players.
+     * @return The number of timed out turns
+     */
+    public long getTimedOut() {
+        return timedOut;
+    }
+
+    /**
+     * Get the number of deadlines pending.
+     * @return The number of pending deadlines
+     */
+    public int getPending() {
+        return wheel.getPending();
+    }
+
+    /**
+     * Stop advancing the wheel; pending deadlines never pass.
+     * If interrupted while waiting for the scheduler, returns with the thread's interrupt status set.
+     */
+    @Override
+    public void close() {
+        scheduler.shutdown();
+        try {
+            scheduler.awaitTermination(1, TimeUnit.MINUTES);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,102 @@
+package hotelgame.server.tests;
+
+import hotelgame.model.BoardDefinition;
+import hotelgame.model.GameModel;
+import hotelgame.server.Auction;
+import hotelgame.server.AuctionHouse;
+import hotelgame.server.AuctionServer;
+import hotelgame.server.Bidder;
+import hotelgame.store.GameStore;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AuctionHouseTest {
+
+    /**
+     * Create a model with player one on the un-owned A1 hotel.
+     */
+    private static GameModel onUnownedHotel() {
+        GameModel model = new GameModel();
+        model.reset();
+        model.createPlayers("one", "two");
+        model.movePlayer(1);
+        return model;
+    }
+
+    /**
+     * Open an auction of A1 with two bots bidding 80% and 90% of its price and a long deadline
+     * Assert the auction closes as soon as both have bid and the higher bid wins
+     * Award the result to the model and assert player two owns A1 and paid their bid
+     */
+    @Test
+    void testHighestBidWins() throws Exception {
+        GameModel model = onUnownedHotel();
+        try (AuctionHouse house = new AuctionHouse(60_000, 5)) {
+            Auction auction = house.open(7, model, new Bidder[] {Bidder.valuing(0.8), Bidder.valuing(0.9)});
+            assertSame(auction, auction.getResult().get(5, TimeUnit.SECONDS));
+
+            double price = model.getCurrentPlayerPositionHotel().getPrice();
+            assertEquals(1, auction.getWinner());
+            assertEquals(price * 0.9, auction.getPrice());
+            double money = model.getPlayerTwo().getMoney();
+            assertTrue(auction.award(model));
+            assertEquals(model.getPlayerTwo(), model.getCurrentPlayerPositionHotel().getOwner());
+            assertEquals(money - price * 0.9, model.getPlayerTwo().getMoney());
+            assertEquals(model.computeHash(), model.getHash());
+            assertFalse(auction.award(model));
+        }
+    }
+
+    /**
+     * Open an auction of A1 where neither player is a bot
+     * Assert bids of nothing, of all a player's money and repeated bids are rejected
+     * Assert the auction closes at its deadline with player one's bid winning and later bids are rejected
+     */
+    @Test
+    void testDeadlineAndRejectedBids() throws Exception {
+        GameModel model = onUnownedHotel();
+        try (AuctionHouse house = new AuctionHouse(50, 5)) {
+            Auction auction = house.open(0, model, new Bidder[] {Bidder.NONE, Bidder.NONE});
+            assertFalse(auction.bid(0, 0));
+            assertFalse(auction.bid(1, model.getPlayerTwo().getMoney()));
+            assertTrue(auction.bid(0, 10));
+            assertFalse(auction.bid(0, 20));
+
+            auction.getResult().get(5, TimeUnit.SECONDS);
+            assertEquals(0, auction.getWinner());
+            assertEquals(10, auction.getPrice());
+            assertFalse(auction.bid(1, 20));
+        }
+    }
+
+    /**
+     * Play 500 games for 50 turns each with the auction rule on two workers
+     * Assert every auction closed, several in each batch on average, and some hotels were sold
+     */
+    @Test
+    void testServerBatchesAuctions(@TempDir Path dir) throws Exception {
+        int games = 500;
+        ExecutorService workers = Executors.newFixedThreadPool(2);
+        try (GameStore store = new GameStore(dir.resolve("games.hgs"), BoardDefinition.standard(), games);
+             AuctionHouse house = new AuctionHouse(20, 5)) {
+            AuctionServer server = new AuctionServer(store, house, workers, games);
+            for (int game = 0; game < games; game++) {
+                server.play(store.create("one", "two", game), 50);
+            }
+            server.await();
+
+            assertTrue(house.getClosedAuctions() > games);
+            assertTrue(house.getClosedAuctions() > 2 * house.getBatches());
+            assertTrue(server.getSold() > 0);
+        } finally {
+            workers.shutdown();
+        }
+    }
+}
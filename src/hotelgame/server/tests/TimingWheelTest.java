@@ -0,0 +1,146 @@
+package hotelgame.server.tests;
+
+import hotelgame.model.BoardDefinition;
+import hotelgame.model.GameSnapshot;
+import hotelgame.server.TimingWheel;
+import hotelgame.server.TurnDeadlines;
+import hotelgame.store.GameStore;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TimingWheelTest {
+
+    /**
+     * Schedule 10000 timeouts with delays reaching every level of the wheel and cancel every third
+     * Advance the wheel past the longest delay
+     * Assert every timeout that was not cancelled ran once, at its deadline, and none are pending
+     */
+    @Test
+    void testTimeoutsRunAtTheirDeadline() {
+        TimingWheel wheel = new TimingWheel();
+        SplittableRandom random = new SplittableRandom(3);
+        int count = 10_000;
+        long[] ranAt = new long[count];
+        TimingWheel.Timeout[] timeouts = new TimingWheel.Timeout[count];
+        wheel.advance(1000);
+        for (int i = 0; i < count; i++) {
+            int timeout = i;
+            long delay = i < 10 ? i : 1 + random.nextLong(1L << (8 + 4 * (i % 4)));
+            timeouts[i] = wheel.schedule(delay, () -> {
+                assertEquals(0, ranAt[timeout]);
+                ranAt[timeout] = wheel.getTick();
+            });
+        }
+        int cancelled = 0;
+        for (int i = 0; i < count; i += 3) {
+            assertTrue(timeouts[i].cancel());
+            assertFalse(timeouts[i].cancel());
+            cancelled++;
+        }
+        assertEquals(count - cancelled, wheel.getPending());
+
+        assertEquals(count - cancelled, wheel.advance(1L << 20));
+        for (int i = 0; i < count; i++) {
+            assertEquals(i % 3 == 0 ? 0 : timeouts[i].getDeadline(), ranAt[i]);
+            assertFalse(timeouts[i].cancel());
+        }
+        assertEquals(0, wheel.getPending());
+    }
+
+    /**
+     * Schedule four timeouts at the same tick, the second and third throwing, and one a tick later
+     * Advance the wheel past both ticks
+     * Assert the first failure is thrown with the second suppressed, after every timeout of the tick ran
+     * Assert the later timeout is still pending and runs on the next advance
+     */
+    @Test
+    void testFailingTimeoutDoesNotLoseItsBatch() {
+        TimingWheel wheel = new TimingWheel();
+        int[] ran = new int[5];
+        wheel.schedule(1, () -> ran[0]++);
+        wheel.schedule(1, () -> {
+            ran[1]++;
+            throw new IllegalStateException("first");
+        });
+        wheel.schedule(1, () -> {
+            ran[2]++;
+            throw new IllegalStateException("second");
+        });
+        wheel.schedule(1, () -> ran[3]++);
+        wheel.schedule(2, () -> ran[4]++);
+
+        IllegalStateException failure = assertThrows(IllegalStateException.class, () -> wheel.advance(2));
+        assertEquals(1, failure.getSuppressed().length);
+        assertArrayEquals(new int[] {1, 1, 1, 1, 0}, ran);
+        assertEquals(1, wheel.getTick());
+        assertEquals(1, wheel.getPending());
+
+        assertEquals(1, wheel.advance(1));
+        assertArrayEquals(new int[] {1, 1, 1, 1, 1}, ran);
+        assertEquals(0, wheel.getPending());
+    }
+
+    /**
+     * Keep turn deadlines of 40 ms for two of three games and let the players go idle
+     * Assert idle turns are played and passed to the other player, and the third game is untouched
+     * Stop the deadlines and assert none are pending
+     */
+    @Test
+    void testIdleTurnsTimeOut(@TempDir Path dir) throws Exception {
+        try (GameStore store = new GameStore(dir.resolve("games.hgs"), BoardDefinition.standard(), 3);
+             TurnDeadlines deadlines = new TurnDeadlines(store, 1, 40)) {
+            for (int game = 0; game < 3; game++) {
+                store.create("one", "two", game);
+            }
+            GameSnapshot untouched = new GameSnapshot();
+            store.load(2, untouched);
+            deadlines.startTurn(0);
+            deadlines.rolled(1);
+
+            long start = System.nanoTime();
+            while (deadlines.getTimedOut() < 6 && System.nanoTime() - start < 10_000_000_000L) {
+                Thread.sleep(10);
+            }
+            deadlines.stop(0);
+            deadlines.stop(1);
+            assertTrue(deadlines.getTimedOut() >= 6);
+            assertEquals(0, deadlines.getPending());
+
+            GameSnapshot snapshot = new GameSnapshot();
+            store.load(0, snapshot);
+            assertNotEquals(0, snapshot.getPosition(0) + snapshot.getPosition(1));
+            store.load(2, snapshot);
+            assertEquals(untouched, snapshot);
+        }
+    }
+
+    /**
+     * Keep turn deadlines of 40 ms for a game and for a number with no game
+     * Assert the missing game's failure reaches the error handler and the real game's idle turn is still played
+     */
+    @Test
+    void testFailingDeadlineIsReported(@TempDir Path dir) throws Exception {
+        List<RuntimeException> errors = new CopyOnWriteArrayList<>();
+        try (GameStore store = new GameStore(dir.resolve("games.hgs"), BoardDefinition.standard(), 2);
+             TurnDeadlines deadlines = new TurnDeadlines(store, 1, 40, errors::add)) {
+            store.create("one", "two", 0);
+            deadlines.startTurn(1);
+            deadlines.startTurn(0);
+
+            long start = System.nanoTime();
+            while ((errors.isEmpty() || deadlines.getTimedOut() < 1) && System.nanoTime() - start < 10_000_000_000L) {
+                Thread.sleep(10);
+            }
+            deadlines.stop(0);
+            assertTrue(errors.get(0) instanceof IllegalArgumentException);
+            assertTrue(deadlines.getTimedOut() >= 1);
+        }
+    }
+}
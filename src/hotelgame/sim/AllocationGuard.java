@@ -0,0 +1,271 @@
+package hotelgame.sim;
+
+import hotelgame.controller.GameController;
+import hotelgame.model.BoardDefinition;
+import hotelgame.model.GameModel;
+import hotelgame.model.Hotel;
+import hotelgame.model.Policy;
+
+import java.lang.management.ManagementFactory;
+
+/**
+ * Measures the bytes the headless turn loop allocates per turn, phase by phase, with the JVM's per-thread
+ * allocation counter. Turns are played after a warm-up, so the result is the steady state: a game that ends
+ * is started again, and the allocation of starting it is not counted.
+ * Two loops can be measured: GameModel driven directly, split into roll, move, resolve tile, decide and end turn,
+ * and GameController without a view, whose actions return a message describing what happened and so allocate it.
+ * Usage: AllocationGuard [turns] [model budget] [controller budget], budgets in bytes per turn;
+ * exits with status 1 if a loop goes over its budget.
+ */
+public class AllocationGuard {
+
+    /**
+     * The phases of a turn played through GameModel.
+     */
+    public static final String[] MODEL_PHASES = {"roll", "move", "resolve tile", "decide", "end turn"};
+
+    /**
+     * The phases of a turn played through GameController.
+     */
+    public static final String[] CONTROLLER_PHASES = {"roll turn", "decide", "end turn"};
+
+    /**
+     * The number of turns played before measuring, to let the JIT compile the loop.
+     */
+    private static final int WARM_UP_TURNS = 200_000;
+
+    /**
+     * The per-thread allocation counter.
+     */
+    private static final com.sun.management.ThreadMXBean THREADS =
+            (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+    /**
+     * The names of the phases.
+     */
+    private final String[] phases;
+
+    /**
+     * The bytes allocated in each phase.
+     */
+    private final long[] bytes;
+
+    /**
+     * The number of turns measured.
+     */
+    private long turns;
+
+    /**
+     * The counter reading at the start of the current phase.
+     */
+    private long mark;
+
+    /**
+     * Create an empty measurement.
+     * @param phases The names of the phases
+     * @throws UnsupportedOperationException If the JVM cannot count allocations per thread
+     */
+    private AllocationGuard(String[] phases) {
+        if (!THREADS.isThreadAllocatedMemorySupported()) {
+            throw new UnsupportedOperationException("Per-thread allocation counting is not supported");
+        }
+        THREADS.setThreadAllocatedMemoryEnabled(true);
+        this.phases = phases;
+        this.bytes = new long[phases.length];
+    }
+
+    /**
+     * Measure turns played through a model, both players following a policy.
+     * @param model The model, with players
+     * @param policy The policy
+     * @param turns The number of turns to measure
+     * @return The measurement
+     */
+    public static AllocationGuard measureModel(GameModel model, Policy policy, int turns) {
+        AllocationGuard warmUp = new AllocationGuard(MODEL_PHASES);
+        warmUp.playModel(model, policy, WARM_UP_TURNS);
+        AllocationGuard guard = new AllocationGuard(MODEL_PHASES);
+        guard.playModel(model, policy, turns);
+        return guard;
+    }
+
+    /**
+     * Measure turns played through a controller without a view, buying every hotel and raising it by a star.
+     * @param controller The started controller
+     * @param turns The number of turns to measure
+     * @return The measurement
+     */
+    public static AllocationGuard measureController(GameController controller, int turns) {
+        AllocationGuard warmUp = new AllocationGuard(CONTROLLER_PHASES);
+        warmUp.playController(controller, WARM_UP_TURNS);
+        AllocationGuard guard = new AllocationGuard(CONTROLLER_PHASES);
+        guard.playController(controller, turns);
+        return guard;
+    }
+
+    /**
+     * Play and measure turns through a model, with the same decisions as GameModel.playTurns().
+     * @param model The model
+     * @param policy The policy
+     * @param count The number of turns
+     */
+    private void playModel(GameModel model, Policy policy, int count) {
+        for (int turn = 0; turn < count; turn++) {
+            if (model.isGameOver()) {
+                restart(model);
+            }
+            start();
+            int roll = model.rollDice();
+            phase(0);
+            model.movePlayer(roll);
+            phase(1);
+            Hotel hotel = model.getCurrentPlayerPositionHotel();
+            if (hotel != null && hotel.getOwner() != null && hotel.getOwner() != model.getCurrentTurn()) {
+                model.payOvernightFee();
+            }
+            phase(2);
+            int position = model.getCurrentTurn().getPosition();
+            if (hotel != null && !model.isGameOver()) {
+                if (hotel.getOwner() == null && hotel.canAffordPurchase(model.getCurrentTurn())
+                        && policy.shouldBuy(model, position)) {
+                    model.buyHotel();
+                }
+                if (hotel.getOwner() == model.getCurrentTurn() && hotel.getStarRating() < hotel.getMaxRating()) {
+                    model.increaseStarRatingTo(Math.min(policy.targetRating(model, position), hotel.getMaxRating()));
+                }
+            }
+            phase(3);
+            if (!model.isGameOver()) {
+                model.nextTurn();
+            }
+            phase(4);
+            turns++;
+        }
+    }
+
+    /**
+     * Play and measure turns through a controller.
+     * @param controller The controller
+     * @param count The number of turns
+     */
+    private void playController(GameController controller, int count) {
+        GameModel model = controller.getModel();
+        for (int turn = 0; turn < count; turn++) {
+            if (model.isGameOver()) {
+                controller.start();
+            }
+            start();
+            controller.rollTurn(0);
+            phase(0);
+            Hotel hotel = model.getCurrentPlayerPositionHotel();
+            if (hotel != null && !model.isGameOver()) {
+                if (hotel.getOwner() == null && hotel.canAffordPurchase(model.getCurrentTurn())) {
+                    controller.buyHotel();
+                }
+                if (hotel.getOwner() == model.getCurrentTurn() && hotel.getStarRating() < hotel.getMaxRating()
+                        && hotel.canAffordRatingIncrease()) {
+                    controller.increaseRating(1);
+                }
+            }
+            phase(1);
+            controller.endTurn();
+            phase(2);
+            turns++;
+        }
+    }
+
+    /**
+     * Start a new game on a model, keeping the players' names.
+     * @param model The model
+     */
+    private static void restart(GameModel model) {
+        String playerOne = model.getPlayerOne().getName();
+        String playerTwo = model.getPlayerTwo().getName();
+        model.reset();
+        model.createPlayers(playerOne, playerTwo);
+    }
+
+    /**
+     * Start measuring the first phase of a turn.
+     */
+    private void start() {
+        mark = THREADS.getCurrentThreadAllocatedBytes();
+    }
+
+    /**
+     * End a phase, adding what it allocated, and start the next.
+     * @param phase The phase that ended
+     */
+    private void phase(int phase) {
+        long now = THREADS.getCurrentThreadAllocatedBytes();
+        bytes[phase] += now - mark;
+        mark = now;
+    }
+
+    /**
+     * Get the bytes allocated per turn in a phase.
+     * @param phase The phase
+     * @return The mean bytes per turn
+     */
+    public double getBytesPerTurn(int phase) {
+        return turns == 0 ? 0 : (double) bytes[phase] / turns;
+    }
+
+    /**
+     * Get the bytes allocated per turn.
+     * @return The mean bytes per turn
+     */
+    public double getBytesPerTurn() {
+        long total = 0;
+        for (long phaseBytes : bytes) {
+            total += phaseBytes;
+        }
+        return turns == 0 ? 0 : (double) total / turns;
+    }
+
+    /**
+     * Get the names of the phases.
+     * @return The phases
+     */
+    public String[] getPhases() {
+        return phases.clone();
+    }
+
+    /**
+     * Describe the bytes per turn of every phase.
+     */
+    @Override
+    public String toString() {
+        StringBuilder text = new StringBuilder();
+        for (int phase = 0; phase < phases.length; phase++) {
+            text.append(String.format("%-13s %8.2f bytes/turn%n", phases[phase], getBytesPerTurn(phase)));
+        }
+        return text.append(String.format("%-13s %8.2f bytes/turn over %,d turns", "total", getBytesPerTurn(), turns))
+                .toString();
+    }
+
+    public static void main(String[] args) {
+        int turns = args.length > 0 ? Integer.parseInt(args[0]) : 1_000_000;
+        double modelBudget = args.length > 1 ? Double.parseDouble(args[1]) : 0;
+        double controllerBudget = args.length > 2 ? Double.parseDouble(args[2]) : 512;
+        BoardDefinition board = BoardDefinition.standard();
+
+        GameModel model = new GameModel(board);
+        model.reset();
+        model.createPlayers("one", "two");
+        model.addObserver((observable, arg) -> { });
+        AllocationGuard modelLoop = measureModel(model, Policy.GREEDY, turns);
+        System.out.println("GameModel:\n" + modelLoop);
+
+        GameController controller = new GameController(board);
+        controller.start();
+        AllocationGuard controllerLoop = measureController(controller, turns);
+        System.out.println("GameController:\n" + controllerLoop);
+
+        if (modelLoop.getBytesPerTurn() > modelBudget || controllerLoop.getBytesPerTurn() > controllerBudget) {
+            System.out.printf("over budget: %.1f bytes/turn for GameModel (budget %.1f), %.1f for GameController (budget %.1f)%n",
+                    modelLoop.getBytesPerTurn(), modelBudget, controllerLoop.getBytesPerTurn(), controllerBudget);
+            System.exit(1);
+        }
+    }
+}
@@ -0,0 +1,513 @@
+package hotelgame.sim;
+
+import hotelgame.model.BoardDefinition;
+import hotelgame.model.DiceDistribution;
+import hotelgame.model.DiceEngine;
+import hotelgame.model.GameModel;
+import hotelgame.model.GameProbe;
+import hotelgame.model.Player;
+import hotelgame.model.Policy;
+import hotelgame.model.RuleSet;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Locale;
+import java.util.stream.LongStream;
+
+/**
+ * Statistics gathered while games are played, without storing the games: win rate by first mover,
+ * the distribution of game lengths, the return on investment of every hotel and group, and how often
+ * overnight fees are halved or doubled.
+ * Each instance plays games on its own model and is only used by one thread; simulate() gives every
+ * parallel task its own instance and merges them at the end, so memory depends on the board and the
+ * turn limit but not on the number of games.
+ * Usage: GameStatistics [games] [csv|json] [seed] [turn limit] [rules, see RuleSet.parse()]
+ */
+public class GameStatistics implements GameProbe {
+
+    /**
+     * The number of games played with each seeded dice engine by simulate().
+     */
+    public static final int BLOCK_GAMES = 256;
+
+    /**
+     * The board the games are played on.
+     */
+    private final BoardDefinition board;
+
+    /**
+     * The house rules the games are played with.
+     */
+    private final RuleSet rules;
+
+    /**
+     * The most turns a game may last before it is counted as unfinished.
+     */
+    private final int maxTurns;
+
+    /**
+     * The policy both players follow.
+     */
+    private final Policy policy;
+
+    /**
+     * The dice distribution, shared by every game.
+     */
+    private final DiceDistribution distribution;
+
+    /**
+     * The model games are played on, created on first use.
+     */
+    private GameModel model;
+
+    /**
+     * The number of games recorded.
+     */
+    private long games;
+
+    /**
+     * The number of finished games won by the player who moved first.
+     */
+    private long firstMoverWins;
+
+    /**
+     * The number of finished games won by player one.
+     */
+    private long playerOneWins;
+
+    /**
+     * The number of games that hit the turn limit.
+     */
+    private long unfinished;
+
+    /**
+     * The number of games per length in turns, from 0 to maxTurns.
+     */
+    private final long[] lengths;
+
+    /**
+     * The total turns played.
+     */
+    private long totalTurns;
+
+    /**
+     * The number of purchases per tile.
+     */
+    private final long[] purchases;
+
+    /**
+     * The money spent buying and raising the rating per tile.
+     */
+    private final double[] invested;
+
+    /**
+     * The fees collected per tile.
+     */
+    private final double[] income;
+
+    /**
+     * The number of fees paid per modifier (see GameProbe).
+     */
+    private final long[] fees = new long[3];
+
+    /**
+     * Create empty statistics.
+     * @param board The board the games are played on
+     * @param maxTurns The turn limit per game
+     * @param policy The policy both players follow
+     */
+    public GameStatistics(BoardDefinition board, int maxTurns, Policy policy) {
+        this(board, RuleSet.STANDARD, maxTurns, policy);
+    }
+
+    /**
+     * Create empty statistics of games with house rules.
+     * @param board The board the games are played on
+     * @param rules The house rules the games are played with
+     * @param maxTurns The turn limit per game
+     * @param policy The policy both players follow
+     */
+    public GameStatistics(BoardDefinition board, RuleSet rules, int maxTurns, Policy policy) {
+        this.board = board;
+        this.rules = rules;
+        this.maxTurns = maxTurns;
+        this.policy = policy;
+        this.distribution = DiceDistribution.uniform(board.getDiceSides());
+        this.lengths = new long[maxTurns + 1];
+        this.purchases = new long[board.getTileCount()];
+        this.invested = new double[board.getTileCount()];
+        this.income = new double[board.getTileCount()];
+    }
+
+    /**
+     * Play games in parallel and gather their statistics.
+     * Games are played in blocks of BLOCK_GAMES sharing one seeded dice engine, and every block is seeded by
+     * its number, so the result does not depend on how the blocks are split between threads.
+     * @param board The board the games are played on
+     * @param firstSeed The seed of the first block
+     * @param games The number of games
+     * @param maxTurns The turn limit per game
+     * @param policy The policy both players follow
+     * @return The merged statistics
+     */
+    public static GameStatistics simulate(BoardDefinition board, long firstSeed, long games, int maxTurns, Policy policy) {
+        return simulate(board, RuleSet.STANDARD, firstSeed, games, maxTurns, policy);
+    }
+
+    /**
+     * Play games with house rules in parallel and gather their statistics, as simulate() without rules does.
+     * @param board The board the games are played on
+     * @param rules The house rules the games are played with
+     * @param firstSeed The seed of the first block
+     * @param games The number of games
+     * @param maxTurns The turn limit per game
+     * @param policy The policy both players follow
+     * @return The merged statistics
+     */
+    public static GameStatistics simulate(BoardDefinition board, RuleSet rules, long firstSeed, long games,
+                                          int maxTurns, Policy policy) {
+        long blocks = (games + BLOCK_GAMES - 1) / BLOCK_GAMES;
+        return LongStream.range(0, blocks).parallel()
+                .collect(() -> new GameStatistics(board, rules, maxTurns, policy),
+                        (statistics, block) -> statistics.play(firstSeed + block,
+                                (int) Math.min(BLOCK_GAMES, games - block * BLOCK_GAMES)),
+                        GameStatistics::merge);
+    }
+
+    /**
+     * Play games one after another with the same dice and record them.
+     * @param seed The seed of the dice
+     * @param count The number of games
+     */
+    public void play(long seed, int count) {
+        if (model == null) {
+            model = new GameModel(board, rules);
+            model.setProbe(this);
+        }
+        model.setDice(new DiceEngine(distribution, seed));
+        for (int game = 0; game < count; game++) {
+            model.reset();
+            model.createPlayers("one", "two");
+            Player first = model.getCurrentTurn();
+            record(model, model.playTurns(maxTurns, policy), first);
+        }
+    }
+
+    /**
+     * Record the end of a game.
+     * Purchases, ratings and fees are recorded as they happen when these statistics are the model's probe.
+     * @param model The model at the end of the game
+     * @param turns The number of turns played
+     * @param first The player who moved first
+     */
+    public void record(GameModel model, int turns, Player first) {
+        games++;
+        lengths[Math.min(turns, maxTurns)]++;
+        totalTurns += turns;
+        if (!model.isGameOver()) {
+            unfinished++;
+        } else {
+            Player winner = model.getWinner();
+            firstMoverWins += winner == first ? 1 : 0;
+            playerOneWins += winner == model.getPlayerOne() ? 1 : 0;
+        }
+    }
+
+    @Override
+    public void hotelBought(int position, int player, double price) {
+        purchases[position]++;
+        invested[position] += price;
+    }
+
+    @Override
+    public void ratingIncreased(int position, int player, int rating, double cost) {
+        invested[position] += cost;
+    }
+
+    @Override
+    public void feePaid(int position, int payer, double fee, int modifier) {
+        income[position] += fee;
+        fees[modifier]++;
+    }
+
+    /**
+     * Add another instance's statistics to these.
+     * Pre: other was created with the same board and turn limit
+     * @param other The statistics to add
+     */
+    public void merge(GameStatistics other) {
+        assert other.board.getTileCount() == board.getTileCount() && other.maxTurns == maxTurns;
+        games += other.games;
+        firstMoverWins += other.firstMoverWins;
+        playerOneWins += other.playerOneWins;
+        unfinished += other.unfinished;
+        totalTurns += other.totalTurns;
+        for (int turns = 0; turns <= maxTurns; turns++) {
+            lengths[turns] += other.lengths[turns];
+        }
+        for (int position = 0; position < purchases.length; position++) {
+            purchases[position] += other.purchases[position];
+            invested[position] += other.invested[position];
+            income[position] += other.income[position];
+        }
+        for (int modifier = 0; modifier < fees.length; modifier++) {
+            fees[modifier] += other.fees[modifier];
+        }
+    }
+
+    /**
+     * Get the number of games recorded.
+     * @return The game count
+     */
+    public long getGames() {
+        return games;
+    }
+
+    /**
+     * Get the number of games that hit the turn limit.
+     * @return The unfinished game count
+     */
+    public long getUnfinished() {
+        return unfinished;
+    }
+
+    /**
+     * Get the win rate of the player who moved first, over finished games.
+     * @return The win rate, or NaN before any game finished
+     */
+    public double getFirstMoverWinRate() {
+        return firstMoverWins / (double) (games - unfinished);
+    }
+
+    /**
+     * Get the win rate of player one, over finished games.
+     * @return The win rate, or NaN before any game finished
+     */
+    public double getPlayerOneWinRate() {
+        return playerOneWins / (double) (games - unfinished);
+    }
+
+    /**
+     * Get the mean game length.
+     * @return The mean number of turns, or NaN before any game
+     */
+    public double getMeanTurns() {
+        return totalTurns / (double) games;
+    }
+
+    /**
+     * Get a percentile of the game length.
+     * Pre: 0 <= fraction <= 1, games have been recorded
+     * @param fraction The fraction of games at or below the result, e.g. 0.5 for the median
+     * @return The smallest length at least that fraction of games did not exceed
+     */
+    public int getTurnsPercentile(double fraction) {
+        assert fraction >= 0 && fraction <= 1 && games > 0;
+        long target = Math.max(1, (long) Math.ceil(fraction * games));
+        long seen = 0;
+        for (int turns = 0; turns < maxTurns; turns++) {
+            seen += lengths[turns];
+            if (seen >= target) {
+                return turns;
+            }
+        }
+        return maxTurns;
+    }
+
+    /**
+     * Get the number of games that lasted a number of turns.
+     * @param turns The length, at most the turn limit
+     * @return The game count
+     */
+    public long getLengthCount(int turns) {
+        return lengths[turns];
+    }
+
+    /**
+     * Get the number of times a hotel was bought.
+     * @param position The hotel's position
+     * @return The purchase count
+     */
+    public long getPurchases(int position) {
+        return purchases[position];
+    }
+
+    /**
+     * Get the return on investment of a hotel: fees collected per unit spent buying and raising it, minus one.
+     * @param position The hotel's position
+     * @return The return on investment, or NaN if it was never bought
+     */
+    public double getHotelRoi(int position) {
+        return invested[position] == 0 ? Double.NaN : income[position] / invested[position] - 1;
+    }
+
+    /**
+     * Get the return on investment of a group of hotels.
+     * @param group The group
+     * @return The return on investment, or NaN if none of its hotels was bought
+     */
+    public double getGroupRoi(int group) {
+        double spent = 0;
+        double collected = 0;
+        for (int position = 0; position < invested.length; position++) {
+            if (board.isHotel(position) && board.getGroup(position) == group) {
+                spent += invested[position];
+                collected += income[position];
+            }
+        }
+        return spent == 0 ? Double.NaN : collected / spent - 1;
+    }
+
+    /**
+     * Get the number of fees paid with a modifier.
+     * @param modifier GameProbe.FEE_NORMAL, FEE_HALF or FEE_DOUBLE
+     * @return The fee count
+     */
+    public long getFeeCount(int modifier) {
+        return fees[modifier];
+    }
+
+    /**
+     * Get the fraction of fees paid with a modifier.
+     * @param modifier GameProbe.FEE_NORMAL, FEE_HALF or FEE_DOUBLE
+     * @return The fraction, or NaN before any fee
+     */
+    public double getFeeRate(int modifier) {
+        return fees[modifier] / (double) (fees[0] + fees[1] + fees[2]);
+    }
+
+    /**
+     * Write the summary as CSV with the columns metric, key and value.
+     * @param out Where the CSV is written
+     * @throws IOException If the output fails
+     */
+    public void writeCsv(Appendable out) throws IOException {
+        out.append("metric,key,value\n");
+        csv(out, "games", "", games);
+        csv(out, "unfinished", "", unfinished);
+        csv(out, "win_rate", "first_mover", getFirstMoverWinRate());
+        csv(out, "win_rate", "player_one", getPlayerOneWinRate());
+        csv(out, "turns", "mean", getMeanTurns());
+        for (int percentile : new int[] {10, 50, 90, 99}) {
+            csv(out, "turns", "p" + percentile, getTurnsPercentile(percentile / 100.0));
+        }
+        csv(out, "fee_rate", "normal", getFeeRate(FEE_NORMAL));
+        csv(out, "fee_rate", "half", getFeeRate(FEE_HALF));
+        csv(out, "fee_rate", "double", getFeeRate(FEE_DOUBLE));
+        for (int group = 0; group < board.getGroupCount(); group++) {
+            csv(out, "group_roi", board.getGroupName(group), getGroupRoi(group));
+        }
+        for (int position = 0; position < purchases.length; position++) {
+            if (board.isHotel(position)) {
+                csv(out, "hotel_roi", hotelName(position), getHotelRoi(position));
+            }
+        }
+        for (int turns = 0; turns <= maxTurns; turns++) {
+            if (lengths[turns] > 0) {
+                csv(out, "length", Integer.toString(turns), lengths[turns]);
+            }
+        }
+    }
+
+    /**
+     * Write the summary as a JSON object.
+     * @param out Where the JSON is written
+     * @throws IOException If the output fails
+     */
+    public void writeJson(Appendable out) throws IOException {
+        out.append("{\n  \"games\": ").append(Long.toString(games))
+                .append(",\n  \"unfinished\": ").append(Long.toString(unfinished))
+                .append(",\n  \"winRate\": {\"firstMover\": ").append(json(getFirstMoverWinRate()))
+                .append(", \"playerOne\": ").append(json(getPlayerOneWinRate()))
+                .append("},\n  \"turns\": {\"mean\": ").append(json(getMeanTurns()));
+        for (int percentile : new int[] {10, 50, 90, 99}) {
+            out.append(", \"p").append(Integer.toString(percentile)).append("\": ")
+                    .append(Integer.toString(getTurnsPercentile(percentile / 100.0)));
+        }
+        out.append("},\n  \"feeRate\": {\"normal\": ").append(json(getFeeRate(FEE_NORMAL)))
+                .append(", \"half\": ").append(json(getFeeRate(FEE_HALF)))
+                .append(", \"double\": ").append(json(getFeeRate(FEE_DOUBLE)))
+                .append("},\n  \"groupRoi\": {");
+        for (int group = 0; group < board.getGroupCount(); group++) {
+            out.append(group == 0 ? "" : ", ").append('"').append(board.getGroupName(group)).append("\": ")
+                    .append(json(getGroupRoi(group)));
+        }
+        out.append("},\n  \"hotelRoi\": {");
+        String separator = "";
+        for (int position = 0; position < purchases.length; position++) {
+            if (board.isHotel(position)) {
+                out.append(separator).append('"').append(hotelName(position)).append("\": ").append(json(getHotelRoi(position)));
+                separator = ", ";
+            }
+        }
+        out.append("},\n  \"lengths\": {");
+        separator = "";
+        for (int turns = 0; turns <= maxTurns; turns++) {
+            if (lengths[turns] > 0) {
+                out.append(separator).append('"').append(Integer.toString(turns)).append("\": ").append(Long.toString(lengths[turns]));
+                separator = ", ";
+            }
+        }
+        out.append("}\n}\n");
+    }
+
+    /**
+     * Get a hotel's name, as Hotel.getName() would give it.
+     * @param position The hotel's position
+     * @return The group name followed by the hotel's number
+     */
+    private String hotelName(int position) {
+        return board.getGroupName(board.getGroup(position)) + board.getNumber(position);
+    }
+
+    /**
+     * Write a CSV row.
+     * @param out The output
+     * @param metric The metric
+     * @param key The key within the metric
+     * @param value The value
+     * @throws IOException If the output fails
+     */
+    private static void csv(Appendable out, String metric, String key, double value) throws IOException {
+        out.append(metric).append(',').append(key).append(',');
+        if (value == Math.rint(value) && Math.abs(value) < 1e15) {
+            out.append(Long.toString((long) value));
+        } else if (Double.isNaN(value)) {
+            out.append("");
+        } else {
+            out.append(String.format(Locale.ROOT, "%.6f", value));
+        }
+        out.append('\n');
+    }
+
+    /**
+     * Format a number for JSON, which has no NaN.
+     * @param value The value
+     * @return The value with six decimals, or null for NaN
+     */
+    private static String json(double value) {
+        return Double.isNaN(value) ? "null" : String.format(Locale.ROOT, "%.6f", value);
+    }
+
+    public static void main(String[] args) {
+        long games = args.length > 0 ? Long.parseLong(args[0]) : 1_000_000;
+        boolean json = args.length > 1 && args[1].equals("json");
+        long seed = args.length > 2 ? Long.parseLong(args[2]) : 1;
+        int maxTurns = args.length > 3 ? Integer.parseInt(args[3]) : 10_000;
+        RuleSet rules = args.length > 4 ? RuleSet.parse(args[4]) : RuleSet.STANDARD;
+
+        long start = System.nanoTime();
+        GameStatistics statistics = simulate(BoardDefinition.standard(), rules, seed, games, maxTurns, Policy.GREEDY);
+        double seconds = (System.nanoTime() - start) / 1e9;
+        try {
+            if (json) {
+                statistics.writeJson(System.out);
+            } else {
+                statistics.writeCsv(System.out);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        System.err.printf("%,d games in %.1f s (%,.0f games/sec)%n", games, seconds, games / seconds);
+    }
+}
@@ -0,0 +1,363 @@
+package hotelgame.sim;
+
+import hotelgame.model.BoardDefinition;
+import hotelgame.model.DiceEngine;
+import hotelgame.model.GameProbe;
+import hotelgame.model.RuleSet;
+import hotelgame.model.RuleTables;
+
+import java.util.Arrays;
+
+/**
+ * An experimental engine advancing many games in lockstep.
+ * The games are held in struct-of-arrays form: one primitive array per field, indexed by lane (game).
+ * Each step plays one turn in every unfinished lane with the same rules as GameModel.playTurns(),
+ * buying every affordable hotel and raising owned hotels towards a fixed target rating.
+ * Finished lanes are masked out and keep their final state.
+ * VectorLockstepEngine plays the same turns with the Vector API.
+ */
+public class LockstepEngine {
+
+    /**
+     * The number of games advanced together.
+     */
+    private final int lanes;
+
+    /**
+     * The number of tiles on the board.
+     */
+    private final int tileCount;
+
+    /**
+     * The number of hotel groups on the board.
+     */
+    private final int groupCount;
+
+    /**
+     * The star rating every lane raises its hotels towards.
+     */
+    private final int targetRating;
+
+    /**
+     * The price of each tile's hotel, or 0 for blank tiles.
+     */
+    private final double[] price;
+
+    /**
+     * The rules compiled for the board, holding every fee and rating cost.
+     */
+    private final RuleTables rules;
+
+    /**
+     * The group index of each tile, or -1 for blank tiles.
+     */
+    private final int[] group;
+
+    /**
+     * The number of hotels in each group.
+     */
+    private final int[] groupSize;
+
+    /**
+     * Player positions, at index player * lanes + lane.
+     */
+    private final int[] position;
+
+    /**
+     * Player money, at index player * lanes + lane.
+     */
+    private final double[] money;
+
+    /**
+     * The player (0 or 1) whose turn it is in each lane.
+     */
+    private final int[] turn;
+
+    /**
+     * Whether each lane is still playing.
+     */
+    private final boolean[] active;
+
+    /**
+     * The number of turns played in each lane.
+     */
+    private final int[] turnsPlayed;
+
+    /**
+     * The owner of each tile (0 none, 1 player one, 2 player two), at index lane * tileCount + tile.
+     */
+    private final byte[] owner;
+
+    /**
+     * The star rating of each tile, at index lane * tileCount + tile.
+     */
+    private final byte[] rating;
+
+    /**
+     * The number of hotels each player owns in each group, at index (lane * groupCount + group) * 2 + player.
+     */
+    private final int[] groupOwned;
+
+    /**
+     * The number of lanes still playing.
+     */
+    private int activeLanes;
+
+    /**
+     * Create an engine for a board.
+     * Pre: lanes > 0, targetRating between 0 and 5
+     * @param board The board definition
+     * @param lanes The number of games to advance together
+     * @param targetRating The star rating every lane raises its hotels towards
+     */
+    public LockstepEngine(BoardDefinition board, int lanes, int targetRating) {
+        this(board, RuleSet.STANDARD, lanes, targetRating);
+    }
+
+    /**
+     * Create an engine for a board with house rules.
+     * Pre: lanes > 0, targetRating between 0 and the highest rating of the rules
+     * @param board The board definition
+     * @param rules The rules
+     * @param lanes The number of games to advance together
+     * @param targetRating The star rating every lane raises its hotels towards
+     */
+    public LockstepEngine(BoardDefinition board, RuleSet rules, int lanes, int targetRating) {
+        assert lanes > 0 && targetRating >= 0 && targetRating <= rules.getMaxRating();
+        this.rules = rules.compile(board);
+        this.lanes = lanes;
+        this.tileCount = board.getTileCount();
+        this.groupCount = board.getGroupCount();
+        this.targetRating = targetRating;
+
+        price = new double[tileCount];
+        group = new int[tileCount];
+        for (int tile = 0; tile < tileCount; tile++) {
+            group[tile] = board.getGroup(tile);
+            if (group[tile] < 0) {
+                continue;
+            }
+            price[tile] = board.getPrice(tile);
+        }
+        groupSize = new int[groupCount];
+        for (int g = 0; g < groupCount; g++) {
+            groupSize[g] = board.getGroupSize(g);
+        }
+
+        position = new int[2 * lanes];
+        money = new double[2 * lanes];
+        turn = new int[lanes];
+        active = new boolean[lanes];
+        turnsPlayed = new int[lanes];
+        owner = new byte[lanes * tileCount];
+        rating = new byte[lanes * tileCount];
+        groupOwned = new int[lanes * groupCount * 2];
+    }
+
+    /**
+     * Start a new game in every lane.
+     * @param startingMoney The money each player starts with
+     * @param firstTurn The player (0 or 1) who moves first in each lane
+     */
+    public void reset(double startingMoney, int[] firstTurn) {
+        assert firstTurn.length == lanes;
+        Arrays.fill(position, 0);
+        Arrays.fill(money, startingMoney);
+        System.arraycopy(firstTurn, 0, turn, 0, lanes);
+        Arrays.fill(active, true);
+        Arrays.fill(turnsPlayed, 0);
+        Arrays.fill(owner, (byte) 0);
+        Arrays.fill(rating, (byte) 0);
+        Arrays.fill(groupOwned, 0);
+        activeLanes = lanes;
+    }
+
+    /**
+     * Play one turn in every lane that is still playing.
+     * @param rolls The dice roll for each lane
+     * @return The number of lanes still playing afterwards
+     */
+    public int step(int[] rolls) {
+        assert rolls.length == lanes;
+
+        // Move: position += roll, wrapping around the board
+        for (int lane = 0; lane < lanes; lane++) {
+            if (active[lane]) {
+                int index = turn[lane] * lanes + lane;
+                position[index] = (position[index] + rolls[lane]) % tileCount;
+            }
+        }
+
+        // Resolve the tile, decide and pass the turn
+        for (int lane = 0; lane < lanes; lane++) {
+            if (active[lane]) {
+                resolve(lane);
+            }
+        }
+        return activeLanes;
+    }
+
+    /**
+     * Play until every lane has finished or reached the turn limit.
+     * @param maxTurns The maximum number of turns per lane
+     * @param dice The dice to roll for every lane
+     */
+    public void run(int maxTurns, DiceEngine dice) {
+        int[] rolls = new int[lanes];
+        for (int step = 0; step < maxTurns && activeLanes > 0; step++) {
+            for (int lane = 0; lane < lanes; lane++) {
+                rolls[lane] = dice.roll();
+            }
+            step(rolls);
+        }
+    }
+
+    /**
+     * Resolve the landed tile of a lane, then pass the turn or finish the lane.
+     * @param lane The lane
+     */
+    private void resolve(int lane) {
+        int me = turn[lane];
+        int opponent = 1 - me;
+        int myIndex = me * lanes + lane;
+        int opponentIndex = opponent * lanes + lane;
+        int tile = position[myIndex];
+        int tileIndex = lane * tileCount + tile;
+        int tileGroup = group[tile];
+
+        if (tileGroup >= 0) {
+            int groupIndex = (lane * groupCount + tileGroup) * 2;
+            int tileOwner = owner[tileIndex];
+
+            if (tileOwner == 0) {
+                if (price[tile] <= money[myIndex]) {
+                    money[myIndex] = deduct(money[myIndex], price[tile]);
+                    if (money[myIndex] > 0) {
+                        owner[tileIndex] = (byte) (me + 1);
+                        groupOwned[groupIndex + me]++;
+                    }
+                }
+            } else if (tileOwner != me + 1) {
+                // The same tables as GameModel so the results are bit-for-bit identical
+                int modifier = groupOwned[groupIndex + me] > 0 ? GameProbe.FEE_HALF
+                        : groupOwned[groupIndex + opponent] == groupSize[tileGroup] ? GameProbe.FEE_DOUBLE
+                        : GameProbe.FEE_NORMAL;
+                double fee = rules.getFee(tile, rating[tileIndex], modifier);
+                if (fee > 0) {
+                    money[myIndex] = deduct(money[myIndex], fee);
+                    money[opponentIndex] += fee;
+                }
+            }
+
+            if (owner[tileIndex] == me + 1) {
+                double cost = rules.getIncreaseFee(tile);
+                while (rating[tileIndex] < targetRating && money[myIndex] > cost) {
+                    money[myIndex] = deduct(money[myIndex], cost);
+                    rating[tileIndex]++;
+                }
+            }
+        }
+
+        turnsPlayed[lane]++;
+        if (money[myIndex] <= 0 || money[opponentIndex] <= 0) {
+            active[lane] = false;
+            activeLanes--;
+        } else {
+            turn[lane] = opponent;
+        }
+    }
+
+    /**
+     * Deduct money the same way as Player.deductMoney(), never going below 0.
+     * @param money The current money
+     * @param amount The amount to deduct
+     * @return The money left
+     */
+    private static double deduct(double money, double amount) {
+        double result = money - amount;
+        return result < 0 ? 0 : result;
+    }
+
+    /**
+     * Get the number of lanes.
+     * @return The number of games advanced together
+     */
+    public int getLanes() {
+        return lanes;
+    }
+
+    /**
+     * Get the number of lanes still playing.
+     * @return The number of unfinished games
+     */
+    public int getActiveLanes() {
+        return activeLanes;
+    }
+
+    /**
+     * Is a lane still playing?
+     * @param lane The lane
+     * @return True if the game in the lane is not over
+     */
+    public boolean isActive(int lane) {
+        return active[lane];
+    }
+
+    /**
+     * Get a player's position in a lane.
+     * @param lane The lane
+     * @param player The player (0 or 1)
+     * @return The player's position
+     */
+    public int getPosition(int lane, int player) {
+        return position[player * lanes + lane];
+    }
+
+    /**
+     * Get a player's money in a lane.
+     * @param lane The lane
+     * @param player The player (0 or 1)
+     * @return The player's money
+     */
+    public double getMoney(int lane, int player) {
+        return money[player * lanes + lane];
+    }
+
+    /**
+     * Get the player whose turn it is in a lane.
+     * @param lane The lane
+     * @return The player (0 or 1)
+     */
+    public int getTurn(int lane) {
+        return turn[lane];
+    }
+
+    /**
+     * Get the number of turns played in a lane.
+     * @param lane The lane
+     * @return The number of turns played
+     */
+    public int getTurnsPlayed(int lane) {
+        return turnsPlayed[lane];
+    }
+
+    /**
+     * Get the owner of a tile in a lane.
+     * @param lane The lane
+     * @param tile The tile position
+     * @return 0 for no owner, 1 for player one, 2 for player two
+     */
+    public int getOwner(int lane, int tile) {
+        return owner[lane * tileCount + tile];
+    }
+
+    /**
+     * Get the star rating of a tile in a lane.
+     * @param lane The lane
+     * @param tile The tile position
+     * @return The star rating
+     */
+    public int getStarRating(int lane, int tile) {
+        return rating[lane * tileCount + tile];
+    }
+}
@@ -0,0 +1,245 @@
+package hotelgame.sim;
+
+import hotelgame.model.GameModel;
+import hotelgame.model.Player;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * An append-only columnar file of simulated game results, read back with ResultsReader.
+ * The file is a 16 byte header (magic, version, group count, padding) followed by chunks of up to CHUNK_ROWS games.
+ * Each chunk is an 8 byte row count and then one fixed-width column per field, in this order:
+ * money of player one and two (double), turns (int), winner and first mover (byte, 0 = player one, 1 = player two,
+ * NO_WINNER for unfinished games), and the hotels each player owned in each group at the end (byte, group * 2 + player).
+ * Chunks are padded to 8 bytes. Everything is little-endian.
+ * Each simulation thread appends through its own Writer; whole chunks are written atomically.
+ */
+public class ResultsFile implements Closeable {
+
+    /**
+     * The first int of every results file, "HGRS".
+     */
+    static final int MAGIC = 0x53524748;
+
+    /**
+     * The format version.
+     */
+    static final int VERSION = 1;
+
+    /**
+     * The size of the file header.
+     */
+    static final int HEADER_BYTES = 16;
+
+    /**
+     * The size of a chunk's row count.
+     */
+    static final int CHUNK_HEADER_BYTES = 8;
+
+    /**
+     * The most games in a chunk.
+     */
+    public static final int CHUNK_ROWS = 1 << 16;
+
+    /**
+     * The winner of a game that hit the turn limit.
+     */
+    public static final int NO_WINNER = 2;
+
+    /**
+     * The file.
+     */
+    private final FileChannel channel;
+
+    /**
+     * The number of hotel groups recorded per game.
+     */
+    private final int groupCount;
+
+    /**
+     * Open a results file for appending, creating it if needed.
+     * @param path The file
+     * @param groupCount The number of hotel groups on the simulated board
+     * @throws IOException If the file cannot be opened or holds results for a different number of groups
+     */
+    public ResultsFile(Path path, int groupCount) throws IOException {
+        this.groupCount = groupCount;
+        this.channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+        if (channel.size() == 0) {
+            header.putInt(MAGIC).putInt(VERSION).putInt(groupCount).putInt(0).flip();
+            channel.write(header, 0);
+        } else {
+            channel.read(header, 0);
+            header.flip();
+            if (header.remaining() < HEADER_BYTES || header.getInt() != MAGIC || header.getInt() != VERSION) {
+                channel.close();
+                throw new IOException(path + " is not a results file");
+            }
+            if (header.getInt() != groupCount) {
+                channel.close();
+                throw new IOException(path + " holds results for a different number of groups");
+            }
+        }
+    }
+
+    /**
+     * Create a writer for one simulation thread.
+     * @return The writer
+     */
+    public Writer newWriter() {
+        return new Writer();
+    }
+
+    /**
+     * Close the file. Writers must be closed first.
+     * @throws IOException If the file cannot be closed
+     */
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+
+    /**
+     * Get the size of a chunk.
+     * @param rows The number of games in the chunk
+     * @param groupCount The number of hotel groups
+     * @return The size in bytes, including the row count and padding
+     */
+    static long chunkBytes(int rows, int groupCount) {
+        long bytes = CHUNK_HEADER_BYTES + (long) rows * (8 + 8 + 4 + 1 + 1 + 2 * groupCount);
+        return (bytes + 7) & ~7L;
+    }
+
+    /**
+     * Append a complete chunk at the end of the file.
+     * @param chunk The chunk, from position to limit
+     * @throws IOException If the file cannot be written
+     */
+    private synchronized void writeChunk(ByteBuffer chunk) throws IOException {
+        long position = channel.size();
+        while (chunk.hasRemaining()) {
+            position += channel.write(chunk, position);
+        }
+    }
+
+    /**
+     * Buffers one thread's results as columns and appends them a chunk at a time.
+     */
+    public class Writer implements Closeable {
+
+        /**
+         * Player one's final money per game.
+         */
+        private final double[] moneyOne = new double[CHUNK_ROWS];
+
+        /**
+         * Player two's final money per game.
+         */
+        private final double[] moneyTwo = new double[CHUNK_ROWS];
+
+        /**
+         * The turns played per game.
+         */
+        private final int[] turns = new int[CHUNK_ROWS];
+
+        /**
+         * The winner per game.
+         */
+        private final byte[] winner = new byte[CHUNK_ROWS];
+
+        /**
+         * The first mover per game.
+         */
+        private final byte[] firstMover = new byte[CHUNK_ROWS];
+
+        /**
+         * The hotels owned per game, one column per group and player.
+         */
+        private final byte[][] owned = new byte[groupCount * 2][CHUNK_ROWS];
+
+        /**
+         * The buffer a chunk is encoded into.
+         */
+        private final ByteBuffer chunk = ByteBuffer.allocateDirect((int) chunkBytes(CHUNK_ROWS, groupCount))
+                .order(ByteOrder.LITTLE_ENDIAN);
+
+        /**
+         * The number of buffered games.
+         */
+        private int rows;
+
+        private Writer() {
+        }
+
+        /**
+         * Record the result of a game.
+         * Pre: the writer's file was opened with the model's group count
+         * @param model The model at the end of the game
+         * @param turnsPlayed The number of turns played
+         * @param first The player who moved first
+         * @throws IOException If a full chunk cannot be written
+         */
+        public void record(GameModel model, int turnsPlayed, Player first) throws IOException {
+            assert model.getBoard().getGroupCount() == groupCount;
+            int winnerIndex = !model.isGameOver() ? NO_WINNER : model.getWinner() == model.getPlayerOne() ? 0 : 1;
+            moneyOne[rows] = model.getPlayerOne().getMoney();
+            moneyTwo[rows] = model.getPlayerTwo().getMoney();
+            turns[rows] = turnsPlayed;
+            winner[rows] = (byte) winnerIndex;
+            firstMover[rows] = (byte) (first == model.getPlayerOne() ? 0 : 1);
+            for (int group = 0; group < groupCount; group++) {
+                owned[group * 2][rows] = (byte) model.getGroupOwned(group, 0);
+                owned[group * 2 + 1][rows] = (byte) model.getGroupOwned(group, 1);
+            }
+            if (++rows == CHUNK_ROWS) {
+                flush();
+            }
+        }
+
+        /**
+         * Append the buffered games as a chunk.
+         * @throws IOException If the chunk cannot be written
+         */
+        public void flush() throws IOException {
+            if (rows == 0) {
+                return;
+            }
+            chunk.clear();
+            chunk.putLong(rows);
+            for (int row = 0; row < rows; row++) {
+                chunk.putDouble(moneyOne[row]);
+            }
+            for (int row = 0; row < rows; row++) {
+                chunk.putDouble(moneyTwo[row]);
+            }
+            for (int row = 0; row < rows; row++) {
+                chunk.putInt(turns[row]);
+            }
+            chunk.put(winner, 0, rows);
+            chunk.put(firstMover, 0, rows);
+            for (byte[] column : owned) {
+                chunk.put(column, 0, rows);
+            }
+            chunk.limit((int) chunkBytes(rows, groupCount));
+            chunk.rewind();
+            writeChunk(chunk);
+            rows = 0;
+        }
+
+        /**
+         * Append any buffered games.
+         * @throws IOException If the chunk cannot be written
+         */
+        @Override
+        public void close() throws IOException {
+            flush();
+        }
+    }
+}
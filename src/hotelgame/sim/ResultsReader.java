@@ -0,0 +1,372 @@
+package hotelgame.sim;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.IntStream;
+
+/**
+ * Reads a file written by ResultsFile through memory-mapped I/O.
+ * The file is mapped in windows of whole chunks, and each Chunk reads its columns straight out of the mapping,
+ * so queries scan primitive columns without creating an object per game. Chunks are independent,
+ * so queries scan them in parallel.
+ */
+public class ResultsReader implements Closeable {
+
+    /**
+     * The largest window mapped at once.
+     */
+    private static final long WINDOW_BYTES = 1L << 30;
+
+    /**
+     * The file.
+     */
+    private final FileChannel channel;
+
+    /**
+     * The number of hotel groups recorded per game.
+     */
+    private final int groupCount;
+
+    /**
+     * The chunks, in file order.
+     */
+    private final Chunk[] chunks;
+
+    /**
+     * The number of games in the file.
+     */
+    private final long rowCount;
+
+    /**
+     * Open and map a results file.
+     * A chunk cut short by a crash while appending is ignored.
+     * @param path The file
+     * @throws IOException If the file cannot be read or is not a results file
+     */
+    public ResultsReader(Path path) throws IOException {
+        this.channel = FileChannel.open(path, StandardOpenOption.READ);
+        long size = channel.size();
+        ByteBuffer header = ByteBuffer.allocate(ResultsFile.HEADER_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+        channel.read(header, 0);
+        header.flip();
+        if (header.remaining() < ResultsFile.HEADER_BYTES || header.getInt() != ResultsFile.MAGIC
+                || header.getInt() != ResultsFile.VERSION) {
+            channel.close();
+            throw new IOException(path + " is not a results file");
+        }
+        this.groupCount = header.getInt();
+
+        // Find the chunk boundaries from the row counts, then map windows of whole chunks
+        List<Chunk> found = new ArrayList<>();
+        ByteBuffer rows = ByteBuffer.allocate(ResultsFile.CHUNK_HEADER_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+        long windowStart = ResultsFile.HEADER_BYTES;
+        long position = windowStart;
+        List<long[]> pending = new ArrayList<>();
+        long total = 0;
+        while (position + ResultsFile.CHUNK_HEADER_BYTES <= size) {
+            rows.clear();
+            channel.read(rows, position);
+            int count = (int) rows.getLong(0);
+            long bytes = ResultsFile.chunkBytes(count, groupCount);
+            if (count <= 0 || count > ResultsFile.CHUNK_ROWS || position + bytes > size) {
+                break;
+            }
+            if (position + bytes - windowStart > WINDOW_BYTES) {
+                mapWindow(windowStart, position, pending, found);
+                windowStart = position;
+            }
+            pending.add(new long[] {position, count});
+            position += bytes;
+            total += count;
+        }
+        mapWindow(windowStart, position, pending, found);
+        this.chunks = found.toArray(new Chunk[0]);
+        this.rowCount = total;
+    }
+
+    /**
+     * Map a window and create its chunks.
+     * @param start The file offset of the window
+     * @param end The file offset just past the window
+     * @param pending The offset and row count of each chunk in the window, cleared afterwards
+     * @param found Where the chunks are added
+     * @throws IOException If the window cannot be mapped
+     */
+    private void mapWindow(long start, long end, List<long[]> pending, List<Chunk> found) throws IOException {
+        if (pending.isEmpty()) {
+            return;
+        }
+        MappedByteBuffer window = channel.map(FileChannel.MapMode.READ_ONLY, start, end - start);
+        window.order(ByteOrder.LITTLE_ENDIAN);
+        for (long[] chunk : pending) {
+            found.add(new Chunk(window, (int) (chunk[0] - start), (int) chunk[1]));
+        }
+        pending.clear();
+    }
+
+    /**
+     * Get the number of hotel groups recorded per game.
+     * @return The group count
+     */
+    public int getGroupCount() {
+        return groupCount;
+    }
+
+    /**
+     * Get the number of games in the file.
+     * @return The row count
+     */
+    public long getRowCount() {
+        return rowCount;
+    }
+
+    /**
+     * Get the number of chunks in the file.
+     * @return The chunk count
+     */
+    public int getChunkCount() {
+        return chunks.length;
+    }
+
+    /**
+     * Get a chunk.
+     * @param index The chunk index
+     * @return The chunk
+     */
+    public Chunk getChunk(int index) {
+        return chunks[index];
+    }
+
+    /**
+     * Count how often the first mover won among games where they ended owning at least some hotels of a group.
+     * Pre: 0 <= group < getGroupCount()
+     * @param group The group
+     * @param minOwned The fewest hotels of the group the first mover must own, e.g. the group size for the whole group
+     * @return The number of such games won by the first mover at index 0 and the number of such games at index 1
+     */
+    public long[] firstMoverWins(int group, int minOwned) {
+        assert group >= 0 && group < groupCount;
+        return IntStream.range(0, chunks.length).parallel()
+                .mapToObj(index -> chunks[index].firstMoverWins(group, minOwned))
+                .reduce(new long[2], (a, b) -> new long[] {a[0] + b[0], a[1] + b[1]});
+    }
+
+    /**
+     * Get the win rate of the first mover among games where they ended owning at least some hotels of a group.
+     * Pre: 0 <= group < getGroupCount()
+     * @param group The group
+     * @param minOwned The fewest hotels of the group the first mover must own
+     * @return The win rate, or NaN if no game matches
+     */
+    public double firstMoverWinRate(int group, int minOwned) {
+        long[] counts = firstMoverWins(group, minOwned);
+        return counts[0] / (double) counts[1];
+    }
+
+    /**
+     * Count the games each player won.
+     * @return The wins of player one, player two and games without a winner, indexed as the winner column
+     */
+    public long[] winCounts() {
+        return IntStream.range(0, chunks.length).parallel()
+                .mapToObj(index -> chunks[index].winCounts())
+                .reduce(new long[3], (a, b) -> new long[] {a[0] + b[0], a[1] + b[1], a[2] + b[2]});
+    }
+
+    /**
+     * Get the mean number of turns per game.
+     * @return The mean, or NaN for an empty file
+     */
+    public double meanTurns() {
+        long sum = IntStream.range(0, chunks.length).parallel().mapToLong(index -> chunks[index].sumTurns()).sum();
+        return sum / (double) rowCount;
+    }
+
+    /**
+     * Close the file. The mapping is released once the reader and its chunks are unreachable.
+     * @throws IOException If the file cannot be closed
+     */
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%,d games in %d chunks, %d groups", rowCount, chunks.length, groupCount);
+    }
+
+    /**
+     * The columns of one chunk, read in place from the mapped file.
+     */
+    public static class Chunk {
+
+        /**
+         * The mapped window holding the chunk.
+         */
+        private final ByteBuffer buffer;
+
+        /**
+         * The number of games in the chunk.
+         */
+        private final int rows;
+
+        /**
+         * The offset of player one's money column.
+         */
+        private final int moneyOne;
+
+        /**
+         * The offset of player two's money column.
+         */
+        private final int moneyTwo;
+
+        /**
+         * The offset of the turns column.
+         */
+        private final int turns;
+
+        /**
+         * The offset of the winner column.
+         */
+        private final int winner;
+
+        /**
+         * The offset of the first mover column.
+         */
+        private final int firstMover;
+
+        /**
+         * The offset of the first hotels owned column.
+         */
+        private final int owned;
+
+        /**
+         * Locate a chunk's columns.
+         * @param buffer The mapped window
+         * @param offset The offset of the chunk in the window
+         * @param rows The number of games in the chunk
+         */
+        private Chunk(ByteBuffer buffer, int offset, int rows) {
+            this.buffer = buffer;
+            this.rows = rows;
+            this.moneyOne = offset + ResultsFile.CHUNK_HEADER_BYTES;
+            this.moneyTwo = moneyOne + rows * 8;
+            this.turns = moneyTwo + rows * 8;
+            this.winner = turns + rows * 4;
+            this.firstMover = winner + rows;
+            this.owned = firstMover + rows;
+        }
+
+        /**
+         * Get the number of games in the chunk.
+         * @return The row count
+         */
+        public int getRows() {
+            return rows;
+        }
+
+        /**
+         * Get a player's money at the end of a game.
+         * @param player The player index, 0 or 1
+         * @param row The game
+         * @return The money
+         */
+        public double getMoney(int player, int row) {
+            return buffer.getDouble((player == 0 ? moneyOne : moneyTwo) + row * 8);
+        }
+
+        /**
+         * Get the number of turns played in a game.
+         * @param row The game
+         * @return The turn count
+         */
+        public int getTurns(int row) {
+            return buffer.getInt(turns + row * 4);
+        }
+
+        /**
+         * Get the winner of a game.
+         * @param row The game
+         * @return The winner's index, or ResultsFile.NO_WINNER
+         */
+        public int getWinner(int row) {
+            return buffer.get(winner + row);
+        }
+
+        /**
+         * Get the player who moved first in a game.
+         * @param row The game
+         * @return The first mover's index
+         */
+        public int getFirstMover(int row) {
+            return buffer.get(firstMover + row);
+        }
+
+        /**
+         * Get the number of hotels of a group a player owned at the end of a game.
+         * @param group The group
+         * @param player The player index, 0 or 1
+         * @param row The game
+         * @return The number owned
+         */
+        public int getOwned(int group, int player, int row) {
+            return buffer.get(owned + (group * 2 + player) * rows + row);
+        }
+
+        /**
+         * Count first mover wins in this chunk. See ResultsReader.firstMoverWins().
+         * @param group The group
+         * @param minOwned The fewest hotels of the group the first mover must own
+         * @return The wins and matching games
+         */
+        private long[] firstMoverWins(int group, int minOwned) {
+            int ownedOne = owned + group * 2 * rows;
+            int ownedTwo = ownedOne + rows;
+            long wins = 0;
+            long games = 0;
+            for (int row = 0; row < rows; row++) {
+                int first = buffer.get(firstMover + row);
+                if (buffer.get((first == 0 ? ownedOne : ownedTwo) + row) >= minOwned) {
+                    games++;
+                    if (buffer.get(winner + row) == first) {
+                        wins++;
+                    }
+                }
+            }
+            return new long[] {wins, games};
+        }
+
+        /**
+         * Count the wins of each player in this chunk.
+         * @return The wins indexed as the winner column
+         */
+        private long[] winCounts() {
+            long[] counts = new long[3];
+            for (int row = 0; row < rows; row++) {
+                counts[buffer.get(winner + row)]++;
+            }
+            return counts;
+        }
+
+        /**
+         * Sum the turns column of this chunk.
+         * @return The total turns
+         */
+        private long sumTurns() {
+            long sum = 0;
+            for (int row = 0; row < rows; row++) {
+                sum += buffer.getInt(turns + row * 4);
+            }
+            return sum;
+        }
+    }
+}
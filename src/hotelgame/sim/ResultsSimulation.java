@@ -0,0 +1,81 @@
+package hotelgame.sim;
+
+import hotelgame.model.BoardDefinition;
+import hotelgame.model.DiceDistribution;
+import hotelgame.model.DiceEngine;
+import hotelgame.model.GameModel;
+import hotelgame.model.Player;
+import hotelgame.model.Policy;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.util.stream.IntStream;
+
+/**
+ * Simulates games on worker threads, appends their results to a ResultsFile and queries the file.
+ * Usage: ResultsSimulation [file] [games] [threads]
+ */
+public class ResultsSimulation {
+
+    /**
+     * The turn limit for a single game.
+     */
+    private static final int MAX_TURNS = 10_000;
+
+    public static void main(String[] args) throws IOException {
+        Path path = Path.of(args.length > 0 ? args[0] : "results.hgr");
+        int games = args.length > 1 ? Integer.parseInt(args[1]) : 200_000;
+        int threads = args.length > 2 ? Integer.parseInt(args[2]) : Runtime.getRuntime().availableProcessors();
+        BoardDefinition board = BoardDefinition.standard();
+
+        long start = System.nanoTime();
+        simulate(board, path, games, threads, System.nanoTime());
+        System.out.printf("simulated %,d games in %.1f s%n", games, (System.nanoTime() - start) / 1e9);
+
+        start = System.nanoTime();
+        try (ResultsReader reader = new ResultsReader(path)) {
+            System.out.println(reader);
+            long[] wins = reader.winCounts();
+            System.out.printf("player one %,d, player two %,d, unfinished %,d, mean turns %.1f%n",
+                    wins[0], wins[1], wins[2], reader.meanTurns());
+            for (int group = 0; group < board.getGroupCount(); group++) {
+                long[] counts = reader.firstMoverWins(group, board.getGroupSize(group));
+                System.out.printf("first mover owning group %s: won %.1f%% of %,d games%n",
+                        board.getGroupName(group), 100.0 * counts[0] / counts[1], counts[1]);
+            }
+        }
+        System.out.printf("queried in %.1f ms%n", (System.nanoTime() - start) / 1e6);
+    }
+
+    /**
+     * Play games on worker threads and append their results to a file.
+     * Each thread plays its share on its own model and appends through its own writer.
+     * @param board The board definition
+     * @param path The results file, appended to if it exists
+     * @param games The number of games
+     * @param threads The number of worker threads
+     * @param seed The seed for the dice, combined with the thread number
+     * @throws IOException If the file cannot be written
+     */
+    public static void simulate(BoardDefinition board, Path path, int games, int threads, long seed) throws IOException {
+        try (ResultsFile file = new ResultsFile(path, board.getGroupCount())) {
+            IntStream.range(0, threads).parallel().forEach(thread -> {
+                GameModel model = new GameModel(board);
+                model.setDice(new DiceEngine(DiceDistribution.uniform(board.getDiceSides()), seed * 31 + thread));
+                int share = games / threads + (thread < games % threads ? 1 : 0);
+                try (ResultsFile.Writer writer = file.newWriter()) {
+                    for (int game = 0; game < share; game++) {
+                        model.reset();
+                        model.createPlayers("one", "two");
+                        Player first = model.getCurrentTurn();
+                        int turns = model.playTurns(MAX_TURNS, Policy.GREEDY);
+                        writer.record(model, turns, first);
+                    }
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        }
+    }
+}
@@ -0,0 +1,95 @@
+package hotelgame.sim;
+
+import hotelgame.model.BoardDefinition;
+import hotelgame.model.DiceDistribution;
+import hotelgame.model.DiceEngine;
+import hotelgame.model.GameModel;
+import hotelgame.model.Policy;
+
+/**
+ * Compares games per second of the scalar GameModel.playTurns() loop, the LockstepEngine
+ * and the VectorLockstepEngine.
+ * Run with --add-modules jdk.incubator.vector.
+ * Usage: SimulationBenchmark [games] [lanes]
+ */
+public class SimulationBenchmark {
+
+    /**
+     * The turn limit for a single game.
+     */
+    private static final int MAX_TURNS = 10_000;
+
+    public static void main(String[] args) {
+        int games = args.length > 0 ? Integer.parseInt(args[0]) : 200_000;
+        int lanes = args.length > 1 ? Integer.parseInt(args[1]) : 1024;
+
+        for (int round = 0; round < 3; round++) {
+            System.out.printf("scalar:   %,.0f games/sec%n", scalar(games));
+            System.out.printf("lockstep: %,.0f games/sec (%d lanes)%n", lockstep(games, lanes), lanes);
+            System.out.printf("vector:   %,.0f games/sec (%d lanes, %d per vector)%n", vector(games, lanes), lanes,
+                    VectorLockstepEngine.getVectorLanes());
+        }
+    }
+
+    /**
+     * Play games one at a time on a GameModel.
+     * @param games The number of games
+     * @return Games per second
+     */
+    private static double scalar(int games) {
+        long start = System.nanoTime();
+        for (int game = 0; game < games; game++) {
+            GameModel model = new GameModel();
+            model.reset();
+            model.createPlayers("one", "two");
+            model.playTurns(MAX_TURNS, Policy.GREEDY);
+        }
+        return games / ((System.nanoTime() - start) / 1e9);
+    }
+
+    /**
+     * Play games in batches of lanes on a LockstepEngine.
+     * @param games The number of games
+     * @param lanes The number of lanes per batch
+     * @return Games per second
+     */
+    private static double lockstep(int games, int lanes) {
+        BoardDefinition board = BoardDefinition.standard();
+        LockstepEngine engine = new LockstepEngine(board, lanes, 5);
+        DiceEngine dice = new DiceEngine(DiceDistribution.uniform(board.getDiceSides()), 1);
+        int[] firstTurn = new int[lanes];
+
+        long start = System.nanoTime();
+        for (int played = 0; played < games; played += lanes) {
+            for (int lane = 0; lane < lanes; lane++) {
+                firstTurn[lane] = dice.nextInt(2);
+            }
+            engine.reset(board.getStartingMoney(), firstTurn);
+            engine.run(MAX_TURNS, dice);
+        }
+        return games / ((System.nanoTime() - start) / 1e9);
+    }
+
+    /**
+     * Play games in batches of lanes on a VectorLockstepEngine.
+     * @param games The number of games
+     * @param lanes The number of lanes per batch
+     * @return Games per second
+     */
+    private static double vector(int games, int lanes) {
+        BoardDefinition board = BoardDefinition.standard();
+        VectorLockstepEngine engine = new VectorLockstepEngine(board, lanes, 5);
+        DiceEngine dice = new DiceEngine(DiceDistribution.uniform(board.getDiceSides()), 1);
+        int[] firstTurn = new int[lanes];
+
+        long start = System.nanoTime();
+        for (int played = 0; played < games; played += lanes) {
+            for (int lane = 0; lane < lanes; lane++) {
+                firstTurn[lane] = dice.nextInt(2);
+            }
+            engine.reset(board.getStartingMoney(), firstTurn);
+            engine.run(MAX_TURNS, dice);
+        }
+        return games / ((System.nanoTime() - start) / 1e9);
+    }
+}
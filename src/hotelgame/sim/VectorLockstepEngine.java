@@ -0,0 +1,475 @@
+package hotelgame.sim;
+
+import hotelgame.model.BoardDefinition;
+import hotelgame.model.DiceEngine;
+import hotelgame.model.GameProbe;
+import hotelgame.model.RuleSet;
+import hotelgame.model.RuleTables;
+import jdk.incubator.vector.DoubleVector;
+import jdk.incubator.vector.IntVector;
+import jdk.incubator.vector.VectorMask;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorShape;
+import jdk.incubator.vector.VectorSpecies;
+
+import java.util.Arrays;
+
+/**
+ * An experimental engine advancing many games in lockstep with the Vector API, playing the same turns as
+ * LockstepEngine with bit-for-bit identical results.
+ * Lanes are stepped a vector at a time: every field of a vector's games is loaded, or gathered from the tile
+ * tables, into one register, and each rule is applied to all of them at once under a mask of the lanes it
+ * applies to. Finished lanes are masked out of every write and keep their final state.
+ * The lanes are padded to a whole number of vectors with lanes that never play.
+ * Needs the incubator module: compile and run with --add-modules jdk.incubator.vector.
+ */
+public class VectorLockstepEngine {
+
+    /**
+     * The species of money vectors, the widest the CPU handles well.
+     */
+    private static final VectorSpecies<Double> DOUBLES = DoubleVector.SPECIES_PREFERRED;
+
+    /**
+     * The species of int vectors, with as many lanes as DOUBLES so masks carry over between them.
+     */
+    private static final VectorSpecies<Integer> INTS =
+            VectorSpecies.of(int.class, VectorShape.forBitSize(DOUBLES.vectorBitSize() / 2));
+
+    /**
+     * The number of games advanced together.
+     */
+    private final int lanes;
+
+    /**
+     * The number of lanes rounded up to a whole number of vectors, the stride between players' fields.
+     */
+    private final int stride;
+
+    /**
+     * The number of tiles on the board.
+     */
+    private final int tileCount;
+
+    /**
+     * The number of hotel groups on the board.
+     */
+    private final int groupCount;
+
+    /**
+     * The number of ratings, 0 to the highest.
+     */
+    private final int ratings;
+
+    /**
+     * The star rating every lane raises its hotels towards.
+     */
+    private final int targetRating;
+
+    /**
+     * The price of each tile's hotel, or 0 for blank tiles.
+     */
+    private final double[] price;
+
+    /**
+     * The overnight fee by tile, modifier and rating, at index (tile * 3 + modifier) * ratings + rating.
+     */
+    private final double[] fees;
+
+    /**
+     * The cost of a one star increase of each tile's hotel.
+     */
+    private final double[] increaseFees;
+
+    /**
+     * The group index of each tile, or -1 for blank tiles.
+     */
+    private final int[] group;
+
+    /**
+     * The number of hotels in each group.
+     */
+    private final int[] groupSize;
+
+    /**
+     * Player positions, at index player * stride + lane.
+     */
+    private final int[] position;
+
+    /**
+     * Player money, at index player * stride + lane.
+     */
+    private final double[] money;
+
+    /**
+     * The player (0 or 1) whose turn it is in each lane.
+     */
+    private final int[] turn;
+
+    /**
+     * Whether each lane is still playing; padding lanes never are.
+     */
+    private final boolean[] active;
+
+    /**
+     * The number of turns played in each lane.
+     */
+    private final int[] turnsPlayed;
+
+    /**
+     * The owner of each tile (0 none, 1 player one, 2 player two), at index lane * tileCount + tile.
+     */
+    private final int[] owner;
+
+    /**
+     * The star rating of each tile, at index lane * tileCount + tile.
+     */
+    private final int[] rating;
+
+    /**
+     * The number of hotels each player owns in each group, at index (lane * groupCount + group) * 2 + player.
+     */
+    private final int[] groupOwned;
+
+    /**
+     * The index maps of the current vector's gathers and scatters, one vector each.
+     */
+    private final int[] tiles, tileIndexes, groups, myGroupIndexes, opponentGroupIndexes, feeIndexes;
+
+    /**
+     * The number of lanes still playing.
+     */
+    private int activeLanes;
+
+    /**
+     * Create an engine for a board.
+     * Pre: lanes > 0, targetRating between 0 and 5
+     * @param board The board definition
+     * @param lanes The number of games to advance together
+     * @param targetRating The star rating every lane raises its hotels towards
+     */
+    public VectorLockstepEngine(BoardDefinition board, int lanes, int targetRating) {
+        this(board, RuleSet.STANDARD, lanes, targetRating);
+    }
+
+    /**
+     * Create an engine for a board with house rules.
+     * Pre: lanes > 0, targetRating between 0 and the highest rating of the rules
+     * @param board The board definition
+     * @param rules The rules
+     * @param lanes The number of games to advance together
+     * @param targetRating The star rating every lane raises its hotels towards
+     */
+    public VectorLockstepEngine(BoardDefinition board, RuleSet rules, int lanes, int targetRating) {
+        assert lanes > 0 && targetRating >= 0 && targetRating <= rules.getMaxRating();
+        RuleTables tables = rules.compile(board);
+        int width = INTS.length();
+        this.lanes = lanes;
+        this.stride = (lanes + width - 1) / width * width;
+        this.tileCount = board.getTileCount();
+        this.groupCount = board.getGroupCount();
+        this.ratings = tables.getMaxRating() + 1;
+        this.targetRating = targetRating;
+
+        price = new double[tileCount];
+        group = new int[tileCount];
+        increaseFees = new double[tileCount];
+        fees = new double[tileCount * 3 * ratings];
+        for (int tile = 0; tile < tileCount; tile++) {
+            group[tile] = board.getGroup(tile);
+            if (group[tile] < 0) {
+                continue;
+            }
+            price[tile] = board.getPrice(tile);
+            increaseFees[tile] = tables.getIncreaseFee(tile);
+            for (int modifier = GameProbe.FEE_NORMAL; modifier <= GameProbe.FEE_DOUBLE; modifier++) {
+                for (int stars = 0; stars < ratings; stars++) {
+                    fees[(tile * 3 + modifier) * ratings + stars] = tables.getFee(tile, stars, modifier);
+                }
+            }
+        }
+        groupSize = new int[groupCount];
+        for (int g = 0; g < groupCount; g++) {
+            groupSize[g] = board.getGroupSize(g);
+        }
+
+        position = new int[2 * stride];
+        money = new double[2 * stride];
+        turn = new int[stride];
+        active = new boolean[stride];
+        turnsPlayed = new int[stride];
+        owner = new int[stride * tileCount];
+        rating = new int[stride * tileCount];
+        groupOwned = new int[stride * groupCount * 2];
+        tiles = new int[width];
+        tileIndexes = new int[width];
+        groups = new int[width];
+        myGroupIndexes = new int[width];
+        opponentGroupIndexes = new int[width];
+        feeIndexes = new int[width];
+    }
+
+    /**
+     * Start a new game in every lane.
+     * @param startingMoney The money each player starts with
+     * @param firstTurn The player (0 or 1) who moves first in each lane
+     */
+    public void reset(double startingMoney, int[] firstTurn) {
+        assert firstTurn.length == lanes;
+        Arrays.fill(position, 0);
+        Arrays.fill(money, startingMoney);
+        Arrays.fill(turn, 0);
+        System.arraycopy(firstTurn, 0, turn, 0, lanes);
+        Arrays.fill(active, false);
+        Arrays.fill(active, 0, lanes, true);
+        Arrays.fill(turnsPlayed, 0);
+        Arrays.fill(owner, 0);
+        Arrays.fill(rating, 0);
+        Arrays.fill(groupOwned, 0);
+        activeLanes = lanes;
+    }
+
+    /**
+     * Play one turn in every lane that is still playing.
+     * @param rolls The dice roll for each lane
+     * @return The number of lanes still playing afterwards
+     */
+    public int step(int[] rolls) {
+        assert rolls.length == lanes;
+        for (int base = 0; base < stride; base += INTS.length()) {
+            VectorMask<Integer> live = VectorMask.fromArray(INTS, active, base);
+            if (live.anyTrue()) {
+                step(base, live, IntVector.fromArray(INTS, rolls, base, INTS.indexInRange(base, lanes)));
+            }
+        }
+        return activeLanes;
+    }
+
+    /**
+     * Play one turn in the live lanes of a vector.
+     * @param base The first lane of the vector
+     * @param live The lanes still playing
+     * @param roll The dice roll of each lane
+     */
+    private void step(int base, VectorMask<Integer> live, IntVector roll) {
+        IntVector me = IntVector.fromArray(INTS, turn, base);
+        IntVector opponent = me.neg().add(1);
+        VectorMask<Integer> second = me.compare(VectorOperators.EQ, 1);
+        VectorMask<Double> secondMoney = second.cast(DOUBLES);
+        IntVector lane = IntVector.zero(INTS).addIndex(1).add(base);
+
+        // Move: position += roll, wrapping around the board as many times as the roll needs
+        IntVector positionOne = IntVector.fromArray(INTS, position, base);
+        IntVector positionTwo = IntVector.fromArray(INTS, position, stride + base);
+        IntVector tile = positionOne.blend(positionTwo, second).add(roll, live);
+        for (VectorMask<Integer> over = tile.compare(VectorOperators.GE, tileCount); over.anyTrue();
+                over = tile.compare(VectorOperators.GE, tileCount)) {
+            tile = tile.sub(tileCount, over);
+        }
+        positionOne.blend(tile, live.andNot(second)).intoArray(position, base);
+        positionTwo.blend(tile, live.and(second)).intoArray(position, stride + base);
+
+        DoubleVector moneyOne = DoubleVector.fromArray(DOUBLES, money, base);
+        DoubleVector moneyTwo = DoubleVector.fromArray(DOUBLES, money, stride + base);
+        DoubleVector myMoney = moneyOne.blend(moneyTwo, secondMoney);
+        DoubleVector opponentMoney = moneyTwo.blend(moneyOne, secondMoney);
+
+        // Resolve the tile in the lanes that landed on a hotel
+        tile.intoArray(tiles, 0);
+        IntVector tileGroup = IntVector.fromArray(INTS, group, 0, tiles, 0);
+        VectorMask<Integer> hotel = live.and(tileGroup.compare(VectorOperators.GE, 0));
+        if (hotel.anyTrue()) {
+            VectorMask<Double> hotelMoney = hotel.cast(DOUBLES);
+            tileGroup = tileGroup.blend(0, hotel.not());
+            tileGroup.intoArray(groups, 0);
+            lane.mul(tileCount).add(tile).intoArray(tileIndexes, 0);
+            IntVector groupIndex = lane.mul(groupCount).add(tileGroup).mul(2);
+            groupIndex.add(me).intoArray(myGroupIndexes, 0);
+            groupIndex.add(opponent).intoArray(opponentGroupIndexes, 0);
+
+            IntVector tileOwner = IntVector.fromArray(INTS, owner, 0, tileIndexes, 0, hotel);
+            IntVector stars = IntVector.fromArray(INTS, rating, 0, tileIndexes, 0, hotel);
+            IntVector myOwned = IntVector.fromArray(INTS, groupOwned, 0, myGroupIndexes, 0, hotel);
+            IntVector opponentOwned = IntVector.fromArray(INTS, groupOwned, 0, opponentGroupIndexes, 0, hotel);
+            IntVector size = IntVector.fromArray(INTS, groupSize, 0, groups, 0, hotel);
+            IntVector mine = me.add(1);
+
+            // Buy an un-owned hotel if affordable
+            DoubleVector tilePrice = DoubleVector.fromArray(DOUBLES, price, 0, tiles, 0, hotelMoney);
+            VectorMask<Double> buying = tileOwner.compare(VectorOperators.EQ, 0).cast(DOUBLES)
+                    .and(hotelMoney).and(tilePrice.compare(VectorOperators.LE, myMoney));
+            myMoney = deduct(myMoney, tilePrice, buying);
+            VectorMask<Integer> bought = buying.and(myMoney.compare(VectorOperators.GT, 0)).cast(INTS);
+
+            // Pay the opponent's hotel, with the same tables as GameModel
+            VectorMask<Integer> paying = hotel.and(tileOwner.compare(VectorOperators.NE, 0))
+                    .and(tileOwner.compare(VectorOperators.NE, mine));
+            IntVector modifier = IntVector.broadcast(INTS, GameProbe.FEE_NORMAL)
+                    .blend(GameProbe.FEE_DOUBLE, opponentOwned.compare(VectorOperators.EQ, size))
+                    .blend(GameProbe.FEE_HALF, myOwned.compare(VectorOperators.GT, 0));
+            tile.mul(3).add(modifier).mul(ratings).add(stars).intoArray(feeIndexes, 0);
+            DoubleVector fee = DoubleVector.fromArray(DOUBLES, fees, 0, feeIndexes, 0, paying.cast(DOUBLES));
+            VectorMask<Double> paid = paying.cast(DOUBLES).and(fee.compare(VectorOperators.GT, 0));
+            myMoney = deduct(myMoney, fee, paid);
+            opponentMoney = opponentMoney.add(fee, paid);
+
+            // Raise an owned hotel towards the target rating
+            tileOwner = tileOwner.blend(mine, bought);
+            VectorMask<Integer> owned = hotel.and(tileOwner.compare(VectorOperators.EQ, mine));
+            DoubleVector cost = DoubleVector.fromArray(DOUBLES, increaseFees, 0, tiles, 0, owned.cast(DOUBLES));
+            for (VectorMask<Integer> raising = raising(owned, stars, myMoney, cost); raising.anyTrue();
+                    raising = raising(owned, stars, myMoney, cost)) {
+                myMoney = deduct(myMoney, cost, raising.cast(DOUBLES));
+                stars = stars.add(1, raising);
+            }
+
+            tileOwner.intoArray(owner, 0, tileIndexes, 0, hotel);
+            stars.intoArray(rating, 0, tileIndexes, 0, hotel);
+            myOwned.add(1).intoArray(groupOwned, 0, myGroupIndexes, 0, bought);
+        }
+
+        myMoney.blend(opponentMoney, secondMoney).intoArray(money, base);
+        opponentMoney.blend(myMoney, secondMoney).intoArray(money, stride + base);
+
+        // Pass the turn or finish the lane
+        IntVector.fromArray(INTS, turnsPlayed, base).add(1, live).intoArray(turnsPlayed, base);
+        VectorMask<Integer> finished = live.and(myMoney.compare(VectorOperators.LE, 0)
+                .or(opponentMoney.compare(VectorOperators.LE, 0)).cast(INTS));
+        VectorMask<Integer> playing = live.andNot(finished);
+        playing.intoArray(active, base);
+        me.blend(opponent, playing).intoArray(turn, base);
+        activeLanes -= finished.trueCount();
+    }
+
+    /**
+     * Get the lanes that raise their hotel by another star.
+     * @param owned The lanes on a hotel of their own
+     * @param stars The hotels' ratings
+     * @param myMoney The money of the players on them
+     * @param cost The cost of a one star increase
+     * @return The lanes below the target rating that can afford an increase
+     */
+    private VectorMask<Integer> raising(VectorMask<Integer> owned, IntVector stars, DoubleVector myMoney, DoubleVector cost) {
+        return owned.and(stars.compare(VectorOperators.LT, targetRating))
+                .and(myMoney.compare(VectorOperators.GT, cost).cast(INTS));
+    }
+
+    /**
+     * Deduct money in some lanes the same way as Player.deductMoney(), never going below 0.
+     * @param money The current money
+     * @param amount The amount to deduct
+     * @param lanes The lanes to deduct in
+     * @return The money left
+     */
+    private static DoubleVector deduct(DoubleVector money, DoubleVector amount, VectorMask<Double> lanes) {
+        DoubleVector result = money.sub(amount);
+        result = result.blend(0.0, result.compare(VectorOperators.LT, 0));
+        return money.blend(result, lanes);
+    }
+
+    /**
+     * Play until every lane has finished or reached the turn limit.
+     * @param maxTurns The maximum number of turns per lane
+     * @param dice The dice to roll for every lane
+     */
+    public void run(int maxTurns, DiceEngine dice) {
+        int[] rolls = new int[lanes];
+        for (int step = 0; step < maxTurns && activeLanes > 0; step++) {
+            for (int lane = 0; lane < lanes; lane++) {
+                rolls[lane] = dice.roll();
+            }
+            step(rolls);
+        }
+    }
+
+    /**
+     * Get the number of lanes advanced in one vector.
+     * @return The vector length
+     */
+    public static int getVectorLanes() {
+        return INTS.length();
+    }
+
+    /**
+     * Get the number of lanes.
+     * @return The number of games advanced together
+     */
+    public int getLanes() {
+        return lanes;
+    }
+
+    /**
+     * Get the number of lanes still playing.
+     * @return The number of unfinished games
+     */
+    public int getActiveLanes() {
+        return activeLanes;
+    }
+
+    /**
+     * Is a lane still playing?
+     * @param lane The lane
+     * @return True if the game in the lane is not over
+     */
+    public boolean isActive(int lane) {
+        return active[lane];
+    }
+
+    /**
+     * Get a player's position in a lane.
+     * @param lane The lane
+     * @param player The player (0 or 1)
+     * @return The player's position
+     */
+    public int getPosition(int lane, int player) {
+        return position[player * stride + lane];
+    }
+
+    /**
+     * Get a player's money in a lane.
+     * @param lane The lane
+     * @param player The player (0 or 1)
+     * @return The player's money
+     */
+    public double getMoney(int lane, int player) {
+        return money[player * stride + lane];
+    }
+
+    /**
+     * Get the player whose turn it is in a lane.
+     * @param lane The lane
+     * @return The player (0 or 1)
+     */
+    public int getTurn(int lane) {
+        return turn[lane];
+    }
+
+    /**
+     * Get the number of turns played in a lane.
+     * @param lane The lane
+     * @return The number of turns played
+     */
+    public int getTurnsPlayed(int lane) {
+        return turnsPlayed[lane];
+    }
+
+    /**
+     * Get the owner of a tile in a lane.
+     * @param lane The lane
+     * @param tile The tile position
+     * @return 0 for no owner, 1 for player one, 2 for player two
+     */
+    public int getOwner(int lane, int tile) {
+        return owner[lane * tileCount + tile];
+    }
+
+    /**
+     * Get the star rating of a tile in a lane.
+     * @param lane The lane
+     * @param tile The tile position
+     * @return The star rating
+     */
+    public int getStarRating(int lane, int tile) {
+        return rating[lane * tileCount + tile];
+    }
+}
@@ -0,0 +1,55 @@
+package hotelgame.sim.tests;
+
+import hotelgame.controller.GameController;
+import hotelgame.model.BoardDefinition;
+import hotelgame.model.GameModel;
+import hotelgame.model.Policy;
+import hotelgame.sim.AllocationGuard;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AllocationGuardTest {
+
+    /**
+     * The most bytes a turn played through GameModel may allocate, set with -Dhotelgame.allocation.modelBytes.
+     */
+    private static final long MODEL_BYTES = Long.getLong("hotelgame.allocation.modelBytes", 0);
+
+    /**
+     * The most bytes a turn played through GameController may allocate, set with -Dhotelgame.allocation.controllerBytes.
+     */
+    private static final long CONTROLLER_BYTES = Long.getLong("hotelgame.allocation.controllerBytes", 512);
+
+    /**
+     * Play 100,000 turns through an observed model after warming up
+     * Assert every phase is measured and a turn allocates no more than the budget
+     */
+    @Test
+    void testModelTurnWithinBudget() {
+        GameModel model = new GameModel();
+        model.reset();
+        model.createPlayers("Player One", "Player Two");
+        model.addObserver((observable, arg) -> { });
+        AllocationGuard guard = AllocationGuard.measureModel(model, Policy.GREEDY, 100_000);
+        assertArrayEquals(AllocationGuard.MODEL_PHASES, guard.getPhases());
+        assertTrue(guard.getBytesPerTurn() <= MODEL_BYTES, guard.toString());
+    }
+
+    /**
+     * Play 100,000 turns through a controller without a view after warming up
+     * Assert the phases add up to the total and a turn allocates no more than the budget
+     */
+    @Test
+    void testControllerTurnWithinBudget() {
+        GameController controller = new GameController(BoardDefinition.standard());
+        controller.start();
+        AllocationGuard guard = AllocationGuard.measureController(controller, 100_000);
+        double phases = 0;
+        for (int phase = 0; phase < AllocationGuard.CONTROLLER_PHASES.length; phase++) {
+            phases += guard.getBytesPerTurn(phase);
+        }
+        assertEquals(guard.getBytesPerTurn(), phases, 1e-6);
+        assertTrue(guard.getBytesPerTurn() <= CONTROLLER_BYTES, guard.toString());
+    }
+}
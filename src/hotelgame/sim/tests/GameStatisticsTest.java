@@ -0,0 +1,103 @@
+package hotelgame.sim.tests;
+
+import hotelgame.model.BoardDefinition;
+import hotelgame.model.GameModel;
+import hotelgame.model.GameProbe;
+import hotelgame.model.Policy;
+import hotelgame.sim.GameStatistics;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class GameStatisticsTest {
+
+    /**
+     * Gather statistics of 2000 games in parallel
+     * Gather statistics of the same blocks of games one at a time
+     * Assert the counts match exactly and the returns match to rounding
+     */
+    @Test
+    void testParallelMatchesSequential() {
+        BoardDefinition board = BoardDefinition.standard();
+        GameStatistics parallel = GameStatistics.simulate(board, 100, 2000, 500, Policy.GREEDY);
+        GameStatistics sequential = new GameStatistics(board, 500, Policy.GREEDY);
+        for (int block = 0; block * GameStatistics.BLOCK_GAMES < 2000; block++) {
+            sequential.play(100 + block, Math.min(GameStatistics.BLOCK_GAMES, 2000 - block * GameStatistics.BLOCK_GAMES));
+        }
+
+        assertEquals(2000, parallel.getGames());
+        assertEquals(sequential.getUnfinished(), parallel.getUnfinished());
+        assertEquals(sequential.getFirstMoverWinRate(), parallel.getFirstMoverWinRate());
+        assertEquals(sequential.getMeanTurns(), parallel.getMeanTurns());
+        assertEquals(sequential.getTurnsPercentile(0.5), parallel.getTurnsPercentile(0.5));
+        for (int modifier = GameProbe.FEE_NORMAL; modifier <= GameProbe.FEE_DOUBLE; modifier++) {
+            assertEquals(sequential.getFeeCount(modifier), parallel.getFeeCount(modifier));
+        }
+        for (int group = 0; group < board.getGroupCount(); group++) {
+            assertEquals(sequential.getGroupRoi(group), parallel.getGroupRoi(group), 1e-9);
+        }
+        long lengths = 0;
+        for (int turns = 0; turns <= 500; turns++) {
+            lengths += parallel.getLengthCount(turns);
+        }
+        assertEquals(2000, lengths);
+        assertTrue(parallel.getFeeCount(GameProbe.FEE_HALF) > 0);
+    }
+
+    /**
+     * Attach statistics as the probe of a model
+     * Buy A1, A2 and A3 for one player and raise each to one star
+     * Land the other player on A1 and pay the fee
+     * Assert the purchases, the doubled fee and A1's return are recorded
+     */
+    @Test
+    void testProbeSeesDoubleFee() {
+        GameModel model = new GameModel();
+        GameStatistics statistics = new GameStatistics(model.getBoard(), 100, Policy.GREEDY);
+        model.setProbe(statistics);
+        model.reset();
+        model.createPlayers("one", "two");
+        model.movePlayer(1);
+        model.buyHotel();
+        model.increaseStarRating();
+        model.movePlayer(2);
+        model.buyHotel();
+        model.increaseStarRating();
+        model.movePlayer(1);
+        model.buyHotel();
+        model.increaseStarRating();
+        model.nextTurn();
+        model.movePlayer(1);
+        model.payOvernightFee();
+
+        assertEquals(1, statistics.getPurchases(1));
+        assertEquals(1, statistics.getFeeCount(GameProbe.FEE_DOUBLE));
+        assertEquals(0, statistics.getFeeCount(GameProbe.FEE_NORMAL) + statistics.getFeeCount(GameProbe.FEE_HALF));
+        // A1 cost 50 + 25 and collected 10
+        assertEquals(10.0 / 75 - 1, statistics.getHotelRoi(1), 1e-12);
+    }
+
+    /**
+     * Gather statistics of a few games
+     * Write them as CSV and as JSON
+     * Assert both hold the game count and every group
+     */
+    @Test
+    void testSummaries() throws IOException {
+        BoardDefinition board = BoardDefinition.standard();
+        GameStatistics statistics = GameStatistics.simulate(board, 1, 50, 1000, Policy.GREEDY);
+        StringBuilder csv = new StringBuilder();
+        statistics.writeCsv(csv);
+        StringBuilder json = new StringBuilder();
+        statistics.writeJson(json);
+
+        assertTrue(csv.toString().startsWith("metric,key,value\ngames,,50\n"));
+        assertTrue(json.toString().contains("\"games\": 50,"));
+        for (int group = 0; group < board.getGroupCount(); group++) {
+            assertTrue(csv.toString().contains("group_roi," + board.getGroupName(group) + ","));
+            assertTrue(json.toString().contains("\"" + board.getGroupName(group) + "\": "));
+        }
+    }
+}
@@ -0,0 +1,90 @@
+package hotelgame.sim.tests;
+
+import hotelgame.model.GameModel;
+import hotelgame.model.Hotel;
+import hotelgame.sim.LockstepEngine;
+import org.junit.jupiter.api.Test;
+
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LockstepEngineTest {
+
+    /**
+     * Play one turn on a scalar model with the same decisions as the engine.
+     */
+    private static void playTurn(GameModel model, int roll, int targetRating) {
+        model.movePlayer(roll);
+        Hotel hotel = model.getCurrentPlayerPositionHotel();
+        if (hotel != null) {
+            if (hotel.getOwner() == null) {
+                if (hotel.canAffordPurchase(model.getCurrentTurn())) {
+                    model.buyHotel();
+                }
+            } else if (hotel.getOwner() != model.getCurrentTurn()) {
+                model.payOvernightFee();
+            }
+            if (hotel.getOwner() == model.getCurrentTurn()) {
+                while (hotel.getStarRating() < targetRating && model.increaseStarRating()) {
+                    // raise until the target or the player runs short
+                }
+            }
+        }
+        if (!model.isGameOver()) {
+            model.nextTurn();
+        }
+    }
+
+    /**
+     * Run 64 lanes and 64 scalar models with the same rolls
+     * Assert every lane matches its scalar model after every step
+     */
+    @Test
+    void testMatchesScalarModel() {
+        int lanes = 64;
+        int targetRating = 3;
+        GameModel[] models = new GameModel[lanes];
+        int[] firstTurn = new int[lanes];
+        for (int lane = 0; lane < lanes; lane++) {
+            models[lane] = new GameModel();
+            models[lane].reset();
+            models[lane].createPlayers("one", "two");
+            firstTurn[lane] = models[lane].getCurrentTurn() == models[lane].getPlayerOne() ? 0 : 1;
+        }
+
+        LockstepEngine engine = new LockstepEngine(models[0].getBoard(), lanes, targetRating);
+        engine.reset(2000, firstTurn);
+
+        SplittableRandom random = new SplittableRandom(42);
+        int[] rolls = new int[lanes];
+        for (int step = 0; step < 2000 && engine.getActiveLanes() > 0; step++) {
+            for (int lane = 0; lane < lanes; lane++) {
+                rolls[lane] = random.nextInt(1, 13);
+                if (!models[lane].isGameOver()) {
+                    playTurn(models[lane], rolls[lane], targetRating);
+                }
+            }
+            engine.step(rolls);
+
+            for (int lane = 0; lane < lanes; lane++) {
+                GameModel model = models[lane];
+                assertEquals(!model.isGameOver(), engine.isActive(lane));
+                assertEquals(model.getPlayerOne().getMoney(), engine.getMoney(lane, 0));
+                assertEquals(model.getPlayerTwo().getMoney(), engine.getMoney(lane, 1));
+                assertEquals(model.getPlayerOne().getPosition(), engine.getPosition(lane, 0));
+                assertEquals(model.getPlayerTwo().getPosition(), engine.getPosition(lane, 1));
+                assertEquals(model.getCurrentTurn() == model.getPlayerOne() ? 0 : 1, engine.getTurn(lane));
+                for (int tile = 0; tile < GameModel.MAX_TILES; tile++) {
+                    Hotel hotel = model.getTiles()[tile];
+                    if (hotel != null) {
+                        int owner = hotel.getOwner() == null ? 0 : hotel.getOwner() == model.getPlayerOne() ? 1 : 2;
+                        assertEquals(owner, engine.getOwner(lane, tile));
+                        assertEquals(hotel.getStarRating(), engine.getStarRating(lane, tile));
+                    }
+                }
+            }
+        }
+        assertEquals(0, engine.getActiveLanes());
+    }
+}
@@ -0,0 +1,130 @@
+package hotelgame.sim.tests;
+
+import hotelgame.model.BoardDefinition;
+import hotelgame.model.GameModel;
+import hotelgame.model.Player;
+import hotelgame.model.Policy;
+import hotelgame.sim.ResultsFile;
+import hotelgame.sim.ResultsReader;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ResultsFileTest {
+
+    /**
+     * Record a chunk and a half of games, keeping the expected columns
+     * Read the file back through the mapping
+     * Assert every column of every game matches and the query counts match a direct count
+     */
+    @Test
+    void testRoundTrip(@TempDir Path dir) throws IOException {
+        BoardDefinition board = BoardDefinition.standard();
+        Path path = dir.resolve("results.hgr");
+        int games = ResultsFile.CHUNK_ROWS * 3 / 2;
+        int groups = board.getGroupCount();
+
+        int[] winner = new int[games];
+        int[] first = new int[games];
+        int[] turns = new int[games];
+        double[] money = new double[games];
+        int[] owned = new int[games * groups * 2];
+        GameModel model = new GameModel(board);
+        try (ResultsFile file = new ResultsFile(path, groups); ResultsFile.Writer writer = file.newWriter()) {
+            for (int game = 0; game < games; game++) {
+                model.reset();
+                model.createPlayers("one", "two");
+                Player firstMover = model.getCurrentTurn();
+                // Short games, so both finished and unfinished games are recorded
+                turns[game] = model.playTurns(game % 200, Policy.GREEDY);
+                writer.record(model, turns[game], firstMover);
+                winner[game] = !model.isGameOver() ? ResultsFile.NO_WINNER : model.getWinner() == model.getPlayerOne() ? 0 : 1;
+                first[game] = firstMover == model.getPlayerOne() ? 0 : 1;
+                money[game] = model.getPlayerTwo().getMoney();
+                for (int i = 0; i < groups * 2; i++) {
+                    owned[game * groups * 2 + i] = model.getGroupOwned(i / 2, i % 2);
+                }
+            }
+        }
+
+        try (ResultsReader reader = new ResultsReader(path)) {
+            assertEquals(games, reader.getRowCount());
+            assertEquals(2, reader.getChunkCount());
+            assertEquals(groups, reader.getGroupCount());
+            int game = 0;
+            for (int c = 0; c < reader.getChunkCount(); c++) {
+                ResultsReader.Chunk chunk = reader.getChunk(c);
+                for (int row = 0; row < chunk.getRows(); row++, game++) {
+                    assertEquals(winner[game], chunk.getWinner(row));
+                    assertEquals(first[game], chunk.getFirstMover(row));
+                    assertEquals(turns[game], chunk.getTurns(row));
+                    assertEquals(money[game], chunk.getMoney(1, row));
+                    for (int i = 0; i < groups * 2; i++) {
+                        assertEquals(owned[game * groups * 2 + i], chunk.getOwned(i / 2, i % 2, row));
+                    }
+                }
+            }
+
+            long wins = 0;
+            long matching = 0;
+            for (int g = 0; g < games; g++) {
+                if (owned[g * groups * 2 + first[g]] >= 2) {
+                    matching++;
+                    wins += winner[g] == first[g] ? 1 : 0;
+                }
+            }
+            assertArrayEquals(new long[] {wins, matching}, reader.firstMoverWins(0, 2));
+            assertTrue(matching > 0);
+        }
+    }
+
+    /**
+     * Write games from two writers, then reopen the file and append more
+     * Cut the last chunk short, as a crash while appending would
+     * Assert every complete chunk is read and the cut chunk is ignored
+     */
+    @Test
+    void testAppendAndTruncatedChunk(@TempDir Path dir) throws IOException {
+        BoardDefinition board = BoardDefinition.standard();
+        Path path = dir.resolve("results.hgr");
+        GameModel model = new GameModel(board);
+        model.reset();
+        model.createPlayers("one", "two");
+        model.playTurns(50, Policy.GREEDY);
+
+        try (ResultsFile file = new ResultsFile(path, board.getGroupCount());
+             ResultsFile.Writer a = file.newWriter(); ResultsFile.Writer b = file.newWriter()) {
+            for (int game = 0; game < 10; game++) {
+                a.record(model, 50, model.getPlayerOne());
+                b.record(model, 50, model.getPlayerTwo());
+            }
+        }
+        try (ResultsFile file = new ResultsFile(path, board.getGroupCount()); ResultsFile.Writer writer = file.newWriter()) {
+            for (int game = 0; game < 7; game++) {
+                writer.record(model, 50, model.getPlayerOne());
+            }
+        }
+        assertThrows(IOException.class, () -> new ResultsFile(path, board.getGroupCount() + 1));
+
+        try (ResultsReader reader = new ResultsReader(path)) {
+            assertEquals(27, reader.getRowCount());
+            assertEquals(3, reader.getChunkCount());
+            assertEquals(50, reader.meanTurns());
+        }
+
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.WRITE)) {
+            channel.truncate(Files.size(path) - 5);
+        }
+        try (ResultsReader reader = new ResultsReader(path)) {
+            assertEquals(20, reader.getRowCount());
+            assertEquals(2, reader.getChunkCount());
+        }
+    }
+}
@@ -0,0 +1,74 @@
+package hotelgame.sim.tests;
+
+import hotelgame.model.BoardDefinition;
+import hotelgame.sim.LockstepEngine;
+import hotelgame.sim.VectorLockstepEngine;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class VectorLockstepEngineTest {
+
+    /**
+     * Run a scalar and a vector engine with the same rolls until every lane has finished.
+     * Assert every lane of the vector engine matches the scalar engine after every step.
+     */
+    private static void assertMatches(BoardDefinition board, int lanes, int targetRating, long seed) {
+        SplittableRandom random = new SplittableRandom(seed);
+        int[] firstTurn = new int[lanes];
+        for (int lane = 0; lane < lanes; lane++) {
+            firstTurn[lane] = random.nextInt(2);
+        }
+        LockstepEngine scalar = new LockstepEngine(board, lanes, targetRating);
+        VectorLockstepEngine vector = new VectorLockstepEngine(board, lanes, targetRating);
+        scalar.reset(board.getStartingMoney(), firstTurn);
+        vector.reset(board.getStartingMoney(), firstTurn);
+
+        int[] rolls = new int[lanes];
+        for (int step = 0; step < 5000 && scalar.getActiveLanes() > 0; step++) {
+            for (int lane = 0; lane < lanes; lane++) {
+                rolls[lane] = random.nextInt(1, board.getDiceSides() + 1);
+            }
+            assertEquals(scalar.step(rolls), vector.step(rolls));
+
+            for (int lane = 0; lane < lanes; lane++) {
+                assertEquals(scalar.isActive(lane), vector.isActive(lane));
+                assertEquals(scalar.getTurn(lane), vector.getTurn(lane));
+                assertEquals(scalar.getTurnsPlayed(lane), vector.getTurnsPlayed(lane));
+                for (int player = 0; player < 2; player++) {
+                    assertEquals(scalar.getMoney(lane, player), vector.getMoney(lane, player));
+                    assertEquals(scalar.getPosition(lane, player), vector.getPosition(lane, player));
+                }
+                for (int tile = 0; tile < board.getTileCount(); tile++) {
+                    assertEquals(scalar.getOwner(lane, tile), vector.getOwner(lane, tile));
+                    assertEquals(scalar.getStarRating(lane, tile), vector.getStarRating(lane, tile));
+                }
+            }
+        }
+        assertEquals(0, vector.getActiveLanes());
+    }
+
+    /**
+     * Run 100 lanes on the standard board, not a whole number of vectors, raising hotels to 3 stars
+     * Assert every lane matches the scalar engine after every step
+     */
+    @Test
+    void testMatchesScalarEngine() {
+        assertMatches(BoardDefinition.standard(), 100, 3, 42);
+    }
+
+    /**
+     * Run 37 lanes on a 6 tile board with a 20 sided die, raising hotels to 5 stars
+     * Assert every lane matches the scalar engine after every step, wrapping around the board more than once a turn
+     */
+    @Test
+    void testMatchesScalarEngineOnSmallBoard() throws IOException {
+        BoardDefinition board = BoardDefinition.parse(new StringReader(
+                "dice 20\nmoney 800\nblank\nhotel A 50\nhotel A 80\nblank\nhotel B 120\nhotel C 60\n"));
+        assertMatches(board, 37, 5, 7);
+    }
+}
@@ -0,0 +1,633 @@
+package hotelgame.store;
+
+import hotelgame.model.BoardDefinition;
+import hotelgame.model.GameAction;
+import hotelgame.model.GameModel;
+import hotelgame.model.GameSnapshot;
+import hotelgame.stream.DeltaDecoder;
+import hotelgame.stream.DeltaEncoder;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Observable;
+import java.util.Observer;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.zip.CRC32;
+
+/**
+ * A write-ahead log that saves any number of games as they are played, so they can be loaded again after
+ * a crash or restart.
+ * An attached game is observed, and every change is appended as a DeltaEncoder frame: the effect of the action
+ * rather than the action itself, so recovery does not depend on the dice.
+ * A change is durable before the observer returns. Changes of concurrent games are written and fsynced
+ * together: the first thread to commit writes every record appended so far, and threads whose records it
+ * wrote return without a sync of their own.
+ * When the log grows past the compaction size, a new segment is started with a keyframe of every game
+ * and the old segments are deleted, so recovery reads at most one compaction interval of history.
+ *
+ * Record layout (little-endian): length of the rest (int), CRC32 of the rest (int), game (long), type (byte), frame.
+ */
+public class GameJournal implements Closeable {
+
+    /**
+     * Record type: a DeltaEncoder frame of a game.
+     */
+    static final int FRAME = 1;
+
+    /**
+     * Record type: the game has ended and is forgotten.
+     */
+    static final int END = 2;
+
+    /**
+     * The size of a record before its frame: length, CRC, game and type.
+     */
+    private static final int RECORD_HEADER_BYTES = 4 + 4 + 8 + 1;
+
+    /**
+     * The board every game in the journal is played on.
+     */
+    private final BoardDefinition board;
+
+    /**
+     * The directory holding the segments.
+     */
+    private final Path directory;
+
+    /**
+     * The segment size that triggers compaction.
+     */
+    private final long compactBytes;
+
+    /**
+     * The states of games recovered from the log and not yet attached.
+     */
+    private final Map<Long, GameSnapshot> dormant = new HashMap<>();
+
+    /**
+     * The attached games.
+     */
+    private final Map<Long, Journaled> attached = new HashMap<>();
+
+    /**
+     * The segment being appended to.
+     */
+    private FileChannel channel;
+
+    /**
+     * The number of the segment being appended to.
+     */
+    private long segment;
+
+    /**
+     * The bytes in the current segment, including records not yet written.
+     */
+    private long segmentBytes;
+
+    /**
+     * Records appended but not yet written.
+     */
+    private ByteBuffer pending = ByteBuffer.allocate(1 << 16).order(ByteOrder.LITTLE_ENDIAN);
+
+    /**
+     * The buffer swapped in for pending while a commit writes it.
+     */
+    private ByteBuffer spare = ByteBuffer.allocate(1 << 16).order(ByteOrder.LITTLE_ENDIAN);
+
+    /**
+     * The number of records ever appended.
+     */
+    private long appended;
+
+    /**
+     * The number of records known to be on the disk.
+     */
+    private long durable;
+
+    /**
+     * Whether a thread is writing and syncing a batch of records.
+     */
+    private boolean flushing;
+
+    /**
+     * The number of syncs.
+     */
+    private long syncs;
+
+    /**
+     * The number of compactions.
+     */
+    private long compactions;
+
+    /**
+     * Computes record checksums.
+     */
+    private final CRC32 crc = new CRC32();
+
+    /**
+     * Open a journal, recovering the games saved in it.
+     * Recovery stops at the first damaged record of a segment, such as one cut short by a crash,
+     * and the recovered games are compacted into a new segment straight away.
+     * @param directory The directory holding the segments, created if needed
+     * @param board The board every game is played on
+     * @param compactBytes The segment size that triggers compaction
+     * @throws IOException If the journal cannot be read or written
+     */
+    public GameJournal(Path directory, BoardDefinition board, long compactBytes) throws IOException {
+        this.board = board;
+        this.directory = directory;
+        this.compactBytes = compactBytes;
+        Files.createDirectories(directory);
+
+        List<Path> segments = segments();
+        Map<Long, DeltaDecoder> decoders = new HashMap<>();
+        for (Path path : segments) {
+            recover(path, decoders);
+        }
+        for (Map.Entry<Long, DeltaDecoder> entry : decoders.entrySet()) {
+            GameSnapshot state = new GameSnapshot();
+            state.copyFrom(entry.getValue().getState());
+            dormant.put(entry.getKey(), state);
+        }
+        segment = segments.isEmpty() ? 0 : number(segments.get(segments.size() - 1));
+        synchronized (this) {
+            compact();
+        }
+    }
+
+    /**
+     * Get the games that were recovered and have not been attached since.
+     * @return The game numbers
+     */
+    public synchronized Set<Long> getSavedGames() {
+        return Collections.unmodifiableSet(new TreeSet<>(dormant.keySet()));
+    }
+
+    /**
+     * Load a saved game into a model and keep saving it.
+     * @param id The game's number
+     * @param model The model, which must not be attached to a journal
+     * @return False if there is no saved game with that number, leaving the model untouched
+     */
+    public boolean load(long id, GameModel model) {
+        GameSnapshot state;
+        synchronized (this) {
+            state = dormant.get(id);
+        }
+        if (state == null) {
+            return false;
+        }
+        model.restore(state);
+        attach(id, model);
+        return true;
+    }
+
+    /**
+     * Save a model's game from now on, replacing any game saved with the same number.
+     * The game is saved whenever the model notifies its observers; a model with players is saved straight away.
+     * @param id The game's number
+     * @param model The model
+     */
+    public void attach(long id, GameModel model) {
+        Journaled journaled = new Journaled(id, model);
+        synchronized (this) {
+            dormant.remove(id);
+            Journaled previous = attached.put(id, journaled);
+            if (previous != null) {
+                previous.model.deleteObserver(previous);
+            }
+        }
+        model.addObserver(journaled);
+        if (model.getPlayerOne() != null) {
+            journaled.update(model, null);
+        }
+    }
+
+    /**
+     * Stop saving a game and forget it, for example once it is over.
+     * @param id The game's number
+     * @throws IOException If the journal cannot be written
+     */
+    public void end(long id) throws IOException {
+        long sequence;
+        synchronized (this) {
+            Journaled journaled = attached.remove(id);
+            if (journaled != null) {
+                journaled.model.deleteObserver(journaled);
+            }
+            dormant.remove(id);
+            sequence = append(id, END, ByteBuffer.allocate(0));
+        }
+        commit(sequence);
+    }
+
+    /**
+     * Get the number of fsyncs of appended records.
+     * @return The sync count
+     */
+    public synchronized long getSyncs() {
+        return syncs;
+    }
+
+    /**
+     * Get the number of records appended.
+     * @return The record count
+     */
+    public synchronized long getRecords() {
+        return appended;
+    }
+
+    /**
+     * Get the number of compactions, including the one when the journal was opened.
+     * @return The compaction count
+     */
+    public synchronized long getCompactions() {
+        return compactions;
+    }
+
+    /**
+     * Stop observing every game and close the current segment.
+     * Every change has already been synced.
+     * @throws IOException If the segment cannot be closed
+     */
+    @Override
+    public synchronized void close() throws IOException {
+        for (Journaled journaled : attached.values()) {
+            journaled.model.deleteObserver(journaled);
+        }
+        attached.clear();
+        channel.close();
+    }
+
+    /**
+     * Append a record to the pending buffer, compacting first if the segment is full.
+     * Pre: the caller holds this journal's lock
+     * @param id The game's number
+     * @param type The record type
+     * @param frame The frame, from position to limit
+     * @return The record's sequence number, to pass to commit()
+     * @throws IOException If compaction fails
+     */
+    private long append(long id, int type, ByteBuffer frame) throws IOException {
+        if (segmentBytes >= compactBytes) {
+            compact();
+        }
+        int length = RECORD_HEADER_BYTES + frame.remaining();
+        if (pending.remaining() < length) {
+            ByteBuffer larger = ByteBuffer.allocate(Math.max(pending.capacity() * 2, pending.position() + length))
+                    .order(ByteOrder.LITTLE_ENDIAN);
+            pending.flip();
+            larger.put(pending);
+            pending = larger;
+        }
+        writeRecord(pending, id, type, frame);
+        segmentBytes += length;
+        return ++appended;
+    }
+
+    /**
+     * Wait until a record is on the disk, writing and syncing every pending record if no other thread is.
+     * @param sequence The record's sequence number
+     * @throws IOException If the segment cannot be written
+     */
+    private void commit(long sequence) throws IOException {
+        while (true) {
+            ByteBuffer batch;
+            FileChannel target;
+            long upTo;
+            synchronized (this) {
+                while (durable < sequence && flushing) {
+                    waitForFlush();
+                }
+                if (durable >= sequence) {
+                    return;
+                }
+                flushing = true;
+                batch = pending;
+                pending = spare;
+                spare = batch;
+                pending.clear();
+                target = channel;
+                upTo = appended;
+            }
+
+            boolean written = false;
+            try {
+                batch.flip();
+                while (batch.hasRemaining()) {
+                    target.write(batch);
+                }
+                target.force(false);
+                written = true;
+            } finally {
+                synchronized (this) {
+                    if (written) {
+                        durable = upTo;
+                        syncs++;
+                    }
+                    flushing = false;
+                    notifyAll();
+                }
+            }
+        }
+    }
+
+    /**
+     * Start a new segment holding a keyframe of every game, then delete the older segments.
+     * Pre: the caller holds this journal's lock
+     * @throws IOException If the segments cannot be written or deleted
+     */
+    private void compact() throws IOException {
+        while (flushing) {
+            waitForFlush();
+        }
+        if (channel != null) {
+            pending.flip();
+            while (pending.hasRemaining()) {
+                channel.write(pending);
+            }
+            pending.clear();
+            channel.force(false);
+            channel.close();
+            durable = appended;
+            syncs++;
+        }
+
+        segment++;
+        Path path = directory.resolve(String.format("journal-%012d.wal", segment));
+        FileChannel next = FileChannel.open(path, StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE);
+        GameModel scratch = new GameModel(board);
+        ByteBuffer frame = ByteBuffer.allocate(1024);
+        ByteBuffer records = ByteBuffer.allocate(1 << 16).order(ByteOrder.LITTLE_ENDIAN);
+        long bytes = 0;
+        Map<Long, GameSnapshot> states = new HashMap<>(dormant);
+        for (Journaled journaled : attached.values()) {
+            if (journaled.saved) {
+                states.put(journaled.id, journaled.logged);
+            }
+        }
+        for (Map.Entry<Long, GameSnapshot> entry : states.entrySet()) {
+            scratch.restore(entry.getValue());
+            DeltaEncoder encoder = new DeltaEncoder(1);
+            frame = frameBuffer(frame, scratch);
+            encoder.encode(scratch, frame);
+            frame.flip();
+            if (records.remaining() < RECORD_HEADER_BYTES + frame.remaining()) {
+                records.flip();
+                while (records.hasRemaining()) {
+                    next.write(records);
+                }
+                records.clear();
+            }
+            bytes += RECORD_HEADER_BYTES + frame.remaining();
+            writeRecord(records, entry.getKey(), FRAME, frame);
+        }
+        records.flip();
+        while (records.hasRemaining()) {
+            next.write(records);
+        }
+        next.force(false);
+        channel = next;
+        segmentBytes = bytes;
+        compactions++;
+
+        for (Path old : segments()) {
+            if (number(old) < segment) {
+                Files.delete(old);
+            }
+        }
+    }
+
+    /**
+     * Write a record.
+     * @param out The buffer to write to, with room for the record
+     * @param id The game's number
+     * @param type The record type
+     * @param frame The frame, from position to limit
+     */
+    private void writeRecord(ByteBuffer out, long id, int type, ByteBuffer frame) {
+        int start = out.position();
+        out.putInt(0).putInt(0).putLong(id).put((byte) type).put(frame);
+        out.putInt(start, out.position() - start - 4);
+        crc.reset();
+        crc.update(out.array(), start + 8, out.position() - start - 8);
+        out.putInt(start + 4, (int) crc.getValue());
+    }
+
+    /**
+     * Read the records of a segment, stopping at the first damaged one.
+     * @param path The segment
+     * @param decoders The decoder of every game seen so far, by game number
+     * @throws IOException If the segment cannot be read
+     */
+    private void recover(Path path, Map<Long, DeltaDecoder> decoders) throws IOException {
+        ByteBuffer data = ByteBuffer.wrap(Files.readAllBytes(path)).order(ByteOrder.LITTLE_ENDIAN);
+        CRC32 check = new CRC32();
+        while (data.remaining() >= RECORD_HEADER_BYTES) {
+            int start = data.position();
+            int length = data.getInt(start);
+            if (length < RECORD_HEADER_BYTES - 4 || length > data.remaining() - 4) {
+                return;
+            }
+            check.reset();
+            check.update(data.array(), start + 8, length - 4);
+            if ((int) check.getValue() != data.getInt(start + 4)) {
+                return;
+            }
+            long id = data.getLong(start + 8);
+            int type = data.get(start + 16);
+            if (type == END) {
+                decoders.remove(id);
+            } else {
+                ByteBuffer frame = ByteBuffer.wrap(data.array(), start + RECORD_HEADER_BYTES, length + 4 - RECORD_HEADER_BYTES);
+                decoders.computeIfAbsent(id, key -> new DeltaDecoder()).read(frame);
+            }
+            data.position(start + 4 + length);
+        }
+    }
+
+    /**
+     * List the segments in order.
+     * @return The segment paths
+     * @throws IOException If the directory cannot be read
+     */
+    private List<Path> segments() throws IOException {
+        List<Path> segments = new ArrayList<>();
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory, "journal-*.wal")) {
+            stream.forEach(segments::add);
+        }
+        segments.sort((a, b) -> Long.compare(number(a), number(b)));
+        return segments;
+    }
+
+    /**
+     * Get the number of a segment from its file name.
+     * @param path The segment
+     * @return The segment number
+     */
+    private static long number(Path path) {
+        String name = path.getFileName().toString();
+        return Long.parseLong(name.substring("journal-".length(), name.length() - ".wal".length()));
+    }
+
+    /**
+     * Get a buffer with room for a frame of a model.
+     * @param buffer The buffer to reuse if it is large enough
+     * @param model The model
+     * @return A cleared buffer
+     */
+    private static ByteBuffer frameBuffer(ByteBuffer buffer, GameModel model) {
+        int bound = DeltaEncoder.maxFrameSize(model);
+        if (buffer.capacity() < bound) {
+            return ByteBuffer.allocate(bound);
+        }
+        buffer.clear();
+        return buffer;
+    }
+
+    /**
+     * Wait for the thread writing a batch to finish.
+     * Pre: the caller holds this journal's lock
+     * @throws IOException If the thread is interrupted
+     */
+    private void waitForFlush() throws IOException {
+        try {
+            wait();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while waiting for the journal", e);
+        }
+    }
+
+    /**
+     * Play games on many threads, each saved in one journal, and report the cost of durability per action.
+     * Usage: GameJournal [directory] [threads] [actions per thread]
+     */
+    public static void main(String[] args) throws IOException, InterruptedException {
+        Path directory = Path.of(args.length > 0 ? args[0] : "journal");
+        int threads = args.length > 1 ? Integer.parseInt(args[1]) : 64;
+        int actions = args.length > 2 ? Integer.parseInt(args[2]) : 2000;
+        BoardDefinition board = BoardDefinition.standard();
+        int[] turn = {GameAction.of(GameAction.ROLL, 0), GameAction.of(GameAction.BUY, 0),
+                GameAction.of(GameAction.RATE, 1), GameAction.of(GameAction.END_TURN, 0)};
+
+        try (GameJournal journal = new GameJournal(directory, board, 16 << 20)) {
+            Thread[] workers = new Thread[threads];
+            long start = System.nanoTime();
+            for (int thread = 0; thread < threads; thread++) {
+                long id = thread;
+                workers[thread] = new Thread(() -> {
+                    GameModel model = new GameModel(board);
+                    model.reset();
+                    journal.attach(id, model);
+                    model.createPlayers("one", "two");
+                    for (int action = 0; action < actions; action++) {
+                        if (!GameAction.apply(model, turn[action % turn.length]) && model.isGameOver()) {
+                            GameAction.apply(model, GameAction.of(GameAction.RESET, 0));
+                        }
+                    }
+                });
+                workers[thread].start();
+            }
+            for (Thread worker : workers) {
+                worker.join();
+            }
+            double seconds = (System.nanoTime() - start) / 1e9;
+            System.out.printf("%,d records in %.2f s: %.1f us per action, %.1f records per sync, %d compactions%n",
+                    journal.getRecords(), seconds, seconds * 1e6 / journal.getRecords(),
+                    journal.getRecords() / (double) journal.getSyncs(), journal.getCompactions());
+        }
+    }
+
+    /**
+     * Saves every change of one attached game.
+     */
+    private class Journaled implements Observer {
+
+        /**
+         * The game's number.
+         */
+        private final long id;
+
+        /**
+         * The model being saved.
+         */
+        private final GameModel model;
+
+        /**
+         * Encodes the changes of the model.
+         */
+        private final DeltaEncoder encoder = new DeltaEncoder(Integer.MAX_VALUE);
+
+        /**
+         * The buffer frames are encoded into.
+         */
+        private ByteBuffer frame = ByteBuffer.allocate(256);
+
+        /**
+         * The state in the last saved frame, used by compaction.
+         */
+        private final GameSnapshot logged = new GameSnapshot();
+
+        /**
+         * Whether a frame has been saved yet.
+         */
+        private boolean saved;
+
+        /**
+         * Create the observer of a game.
+         * @param id The game's number
+         * @param model The model being saved
+         */
+        private Journaled(long id, GameModel model) {
+            this.id = id;
+            this.model = model;
+        }
+
+        /**
+         * Append the change and wait until it is durable.
+         * Notifications before the players are created are ignored.
+         * @throws UncheckedIOException If the journal cannot be written
+         */
+        @Override
+        public void update(Observable observable, Object arg) {
+            GameModel changed = (GameModel) observable;
+            if (changed.getPlayerOne() == null || changed.getTiles() == null) {
+                return;
+            }
+            try {
+                long sequence;
+                synchronized (GameJournal.this) {
+                    if (attached.get(id) != this) {
+                        return;
+                    }
+                    frame = frameBuffer(frame, changed);
+                    encoder.encode(changed, frame);
+                    frame.flip();
+                    // append may compact, writing a keyframe of logged that the frame is a delta from,
+                    // so logged must still hold the previous state until the frame is appended
+                    sequence = append(id, FRAME, frame);
+                    logged.capture(changed);
+                    saved = true;
+                }
+                commit(sequence);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+    }
+}
@@ -0,0 +1,526 @@
+package hotelgame.store;
+
+import hotelgame.model.BoardDefinition;
+import hotelgame.model.DiceDistribution;
+import hotelgame.model.DiceEngine;
+import hotelgame.model.GameAction;
+import hotelgame.model.GameModel;
+import hotelgame.model.GameSnapshot;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.SplittableRandom;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.function.Function;
+
+/**
+ * Suspended games kept in fixed-size records of a memory-mapped file, for games whose turns arrive hours apart.
+ * An idle game is only its record, about 128 bytes on the standard board, held in the page cache rather than the heap.
+ * When a player acts, the game is restored into a GameModel taken from a pool, the action is applied,
+ * and the state is written back before the model returns to the pool.
+ * Each game keeps its own dice seed and action count, and the dice are reseeded from both whenever the game
+ * is restored, so a game rolls the same numbers whichever pooled model plays it.
+ * Games are numbered from 0; deleted records are reused. Games may be used from many threads at once.
+ */
+public class GameStore implements Closeable {
+
+    /**
+     * The first int of every store file, "HGGS".
+     */
+    private static final int MAGIC = 0x53474748;
+
+    /**
+     * The format version.
+     */
+    private static final int VERSION = 1;
+
+    /**
+     * The size of the file header.
+     */
+    private static final int HEADER_BYTES = 64;
+
+    /**
+     * The most bytes of a player name, in UTF-8.
+     */
+    public static final int NAME_BYTES = 23;
+
+    /**
+     * The most tiles a board can have, so positions fit the unsigned 16 bit fields they are stored in.
+     */
+    public static final int MAX_BOARD_TILES = 1 << 16;
+
+    /**
+     * The largest window of records mapped at once.
+     */
+    private static final long WINDOW_BYTES = 1L << 30;
+
+    /**
+     * The number of lock stripes; games share a lock when their numbers are equal modulo this.
+     */
+    private static final int STRIPES = 256;
+
+    /**
+     * Header offsets: magic, version, tile count, record size, games ever allocated, first free record.
+     */
+    private static final int H_MAGIC = 0, H_VERSION = 4, H_TILES = 8, H_RECORD = 12, H_ALLOCATED = 16, H_FREE = 20;
+
+    /**
+     * Record offsets. A record is in use when R_USED is 1; a free record holds the next free record at R_SEQUENCE.
+     */
+    private static final int R_USED = 0, R_SEQUENCE = 4, R_SEED = 8, R_MONEY = 16, R_POSITION = 32, R_TURN = 36,
+            R_ROLL = 37, R_NAME_LENGTHS = 38, R_NAMES = 40, R_TILES = R_NAMES + 2 * (NAME_BYTES + 1);
+
+    /**
+     * The board every game in the store is played on.
+     */
+    private final BoardDefinition board;
+
+    /**
+     * The dice distribution of the board.
+     */
+    private final DiceDistribution distribution;
+
+    /**
+     * The file.
+     */
+    private final FileChannel channel;
+
+    /**
+     * The mapped header.
+     */
+    private final MappedByteBuffer header;
+
+    /**
+     * The mapped records, in windows of recordsPerWindow records.
+     */
+    private final MappedByteBuffer[] windows;
+
+    /**
+     * The size of a record.
+     */
+    private final int recordBytes;
+
+    /**
+     * The number of records in each window.
+     */
+    private final int recordsPerWindow;
+
+    /**
+     * The number of records in the file.
+     */
+    private final int capacity;
+
+    /**
+     * The locks of the games, by game number modulo STRIPES.
+     */
+    private final Object[] stripes = new Object[STRIPES];
+
+    /**
+     * Models waiting to be lent to a game, each with a snapshot used to move state in and out.
+     */
+    private final ConcurrentLinkedQueue<Hydrated> pool = new ConcurrentLinkedQueue<>();
+
+    /**
+     * Open a store, creating the file if needed.
+     * The file is sized for capacity records up front but is sparse, so records never used take no disk or memory.
+     * @param path The file
+     * @param board The board every game is played on
+     * @param capacity The most games the store can hold
+     * @throws IOException If the file cannot be opened or mapped, or was made for a different board size
+     * @throws IllegalArgumentException If the board has more than MAX_BOARD_TILES tiles
+     */
+    public GameStore(Path path, BoardDefinition board, int capacity) throws IOException {
+        if (board.getTileCount() > MAX_BOARD_TILES) {
+            throw new IllegalArgumentException("A stored board can have at most " + MAX_BOARD_TILES + " tiles");
+        }
+        this.board = board;
+        this.distribution = DiceDistribution.uniform(board.getDiceSides());
+        this.recordBytes = (R_TILES + board.getTileCount() + 7) & ~7;
+        this.recordsPerWindow = (int) (WINDOW_BYTES / recordBytes);
+        this.capacity = capacity;
+        for (int stripe = 0; stripe < STRIPES; stripe++) {
+            stripes[stripe] = new Object();
+        }
+
+        this.channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        boolean created = channel.size() == 0;
+        long size = HEADER_BYTES + (long) capacity * recordBytes;
+        if (channel.size() < size) {
+            // Extend the file with a single byte at the end, leaving the records as a hole
+            channel.write(ByteBuffer.wrap(new byte[1]), size - 1);
+        }
+        this.header = channel.map(FileChannel.MapMode.READ_WRITE, 0, HEADER_BYTES);
+        header.order(ByteOrder.LITTLE_ENDIAN);
+        if (created) {
+            header.putInt(H_MAGIC, MAGIC).putInt(H_VERSION, VERSION).putInt(H_TILES, board.getTileCount())
+                    .putInt(H_RECORD, recordBytes).putInt(H_ALLOCATED, 0).putInt(H_FREE, -1);
+        } else if (header.getInt(H_MAGIC) != MAGIC || header.getInt(H_VERSION) != VERSION) {
+            channel.close();
+            throw new IOException(path + " is not a game store");
+        } else if (header.getInt(H_TILES) != board.getTileCount() || header.getInt(H_RECORD) != recordBytes) {
+            channel.close();
+            throw new IOException(path + " holds games for a board of " + header.getInt(H_TILES) + " tiles");
+        } else if (header.getInt(H_ALLOCATED) > capacity) {
+            channel.close();
+            throw new IOException(path + " holds " + header.getInt(H_ALLOCATED) + " games, more than " + capacity);
+        }
+
+        this.windows = new MappedByteBuffer[(capacity + recordsPerWindow - 1) / recordsPerWindow];
+        for (int window = 0; window < windows.length; window++) {
+            long records = Math.min(recordsPerWindow, capacity - (long) window * recordsPerWindow);
+            windows[window] = channel.map(FileChannel.MapMode.READ_WRITE,
+                    HEADER_BYTES + (long) window * recordsPerWindow * recordBytes, records * recordBytes);
+            windows[window].order(ByteOrder.LITTLE_ENDIAN);
+        }
+    }
+
+    /**
+     * Start a new game.
+     * @param playerOne Player one's name, at most NAME_BYTES bytes of UTF-8
+     * @param playerTwo Player two's name, at most NAME_BYTES bytes of UTF-8
+     * @param seed The seed of the game's dice
+     * @return The game's number
+     * @throws IllegalArgumentException If a name is too long
+     * @throws IllegalStateException If the store is full
+     */
+    public int create(String playerOne, String playerTwo, long seed) {
+        if (playerOne.getBytes(StandardCharsets.UTF_8).length > NAME_BYTES
+                || playerTwo.getBytes(StandardCharsets.UTF_8).length > NAME_BYTES) {
+            throw new IllegalArgumentException("Player names are limited to " + NAME_BYTES + " bytes");
+        }
+        int id = allocate();
+        Hydrated hydrated = borrow();
+        try {
+            synchronized (stripes[id % STRIPES]) {
+                hydrated.model.setDice(new DiceEngine(distribution, seed));
+                hydrated.model.reset();
+                hydrated.model.createPlayers(playerOne, playerTwo);
+                hydrated.snapshot.capture(hydrated.model);
+                MappedByteBuffer window = window(id);
+                int record = offset(id);
+                window.putInt(record + R_SEQUENCE, 0);
+                window.putLong(record + R_SEED, seed);
+                write(window, record, hydrated.snapshot);
+                window.putInt(record + R_USED, 1);
+            }
+        } finally {
+            pool.offer(hydrated);
+        }
+        return id;
+    }
+
+    /**
+     * Apply a player action to a game.
+     * @param id The game's number
+     * @param action The encoded action (see GameAction)
+     * @return True if the action was legal and applied
+     */
+    public boolean act(int id, int action) {
+        return update(id, model -> GameAction.apply(model, action));
+    }
+
+    /**
+     * Restore a game into a pooled model, run a function on it, and write the game back.
+     * The model must not be kept or used after the function returns.
+     * @param id The game's number
+     * @param function The function to run
+     * @param <T> The function's result type
+     * @return The function's result
+     * @throws IllegalArgumentException If there is no such game
+     */
+    public <T> T update(int id, Function<GameModel, T> function) {
+        Hydrated hydrated = borrow();
+        try {
+            synchronized (stripes[id % STRIPES]) {
+                MappedByteBuffer window = window(id);
+                int record = offset(id);
+                checkUsed(window, record, id);
+                int sequence = window.getInt(record + R_SEQUENCE);
+                read(window, record, hydrated.snapshot);
+                hydrated.model.restore(hydrated.snapshot);
+                hydrated.model.setDice(new DiceEngine(distribution,
+                        new SplittableRandom(window.getLong(record + R_SEED) + sequence).nextLong()));
+
+                T result = function.apply(hydrated.model);
+
+                hydrated.snapshot.capture(hydrated.model);
+                write(window, record, hydrated.snapshot);
+                window.putInt(record + R_SEQUENCE, sequence + 1);
+                return result;
+            }
+        } finally {
+            pool.offer(hydrated);
+        }
+    }
+
+    /**
+     * Copy a game's state without restoring it.
+     * @param id The game's number
+     * @param snapshot Where the state is copied
+     * @throws IllegalArgumentException If there is no such game
+     */
+    public void load(int id, GameSnapshot snapshot) {
+        synchronized (stripes[id % STRIPES]) {
+            MappedByteBuffer window = window(id);
+            int record = offset(id);
+            checkUsed(window, record, id);
+            read(window, record, snapshot);
+        }
+    }
+
+    /**
+     * Delete a game, freeing its record for a new game.
+     * @param id The game's number
+     * @throws IllegalArgumentException If there is no such game
+     */
+    public void delete(int id) {
+        synchronized (this) {
+            synchronized (stripes[id % STRIPES]) {
+                MappedByteBuffer window = window(id);
+                int record = offset(id);
+                checkUsed(window, record, id);
+                window.putInt(record + R_USED, 0);
+                window.putInt(record + R_SEQUENCE, header.getInt(H_FREE));
+                header.putInt(H_FREE, id);
+            }
+        }
+    }
+
+    /**
+     * Does a game exist?
+     * @param id The game's number
+     * @return True if the game was created and not deleted
+     */
+    public boolean exists(int id) {
+        if (id < 0 || id >= capacity) {
+            return false;
+        }
+        synchronized (stripes[id % STRIPES]) {
+            return window(id).getInt(offset(id) + R_USED) == 1;
+        }
+    }
+
+    /**
+     * Get the size of a game's record.
+     * @return The number of bytes per game
+     */
+    public int getRecordBytes() {
+        return recordBytes;
+    }
+
+    /**
+     * Get the most games the store can hold.
+     * @return The capacity
+     */
+    public int getCapacity() {
+        return capacity;
+    }
+
+    /**
+     * Get the number of records ever allocated, including freed ones.
+     * @return The number of allocated records
+     */
+    public synchronized int getAllocated() {
+        return header.getInt(H_ALLOCATED);
+    }
+
+    /**
+     * Get the number of models in the pool, which is the most games that were ever restored at once.
+     * @return The pool size
+     */
+    public int getPoolSize() {
+        return pool.size();
+    }
+
+    /**
+     * Write every change to the disk.
+     */
+    public void force() {
+        header.force();
+        for (MappedByteBuffer window : windows) {
+            window.force();
+        }
+    }
+
+    /**
+     * Write every change to the disk and close the file.
+     * @throws IOException If the file cannot be closed
+     */
+    @Override
+    public void close() throws IOException {
+        force();
+        channel.close();
+    }
+
+    /**
+     * Take a free record, reusing deleted ones first.
+     * @return The record's game number
+     * @throws IllegalStateException If the store is full
+     */
+    private synchronized int allocate() {
+        int free = header.getInt(H_FREE);
+        if (free >= 0) {
+            header.putInt(H_FREE, window(free).getInt(offset(free) + R_SEQUENCE));
+            return free;
+        }
+        int allocated = header.getInt(H_ALLOCATED);
+        if (allocated == capacity) {
+            throw new IllegalStateException("The game store is full (" + capacity + " games)");
+        }
+        header.putInt(H_ALLOCATED, allocated + 1);
+        return allocated;
+    }
+
+    /**
+     * Take a model from the pool, or create one if every model is in use.
+     * @return The model and its snapshot
+     */
+    private Hydrated borrow() {
+        Hydrated hydrated = pool.poll();
+        return hydrated != null ? hydrated : new Hydrated(new GameModel(board));
+    }
+
+    /**
+     * Get the window holding a game's record.
+     * @param id The game's number
+     * @return The window
+     * @throws IllegalArgumentException If the number is outside the store
+     */
+    private MappedByteBuffer window(int id) {
+        if (id < 0 || id >= capacity) {
+            throw new IllegalArgumentException("There is no game " + id);
+        }
+        return windows[id / recordsPerWindow];
+    }
+
+    /**
+     * Get the offset of a game's record in its window.
+     * @param id The game's number
+     * @return The offset
+     */
+    private int offset(int id) {
+        return (id % recordsPerWindow) * recordBytes;
+    }
+
+    /**
+     * Check a record holds a game.
+     * @param window The record's window
+     * @param record The record's offset in the window
+     * @param id The game's number
+     * @throws IllegalArgumentException If the record is free
+     */
+    private static void checkUsed(MappedByteBuffer window, int record, int id) {
+        if (window.getInt(record + R_USED) != 1) {
+            throw new IllegalArgumentException("There is no game " + id);
+        }
+    }
+
+    /**
+     * Write a snapshot into a record.
+     * @param window The record's window
+     * @param record The record's offset in the window
+     * @param snapshot The state to write
+     */
+    private void write(MappedByteBuffer window, int record, GameSnapshot snapshot) {
+        for (int player = 0; player < 2; player++) {
+            window.putDouble(record + R_MONEY + player * 8, snapshot.getMoney(player));
+            window.putShort(record + R_POSITION + player * 2, (short) snapshot.getPosition(player));
+            byte[] name = snapshot.getName(player).getBytes(StandardCharsets.UTF_8);
+            window.put(record + R_NAME_LENGTHS + player, (byte) name.length);
+            window.put(record + R_NAMES + player * (NAME_BYTES + 1), name);
+        }
+        window.put(record + R_TURN, (byte) snapshot.getCurrentTurn());
+        window.put(record + R_ROLL, (byte) snapshot.getCurrentRoll());
+        for (int position = 0; position < snapshot.getTileCount(); position++) {
+            window.put(record + R_TILES + position, snapshot.getTile(position));
+        }
+    }
+
+    /**
+     * Read a record into a snapshot.
+     * @param window The record's window
+     * @param record The record's offset in the window
+     * @param snapshot Where the state is read
+     */
+    private void read(MappedByteBuffer window, int record, GameSnapshot snapshot) {
+        for (int player = 0; player < 2; player++) {
+            snapshot.setMoney(player, window.getDouble(record + R_MONEY + player * 8));
+            snapshot.setPosition(player, Short.toUnsignedInt(window.getShort(record + R_POSITION + player * 2)));
+            byte[] name = new byte[window.get(record + R_NAME_LENGTHS + player)];
+            window.get(record + R_NAMES + player * (NAME_BYTES + 1), name);
+            snapshot.setName(player, new String(name, StandardCharsets.UTF_8));
+        }
+        snapshot.setCurrentTurn(window.get(record + R_TURN));
+        snapshot.setCurrentRoll(Byte.toUnsignedInt(window.get(record + R_ROLL)));
+        snapshot.setTileCount(board.getTileCount());
+        for (int position = 0; position < board.getTileCount(); position++) {
+            snapshot.setTile(position, window.get(record + R_TILES + position));
+        }
+    }
+
+    /**
+     * Create games, play random turns on random games, and report the cost per game and per action.
+     * Usage: GameStore [file] [games] [actions]
+     */
+    public static void main(String[] args) throws IOException {
+        Path path = Path.of(args.length > 0 ? args[0] : "games.hgs");
+        int games = args.length > 1 ? Integer.parseInt(args[1]) : 1_000_000;
+        int actions = args.length > 2 ? Integer.parseInt(args[2]) : 1_000_000;
+        SplittableRandom random = new SplittableRandom(1);
+        try (GameStore store = new GameStore(path, BoardDefinition.standard(), games)) {
+            long start = System.nanoTime();
+            while (store.getAllocated() < games) {
+                store.create("one", "two", random.nextLong());
+            }
+            System.out.printf("created %,d games of %d bytes in %.1f s%n", games, store.getRecordBytes(),
+                    (System.nanoTime() - start) / 1e9);
+
+            start = System.nanoTime();
+            int[] turn = {GameAction.of(GameAction.ROLL, 0), GameAction.of(GameAction.BUY, 0),
+                    GameAction.of(GameAction.RATE, 1), GameAction.of(GameAction.END_TURN, 0)};
+            for (int action = 0; action < actions; action++) {
+                int id = random.nextInt(games);
+                store.update(id, model -> {
+                    for (int step : turn) {
+                        GameAction.apply(model, step);
+                    }
+                    return null;
+                });
+            }
+            double seconds = (System.nanoTime() - start) / 1e9;
+            System.out.printf("played %,d turns in %.1f s (%.2f us per turn), %d pooled models%n",
+                    actions, seconds, seconds * 1e6 / actions, store.getPoolSize());
+        }
+    }
+
+    /**
+     * A pooled model and the snapshot that moves state in and out of it.
+     */
+    private static class Hydrated {
+
+        /**
+         * The model.
+         */
+        private final GameModel model;
+
+        /**
+         * The snapshot.
+         */
+        private final GameSnapshot snapshot = new GameSnapshot();
+
+        /**
+         * Wrap a model.
+         * @param model The model
+         */
+        private Hydrated(GameModel model) {
+            this.model = model;
+        }
+    }
+}
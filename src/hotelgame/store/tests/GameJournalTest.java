@@ -0,0 +1,184 @@
+package hotelgame.store.tests;
+
+import hotelgame.model.BoardDefinition;
+import hotelgame.model.GameAction;
+import hotelgame.model.GameModel;
+import hotelgame.model.GameSnapshot;
+import hotelgame.store.GameJournal;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class GameJournalTest {
+
+    /**
+     * The actions of a turn.
+     */
+    private static final int[] TURN = {GameAction.of(GameAction.ROLL, 0), GameAction.of(GameAction.BUY, 0),
+            GameAction.of(GameAction.RATE, 1), GameAction.of(GameAction.END_TURN, 0)};
+
+    /**
+     * Play actions on a model, cycling through the actions of a turn.
+     */
+    private static void play(GameModel model, int actions) {
+        for (int action = 0; action < actions && !model.isGameOver(); action++) {
+            GameAction.apply(model, TURN[action % TURN.length]);
+        }
+    }
+
+    /**
+     * Capture the state of a model.
+     */
+    private static GameSnapshot capture(GameModel model) {
+        GameSnapshot snapshot = new GameSnapshot();
+        snapshot.capture(model);
+        return snapshot;
+    }
+
+    /**
+     * Save three games in a journal, play some actions on each and end the third
+     * Reopen the journal
+     * Assert the first two games load with their last state and the third is gone
+     */
+    @Test
+    void testLoadAfterRestart(@TempDir Path dir) throws IOException {
+        BoardDefinition board = BoardDefinition.standard();
+        GameSnapshot[] expected = new GameSnapshot[2];
+        try (GameJournal journal = new GameJournal(dir, board, 1 << 20)) {
+            for (int game = 0; game < 3; game++) {
+                GameModel model = new GameModel(board);
+                model.reset();
+                journal.attach(game, model);
+                model.createPlayers("one", "two " + game);
+                play(model, 10 + game * 7);
+                if (game < 2) {
+                    expected[game] = capture(model);
+                }
+            }
+            journal.end(2);
+        }
+
+        try (GameJournal journal = new GameJournal(dir, board, 1 << 20)) {
+            assertEquals(Set.of(0L, 1L), journal.getSavedGames());
+            for (int game = 0; game < 2; game++) {
+                GameModel model = new GameModel(board);
+                assertTrue(journal.load(game, model));
+                assertEquals(expected[game], capture(model));
+            }
+            assertFalse(journal.load(2, new GameModel(board)));
+        }
+    }
+
+    /**
+     * Save a game, capturing the state after every change
+     * Cut the last record short, as a crash during a write would
+     * Assert the game loads with the state before the last change
+     */
+    @Test
+    void testTornRecordIsIgnored(@TempDir Path dir) throws IOException {
+        BoardDefinition board = BoardDefinition.standard();
+        List<GameSnapshot> states = new ArrayList<>();
+        try (GameJournal journal = new GameJournal(dir, board, 1 << 20)) {
+            GameModel model = new GameModel(board);
+            model.reset();
+            journal.attach(0, model);
+            model.addObserver((observable, arg) -> states.add(capture(model)));
+            model.createPlayers("one", "two");
+            play(model, 9);
+        }
+        GameSnapshot beforeLast = states.get(states.size() - 2);
+        assertNotEquals(beforeLast, states.get(states.size() - 1));
+
+        List<Path> segments = Files.list(dir).collect(Collectors.toList());
+        assertEquals(1, segments.size());
+        try (FileChannel channel = FileChannel.open(segments.get(0), StandardOpenOption.WRITE)) {
+            channel.truncate(channel.size() - 2);
+        }
+
+        try (GameJournal journal = new GameJournal(dir, board, 1 << 20)) {
+            GameModel model = new GameModel(board);
+            assertTrue(journal.load(0, model));
+            assertEquals(beforeLast, capture(model));
+        }
+    }
+
+    /**
+     * Play games on eight threads sharing a journal that compacts every 4 KB
+     * Assert changes were synced in groups, compaction ran and kept a single segment
+     * Reopen the journal and assert every game loads with its final state
+     */
+    @Test
+    void testConcurrentGamesAndCompaction(@TempDir Path dir) throws Exception {
+        BoardDefinition board = BoardDefinition.standard();
+        int threads = 8;
+        GameSnapshot[] expected = new GameSnapshot[threads];
+        try (GameJournal journal = new GameJournal(dir, board, 4096)) {
+            Thread[] workers = new Thread[threads];
+            for (int thread = 0; thread < threads; thread++) {
+                int game = thread;
+                workers[thread] = new Thread(() -> {
+                    GameModel model = new GameModel(board);
+                    model.reset();
+                    journal.attach(game, model);
+                    model.createPlayers("one", "two");
+                    play(model, 400);
+                    expected[game] = capture(model);
+                });
+                workers[thread].start();
+            }
+            for (Thread worker : workers) {
+                worker.join();
+            }
+            assertTrue(journal.getSyncs() <= journal.getRecords());
+            assertTrue(journal.getCompactions() > 1);
+        }
+        assertEquals(1, Files.list(dir).count());
+
+        try (GameJournal journal = new GameJournal(dir, board, 4096)) {
+            for (int game = 0; game < threads; game++) {
+                GameModel model = new GameModel(board);
+                assertTrue(journal.load(game, model));
+                assertEquals(expected[game], capture(model));
+            }
+        }
+    }
+
+    /**
+     * Save a game in a journal that compacts before every record, ending after each of 40 actions in turn
+     * Reopen the journal each time
+     * Assert the game loads with its last state, money included, however the last action changed it
+     */
+    @Test
+    void testCompactionMidGame(@TempDir Path dir) throws IOException {
+        BoardDefinition board = BoardDefinition.standard();
+        for (int actions = 1; actions <= 40; actions++) {
+            Path games = dir.resolve("game-" + actions);
+            GameSnapshot expected;
+            try (GameJournal journal = new GameJournal(games, board, 1)) {
+                GameModel model = new GameModel(board);
+                model.reset();
+                journal.attach(0, model);
+                model.createPlayers("one", "two");
+                play(model, actions);
+                expected = capture(model);
+                assertTrue(journal.getCompactions() > 1);
+            }
+            try (GameJournal journal = new GameJournal(games, board, 1)) {
+                GameModel model = new GameModel(board);
+                assertTrue(journal.load(0, model));
+                assertEquals(expected, capture(model), "after " + actions + " actions");
+            }
+        }
+    }
+}
@@ -0,0 +1,138 @@
+package hotelgame.store.tests;
+
+import hotelgame.model.BoardDefinition;
+import hotelgame.model.GameAction;
+import hotelgame.model.GameSnapshot;
+import hotelgame.store.GameStore;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class GameStoreTest {
+
+    /**
+     * Create 100 games in a store and play a few turns on each, capturing the state after every turn
+     * Close and reopen the store
+     * Assert every game loads with the state captured after its last turn
+     * Assert a record costs at most a few hundred bytes
+     */
+    @Test
+    void testStatePersists(@TempDir Path dir) throws IOException {
+        Path path = dir.resolve("games.hgs");
+        BoardDefinition board = BoardDefinition.standard();
+        GameSnapshot[] expected = new GameSnapshot[100];
+        try (GameStore store = new GameStore(path, board, 1000)) {
+            assertTrue(store.getRecordBytes() <= 256);
+            for (int game = 0; game < 100; game++) {
+                assertEquals(game, store.create("one", "player " + game, game));
+            }
+            for (int turn = 0; turn < 10; turn++) {
+                for (int game = 0; game < 100; game++) {
+                    GameSnapshot snapshot = new GameSnapshot();
+                    store.update(game, model -> {
+                        GameAction.apply(model, GameAction.of(GameAction.ROLL, 0));
+                        GameAction.apply(model, GameAction.of(GameAction.BUY, 0));
+                        GameAction.apply(model, GameAction.of(GameAction.END_TURN, 0));
+                        snapshot.capture(model);
+                        return null;
+                    });
+                    expected[game] = snapshot;
+                }
+            }
+            assertEquals(1, store.getPoolSize());
+        }
+
+        try (GameStore store = new GameStore(path, board, 1000)) {
+            assertEquals(100, store.getAllocated());
+            GameSnapshot loaded = new GameSnapshot();
+            for (int game = 0; game < 100; game++) {
+                store.load(game, loaded);
+                assertEquals(expected[game], loaded);
+                assertEquals("player " + game, loaded.getName(1));
+            }
+        }
+    }
+
+    /**
+     * Create two stores with the same seeded games
+     * Play the same actions on the first game of each, interleaved with other games in one store
+     * Assert both games end in the same state
+     */
+    @Test
+    void testDiceDependOnlyOnTheGame(@TempDir Path dir) throws IOException {
+        BoardDefinition board = BoardDefinition.standard();
+        int roll = GameAction.of(GameAction.ROLL, 0);
+        int end = GameAction.of(GameAction.END_TURN, 0);
+        try (GameStore a = new GameStore(dir.resolve("a.hgs"), board, 10);
+             GameStore b = new GameStore(dir.resolve("b.hgs"), board, 10)) {
+            a.create("one", "two", 42);
+            b.create("one", "two", 42);
+            b.create("three", "four", 7);
+            for (int turn = 0; turn < 20; turn++) {
+                a.act(0, roll);
+                a.act(0, end);
+                b.act(1, roll);
+                b.act(0, roll);
+                b.act(1, end);
+                b.act(0, end);
+            }
+            GameSnapshot first = new GameSnapshot();
+            GameSnapshot second = new GameSnapshot();
+            a.load(0, first);
+            b.load(0, second);
+            assertEquals(first, second);
+        }
+    }
+
+    /**
+     * Create three games and delete the second
+     * Assert the deleted game is gone and its record is reused by the next game
+     * Assert names too long for a record and unknown games are rejected
+     */
+    @Test
+    void testDeleteAndErrors(@TempDir Path dir) throws IOException {
+        try (GameStore store = new GameStore(dir.resolve("games.hgs"), BoardDefinition.standard(), 3)) {
+            store.create("a", "b", 1);
+            store.create("c", "d", 2);
+            store.create("e", "f", 3);
+            assertThrows(IllegalStateException.class, () -> store.create("g", "h", 4));
+
+            store.delete(1);
+            assertFalse(store.exists(1));
+            assertThrows(IllegalArgumentException.class, () -> store.act(1, GameAction.of(GameAction.ROLL, 0)));
+            assertEquals(1, store.create("g", "h", 4));
+            assertTrue(store.exists(1));
+
+            assertThrows(IllegalArgumentException.class, () -> store.load(3, new GameSnapshot()));
+            assertThrows(IllegalArgumentException.class, () -> store.create("a name much too long for a record", "b", 5));
+        }
+    }
+
+    /**
+     * Store a game on a board of 65535 tiles and move a player to the last tile
+     * Assert the position reads back past the range of a signed short
+     * Assert a board with more tiles than a stored position holds is rejected
+     */
+    @Test
+    void testLargeBoardPositions(@TempDir Path dir) throws IOException {
+        BoardDefinition board = BoardDefinition.generate(13107);
+        assertEquals(65535, board.getTileCount());
+        try (GameStore store = new GameStore(dir.resolve("games.hgs"), board, 1)) {
+            int id = store.create("a", "b", 1);
+            store.update(id, model -> {
+                model.movePlayer(65534);
+                return null;
+            });
+            GameSnapshot snapshot = new GameSnapshot();
+            store.load(id, snapshot);
+            assertEquals(65534, snapshot.getPosition(0) + snapshot.getPosition(1));
+        }
+
+        assertThrows(IllegalArgumentException.class,
+                () -> new GameStore(dir.resolve("larger.hgs"), BoardDefinition.generate(13108), 1));
+    }
+}
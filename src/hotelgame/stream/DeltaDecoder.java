@@ -0,0 +1,169 @@
+package hotelgame.stream;
+
+import hotelgame.model.GameModel;
+import hotelgame.model.GameSnapshot;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Applies frames written by a DeltaEncoder to a local replica of a GameModel.
+ * Delta frames received before the first keyframe are skipped.
+ */
+public class DeltaDecoder {
+
+    /**
+     * The replicated state.
+     */
+    private final GameSnapshot state = new GameSnapshot();
+
+    /**
+     * Whether a keyframe has been received yet.
+     */
+    private boolean synced;
+
+    /**
+     * Apply a frame to a replica.
+     * @param frame The frame, from its position to its limit
+     * @param replica The model to update
+     * @return True if the replica was updated, false if the frame was skipped while waiting for a keyframe
+     */
+    public boolean apply(ByteBuffer frame, GameModel replica) {
+        if (!read(frame)) {
+            return false;
+        }
+        replica.restore(state);
+        return true;
+    }
+
+    /**
+     * Read a frame into the replicated state without touching a model.
+     * @param frame The frame, from its position to its limit
+     * @return True if the state was updated, false if the frame was skipped while waiting for a keyframe
+     */
+    public boolean read(ByteBuffer frame) {
+        int header = frame.get() & 0xFF;
+        if ((header & DeltaEncoder.KEYFRAME) != 0) {
+            readKeyframe(frame);
+            synced = true;
+        } else if (synced) {
+            readDelta(header, frame);
+        } else {
+            frame.position(frame.limit());
+            return false;
+        }
+        state.setCurrentTurn((header & DeltaEncoder.PLAYER_TWO_TURN) != 0 ? GameSnapshot.PLAYER_TWO : GameSnapshot.PLAYER_ONE);
+        return true;
+    }
+
+    /**
+     * Get the replicated state.
+     * @return The state as of the last applied frame
+     */
+    public GameSnapshot getState() {
+        return state;
+    }
+
+    /**
+     * Has a keyframe been received yet?
+     * @return True once the decoder holds a complete state
+     */
+    public boolean isSynced() {
+        return synced;
+    }
+
+    /**
+     * Read the whole state from a keyframe.
+     * @param frame The frame positioned after the header
+     */
+    private void readKeyframe(ByteBuffer frame) {
+        state.setName(0, readString(frame));
+        state.setName(1, readString(frame));
+        state.setCurrentRoll(readVarInt(frame));
+        for (int player = 0; player < 2; player++) {
+            state.setPosition(player, readVarInt(frame));
+        }
+        for (int player = 0; player < 2; player++) {
+            state.setMoney(player, frame.getDouble());
+        }
+        int tileCount = readVarInt(frame);
+        state.setTileCount(tileCount);
+        for (int position = 0; position < tileCount; position++) {
+            state.setTile(position, frame.get());
+        }
+    }
+
+    /**
+     * Read the changed fields from a delta frame.
+     * @param header The frame header
+     * @param frame The frame positioned after the header
+     */
+    private void readDelta(int header, ByteBuffer frame) {
+        if ((header & DeltaEncoder.POSITION_ONE) != 0) {
+            state.setPosition(0, readVarInt(frame));
+        }
+        if ((header & DeltaEncoder.POSITION_TWO) != 0) {
+            state.setPosition(1, readVarInt(frame));
+        }
+        if ((header & DeltaEncoder.MONEY_ONE) != 0) {
+            state.setMoney(0, readMoney(frame, state.getMoney(0)));
+        }
+        if ((header & DeltaEncoder.MONEY_TWO) != 0) {
+            state.setMoney(1, readMoney(frame, state.getMoney(1)));
+        }
+        if ((header & DeltaEncoder.ROLL) != 0) {
+            state.setCurrentRoll(readVarInt(frame));
+        }
+        if ((header & DeltaEncoder.TILES) != 0) {
+            int changedTiles = readVarInt(frame);
+            for (int i = 0; i < changedTiles; i++) {
+                int position = readVarInt(frame);
+                state.setTile(position, frame.get());
+            }
+        }
+    }
+
+    /**
+     * Read a change of money written by DeltaEncoder.
+     * @param frame The frame to read from
+     * @param oldMoney The previous amount of money
+     * @return The new amount of money
+     */
+    private static double readMoney(ByteBuffer frame, double oldMoney) {
+        int value = readVarInt(frame);
+        if ((value & 1) != 0) {
+            return frame.getDouble();
+        }
+        int zigzag = value >>> 1;
+        int halfUnits = (zigzag >>> 1) ^ -(zigzag & 1);
+        return oldMoney + halfUnits / 2.0;
+    }
+
+    /**
+     * Read a length-prefixed UTF-8 string.
+     * @param frame The frame to read from
+     * @return The string
+     */
+    private static String readString(ByteBuffer frame) {
+        byte[] bytes = new byte[readVarInt(frame)];
+        frame.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Read an unsigned varint.
+     * @param frame The frame to read from
+     * @return The value
+     */
+    static int readVarInt(ByteBuffer frame) {
+        int value = 0;
+        int shift = 0;
+        int b;
+        do {
+            b = frame.get();
+            value |= (b & 0x7F) << shift;
+            shift += 7;
+        } while ((b & 0x80) != 0);
+        return value;
+    }
+}
@@ -0,0 +1,280 @@
+package hotelgame.stream;
+
+import hotelgame.model.GameModel;
+import hotelgame.model.GameSnapshot;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Encodes the changes of a GameModel as compact binary frames for remote spectators.
+ * Each call to encode() writes one frame holding only what changed since the previous frame.
+ * A keyframe holding the whole state is written first and then every keyframeInterval frames,
+ * so that spectators joining late can start from the next keyframe.
+ *
+ * Frame layout (all integers are unsigned varints unless noted):
+ *  keyframe: header, name one, name two, roll, position x2, money x2 (8 bytes each), tile count, packed tiles
+ *  delta:    header, [position one], [position two], [money delta one], [money delta two], [roll],
+ *            [changed tile count, (tile index, packed tile)...]
+ * The header bits say which optional fields are present and whose turn it is.
+ */
+public class DeltaEncoder {
+
+    /**
+     * Header bit set on keyframes.
+     */
+    public static final int KEYFRAME = 0x80;
+
+    /**
+     * Header bit set when it is player two's turn.
+     */
+    public static final int PLAYER_TWO_TURN = 0x40;
+
+    /**
+     * Header bit set when player one's position changed.
+     */
+    public static final int POSITION_ONE = 0x01;
+
+    /**
+     * Header bit set when player two's position changed.
+     */
+    public static final int POSITION_TWO = 0x02;
+
+    /**
+     * Header bit set when player one's money changed.
+     */
+    public static final int MONEY_ONE = 0x04;
+
+    /**
+     * Header bit set when player two's money changed.
+     */
+    public static final int MONEY_TWO = 0x08;
+
+    /**
+     * Header bit set when the dice roll changed.
+     */
+    public static final int ROLL = 0x10;
+
+    /**
+     * Header bit set when any tile changed.
+     */
+    public static final int TILES = 0x20;
+
+    /**
+     * The number of frames between keyframes.
+     */
+    private final int keyframeInterval;
+
+    /**
+     * The state sent in the previous frame.
+     */
+    private final GameSnapshot previous = new GameSnapshot();
+
+    /**
+     * The state being sent in the current frame.
+     */
+    private final GameSnapshot current = new GameSnapshot();
+
+    /**
+     * The number of frames since the last keyframe, or -1 if a keyframe must be sent next.
+     */
+    private int framesSinceKeyframe = -1;
+
+    /**
+     * Create an encoder.
+     * Pre: keyframeInterval > 0
+     * @param keyframeInterval The number of frames between keyframes
+     */
+    public DeltaEncoder(int keyframeInterval) {
+        assert keyframeInterval > 0;
+        this.keyframeInterval = keyframeInterval;
+    }
+
+    /**
+     * Get an upper bound on the length of a frame for a model.
+     * Pre: the model has players
+     * @param model The model
+     * @return The number of bytes
+     */
+    public static int maxFrameSize(GameModel model) {
+        int names = model.getPlayerOne().getName().length() + model.getPlayerTwo().getName().length();
+        return 64 + 3 * names + 6 * model.getTiles().length;
+    }
+
+    /**
+     * Make the next frame a keyframe, for example when a new spectator joins.
+     */
+    public void requestKeyframe() {
+        framesSinceKeyframe = -1;
+    }
+
+    /**
+     * Encode the changes of the model since the previous frame.
+     * Pre: out has room for a keyframe if one is due
+     * @param model The model to encode
+     * @param out The buffer to write the frame to
+     * @return The length of the frame in bytes
+     */
+    public int encode(GameModel model, ByteBuffer out) {
+        int start = out.position();
+        current.capture(model);
+
+        boolean keyframe = framesSinceKeyframe < 0
+                || framesSinceKeyframe + 1 >= keyframeInterval
+                || current.getTileCount() != previous.getTileCount()
+                || !current.getName(0).equals(previous.getName(0))
+                || !current.getName(1).equals(previous.getName(1));
+
+        if (keyframe) {
+            writeKeyframe(out);
+            framesSinceKeyframe = 0;
+        } else {
+            writeDelta(out);
+            framesSinceKeyframe++;
+        }
+
+        previous.copyFrom(current);
+        return out.position() - start;
+    }
+
+    /**
+     * Write the whole current state.
+     * @param out The buffer to write to
+     */
+    private void writeKeyframe(ByteBuffer out) {
+        out.put((byte) (KEYFRAME | turnBit()));
+        writeString(out, current.getName(0));
+        writeString(out, current.getName(1));
+        writeVarInt(out, current.getCurrentRoll());
+        for (int player = 0; player < 2; player++) {
+            writeVarInt(out, current.getPosition(player));
+        }
+        for (int player = 0; player < 2; player++) {
+            out.putDouble(current.getMoney(player));
+        }
+        writeVarInt(out, current.getTileCount());
+        for (int position = 0; position < current.getTileCount(); position++) {
+            out.put(current.getTile(position));
+        }
+    }
+
+    /**
+     * Write the fields that differ from the previous state.
+     * @param out The buffer to write to
+     */
+    private void writeDelta(ByteBuffer out) {
+        int changedTiles = 0;
+        for (int position = 0; position < current.getTileCount(); position++) {
+            if (current.getTile(position) != previous.getTile(position)) {
+                changedTiles++;
+            }
+        }
+
+        int header = turnBit();
+        if (current.getPosition(0) != previous.getPosition(0)) {
+            header |= POSITION_ONE;
+        }
+        if (current.getPosition(1) != previous.getPosition(1)) {
+            header |= POSITION_TWO;
+        }
+        if (current.getMoney(0) != previous.getMoney(0)) {
+            header |= MONEY_ONE;
+        }
+        if (current.getMoney(1) != previous.getMoney(1)) {
+            header |= MONEY_TWO;
+        }
+        if (current.getCurrentRoll() != previous.getCurrentRoll()) {
+            header |= ROLL;
+        }
+        if (changedTiles > 0) {
+            header |= TILES;
+        }
+        out.put((byte) header);
+
+        if ((header & POSITION_ONE) != 0) {
+            writeVarInt(out, current.getPosition(0));
+        }
+        if ((header & POSITION_TWO) != 0) {
+            writeVarInt(out, current.getPosition(1));
+        }
+        if ((header & MONEY_ONE) != 0) {
+            writeMoney(out, previous.getMoney(0), current.getMoney(0));
+        }
+        if ((header & MONEY_TWO) != 0) {
+            writeMoney(out, previous.getMoney(1), current.getMoney(1));
+        }
+        if ((header & ROLL) != 0) {
+            writeVarInt(out, current.getCurrentRoll());
+        }
+        if (changedTiles > 0) {
+            writeVarInt(out, changedTiles);
+            for (int position = 0; position < current.getTileCount(); position++) {
+                if (current.getTile(position) != previous.getTile(position)) {
+                    writeVarInt(out, position);
+                    out.put(current.getTile(position));
+                }
+            }
+        }
+    }
+
+    /**
+     * Get the header bit for the current turn.
+     * @return PLAYER_TWO_TURN if it is player two's turn, else 0
+     */
+    private int turnBit() {
+        return current.getCurrentTurn() == GameSnapshot.PLAYER_TWO ? PLAYER_TWO_TURN : 0;
+    }
+
+    /**
+     * Write a change of money.
+     * Money only ever changes by multiples of 0.5, so the delta is normally sent as a zigzag varint
+     * of half units with the lowest bit clear. If applying that delta would not reproduce the new value
+     * exactly, the lowest bit is set and the raw value follows instead.
+     * @param out The buffer to write to
+     * @param oldMoney The previous amount of money
+     * @param newMoney The new amount of money
+     */
+    private static void writeMoney(ByteBuffer out, double oldMoney, double newMoney) {
+        double halfUnits = (newMoney - oldMoney) * 2;
+        long rounded = Math.round(halfUnits);
+        if (rounded == halfUnits && Math.abs(rounded) < (1 << 28) && oldMoney + rounded / 2.0 == newMoney) {
+            writeVarInt(out, zigzag((int) rounded) << 1);
+        } else {
+            out.put((byte) 1);
+            out.putDouble(newMoney);
+        }
+    }
+
+    /**
+     * Write a length-prefixed UTF-8 string.
+     * @param out The buffer to write to
+     * @param value The string to write
+     */
+    private static void writeString(ByteBuffer out, String value) {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        writeVarInt(out, bytes.length);
+        out.put(bytes);
+    }
+
+    /**
+     * Zigzag encode a signed value so small negative numbers stay small.
+     * @param value The signed value
+     * @return The zigzag encoded value
+     */
+    static int zigzag(int value) {
+        return (value << 1) ^ (value >> 31);
+    }
+
+    /**
+     * Write an unsigned varint (7 bits per byte, high bit set on all but the last byte).
+     * @param out The buffer to write to
+     * @param value The value to write
+     */
+    static void writeVarInt(ByteBuffer out, int value) {
+        while ((value & ~0x7F) != 0) {
+            out.put((byte) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        out.put((byte) value);
+    }
+}
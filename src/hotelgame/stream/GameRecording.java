@@ -0,0 +1,285 @@
+package hotelgame.stream;
+
+import hotelgame.model.GameModel;
+import hotelgame.model.GameSnapshot;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.Observable;
+import java.util.Observer;
+
+/**
+ * A recorded game, held as the frames of a DeltaEncoder: a keyframe at the first event of every Nth turn,
+ * with deltas between them.
+ * An event is one call to record(), or one notification when the recording observes a model; a turn may have
+ * many events, one per action when a game is played through the GUI. Keyframes are indexed by turn so
+ * their number, and the size of the recording, follow the length of the game rather than how it was played.
+ * Any event can be rebuilt from the nearest keyframe at or before it plus the deltas of at most N turns,
+ * see ReplayCursor.
+ */
+public class GameRecording implements Observer {
+
+    /**
+     * The encoder writing the frames.
+     */
+    private final DeltaEncoder encoder;
+
+    /**
+     * The number of turns between keyframes.
+     */
+    private final int keyframeInterval;
+
+    /**
+     * The encoded frames, back to back.
+     */
+    private byte[] data = new byte[4096];
+
+    /**
+     * The number of bytes of data in use.
+     */
+    private int size;
+
+    /**
+     * The start of every frame in data, with the end of the last frame after them.
+     */
+    private int[] offsets = new int[257];
+
+    /**
+     * The number of recorded events.
+     */
+    private int eventCount;
+
+    /**
+     * The events that are keyframes, in increasing order.
+     */
+    private int[] keyframes = new int[16];
+
+    /**
+     * The number of keyframes.
+     */
+    private int keyframeCount;
+
+    /**
+     * The first event of every turn, in increasing order.
+     */
+    private int[] turnStarts = new int[64];
+
+    /**
+     * The number of turns.
+     */
+    private int turnCount;
+
+    /**
+     * The buffer each frame is encoded into before it is appended.
+     */
+    private ByteBuffer frame = ByteBuffer.allocate(1024);
+
+    /**
+     * Create an empty recording.
+     * Pre: keyframeInterval > 0
+     * @param keyframeInterval The number of turns between keyframes
+     */
+    public GameRecording(int keyframeInterval) {
+        assert keyframeInterval > 0;
+        this.keyframeInterval = keyframeInterval;
+        // keyframes are requested at turn starts, so the encoder never adds its own
+        this.encoder = new DeltaEncoder(Integer.MAX_VALUE);
+    }
+
+    /**
+     * Record the current state of a model as the next event.
+     * Pre: the model has players
+     * @param model The model to record
+     */
+    public void record(GameModel model) {
+        int bound = DeltaEncoder.maxFrameSize(model);
+        if (frame.capacity() < bound) {
+            frame = ByteBuffer.allocate(bound);
+        }
+        frame.clear();
+        if (startsTurn(model.getCurrentTurn() == model.getPlayerTwo()) && turnCount % keyframeInterval == 0) {
+            encoder.requestKeyframe();
+        }
+        int length = encoder.encode(model, frame);
+
+        if (size + length > data.length) {
+            data = Arrays.copyOf(data, Math.max(data.length * 2, size + length));
+        }
+        System.arraycopy(frame.array(), 0, data, size, length);
+        append(frame.array()[0], length);
+    }
+
+    /**
+     * Record an event whenever the observed model notifies its observers.
+     * Notifications before the players are created are ignored.
+     */
+    @Override
+    public void update(Observable observable, Object arg) {
+        GameModel model = (GameModel) observable;
+        if (model.getPlayerOne() != null && model.getTiles() != null) {
+            record(model);
+        }
+    }
+
+    /**
+     * Get the number of recorded events.
+     * @return The event count
+     */
+    public int getEventCount() {
+        return eventCount;
+    }
+
+    /**
+     * Get the number of recorded turns, counting a new turn whenever the current player changes.
+     * @return The turn count
+     */
+    public int getTurnCount() {
+        return turnCount;
+    }
+
+    /**
+     * Get the first event of a turn.
+     * Pre: 0 <= turn < getTurnCount()
+     * @param turn The turn
+     * @return The event index
+     */
+    public int getTurnStart(int turn) {
+        assert turn >= 0 && turn < turnCount;
+        return turnStarts[turn];
+    }
+
+    /**
+     * Get the turn an event belongs to.
+     * Pre: 0 <= event < getEventCount()
+     * @param event The event index
+     * @return The turn
+     */
+    public int getTurnOf(int event) {
+        assert event >= 0 && event < eventCount;
+        int found = Arrays.binarySearch(turnStarts, 0, turnCount, event);
+        return found >= 0 ? found : -found - 2;
+    }
+
+    /**
+     * Get the number of turns between keyframes.
+     * @return The keyframe interval
+     */
+    public int getKeyframeInterval() {
+        return keyframeInterval;
+    }
+
+    /**
+     * Get the number of keyframes.
+     * @return The keyframe count
+     */
+    public int getKeyframeCount() {
+        return keyframeCount;
+    }
+
+    /**
+     * Get the size of the encoded frames.
+     * @return The number of bytes
+     */
+    public int getByteSize() {
+        return size;
+    }
+
+    /**
+     * Write this recording.
+     * @param out The output to write to
+     * @throws IOException If the output fails
+     */
+    public void write(DataOutput out) throws IOException {
+        out.writeInt(keyframeInterval);
+        out.writeInt(eventCount);
+        for (int event = 0; event < eventCount; event++) {
+            out.writeInt(offsets[event + 1] - offsets[event]);
+        }
+        out.write(data, 0, size);
+    }
+
+    /**
+     * Read a recording written by write().
+     * @param in The input to read from
+     * @return The recording
+     * @throws IOException If the input fails
+     */
+    public static GameRecording read(DataInput in) throws IOException {
+        GameRecording recording = new GameRecording(in.readInt());
+        int events = in.readInt();
+        int[] lengths = new int[events];
+        int total = 0;
+        for (int event = 0; event < events; event++) {
+            lengths[event] = in.readInt();
+            total += lengths[event];
+        }
+        recording.data = new byte[Math.max(total, 16)];
+        in.readFully(recording.data, 0, total);
+        for (int event = 0; event < events; event++) {
+            recording.append(recording.data[recording.size], lengths[event]);
+        }
+        return recording;
+    }
+
+    /**
+     * Get the nearest keyframe at or before an event.
+     * Pre: 0 <= event < getEventCount()
+     * @param event The event index
+     * @return The event index of the keyframe
+     */
+    int keyframeBefore(int event) {
+        assert event >= 0 && event < eventCount;
+        int found = Arrays.binarySearch(keyframes, 0, keyframeCount, event);
+        return keyframes[found >= 0 ? found : -found - 2];
+    }
+
+    /**
+     * Get the frame of an event.
+     * @param event The event index
+     * @return A read-only view of the frame
+     */
+    ByteBuffer frame(int event) {
+        return ByteBuffer.wrap(data, offsets[event], offsets[event + 1] - offsets[event]).asReadOnlyBuffer();
+    }
+
+    /**
+     * Does the next event start a turn?
+     * @param playerTwoTurn Whether it is player two's turn at the next event
+     * @return True if it is the first event or the current player has changed
+     */
+    private boolean startsTurn(boolean playerTwoTurn) {
+        return eventCount == 0 || playerTwoTurn != ((data[offsets[eventCount - 1]] & DeltaEncoder.PLAYER_TWO_TURN) != 0);
+    }
+
+    /**
+     * Index a frame already copied to the end of the data.
+     * @param header The frame header
+     * @param length The frame length
+     */
+    private void append(byte header, int length) {
+        if (eventCount + 2 > offsets.length) {
+            offsets = Arrays.copyOf(offsets, offsets.length * 2);
+        }
+        if ((header & DeltaEncoder.KEYFRAME) != 0) {
+            if (keyframeCount == keyframes.length) {
+                keyframes = Arrays.copyOf(keyframes, keyframes.length * 2);
+            }
+            keyframes[keyframeCount++] = eventCount;
+        }
+
+        if (startsTurn((header & DeltaEncoder.PLAYER_TWO_TURN) != 0)) {
+            if (turnCount == turnStarts.length) {
+                turnStarts = Arrays.copyOf(turnStarts, turnStarts.length * 2);
+            }
+            turnStarts[turnCount++] = eventCount;
+        }
+
+        offsets[eventCount] = size;
+        size += length;
+        offsets[eventCount + 1] = size;
+        eventCount++;
+    }
+}
@@ -0,0 +1,102 @@
+package hotelgame.stream;
+
+import hotelgame.model.GameSnapshot;
+
+/**
+ * A position in a GameRecording that can be moved to any event.
+ * Moving forward within the same keyframe interval applies only the deltas in between;
+ * any other move decodes the nearest keyframe and then the deltas of at most keyframeInterval turns.
+ */
+public class ReplayCursor {
+
+    /**
+     * The recording being replayed.
+     */
+    private final GameRecording recording;
+
+    /**
+     * Decodes the frames into the current state.
+     */
+    private final DeltaDecoder decoder = new DeltaDecoder();
+
+    /**
+     * The event the state is at, or -1 before the first seek.
+     */
+    private int event = -1;
+
+    /**
+     * The number of frames decoded by the last seek.
+     */
+    private int framesDecoded;
+
+    /**
+     * Create a cursor before the start of a recording.
+     * @param recording The recording to replay
+     */
+    public ReplayCursor(GameRecording recording) {
+        this.recording = recording;
+    }
+
+    /**
+     * Move to an event.
+     * Pre: 0 <= target < recording.getEventCount()
+     * @param target The event index
+     * @return The state after the event, which is overwritten by the next seek
+     */
+    public GameSnapshot seek(int target) {
+        assert target >= 0 && target < recording.getEventCount();
+        int keyframe = recording.keyframeBefore(target);
+        int from = event >= keyframe && event <= target ? event + 1 : keyframe;
+
+        framesDecoded = 0;
+        for (int next = from; next <= target; next++) {
+            decoder.read(recording.frame(next));
+            framesDecoded++;
+        }
+        event = target;
+        assert decoder.isSynced();
+        return decoder.getState();
+    }
+
+    /**
+     * Move to the first event of a turn.
+     * Pre: 0 <= turn < recording.getTurnCount()
+     * @param turn The turn
+     * @return The state at the start of the turn, which is overwritten by the next seek
+     */
+    public GameSnapshot seekTurn(int turn) {
+        return seek(recording.getTurnStart(turn));
+    }
+
+    /**
+     * Get the event the cursor is at.
+     * @return The event index, or -1 before the first seek
+     */
+    public int getEvent() {
+        return event;
+    }
+
+    /**
+     * Get the state the cursor is at.
+     * @return The state after the current event
+     */
+    public GameSnapshot getState() {
+        return decoder.getState();
+    }
+
+    /**
+     * Get the number of frames decoded by the last seek, for checking the cost of seeking.
+     * @return The frame count
+     */
+    public int getFramesDecoded() {
+        return framesDecoded;
+    }
+
+    /**
+     * Get the recording being replayed.
+     * @return The recording
+     */
+    public GameRecording getRecording() {
+        return recording;
+    }
+}
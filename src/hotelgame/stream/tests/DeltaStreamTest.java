@@ -0,0 +1,109 @@
+package hotelgame.stream.tests;
+
+import hotelgame.model.GameModel;
+import hotelgame.model.GameSnapshot;
+import hotelgame.stream.DeltaDecoder;
+import hotelgame.stream.DeltaEncoder;
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DeltaStreamTest {
+
+    /**
+     * Play a turn on the model: move, buy or pay, then end the turn.
+     */
+    private static void playTurn(GameModel model, int roll) {
+        model.movePlayer(roll);
+        if (model.getCurrentPlayerPositionHotel() != null) {
+            if (model.getCurrentPlayerPositionHotel().getOwner() == null) {
+                if (model.getCurrentPlayerPositionHotel().canAffordPurchase(model.getCurrentTurn())) {
+                    model.buyHotel();
+                    model.increaseStarRating();
+                }
+            } else if (model.getCurrentPlayerPositionHotel().getOwner() == model.getOpposingTurn()) {
+                model.payOvernightFee();
+            }
+        }
+        model.nextTurn();
+    }
+
+    /**
+     * Encode a game turn by turn
+     * Apply every frame to a replica
+     * Assert the replica matches the source after every turn
+     * Assert the delta frames stay small
+     */
+    @Test
+    void testReplicaFollowsSource() {
+        GameModel source = new GameModel();
+        source.reset();
+        source.createPlayers("one", "two");
+        GameModel replica = new GameModel();
+
+        DeltaEncoder encoder = new DeltaEncoder(50);
+        DeltaDecoder decoder = new DeltaDecoder();
+        ByteBuffer frame = ByteBuffer.allocate(1024);
+        GameSnapshot expected = new GameSnapshot();
+        GameSnapshot actual = new GameSnapshot();
+
+        int[] rolls = {1, 3, 2, 7, 12, 5, 9, 4, 11, 6, 8, 10, 3, 1, 2};
+        for (int turn = 0; turn < 200 && !source.isGameOver(); turn++) {
+            playTurn(source, rolls[turn % rolls.length]);
+
+            frame.clear();
+            int length = encoder.encode(source, frame);
+            frame.flip();
+            assertTrue(decoder.apply(frame, replica));
+            if (turn % 50 != 0) {
+                assertTrue(length < 16, "delta frame of " + length + " bytes");
+            }
+
+            expected.capture(source);
+            actual.capture(replica);
+            assertEquals(expected, actual);
+        }
+    }
+
+    /**
+     * Start decoding in the middle of a stream
+     * Assert delta frames are skipped until the next keyframe
+     * Assert the replica matches the source after the keyframe
+     */
+    @Test
+    void testLateJoinerWaitsForKeyframe() {
+        GameModel source = new GameModel();
+        source.reset();
+        source.createPlayers("one", "two");
+        DeltaEncoder encoder = new DeltaEncoder(3);
+        ByteBuffer frame = ByteBuffer.allocate(1024);
+
+        for (int turn = 0; turn < 2; turn++) {
+            playTurn(source, 3);
+            frame.clear();
+            encoder.encode(source, frame);
+        }
+
+        GameModel replica = new GameModel();
+        DeltaDecoder decoder = new DeltaDecoder();
+        playTurn(source, 4);
+        frame.clear();
+        encoder.encode(source, frame);
+        frame.flip();
+        assertFalse(decoder.apply(frame, replica));
+
+        playTurn(source, 5);
+        frame.clear();
+        encoder.encode(source, frame);
+        frame.flip();
+        assertTrue(decoder.apply(frame, replica));
+
+        GameSnapshot expected = new GameSnapshot();
+        GameSnapshot actual = new GameSnapshot();
+        expected.capture(source);
+        actual.capture(replica);
+        assertEquals(expected, actual);
+    }
+}
@@ -0,0 +1,149 @@
+package hotelgame.stream.tests;
+
+import hotelgame.model.GameModel;
+import hotelgame.model.GameSnapshot;
+import hotelgame.model.Hotel;
+import hotelgame.model.Policy;
+import hotelgame.stream.GameRecording;
+import hotelgame.stream.ReplayCursor;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ReplayCursorTest {
+
+    /**
+     * Record a simulated game, keeping a full snapshot of every event to compare against.
+     */
+    private static GameRecording recordGame(int keyframeInterval, List<GameSnapshot> expected) {
+        GameModel model = new GameModel();
+        model.reset();
+        model.createPlayers("one", "two");
+        GameRecording recording = new GameRecording(keyframeInterval);
+        model.addObserver(recording);
+        for (int turn = 0; turn < 400 && !model.isGameOver(); turn++) {
+            model.playTurns(1, Policy.GREEDY);
+            GameSnapshot snapshot = new GameSnapshot();
+            snapshot.capture(model);
+            expected.add(snapshot);
+        }
+        return recording;
+    }
+
+    /**
+     * Record a game
+     * Seek to events in a random order
+     * Assert every seek gives the recorded state and decodes at most one keyframe interval of turns
+     */
+    @Test
+    void testSeekAnywhere() {
+        List<GameSnapshot> expected = new ArrayList<>();
+        GameRecording recording = recordGame(16, expected);
+        assertEquals(expected.size(), recording.getEventCount());
+
+        ReplayCursor cursor = new ReplayCursor(recording);
+        Random random = new Random(7);
+        for (int i = 0; i < 500; i++) {
+            int event = random.nextInt(recording.getEventCount());
+            assertEquals(expected.get(event), cursor.seek(event));
+            assertTrue(cursor.getFramesDecoded() <= 16);
+        }
+    }
+
+    /**
+     * Record a game played action by action, as the GUI plays it, so each turn has several events
+     * Assert there is a keyframe every 4 turns, not every 4 events
+     * Seek to every event backwards and assert it gives the recorded state from the keyframe of its turn
+     */
+    @Test
+    void testKeyframesEveryNTurns() {
+        GameModel model = new GameModel();
+        model.reset();
+        model.createPlayers("one", "two");
+        GameRecording recording = new GameRecording(4);
+        List<GameSnapshot> expected = new ArrayList<>();
+        model.addObserver(recording);
+        model.addObserver((observable, arg) -> {
+            GameSnapshot snapshot = new GameSnapshot();
+            snapshot.capture(model);
+            expected.add(snapshot);
+        });
+        for (int turn = 0; turn < 200 && !model.isGameOver(); turn++) {
+            model.movePlayer(model.rollDice());
+            Hotel hotel = model.getCurrentPlayerPositionHotel();
+            if (hotel != null && hotel.getOwner() == null && hotel.canAffordPurchase(model.getCurrentTurn())) {
+                model.buyHotel();
+            } else if (hotel != null && hotel.getOwner() != null && hotel.getOwner() != model.getCurrentTurn()) {
+                model.payOvernightFee();
+            }
+            if (!model.isGameOver()) {
+                model.nextTurn();
+            }
+        }
+        assertTrue(recording.getEventCount() > 2 * recording.getTurnCount());
+        assertEquals((recording.getTurnCount() + 3) / 4, recording.getKeyframeCount());
+
+        ReplayCursor cursor = new ReplayCursor(recording);
+        for (int event = recording.getEventCount() - 1; event >= 0; event--) {
+            assertEquals(expected.get(event), cursor.seek(event));
+            int keyframe = recording.getTurnStart(recording.getTurnOf(event) / 4 * 4);
+            assertEquals(event - keyframe + 1, cursor.getFramesDecoded());
+        }
+    }
+
+    /**
+     * Record a game
+     * Step forward through every event
+     * Assert each step decodes a single frame
+     * Assert the turns match the recorded current player
+     */
+    @Test
+    void testStepForwardAndTurns() {
+        List<GameSnapshot> expected = new ArrayList<>();
+        GameRecording recording = recordGame(16, expected);
+        ReplayCursor cursor = new ReplayCursor(recording);
+
+        for (int event = 0; event < recording.getEventCount(); event++) {
+            assertEquals(expected.get(event), cursor.seek(event));
+            assertEquals(1, cursor.getFramesDecoded());
+        }
+
+        for (int turn = 0; turn < recording.getTurnCount(); turn++) {
+            int start = recording.getTurnStart(turn);
+            assertEquals(turn, recording.getTurnOf(start));
+            if (start > 0) {
+                assertNotEquals(expected.get(start - 1).getCurrentTurn(), expected.get(start).getCurrentTurn());
+            }
+        }
+    }
+
+    /**
+     * Write a recording and read it back
+     * Assert the read recording replays the same states
+     */
+    @Test
+    void testWriteRead() throws IOException {
+        List<GameSnapshot> expected = new ArrayList<>();
+        GameRecording recording = recordGame(8, expected);
+
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        recording.write(new DataOutputStream(bytes));
+        GameRecording read = GameRecording.read(new DataInputStream(new ByteArrayInputStream(bytes.toByteArray())));
+
+        assertEquals(recording.getEventCount(), read.getEventCount());
+        assertEquals(recording.getTurnCount(), read.getTurnCount());
+        ReplayCursor cursor = new ReplayCursor(read);
+        for (int event = read.getEventCount() - 1; event >= 0; event--) {
+            assertEquals(expected.get(event), cursor.seek(event));
+        }
+    }
+}
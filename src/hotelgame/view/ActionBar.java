@@ -1,17 +1,29 @@
 package hotelgame.view;
 
 import hotelgame.controller.GameController;
+import hotelgame.controller.TurnControls;
+import hotelgame.model.GameModel;
+import hotelgame.model.GameSnapshot;
+import hotelgame.search.Advice;
+import hotelgame.search.MoveAdvisor;
 
 import javax.swing.*;
 import java.awt.*;
+import java.util.concurrent.Executor;
+import java.util.function.Supplier;
 
-public class ActionBar {
+public class ActionBar implements TurnControls {
 
     /**
      * A cheat mode setting to allow players to choose the amount of spaces to move
      */
     private final boolean cheatMode;
 
+    /**
+     * The game controller
+     */
+    private final GameController controller;
+
     /**
      * The action bar's panel
      */
@@ -42,12 +54,48 @@ public class ActionBar {
      */
     private final JLabel actionResult = new JLabel("");
 
+    /**
+     * The hint for the current player's decision, shown when hints are on
+     */
+    private final JLabel hint = new JLabel("");
+
+    /**
+     * The advisor giving hints, or null if hints are off
+     */
+    private MoveAdvisor advisor;
+
+    /**
+     * The executor the advisor runs on
+     */
+    private Executor hintExecutor;
+
+    /**
+     * The model hints are given for, the one the view shows
+     */
+    private GameModel hintModel;
+
+    /**
+     * The number of hints asked for, so only the answer to the latest is shown
+     */
+    private long hintRequests;
+
+    /**
+     * The executor controller actions run on, or null to run them on the EDT
+     */
+    private Executor executor;
+
+    /**
+     * The publisher showing the results of actions run on the executor
+     */
+    private FramePublisher publisher;
+
     /**
      * Setup the ActionBar components
      * @param controller The game controller
      */
     public ActionBar(GameController controller, boolean cheatMode) {
         this.cheatMode = cheatMode;
+        this.controller = controller;
         JPanel buttonPanel = new JPanel();
         buttonPanel.setLayout(new FlowLayout(FlowLayout.CENTER, 50, 20));
         buttonPanel.add(rollButton);
@@ -67,48 +115,127 @@ public class ActionBar {
         panel.add(buttonPanel);
         panel.add(actionResultPanel);
 
+        JPanel hintPanel = new JPanel();
+        hintPanel.setLayout(new FlowLayout(FlowLayout.CENTER));
+        hintPanel.add(hint);
+        panel.add(hintPanel);
+
         this.setupActions(controller);
     }
 
+    /**
+     * Setup an ActionBar with every button disabled, for showing a replay
+     */
+    public ActionBar() {
+        this(null, false);
+        disableRollButton();
+    }
+
     /**
      * Setup the ActionBar action listeners
      * @param controller The game controller
      */
     private void setupActions(GameController controller) {
         this.rollButton.addActionListener(e -> {
-            actionResult.setText(controller.rollTurn(
-                cheatMode ? getCheatModeInput() : 0
-            ));
+            int amount = cheatMode ? getCheatModeInput() : 0;
+            perform(() -> controller.rollTurn(amount));
             disableRollButton();
             enableEndTurnButton();
         });
 
         this.buyHotelButton.addActionListener(e -> {
-            actionResult.setText(controller.buyHotel());
+            perform(controller::buyHotel);
         });
 
         this.increaseRatingButton.addActionListener(e -> {
-            actionResult.setText(controller.increaseRating(getIncreaseRatingInput()));
+            int rating = getIncreaseRatingInput();
+            perform(() -> controller.increaseRating(rating));
         });
 
         this.endTurnButton.addActionListener(e -> {
-            actionResult.setText(controller.endTurn());
+            disableBuyHotel();
+            disableIncreaseRating();
+            disableEndTurnButton();
+            perform(controller::endTurn);
         });
     }
 
+    /**
+     * Run controller actions on an executor off the EDT, publishing their results through a publisher.
+     * Pre: the publisher shows results in this action bar
+     * @param executor The executor, which runs one action at a time in order
+     * @param publisher The publisher
+     */
+    public void runInBackground(Executor executor, FramePublisher publisher) {
+        this.executor = executor;
+        this.publisher = publisher;
+    }
+
+    /**
+     * Show hints for the buy and rating decisions, worked out by an advisor off the EDT.
+     * @param model The model the view shows, read on the EDT
+     * @param advisor The advisor, only used on the executor
+     * @param executor The executor, which runs one hint at a time in order
+     */
+    public void showHints(GameModel model, MoveAdvisor advisor, Executor executor) {
+        this.hintModel = model;
+        this.advisor = advisor;
+        this.hintExecutor = executor;
+    }
+
+    /**
+     * Ask for a hint for the current state of the model if the player has a decision to make, or clear the hint.
+     * A cached hint is shown at once; a new one when its search finishes, unless another hint was asked for since.
+     */
+    public void refreshHint() {
+        if (advisor == null) {
+            return;
+        }
+        long request = ++hintRequests;
+        if (!buyHotelButton.isEnabled() && !increaseRatingButton.isEnabled()) {
+            hint.setText("");
+            return;
+        }
+        GameSnapshot snapshot = new GameSnapshot();
+        snapshot.capture(hintModel);
+        MoveAdvisor hintAdvisor = advisor;
+        hintExecutor.execute(() -> {
+            Advice advice = hintAdvisor.advise(snapshot);
+            SwingUtilities.invokeLater(() -> {
+                if (request == hintRequests) {
+                    hint.setText(advice.toString());
+                }
+            });
+        });
+    }
+
+    /**
+     * Perform a controller action and show its result, on the executor if there is one.
+     * Input dialogs are shown before, on the EDT.
+     * @param action The controller action
+     */
+    private void perform(Supplier<String> action) {
+        if (executor == null) {
+            actionResult.setText(action.get());
+        } else {
+            executor.execute(() -> publisher.publishResult(action.get()));
+        }
+    }
+
     /**
      * Prompt the user for cheat mode input to move a specific amount of spaces.
      * @return The validated input from the user.
      */
     private int getCheatModeInput() {
         int amount = 0;
+        int diceSides = controller.getBoard().getDiceSides();
         while (amount == 0) {
-            String input = JOptionPane.showInputDialog(panel, "Enter the amount of spaces to move (1-12): ");
+            String input = JOptionPane.showInputDialog(panel, "Enter the amount of spaces to move (1-" + diceSides + "): ");
             try {
                 amount = Integer.parseInt(input);
-                amount = Math.min(Math.max(amount, 1), 12);
+                amount = Math.min(Math.max(amount, 1), diceSides);
             } catch (Exception e) {
-                JOptionPane.showMessageDialog(panel, "Please enter a valid number between 1 and 12.");
+                JOptionPane.showMessageDialog(panel, "Please enter a valid number between 1 and " + diceSides + ".");
             }
         }
         return amount;
@@ -137,6 +264,14 @@ public class ActionBar {
 
 
 
+    /**
+     * Show the position in a replay, or an action result published from off the EDT, in the result label
+     * @param text The text to show
+     */
+    public void showReplay(String text) {
+        this.actionResult.setText(text);
+    }
+
     /**
      * Get the panel for the action bar
      * @return The panel for the action bar
@@ -148,6 +283,7 @@ public class ActionBar {
     /**
      * Enable the roll button
      */
+    @Override
     public void enableRollButton() {
         this.rollButton.setEnabled(true);
     }
@@ -155,20 +291,25 @@ public class ActionBar {
     /**
      * Enable the buy hotel button
      */
+    @Override
     public void enableBuyHotel() {
         this.buyHotelButton.setEnabled(true);
+        refreshHint();
     }
 
     /**
      * Enable the increase rating button
      */
+    @Override
     public void enableIncreaseRating() {
         this.increaseRatingButton.setEnabled(true);
+        refreshHint();
     }
 
     /**
      * Enable the end turn button
      */
+    @Override
     public void enableEndTurnButton() {
         this.endTurnButton.setEnabled(true);
     }
@@ -176,6 +317,7 @@ public class ActionBar {
     /**
      * Disable the roll button
      */
+    @Override
     public void disableRollButton() {
         this.rollButton.setEnabled(false);
     }
@@ -183,20 +325,25 @@ public class ActionBar {
     /**
      * Disable the buy hotel button
      */
+    @Override
     public void disableBuyHotel() {
         this.buyHotelButton.setEnabled(false);
+        refreshHint();
     }
 
     /**
      * Disable the increase rating button
      */
+    @Override
     public void disableIncreaseRating() {
         this.increaseRatingButton.setEnabled(false);
+        refreshHint();
     }
 
     /**
      * Disable the end turn button
      */
+    @Override
     public void disableEndTurnButton() {
         this.endTurnButton.setEnabled(false);
     }
@@ -1,13 +1,14 @@
 package hotelgame.view;
 
 import hotelgame.model.GameModel;
+import hotelgame.model.Hotel;
 
 import javax.swing.*;
 import java.awt.*;
 import java.util.ArrayList;
 import java.util.Collections;
 
-public class Board {
+public class Board implements BoardView {
 
     /**
      * THe panel for the board.
@@ -17,53 +18,87 @@ public class Board {
     /**
      * The top row of the board.
      */
-    JPanel topRow = new JPanel(new GridLayout(1, 11));
+    JPanel topRow;
 
     /**
      * The bottom row of the board.
      */
-    JPanel bottomRow = new JPanel(new GridLayout(1, 11));
+    JPanel bottomRow;
 
     /**
      * The left column of the board.
      */
-    JPanel leftColumn = new JPanel(new GridLayout(9, 1));
+    JPanel leftColumn;
 
     /**
      * The right column of the board.
      */
-    JPanel rightColumn = new JPanel(new GridLayout(9, 1));
+    JPanel rightColumn;
 
     /**
      * An array of all the board squares/tiles.
      */
-    private final BoardSquare[] boardSquares = new BoardSquare[GameModel.MAX_TILES];
+    private final BoardSquare[] boardSquares;
 
     /**
-     * Create a board of empty squares.
+     * The tile generation of the model at the last update, see GameModel.getGeneration().
+     */
+    private int generation = -1;
+
+    /**
+     * The tiles array of the model at the last update.
+     */
+    private Hotel[] tiles;
+
+    /**
+     * The positions of player one and player two at the last update, or -1 before the first update.
+     */
+    private final int[] playerPositions = {-1, -1};
+
+    /**
+     * Create a board of empty squares for the standard board.
      */
     public Board() {
+        this(GameModel.MAX_TILES);
+    }
+
+    /**
+     * Create a board of empty squares.
+     * @param tileCount The number of tiles on the board
+     */
+    public Board(int tileCount) {
+        BoardLayout layout = new BoardLayout(tileCount);
+        boardSquares = new BoardSquare[tileCount];
+        topRow = new JPanel(new GridLayout(1, layout.getColumns()));
+        bottomRow = new JPanel(new GridLayout(1, layout.getColumns()));
+        leftColumn = new JPanel(new GridLayout(layout.getLeftRows(), 1));
+        rightColumn = new JPanel(new GridLayout(layout.getLeftRows(), 1));
+
         panel.setLayout(new BorderLayout());
         panel.setPreferredSize(new Dimension(1070, 850));
 
         ArrayList<BoardSquare> bottomList = new ArrayList<>();
         ArrayList<BoardSquare> leftList = new ArrayList<>();
 
-        for (int i = 0; i < GameModel.MAX_TILES; i++) {
+        for (int i = 0; i < tileCount; i++) {
             BoardSquare square = new BoardSquare(i);
             boardSquares[i] = square;
-            if (i < 11) {
+            if (layout.getRow(i) == layout.getRows() - 1) {
                 bottomList.add(square);
+            } else if (layout.getRow(i) == 0) {
                 topRow.add(square);
-            } else if (i < 20) {
+            } else if (layout.getColumn(i) == 0) {
                 leftList.add(square);
-            } else if (i < 31) {
-                topRow.add(square);
             } else {
                 rightColumn.add(square);
             }
         }
 
+        // Keep the right column aligned with the left when the board has an odd number of side tiles
+        for (int i = layout.getRightRows(); i < layout.getLeftRows(); i++) {
+            rightColumn.add(new JPanel());
+        }
+
         Collections.reverse(bottomList);
         for(BoardSquare square : bottomList) {
             bottomRow.add(square);
@@ -82,26 +117,64 @@ public class Board {
 
     /**
      * Update this board from the hotel model.
+     * After a reset or restore every square is refreshed. Otherwise only the squares under the players
+     * and where they were before are refreshed, since hotels only change at the current player's position.
      * @param model The game model
      */
+    @Override
     public void update (GameModel model) {
-        for (int i = 0; i < GameModel.MAX_TILES; i++) {
-            BoardSquare square = boardSquares[i];
-            if (model.getTiles()[i] != null) {
-                square.updateHotel(model.getTiles()[i]);
+        if (model.getTiles() != tiles || model.getGeneration() != generation) {
+            tiles = model.getTiles();
+            generation = model.getGeneration();
+            for (int i = 0; i < boardSquares.length; i++) {
+                updateSquare(i);
             }
+        }
 
-            if (model.getPlayerOne().getPosition() == i) {
-                square.enablePlayerOne();
-            } else {
-                square.disablePlayerOne();
-            }
+        int playerOnePosition = model.getPlayerOne().getPosition();
+        int playerTwoPosition = model.getPlayerTwo().getPosition();
 
-            if (model.getPlayerTwo().getPosition() == i) {
-                square.enablePlayerTwo();
-            } else {
-                square.disablePlayerTwo();
-            }
+        if (playerPositions[0] >= 0) {
+            boardSquares[playerPositions[0]].disablePlayerOne();
+            updateSquare(playerPositions[0]);
+        }
+        if (playerPositions[1] >= 0) {
+            boardSquares[playerPositions[1]].disablePlayerTwo();
+            updateSquare(playerPositions[1]);
+        }
+
+        updateSquare(playerOnePosition);
+        updateSquare(playerTwoPosition);
+        boardSquares[playerOnePosition].enablePlayerOne();
+        boardSquares[playerTwoPosition].enablePlayerTwo();
+        playerPositions[0] = playerOnePosition;
+        playerPositions[1] = playerTwoPosition;
+    }
+
+    /**
+     * Refresh the hotel shown on a square.
+     * @param position The tile position
+     */
+    private void updateSquare(int position) {
+        if (tiles != null && tiles[position] != null) {
+            boardSquares[position].updateHotel(tiles[position]);
+        }
+    }
+
+    /**
+     * Shade each square by its landing probability relative to the most likely square, and show the
+     * probability and the expected fee on it.
+     * @param probabilities The probability of each tile being landed on in a turn
+     * @param expectedFees The overnight fee expected to be paid on each tile in a turn
+     */
+    @Override
+    public void showHeat(double[] probabilities, double[] expectedFees) {
+        double highest = 0;
+        for (double probability : probabilities) {
+            highest = Math.max(highest, probability);
+        }
+        for (int i = 0; i < boardSquares.length; i++) {
+            boardSquares[i].showHeat(highest > 0 ? (float) (probabilities[i] / highest) : 0, probabilities[i], expectedFees[i]);
         }
     }
 
@@ -109,6 +182,7 @@ public class Board {
      * Get the panel for this board.
      * @return The panel for the Board
      */
+    @Override
     public JPanel getPanel() {
         return panel;
     }
@@ -0,0 +1,182 @@
+package hotelgame.view;
+
+import hotelgame.model.BoardDefinition;
+import hotelgame.model.GameModel;
+import hotelgame.model.GameSnapshot;
+import hotelgame.model.Hotel;
+
+import javax.swing.*;
+import java.awt.*;
+
+/**
+ * A single component painting the whole board, as an alternative to Board's panel per square.
+ * Tiles are painted from cached images (see TilePainter) and an update only repaints the
+ * rectangles of tiles that changed, so the cost of a turn does not grow with the board.
+ */
+public class BoardCanvas extends JComponent implements BoardView {
+
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * The positions of the tiles on the grid.
+     */
+    private final BoardLayout layout;
+
+    /**
+     * Paints the tiles.
+     */
+    private final TilePainter painter;
+
+    /**
+     * The packed owner and rating of every tile at the last update.
+     */
+    private final byte[] tileStates;
+
+    /**
+     * The positions of player one and player two at the last update, or -1 before the first update.
+     */
+    private final int[] playerPositions = {-1, -1};
+
+    /**
+     * The tile generation of the model at the last update, see GameModel.getGeneration().
+     */
+    private int generation = -1;
+
+    /**
+     * The tiles array of the model at the last update.
+     */
+    private Hotel[] tiles;
+
+    /**
+     * Create a canvas for a board.
+     * @param board The board definition
+     */
+    public BoardCanvas(BoardDefinition board) {
+        this.layout = new BoardLayout(board.getTileCount());
+        this.painter = new TilePainter(board);
+        this.tileStates = new byte[board.getTileCount()];
+        setPreferredSize(new Dimension(1070, 850));
+        setOpaque(true);
+    }
+
+    /**
+     * Update this board from the hotel model, repainting only the tiles that changed.
+     * @param model The game model
+     */
+    @Override
+    public void update(GameModel model) {
+        painter.setPlayerNames(model.getPlayerOne().getName(), model.getPlayerTwo().getName());
+        painter.setMaxRating(model.getRules().getMaxRating());
+
+        if (model.getTiles() != tiles || model.getGeneration() != generation) {
+            tiles = model.getTiles();
+            generation = model.getGeneration();
+            for (int position = 0; position < tileStates.length; position++) {
+                tileStates[position] = stateOf(model, position);
+            }
+            repaint();
+        }
+
+        int playerOnePosition = model.getPlayerOne().getPosition();
+        int playerTwoPosition = model.getPlayerTwo().getPosition();
+        refreshTile(model, playerOnePosition);
+        refreshTile(model, playerTwoPosition);
+
+        if (playerOnePosition != playerPositions[0]) {
+            repaintTile(playerPositions[0]);
+            repaintTile(playerOnePosition);
+            playerPositions[0] = playerOnePosition;
+        }
+        if (playerTwoPosition != playerPositions[1]) {
+            repaintTile(playerPositions[1]);
+            repaintTile(playerTwoPosition);
+            playerPositions[1] = playerTwoPosition;
+        }
+    }
+
+    /**
+     * Get the component showing the board.
+     * @return This canvas
+     */
+    @Override
+    public JComponent getPanel() {
+        return this;
+    }
+
+    /**
+     * Paint the tiles inside the clip rectangle.
+     */
+    @Override
+    protected void paintComponent(Graphics g) {
+        int tileWidth = getWidth() / layout.getColumns();
+        int tileHeight = getHeight() / layout.getRows();
+        painter.setTileSize(tileWidth, tileHeight);
+
+        Rectangle clip = g.getClipBounds();
+        if (clip == null) {
+            clip = new Rectangle(0, 0, getWidth(), getHeight());
+        }
+        g.setColor(getBackground());
+        g.fillRect(clip.x, clip.y, clip.width, clip.height);
+        if (tileWidth <= 0 || tileHeight <= 0) {
+            return;
+        }
+
+        int firstColumn = Math.max(0, clip.x / tileWidth);
+        int lastColumn = Math.min(layout.getColumns() - 1, (clip.x + clip.width - 1) / tileWidth);
+        int firstRow = Math.max(0, clip.y / tileHeight);
+        int lastRow = Math.min(layout.getRows() - 1, (clip.y + clip.height - 1) / tileHeight);
+        for (int row = firstRow; row <= lastRow; row++) {
+            for (int column = firstColumn; column <= lastColumn; column++) {
+                int position = layout.getPosition(column, row);
+                if (position >= 0) {
+                    painter.paintTile(g, position, tileStates[position],
+                            position == playerPositions[0], position == playerPositions[1],
+                            column * tileWidth, row * tileHeight);
+                }
+            }
+        }
+    }
+
+    /**
+     * Read the state of a tile from the model and repaint it if it changed.
+     * @param model The game model
+     * @param position The tile position
+     */
+    private void refreshTile(GameModel model, int position) {
+        byte state = stateOf(model, position);
+        if (state != tileStates[position]) {
+            tileStates[position] = state;
+            repaintTile(position);
+        }
+    }
+
+    /**
+     * Schedule a repaint of a single tile.
+     * @param position The tile position, or -1 for none
+     */
+    private void repaintTile(int position) {
+        if (position < 0) {
+            return;
+        }
+        int tileWidth = getWidth() / layout.getColumns();
+        int tileHeight = getHeight() / layout.getRows();
+        repaint(layout.getColumn(position) * tileWidth, layout.getRow(position) * tileHeight, tileWidth, tileHeight);
+    }
+
+    /**
+     * Get the packed owner and rating of a tile.
+     * @param model The game model
+     * @param position The tile position
+     * @return The packed tile state
+     */
+    static byte stateOf(GameModel model, int position) {
+        Hotel hotel = model.getTiles()[position];
+        if (hotel == null) {
+            return 0;
+        }
+        int owner = hotel.getOwner() == null ? GameSnapshot.NO_OWNER
+                : hotel.getOwner() == model.getPlayerOne() ? GameSnapshot.PLAYER_ONE : GameSnapshot.PLAYER_TWO;
+        return GameSnapshot.pack(owner, hotel.getStarRating());
+    }
+}
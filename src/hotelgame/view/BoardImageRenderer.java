@@ -0,0 +1,141 @@
+package hotelgame.view;
+
+import hotelgame.model.BoardDefinition;
+import hotelgame.model.GameModel;
+import hotelgame.model.GameSnapshot;
+
+import javax.imageio.ImageIO;
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.stream.IntStream;
+
+/**
+ * Renders board states to images without a display, using the same layout and tiles as BoardCanvas.
+ * A renderer draws every state into the same image, so it is not thread safe; renderAll() gives
+ * each worker thread its own renderer. Works with java.awt.headless=true.
+ */
+public class BoardImageRenderer {
+
+    /**
+     * The positions of the tiles on the grid.
+     */
+    private final BoardLayout layout;
+
+    /**
+     * Paints the tiles.
+     */
+    private final TilePainter painter;
+
+    /**
+     * The image every state is drawn into.
+     */
+    private final BufferedImage image;
+
+    /**
+     * The snapshot used when rendering a live model.
+     */
+    private final GameSnapshot scratch = new GameSnapshot();
+
+    /**
+     * Create a renderer.
+     * Pre: width > 0 and height > 0
+     * @param board The board definition
+     * @param width The image width in pixels
+     * @param height The image height in pixels
+     */
+    public BoardImageRenderer(BoardDefinition board, int width, int height) {
+        assert width > 0 && height > 0;
+        this.layout = new BoardLayout(board.getTileCount());
+        this.painter = new TilePainter(board);
+        this.image = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        painter.setTileSize(width / layout.getColumns(), height / layout.getRows());
+    }
+
+    /**
+     * Render the current state of a model.
+     * @param model The game model, with players created
+     * @return The rendered image, which is overwritten by the next render
+     */
+    public BufferedImage render(GameModel model) {
+        painter.setMaxRating(model.getRules().getMaxRating());
+        scratch.capture(model);
+        return render(scratch);
+    }
+
+    /**
+     * Render a board state, showing ratings out of the highest rating of the last model rendered,
+     * or of the standard rules before any.
+     * Pre: state.getTileCount() matches the board
+     * @param state The state to render
+     * @return The rendered image, which is overwritten by the next render
+     */
+    public BufferedImage render(GameSnapshot state) {
+        assert state.getTileCount() == layout.getTileCount();
+        painter.setPlayerNames(nameOf(state, 0), nameOf(state, 1));
+        int tileWidth = painter.getTileWidth();
+        int tileHeight = painter.getTileHeight();
+
+        Graphics2D g = image.createGraphics();
+        g.setColor(Color.WHITE);
+        g.fillRect(0, 0, image.getWidth(), image.getHeight());
+        for (int position = 0; position < layout.getTileCount(); position++) {
+            painter.paintTile(g, position, state.getTile(position),
+                    position == state.getPosition(0), position == state.getPosition(1),
+                    layout.getColumn(position) * tileWidth, layout.getRow(position) * tileHeight);
+        }
+
+        // The players' money in the middle of the ring, where InfoBar would be in the game window
+        g.setRenderingHint(RenderingHints.KEY_TEXT_ANTIALIASING, RenderingHints.VALUE_TEXT_ANTIALIAS_ON);
+        g.setColor(Color.DARK_GRAY);
+        int line = g.getFontMetrics().getHeight();
+        int x = tileWidth + line;
+        int y = tileHeight + line * 2;
+        for (int player = 0; player < 2; player++) {
+            String marker = state.getCurrentTurn() == GameSnapshot.PLAYER_ONE + player ? " *" : "";
+            g.drawString(nameOf(state, player) + ": £" + state.getMoney(player) + marker, x, y + line * player);
+        }
+        g.dispose();
+        return image;
+    }
+
+    /**
+     * Render a list of states to PNG files in parallel, one renderer per worker thread.
+     * State i is written to directory/prefix-i.png, with i padded to five digits.
+     * @param board The board definition
+     * @param states The states to render
+     * @param width The image width in pixels
+     * @param height The image height in pixels
+     * @param directory The existing directory to write to
+     * @param prefix The file name prefix
+     * @throws UncheckedIOException If a file could not be written
+     */
+    public static void renderAll(BoardDefinition board, List<GameSnapshot> states, int width, int height,
+                                 Path directory, String prefix) {
+        ThreadLocal<BoardImageRenderer> renderers =
+                ThreadLocal.withInitial(() -> new BoardImageRenderer(board, width, height));
+        IntStream.range(0, states.size()).parallel().forEach(i -> {
+            BufferedImage rendered = renderers.get().render(states.get(i));
+            Path file = directory.resolve(String.format("%s-%05d.png", prefix, i));
+            try {
+                ImageIO.write(rendered, "png", file.toFile());
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+    }
+
+    /**
+     * Get a player's name from a state, or an empty name if it was taken before players were created.
+     * @param state The state
+     * @param player The player index
+     * @return The name
+     */
+    private static String nameOf(GameSnapshot state, int player) {
+        String name = state.getName(player);
+        return name == null ? "" : name;
+    }
+}
@@ -0,0 +1,137 @@
+package hotelgame.view;
+
+/**
+ * Places the tiles of a board of any size around the edge of a grid.
+ * Tile 0 (GO) is in the bottom right corner and play runs clockwise:
+ * left along the bottom row, up the left column, right along the top row and down the right column.
+ * The standard 40 tile board is laid out on an 11 x 11 grid.
+ */
+public class BoardLayout {
+
+    /**
+     * The number of tiles on the board.
+     */
+    private final int tileCount;
+
+    /**
+     * The number of tiles in the top and bottom rows.
+     */
+    private final int columns;
+
+    /**
+     * The number of tiles in the left column, between the top and bottom rows.
+     */
+    private final int leftRows;
+
+    /**
+     * The number of tiles in the right column, between the top and bottom rows.
+     */
+    private final int rightRows;
+
+    /**
+     * Lay out a board.
+     * Pre: tileCount >= 4
+     * @param tileCount The number of tiles on the board
+     */
+    public BoardLayout(int tileCount) {
+        assert tileCount >= 4;
+        this.tileCount = tileCount;
+        this.columns = tileCount / 4 + 1;
+        int remaining = tileCount - 2 * columns;
+        this.leftRows = (remaining + 1) / 2;
+        this.rightRows = remaining / 2;
+    }
+
+    /**
+     * Get the number of tiles on the board.
+     * @return The tile count
+     */
+    public int getTileCount() {
+        return tileCount;
+    }
+
+    /**
+     * Get the number of grid columns.
+     * @return The width of the grid in tiles
+     */
+    public int getColumns() {
+        return columns;
+    }
+
+    /**
+     * Get the number of grid rows.
+     * @return The height of the grid in tiles
+     */
+    public int getRows() {
+        return leftRows + 2;
+    }
+
+    /**
+     * Get the number of tiles in the left column, between the top and bottom rows.
+     * @return The left column length
+     */
+    public int getLeftRows() {
+        return leftRows;
+    }
+
+    /**
+     * Get the number of tiles in the right column, between the top and bottom rows.
+     * @return The right column length
+     */
+    public int getRightRows() {
+        return rightRows;
+    }
+
+    /**
+     * Get the grid column of a tile.
+     * @param position The tile position
+     * @return The column, from 0 on the left
+     */
+    public int getColumn(int position) {
+        if (position < columns) {
+            return columns - 1 - position;
+        } else if (position < columns + leftRows) {
+            return 0;
+        } else if (position < 2 * columns + leftRows) {
+            return position - columns - leftRows;
+        }
+        return columns - 1;
+    }
+
+    /**
+     * Get the grid row of a tile.
+     * @param position The tile position
+     * @return The row, from 0 at the top
+     */
+    public int getRow(int position) {
+        if (position < columns) {
+            return getRows() - 1;
+        } else if (position < columns + leftRows) {
+            return leftRows - (position - columns);
+        } else if (position < 2 * columns + leftRows) {
+            return 0;
+        }
+        return 1 + position - 2 * columns - leftRows;
+    }
+
+    /**
+     * Get the tile at a grid cell.
+     * @param column The column, from 0 on the left
+     * @param row The row, from 0 at the top
+     * @return The tile position, or -1 if the cell is inside the ring or off the grid
+     */
+    public int getPosition(int column, int row) {
+        if (column < 0 || column >= columns || row < 0 || row >= getRows()) {
+            return -1;
+        } else if (row == getRows() - 1) {
+            return columns - 1 - column;
+        } else if (row == 0) {
+            return columns + leftRows + column;
+        } else if (column == 0) {
+            return columns + leftRows - row;
+        } else if (column == columns - 1 && row - 1 < rightRows) {
+            return 2 * columns + leftRows + row - 1;
+        }
+        return -1;
+    }
+}
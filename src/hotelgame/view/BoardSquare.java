@@ -27,6 +27,11 @@ public class BoardSquare extends JPanel {
      */
     private final JLabel ownerLabel;
 
+    /**
+     * The landing probability & expected fee label, empty until a heatmap is shown
+     */
+    private final JLabel heatLabel;
+
     /**
      * The indicator for player one
      */
@@ -50,18 +55,21 @@ public class BoardSquare extends JPanel {
         nameLabel = new JLabel(position == 0 ? "GO" : "", SwingConstants.CENTER);
         priceRatingLabel = new JLabel("", SwingConstants.CENTER);
         ownerLabel = new JLabel("", SwingConstants.CENTER);
+        heatLabel = new JLabel("", SwingConstants.CENTER);
 
         playerOneIndicator.setEnabled(false);
         playerTwoIndicator.setEnabled(false);
 
         JPanel indicatorPanel = new JPanel();
         indicatorPanel.setLayout(new BoxLayout(indicatorPanel, BoxLayout.X_AXIS));
+        indicatorPanel.setOpaque(false);
         indicatorPanel.add(playerOneIndicator);
         indicatorPanel.add(playerTwoIndicator);
 
         add(nameLabel);
         add(priceRatingLabel);
         add(ownerLabel);
+        add(heatLabel);
         add(indicatorPanel);
     }
 
@@ -72,10 +80,19 @@ public class BoardSquare extends JPanel {
     public void updateHotel(Hotel hotel) {
         this.hotel = hotel;
         nameLabel.setText(hotel.getName());
-        priceRatingLabel.setText("£" + hotel.getPrice() + " - " + hotel.getStarRating() + "/5");
-        if (hotel.getOwner() != null) {
-            ownerLabel.setText(hotel.getOwner().getName());
-        }
+        priceRatingLabel.setText("£" + hotel.getPrice() + " - " + hotel.getStarRating() + "/" + hotel.getMaxRating());
+        ownerLabel.setText(hotel.getOwner() != null ? hotel.getOwner().getName() : "");
+    }
+
+    /**
+     * Shade this square by how likely it is to be landed on.
+     * @param intensity The shade, from 0 for the least likely square to 1 for the most likely
+     * @param probability The probability of the square being landed on in a turn
+     * @param expectedFee The overnight fee expected to be paid here in a turn
+     */
+    public void showHeat(float intensity, double probability, double expectedFee) {
+        setBackground(new Color(1f, 1f - 0.6f * intensity, 1f - 0.9f * intensity));
+        heatLabel.setText(String.format(expectedFee > 0 ? "%.1f%% · £%.2f" : "%.1f%%", probability * 100, expectedFee));
     }
 
     /**
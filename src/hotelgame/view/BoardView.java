@@ -0,0 +1,32 @@
+package hotelgame.view;
+
+import hotelgame.model.GameModel;
+
+import javax.swing.*;
+
+/**
+ * A Swing component showing the board of a game.
+ */
+public interface BoardView {
+
+    /**
+     * Update this board from the hotel model.
+     * @param model The game model
+     */
+    void update(GameModel model);
+
+    /**
+     * Shade the tiles by how likely they are to be landed on and the fees expected there.
+     * Boards that cannot show a heatmap ignore it.
+     * @param probabilities The probability of each tile being landed on in a turn
+     * @param expectedFees The overnight fee expected to be paid on each tile in a turn
+     */
+    default void showHeat(double[] probabilities, double[] expectedFees) {
+    }
+
+    /**
+     * Get the component showing the board.
+     * @return The board component
+     */
+    JComponent getPanel();
+}
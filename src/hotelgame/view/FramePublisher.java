@@ -0,0 +1,372 @@
+package hotelgame.view;
+
+import hotelgame.controller.TurnControls;
+import hotelgame.model.BoardDefinition;
+import hotelgame.model.GameModel;
+import hotelgame.model.GameSnapshot;
+
+import javax.swing.*;
+import java.util.Observable;
+import java.util.Observer;
+import java.util.function.Consumer;
+
+/**
+ * Publishes a game played off the event dispatch thread to the Swing front-end, once per frame.
+ * Observes the live model on the game thread, keeping only its latest state, and restores that
+ * state into a replica model on the EDT when a frame timer fires. However many changes an action
+ * makes, the view is updated once per frame. Action results and button changes are queued the same way.
+ * Each frame is timed against a budget; a frame over budget skips the frames it overran
+ * so the EDT stays responsive to input, with the changes in between coalesced into the next.
+ */
+public class FramePublisher implements Observer {
+
+    /**
+     * The bits of the buttons in the queued control masks.
+     */
+    private static final int ROLL = 1, BUY = 2, RATE = 4, END_TURN = 8;
+
+    /**
+     * The model the published state is restored into on the EDT.
+     */
+    private final GameModel replica;
+
+    /**
+     * The latest state of the live model, written on the game thread. Guarded by this.
+     */
+    private final GameSnapshot latest = new GameSnapshot();
+
+    /**
+     * The state being published, only used on the EDT.
+     */
+    private final GameSnapshot published = new GameSnapshot();
+
+    /**
+     * The frame timer.
+     */
+    private final Timer timer;
+
+    /**
+     * The time budget of a frame in nanoseconds.
+     */
+    private final long budgetNanos;
+
+    /**
+     * The frame period in nanoseconds.
+     */
+    private final long periodNanos;
+
+    /**
+     * Whether the latest state has not been published. Guarded by this.
+     */
+    private boolean dirty;
+
+    /**
+     * The buttons with a queued change, as a mask of button bits. Guarded by this.
+     */
+    private int changedControls;
+
+    /**
+     * Whether each changed button is enabled, as a mask of button bits. Guarded by this.
+     */
+    private int enabledControls;
+
+    /**
+     * The latest action result to show, or null if there is none. Guarded by this.
+     */
+    private String result;
+
+    /**
+     * The controls the queued button changes are applied to.
+     */
+    private TurnControls controls = TurnControls.NONE;
+
+    /**
+     * The target action results are shown in.
+     */
+    private Consumer<String> results = text -> { };
+
+    /**
+     * The number of frames left to skip after a frame over budget, only used on the EDT.
+     */
+    private long skipFrames;
+
+    /**
+     * The number of live model changes observed. Guarded by this.
+     */
+    private long updates;
+
+    /**
+     * The number of frames published.
+     */
+    private volatile long frames;
+
+    /**
+     * The number of frames over budget.
+     */
+    private volatile long overruns;
+
+    /**
+     * The total and longest time spent publishing frames, in nanoseconds.
+     */
+    private volatile long totalNanos, maxNanos;
+
+    /**
+     * Create a publisher for a game on a board.
+     * @param board The board definition
+     * @param frameMillis The frame period in milliseconds
+     * @param budgetNanos The time budget of a frame in nanoseconds
+     */
+    public FramePublisher(BoardDefinition board, int frameMillis, long budgetNanos) {
+        this.replica = new GameModel(board);
+        this.periodNanos = frameMillis * 1_000_000L;
+        this.budgetNanos = budgetNanos;
+        this.timer = new Timer(frameMillis, e -> tick());
+        this.timer.setCoalesce(true);
+    }
+
+    /**
+     * Capture the latest state of the live model, on the thread that changed it.
+     */
+    @Override
+    public void update(Observable observable, Object arg) {
+        GameModel model = (GameModel) observable;
+        synchronized (this) {
+            latest.capture(model);
+            dirty = true;
+            updates++;
+        }
+    }
+
+    /**
+     * Get the replica model the view observes.
+     * @return The replica model
+     */
+    public GameModel getReplica() {
+        return replica;
+    }
+
+    /**
+     * Set the controls and the result target the queued changes are applied to on the EDT.
+     * @param controls The controls
+     * @param results The target action results are shown in
+     */
+    public void setTargets(TurnControls controls, Consumer<String> results) {
+        this.controls = controls;
+        this.results = results;
+    }
+
+    /**
+     * Get controls that queue their changes for the next frame, for the game thread.
+     * @return The queued controls
+     */
+    public TurnControls getQueuedControls() {
+        return new QueuedControls();
+    }
+
+    /**
+     * Queue an action result for the next frame.
+     * @param text The action result
+     */
+    public synchronized void publishResult(String text) {
+        result = text;
+    }
+
+    /**
+     * Start publishing frames.
+     */
+    public void start() {
+        timer.start();
+    }
+
+    /**
+     * Stop publishing frames.
+     */
+    public void stop() {
+        timer.stop();
+    }
+
+    /**
+     * Handle a frame timer tick, skipping it while recovering from a frame over budget.
+     */
+    private void tick() {
+        if (skipFrames > 0) {
+            skipFrames--;
+            return;
+        }
+        long elapsed = publish();
+        if (elapsed > budgetNanos) {
+            skipFrames = elapsed / periodNanos;
+        }
+    }
+
+    /**
+     * Publish the queued changes, restoring the latest state into the replica.
+     * Pre: called on the EDT, or the only thread using the view
+     * Post: the replica holds the latest state of the live model
+     * @return The time taken in nanoseconds, or 0 if there was nothing to publish
+     */
+    public long publish() {
+        long start = System.nanoTime();
+        boolean restore;
+        int changed, enabled;
+        String text;
+        synchronized (this) {
+            restore = dirty;
+            if (restore) {
+                published.copyFrom(latest);
+                dirty = false;
+            }
+            changed = changedControls;
+            enabled = enabledControls;
+            text = result;
+            changedControls = 0;
+            result = null;
+        }
+        if (!restore && changed == 0 && text == null) {
+            return 0;
+        }
+
+        if (restore) {
+            replica.restore(published);
+        }
+        applyControl(changed, enabled, ROLL, controls::enableRollButton, controls::disableRollButton);
+        applyControl(changed, enabled, BUY, controls::enableBuyHotel, controls::disableBuyHotel);
+        applyControl(changed, enabled, RATE, controls::enableIncreaseRating, controls::disableIncreaseRating);
+        applyControl(changed, enabled, END_TURN, controls::enableEndTurnButton, controls::disableEndTurnButton);
+        if (text != null) {
+            results.accept(text);
+        }
+
+        long elapsed = System.nanoTime() - start;
+        frames++;
+        totalNanos += elapsed;
+        maxNanos = Math.max(maxNanos, elapsed);
+        if (elapsed > budgetNanos) {
+            overruns++;
+        }
+        return elapsed;
+    }
+
+    /**
+     * Apply the queued change of a button, if it has one.
+     * @param changed The mask of changed buttons
+     * @param enabled The mask of enabled buttons
+     * @param button The button bit
+     * @param enable Enables the button
+     * @param disable Disables the button
+     */
+    private static void applyControl(int changed, int enabled, int button, Runnable enable, Runnable disable) {
+        if ((changed & button) != 0) {
+            if ((enabled & button) != 0) {
+                enable.run();
+            } else {
+                disable.run();
+            }
+        }
+    }
+
+    /**
+     * Queue a button change for the next frame.
+     * @param button The button bit
+     * @param enable Whether the button is enabled
+     */
+    private synchronized void queueControl(int button, boolean enable) {
+        changedControls |= button;
+        enabledControls = enable ? enabledControls | button : enabledControls & ~button;
+    }
+
+    /**
+     * Get the number of live model changes observed.
+     * @return The number of changes
+     */
+    public synchronized long getUpdates() {
+        return updates;
+    }
+
+    /**
+     * Get the number of frames published.
+     * @return The number of frames
+     */
+    public long getFrames() {
+        return frames;
+    }
+
+    /**
+     * Get the number of frames over budget.
+     * @return The number of frames over budget
+     */
+    public long getOverruns() {
+        return overruns;
+    }
+
+    /**
+     * Get the longest time spent publishing a frame.
+     * @return The longest frame time in nanoseconds
+     */
+    public long getMaxNanos() {
+        return maxNanos;
+    }
+
+    /**
+     * Get the mean time spent publishing a frame.
+     * @return The mean frame time in nanoseconds, or 0 before the first frame
+     */
+    public double getMeanNanos() {
+        return frames == 0 ? 0 : (double) totalNanos / frames;
+    }
+
+    /**
+     * Summarise the frame statistics.
+     */
+    @Override
+    public String toString() {
+        return String.format("%d changes in %d frames, mean %.1f us, max %.1f us, %d over the %.1f ms budget",
+                getUpdates(), frames, getMeanNanos() / 1000, maxNanos / 1000.0, overruns, budgetNanos / 1e6);
+    }
+
+    /**
+     * Controls that queue their changes for the next frame.
+     */
+    private class QueuedControls implements TurnControls {
+
+        @Override
+        public void enableRollButton() {
+            queueControl(ROLL, true);
+        }
+
+        @Override
+        public void enableBuyHotel() {
+            queueControl(BUY, true);
+        }
+
+        @Override
+        public void enableIncreaseRating() {
+            queueControl(RATE, true);
+        }
+
+        @Override
+        public void enableEndTurnButton() {
+            queueControl(END_TURN, true);
+        }
+
+        @Override
+        public void disableRollButton() {
+            queueControl(ROLL, false);
+        }
+
+        @Override
+        public void disableBuyHotel() {
+            queueControl(BUY, false);
+        }
+
+        @Override
+        public void disableIncreaseRating() {
+            queueControl(RATE, false);
+        }
+
+        @Override
+        public void disableEndTurnButton() {
+            queueControl(END_TURN, false);
+        }
+    }
+}
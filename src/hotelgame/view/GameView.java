@@ -1,14 +1,41 @@
 package hotelgame.view;
 
 import hotelgame.controller.GameController;
+import hotelgame.model.BoardDefinition;
 import hotelgame.model.GameModel;
+import hotelgame.search.MoveAdvisor;
+import hotelgame.store.GameJournal;
 
 import javax.swing.*;
+import java.awt.event.WindowAdapter;
+import java.awt.event.WindowEvent;
 import java.util.Observable;
 import java.util.Observer;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
 public class GameView implements Observer {
 
+    /**
+     * The frame period of a view playing off the EDT, in milliseconds.
+     */
+    private static final int FRAME_MILLIS = 16;
+
+    /**
+     * The time budget of publishing a frame, in nanoseconds.
+     */
+    private static final long FRAME_BUDGET_NANOS = 4_000_000;
+
+    /**
+     * The number of turns the heatmap forecasts.
+     */
+    private static final int HEATMAP_HORIZON = 20;
+
+    /**
+     * The shortest time between heatmap repaints, in milliseconds.
+     */
+    private static final int HEATMAP_REPAINT_MILLIS = 100;
+
     /**
      * A cheat mode to allow players to choose how much they move per turn.
      */
@@ -37,15 +64,87 @@ public class GameView implements Observer {
     /**
      * The graphical representation of the model tiles.
      */
-    private Board board;
+    private BoardView board;
+
+    /**
+     * Whether the board is painted by a single BoardCanvas rather than a panel per square.
+     */
+    private final boolean paintedBoard;
+
+    /**
+     * The publisher of a game played off the EDT, or null if the game is played on the EDT.
+     */
+    private final FramePublisher publisher;
+
+    /**
+     * The single thread the game is played on, or null if the game is played on the EDT.
+     */
+    private final ExecutorService gameThread;
+
+    /**
+     * Whether to shade the board with a heatmap of landing probabilities and expected fees.
+     */
+    private boolean heatmap;
+
+    /**
+     * Whether to show hints for the buy and rating decisions.
+     */
+    private boolean hints;
 
     /**
      * Setup the game controller and JFrame.
      */
     public GameView(boolean cheatMode) {
+        this(cheatMode, BoardDefinition.standard());
+    }
+
+    /**
+     * Setup the game controller and JFrame for a game on a board.
+     * @param cheatMode Whether players choose how much they move
+     * @param board The board definition
+     */
+    public GameView(boolean cheatMode, BoardDefinition board) {
+        this(cheatMode, board, false);
+    }
+
+    /**
+     * Setup the game controller and JFrame for a game on a board.
+     * @param cheatMode Whether players choose how much they move
+     * @param board The board definition
+     * @param paintedBoard Whether to paint the board in a single BoardCanvas
+     */
+    public GameView(boolean cheatMode, BoardDefinition board, boolean paintedBoard) {
+        this(cheatMode, board, paintedBoard, false);
+    }
+
+    /**
+     * Setup the game controller and JFrame for a game on a board.
+     * A game played off the EDT runs every controller action on a game thread,
+     * and the view follows a replica of the model published once per frame.
+     * @param cheatMode Whether players choose how much they move
+     * @param board The board definition
+     * @param paintedBoard Whether to paint the board in a single BoardCanvas
+     * @param offEdt Whether to play the game off the EDT
+     */
+    public GameView(boolean cheatMode, BoardDefinition board, boolean paintedBoard, boolean offEdt) {
         this.cheatMode = cheatMode;
-        this.controller = new GameController(this);
+        this.paintedBoard = paintedBoard;
+        this.controller = new GameController(this, board);
         this.frame = new JFrame("Hotel Game");
+        if (offEdt) {
+            publisher = new FramePublisher(board, FRAME_MILLIS, FRAME_BUDGET_NANOS);
+            controller.getModel().deleteObserver(this);
+            controller.getModel().addObserver(publisher);
+            publisher.getReplica().addObserver(this);
+            gameThread = Executors.newSingleThreadExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "game");
+                thread.setDaemon(true);
+                return thread;
+            });
+        } else {
+            publisher = null;
+            gameThread = null;
+        }
     }
 
     /**
@@ -54,7 +153,8 @@ public class GameView implements Observer {
     public void start() {
         infoBar = new InfoBar();
         actionBar  = new ActionBar(controller, this.cheatMode);
-        board = new Board();
+        controller.setControls(actionBar);
+        board = paintedBoard ? new BoardCanvas(controller.getBoard()) : new Board(controller.getBoard().getTileCount());
 
         frame.setDefaultCloseOperation(JFrame.EXIT_ON_CLOSE);
 
@@ -67,17 +167,74 @@ public class GameView implements Observer {
         frame.pack();
         frame.setLocationRelativeTo(null);
 
-        this.controller.start();
+        if (hints) {
+            ExecutorService hintThread = Executors.newSingleThreadExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "advisor");
+                thread.setDaemon(true);
+                return thread;
+            });
+            actionBar.showHints(publisher == null ? controller.getModel() : publisher.getReplica(),
+                    new MoveAdvisor(controller.getBoard()), hintThread);
+        }
+
+        if (heatmap) {
+            HeatmapOverlay overlay = new HeatmapOverlay(controller.getModel(), board, HEATMAP_HORIZON, HEATMAP_REPAINT_MILLIS);
+            (publisher == null ? controller.getModel() : publisher.getReplica()).addObserver(overlay);
+            overlay.start();
+        }
+
+        if (publisher == null) {
+            this.controller.start();
+            return;
+        }
+        controller.setControls(publisher.getQueuedControls());
+        publisher.setTargets(actionBar, actionBar::showReplay);
+        actionBar.runInBackground(gameThread, publisher);
+        frame.addWindowListener(new WindowAdapter() {
+            @Override
+            public void windowClosing(WindowEvent e) {
+                publisher.stop();
+            }
+        });
+        publisher.start();
+        gameThread.execute(controller::start);
     }
 
     /**
-     * Update the state of the gui based on the state of the model.
+     * Update the state of the gui based on the state of the model, or of its replica when played off the EDT.
      */
     @Override
     public void update(Observable observable, Object arg) {
         GameModel model = (GameModel) observable;
         infoBar.update(model);
         board.update(model);
+        actionBar.refreshHint();
+    }
+
+    /**
+     * Save the game in a journal, resuming the game saved there when the view starts.
+     * Pre: the view has not been started
+     * @param journal The journal
+     * @param savedGame The number of the game in the journal
+     */
+    public void setJournal(GameJournal journal, long savedGame) {
+        controller.setJournal(journal, savedGame);
+    }
+
+    /**
+     * Shade the board with a heatmap of landing probabilities and expected fees, worked out in the background.
+     * Pre: the view has not been started
+     */
+    public void showHeatmap() {
+        heatmap = true;
+    }
+
+    /**
+     * Show hints for the buy and rating decisions, searched for in the background.
+     * Pre: the view has not been started
+     */
+    public void showHints() {
+        hints = true;
     }
 
     /**
@@ -87,4 +244,12 @@ public class GameView implements Observer {
     public ActionBar getActionBar() {
         return actionBar;
     }
+
+    /**
+     * Get the publisher of a game played off the EDT, whose frame statistics stop updating when the window closes.
+     * @return The publisher, or null if the game is played on the EDT
+     */
+    public FramePublisher getFramePublisher() {
+        return publisher;
+    }
 }
\ No newline at end of file
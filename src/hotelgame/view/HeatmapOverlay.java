@@ -0,0 +1,321 @@
+package hotelgame.view;
+
+import hotelgame.model.DiceDistribution;
+import hotelgame.model.GameModel;
+import hotelgame.model.GameSnapshot;
+import hotelgame.model.LandingForecast;
+
+import javax.swing.*;
+import java.util.Observable;
+import java.util.Observer;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Shades the board by how likely each tile is to be landed on, and the overnight fee expected there at the
+ * hotels' current ratings and owners, as a coaching aid.
+ * Observes a model, keeping only its latest state, and works the heatmap out on a background thread: an exact
+ * LandingForecast from the players' positions, refined one turn at a time up to a horizon, priced with
+ * GameModel.calculateFee() on a private copy of the state. A purchase or rating increase only reprices the
+ * forecast, which is restarted only when a player moves. The board is repainted from the EDT at a capped rate,
+ * showing the latest refinement.
+ */
+public class HeatmapOverlay implements Observer {
+
+    /**
+     * A refinement of the heatmap, immutable once published.
+     */
+    private static final class Heat {
+
+        /**
+         * The probability of each tile being landed on in a turn.
+         */
+        final double[] probabilities;
+
+        /**
+         * The overnight fee expected to be paid on each tile in a turn.
+         */
+        final double[] expectedFees;
+
+        /**
+         * The number of turns forecast.
+         */
+        final int turns;
+
+        /**
+         * Create a refinement.
+         * @param probabilities The probability of each tile being landed on in a turn
+         * @param expectedFees The overnight fee expected to be paid on each tile in a turn
+         * @param turns The number of turns forecast
+         */
+        Heat(double[] probabilities, double[] expectedFees, int turns) {
+            this.probabilities = probabilities;
+            this.expectedFees = expectedFees;
+            this.turns = turns;
+        }
+    }
+
+    /**
+     * The board the heatmap is shown on.
+     */
+    private final BoardView board;
+
+    /**
+     * The dice the players roll.
+     */
+    private final DiceDistribution dice;
+
+    /**
+     * The number of turns each forecast is refined to.
+     */
+    private final int horizon;
+
+    /**
+     * The latest state of the observed model. Guarded by this.
+     */
+    private final GameSnapshot latest = new GameSnapshot();
+
+    /**
+     * The number of states observed. Guarded by this.
+     */
+    private long version;
+
+    /**
+     * Whether a refinement task is queued or running. Guarded by this.
+     */
+    private boolean refining;
+
+    /**
+     * The state being priced, only used on the worker.
+     */
+    private final GameSnapshot working = new GameSnapshot();
+
+    /**
+     * The version of the state being priced, only used on the worker.
+     */
+    private long seen;
+
+    /**
+     * A model the state being priced is restored into, only used on the worker.
+     */
+    private final GameModel pricing;
+
+    /**
+     * The forecast from the players' current positions, only used on the worker.
+     */
+    private LandingForecast forecast;
+
+    /**
+     * The background thread the heatmap is worked out on.
+     */
+    private final ExecutorService worker;
+
+    /**
+     * The repaint timer.
+     */
+    private final Timer timer;
+
+    /**
+     * The latest refinement, or null before the first.
+     */
+    private volatile Heat heat;
+
+    /**
+     * The refinement the board shows, only used on the EDT.
+     */
+    private Heat shown;
+
+    /**
+     * The number of forecasts started, one per change of the players' positions.
+     */
+    private volatile long restarts;
+
+    /**
+     * The number of refinements published.
+     */
+    private volatile long refinements;
+
+    /**
+     * Create an overlay for games like a model, showing on a board.
+     * Pre: the board shows the model's board
+     * @param model A model with the board, rules and dice of the games to show
+     * @param board The board the heatmap is shown on
+     * @param horizon The number of turns to forecast, at least 1
+     * @param repaintMillis The shortest time between repaints in milliseconds
+     */
+    public HeatmapOverlay(GameModel model, BoardView board, int horizon, int repaintMillis) {
+        assert horizon >= 1;
+        this.board = board;
+        this.dice = model.getDice().getDistribution();
+        this.horizon = horizon;
+        this.pricing = new GameModel(model.getBoard(), model.getRules().getRules());
+        this.worker = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "heatmap");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.timer = new Timer(repaintMillis, e -> repaint());
+        this.timer.setCoalesce(true);
+    }
+
+    /**
+     * Capture the latest state of the model and queue a refinement if none is queued.
+     */
+    @Override
+    public void update(Observable observable, Object arg) {
+        GameModel model = (GameModel) observable;
+        if (model.getPlayerOne() == null) {
+            return;
+        }
+        boolean queue;
+        synchronized (this) {
+            latest.capture(model);
+            version++;
+            queue = !refining;
+            refining = true;
+        }
+        if (queue) {
+            worker.execute(this::refine);
+        }
+    }
+
+    /**
+     * Refine the heatmap one turn at a time up to the horizon, picking up new states as they arrive.
+     * A new state with the players where they were keeps the forecast and only reprices it.
+     */
+    private void refine() {
+        try {
+            while (true) {
+                boolean changed;
+                synchronized (this) {
+                    changed = version != seen;
+                    if (!changed && forecast.getTurns() >= horizon) {
+                        refining = false;
+                        return;
+                    }
+                    if (changed) {
+                        working.copyFrom(latest);
+                        seen = version;
+                    }
+                }
+                if (changed) {
+                    pricing.restore(working);
+                    int playerOne = working.getPosition(0);
+                    int playerTwo = working.getPosition(1);
+                    if (forecast == null || !forecast.startsAt(playerOne, playerTwo)) {
+                        forecast = new LandingForecast(dice, working.getTileCount(), playerOne, playerTwo);
+                        restarts++;
+                    }
+                }
+                if (forecast.getTurns() < horizon) {
+                    forecast.advance();
+                }
+                heat = price();
+                refinements++;
+            }
+        } catch (RuntimeException | Error e) {
+            synchronized (this) {
+                refining = false;
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Price the current forecast at the hotels' current ratings and owners.
+     * @return The refinement, averaged over both players' turns
+     */
+    private Heat price() {
+        int tiles = working.getTileCount();
+        double[] probabilities = new double[tiles];
+        double[] expectedFees = new double[tiles];
+        for (int position = 0; position < tiles; position++) {
+            for (int player = 0; player < 2; player++) {
+                double probability = forecast.getLandingProbability(player, position);
+                probabilities[position] += probability / 2;
+                expectedFees[position] += probability * pricing.calculateFee(position, player) / 2;
+            }
+        }
+        return new Heat(probabilities, expectedFees, forecast.getTurns());
+    }
+
+    /**
+     * Show the latest refinement on the board if it has not been shown.
+     * Pre: called on the EDT
+     */
+    private void repaint() {
+        Heat latestHeat = heat;
+        if (latestHeat != null && latestHeat != shown) {
+            shown = latestHeat;
+            board.showHeat(latestHeat.probabilities, latestHeat.expectedFees);
+        }
+    }
+
+    /**
+     * Start repainting the board.
+     */
+    public void start() {
+        timer.start();
+    }
+
+    /**
+     * Stop repainting the board and working out the heatmap.
+     */
+    public void stop() {
+        timer.stop();
+        worker.shutdownNow();
+    }
+
+    /**
+     * Get the probability of a tile being landed on in a turn, as last refined.
+     * @param position The tile position
+     * @return The probability, or 0 before the first refinement
+     */
+    public double getProbability(int position) {
+        Heat latestHeat = heat;
+        return latestHeat == null ? 0 : latestHeat.probabilities[position];
+    }
+
+    /**
+     * Get the overnight fee expected to be paid on a tile in a turn, as last refined.
+     * @param position The tile position
+     * @return The expected fee, or 0 before the first refinement
+     */
+    public double getExpectedFee(int position) {
+        Heat latestHeat = heat;
+        return latestHeat == null ? 0 : latestHeat.expectedFees[position];
+    }
+
+    /**
+     * Get the number of turns the last refinement forecast.
+     * @return The number of turns, or 0 before the first refinement
+     */
+    public int getTurns() {
+        Heat latestHeat = heat;
+        return latestHeat == null ? 0 : latestHeat.turns;
+    }
+
+    /**
+     * Is the heatmap refined to the horizon for the latest state?
+     * @return True if there is nothing left to work out
+     */
+    public synchronized boolean isSettled() {
+        return !refining && version > 0;
+    }
+
+    /**
+     * Get the number of forecasts started, one per change of the players' positions.
+     * @return The number of forecasts
+     */
+    public long getRestarts() {
+        return restarts;
+    }
+
+    /**
+     * Get the number of refinements published.
+     * @return The number of refinements
+     */
+    public long getRefinements() {
+        return refinements;
+    }
+}
@@ -0,0 +1,144 @@
+package hotelgame.view;
+
+import hotelgame.model.BoardDefinition;
+import hotelgame.model.GameModel;
+import hotelgame.stream.GameRecording;
+import hotelgame.stream.ReplayCursor;
+
+import javax.swing.*;
+import java.awt.*;
+import java.util.Observable;
+import java.util.Observer;
+
+/**
+ * Shows a recorded game in the game window, driven by a timeline instead of player input.
+ * The recorded state is restored into a local model which updates the InfoBar, ActionBar and board.
+ */
+public class ReplayView implements Observer {
+
+    /**
+     * The main Swing frame.
+     */
+    private final JFrame frame;
+
+    /**
+     * The model the recorded states are restored into.
+     */
+    private final GameModel model;
+
+    /**
+     * The position in the recording.
+     */
+    private final ReplayCursor cursor;
+
+    /**
+     * The InfoBar showing the recorded state.
+     */
+    private final InfoBar infoBar = new InfoBar();
+
+    /**
+     * The ActionBar showing the position in the replay.
+     */
+    private final ActionBar actionBar = new ActionBar();
+
+    /**
+     * The graphical representation of the model tiles.
+     */
+    private final BoardView board;
+
+    /**
+     * The timeline, one step per recorded event.
+     */
+    private final JSlider timeline;
+
+    /**
+     * Setup the replay frame.
+     * Pre: recording has at least one event and was recorded on board
+     * @param recording The recording to show
+     * @param board The board definition
+     * @param paintedBoard Whether to paint the board in a single BoardCanvas
+     */
+    public ReplayView(GameRecording recording, BoardDefinition board, boolean paintedBoard) {
+        assert recording.getEventCount() > 0;
+        this.frame = new JFrame("Hotel Game Replay");
+        this.model = new GameModel(board);
+        this.cursor = new ReplayCursor(recording);
+        this.board = paintedBoard ? new BoardCanvas(board) : new Board(board.getTileCount());
+        this.timeline = new JSlider(0, recording.getEventCount() - 1, 0);
+        model.addObserver(this);
+    }
+
+    /**
+     * Set up the Swing frame and show the first event.
+     */
+    public void start() {
+        JButton previousTurn = new JButton("<< Turn");
+        JButton previousEvent = new JButton("< Step");
+        JButton nextEvent = new JButton("Step >");
+        JButton nextTurn = new JButton("Turn >>");
+        previousTurn.addActionListener(e -> seekTurn(-1));
+        previousEvent.addActionListener(e -> timeline.setValue(timeline.getValue() - 1));
+        nextEvent.addActionListener(e -> timeline.setValue(timeline.getValue() + 1));
+        nextTurn.addActionListener(e -> seekTurn(1));
+        timeline.addChangeListener(e -> showEvent(timeline.getValue()));
+
+        JPanel controls = new JPanel(new FlowLayout(FlowLayout.CENTER, 20, 10));
+        controls.add(previousTurn);
+        controls.add(previousEvent);
+        controls.add(timeline);
+        controls.add(nextEvent);
+        controls.add(nextTurn);
+        timeline.setPreferredSize(new Dimension(500, timeline.getPreferredSize().height));
+
+        frame.setDefaultCloseOperation(JFrame.DISPOSE_ON_CLOSE);
+        frame.getContentPane().setLayout(new BoxLayout(frame.getContentPane(), BoxLayout.Y_AXIS));
+        frame.getContentPane().add(infoBar.getPanel());
+        frame.getContentPane().add(actionBar.getPanel());
+        frame.getContentPane().add(controls);
+        frame.getContentPane().add(board.getPanel());
+
+        showEvent(0);
+        frame.pack();
+        frame.setLocationRelativeTo(null);
+        frame.setVisible(true);
+    }
+
+    /**
+     * Restore the state after a recorded event.
+     * @param event The event index
+     */
+    public void showEvent(int event) {
+        model.restore(cursor.seek(event));
+    }
+
+    /**
+     * Move the timeline to the start of a neighbouring turn.
+     * Going back from part way through a turn goes to the start of that turn.
+     * @param direction -1 to go back, 1 to go forward
+     */
+    private void seekTurn(int direction) {
+        GameRecording recording = cursor.getRecording();
+        int event = timeline.getValue();
+        int turn = recording.getTurnOf(event);
+        if (direction < 0 && recording.getTurnStart(turn) == event) {
+            turn--;
+        } else if (direction > 0) {
+            turn++;
+        }
+        turn = Math.max(0, Math.min(turn, recording.getTurnCount() - 1));
+        timeline.setValue(recording.getTurnStart(turn));
+    }
+
+    /**
+     * Update the state of the gui based on the restored model.
+     */
+    @Override
+    public void update(Observable observable, Object arg) {
+        GameRecording recording = cursor.getRecording();
+        int event = cursor.getEvent();
+        infoBar.update(model);
+        board.update(model);
+        actionBar.showReplay("Replay: turn " + (recording.getTurnOf(event) + 1) + " of " + recording.getTurnCount()
+                + ", event " + (event + 1) + " of " + recording.getEventCount());
+    }
+}
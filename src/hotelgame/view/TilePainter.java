@@ -0,0 +1,250 @@
+package hotelgame.view;
+
+import hotelgame.model.BoardDefinition;
+import hotelgame.model.GameSnapshot;
+import hotelgame.model.RuleSet;
+
+import javax.swing.*;
+import java.awt.*;
+import java.awt.image.BufferedImage;
+
+/**
+ * Paints board tiles the way BoardSquare shows them: a bordered square with the hotel name,
+ * price and rating, owner and player indicators.
+ * Each tile's contents are rendered once per owner and rating into a cached image,
+ * so painting a tile is a single image copy plus the player indicators.
+ */
+public class TilePainter {
+
+    /**
+     * The size of a player indicator, as in PlayerIndicator.
+     */
+    private static final int INDICATOR_SIZE = 15;
+
+    /**
+     * Tiles smaller than this are painted as plain colour blocks without text.
+     */
+    private static final int MIN_TEXT_SIZE = 40;
+
+    /**
+     * The number of cached images per tile, one per packed owner and rating.
+     */
+    private static final int STATES = 4 * 32;
+
+    /**
+     * The board being painted.
+     */
+    private final BoardDefinition board;
+
+    /**
+     * The cached tile images, indexed by tile and packed state, created as needed.
+     */
+    private final BufferedImage[][] images;
+
+    /**
+     * The font for tile text.
+     */
+    private final Font font;
+
+    /**
+     * The background colour of tiles with text.
+     */
+    private final Color background;
+
+    /**
+     * The width of a tile in pixels.
+     */
+    private int tileWidth;
+
+    /**
+     * The height of a tile in pixels.
+     */
+    private int tileHeight;
+
+    /**
+     * The player names shown as hotel owners.
+     */
+    private final String[] names = {"", ""};
+
+    /**
+     * The highest star rating, shown after each hotel's rating.
+     */
+    private int maxRating = RuleSet.STANDARD.getMaxRating();
+
+    /**
+     * Create a painter for a board.
+     * @param board The board definition
+     */
+    public TilePainter(BoardDefinition board) {
+        this.board = board;
+        this.images = new BufferedImage[board.getTileCount()][];
+        Font labelFont = UIManager.getFont("Label.font");
+        this.font = labelFont != null ? labelFont : new Font(Font.DIALOG, Font.BOLD, 12);
+        Color panelBackground = UIManager.getColor("Panel.background");
+        this.background = panelBackground != null ? panelBackground : new Color(238, 238, 238);
+    }
+
+    /**
+     * Set the size tiles are painted at, dropping cached images if it changed.
+     * @param tileWidth The width of a tile in pixels
+     * @param tileHeight The height of a tile in pixels
+     */
+    public void setTileSize(int tileWidth, int tileHeight) {
+        if (tileWidth != this.tileWidth || tileHeight != this.tileHeight) {
+            this.tileWidth = tileWidth;
+            this.tileHeight = tileHeight;
+            clearCache();
+        }
+    }
+
+    /**
+     * Set the player names shown as hotel owners, dropping cached images if they changed.
+     * @param playerOne Player one's name
+     * @param playerTwo Player two's name
+     */
+    public void setPlayerNames(String playerOne, String playerTwo) {
+        if (!names[0].equals(playerOne) || !names[1].equals(playerTwo)) {
+            names[0] = playerOne;
+            names[1] = playerTwo;
+            clearCache();
+        }
+    }
+
+    /**
+     * Set the highest star rating of the rules being played, dropping cached images if it changed.
+     * @param maxRating The highest rating
+     */
+    public void setMaxRating(int maxRating) {
+        if (maxRating != this.maxRating) {
+            this.maxRating = maxRating;
+            clearCache();
+        }
+    }
+
+    /**
+     * Get the width of a tile.
+     * @return The tile width in pixels
+     */
+    public int getTileWidth() {
+        return tileWidth;
+    }
+
+    /**
+     * Get the height of a tile.
+     * @return The tile height in pixels
+     */
+    public int getTileHeight() {
+        return tileHeight;
+    }
+
+    /**
+     * Paint a tile.
+     * @param g The graphics to paint with
+     * @param position The tile position
+     * @param state The packed owner and rating of the tile (see GameSnapshot.pack())
+     * @param playerOne Whether player one is on the tile
+     * @param playerTwo Whether player two is on the tile
+     * @param x The left of the tile
+     * @param y The top of the tile
+     */
+    public void paintTile(Graphics g, int position, byte state, boolean playerOne, boolean playerTwo, int x, int y) {
+        if (tileWidth <= 0 || tileHeight <= 0) {
+            return;
+        }
+        g.drawImage(tileImage(position, state), x, y, null);
+
+        int size = Math.min(INDICATOR_SIZE, Math.min(tileWidth, tileHeight) / 3);
+        int indicatorY = y + tileHeight - size - 2;
+        int indicatorX = x + tileWidth / 2 - size;
+        if (playerOne) {
+            g.setColor(Color.RED);
+            g.fillOval(indicatorX, indicatorY, size, size);
+        }
+        if (playerTwo) {
+            g.setColor(Color.BLUE);
+            g.fillOval(indicatorX + size, indicatorY, size, size);
+        }
+    }
+
+    /**
+     * Drop every cached tile image.
+     */
+    private void clearCache() {
+        for (int i = 0; i < images.length; i++) {
+            images[i] = null;
+        }
+    }
+
+    /**
+     * Get the cached image for a tile in a state, rendering it if needed.
+     * @param position The tile position
+     * @param state The packed owner and rating
+     * @return The tile image
+     */
+    private BufferedImage tileImage(int position, byte state) {
+        if (images[position] == null) {
+            images[position] = new BufferedImage[STATES];
+        }
+        int index = state & 0xFF;
+        BufferedImage image = images[position][index];
+        if (image == null) {
+            image = renderTile(position, state);
+            images[position][index] = image;
+        }
+        return image;
+    }
+
+    /**
+     * Render a tile's background, border and text.
+     * @param position The tile position
+     * @param state The packed owner and rating
+     * @return The rendered image
+     */
+    private BufferedImage renderTile(int position, byte state) {
+        BufferedImage image = new BufferedImage(tileWidth, tileHeight, BufferedImage.TYPE_INT_RGB);
+        Graphics2D g = image.createGraphics();
+        int owner = GameSnapshot.ownerOf(state);
+
+        if (tileWidth < MIN_TEXT_SIZE || tileHeight < MIN_TEXT_SIZE) {
+            g.setColor(owner == GameSnapshot.PLAYER_ONE ? Color.PINK
+                    : owner == GameSnapshot.PLAYER_TWO ? Color.CYAN
+                    : board.isHotel(position) ? Color.LIGHT_GRAY : Color.WHITE);
+            g.fillRect(0, 0, tileWidth, tileHeight);
+        } else {
+            g.setColor(background);
+            g.fillRect(0, 0, tileWidth, tileHeight);
+            g.setRenderingHint(RenderingHints.KEY_TEXT_ANTIALIASING, RenderingHints.VALUE_TEXT_ANTIALIAS_ON);
+            g.setFont(font);
+            g.setColor(Color.DARK_GRAY);
+            FontMetrics metrics = g.getFontMetrics();
+            int line = metrics.getHeight();
+
+            if (position == 0) {
+                drawCentered(g, metrics, "GO", line);
+            } else if (board.isHotel(position)) {
+                String name = board.getGroupName(board.getGroup(position)) + board.getNumber(position);
+                drawCentered(g, metrics, name, line);
+                drawCentered(g, metrics, "£" + (double) board.getPrice(position) + " - " + GameSnapshot.ratingOf(state) + "/" + maxRating, line * 2);
+                if (owner != GameSnapshot.NO_OWNER) {
+                    drawCentered(g, metrics, names[owner - 1], line * 3);
+                }
+            }
+        }
+
+        g.setColor(Color.BLACK);
+        g.drawRect(0, 0, tileWidth - 1, tileHeight - 1);
+        g.dispose();
+        return image;
+    }
+
+    /**
+     * Draw a line of text centred horizontally.
+     * @param g The graphics to draw with
+     * @param metrics The font metrics
+     * @param text The text
+     * @param baseline The baseline of the text
+     */
+    private void drawCentered(Graphics2D g, FontMetrics metrics, String text, int baseline) {
+        g.drawString(text, (tileWidth - metrics.stringWidth(text)) / 2, baseline);
+    }
+}
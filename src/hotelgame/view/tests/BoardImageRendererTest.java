@@ -0,0 +1,79 @@
+package hotelgame.view.tests;
+
+import hotelgame.model.GameModel;
+import hotelgame.model.GameSnapshot;
+import hotelgame.model.Policy;
+import hotelgame.view.BoardImageRenderer;
+import org.junit.jupiter.api.Test;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BoardImageRendererTest {
+
+    /**
+     * Render a model twice
+     * Assert the same image is reused and has the requested size
+     * Assert rendering the same state again gives the same pixels
+     */
+    @Test
+    void testRenderReusesImage() {
+        GameModel model = new GameModel();
+        model.reset();
+        model.createPlayers("Alice", "Bob");
+        BoardImageRenderer renderer = new BoardImageRenderer(model.getBoard(), 535, 425);
+
+        BufferedImage first = renderer.render(model);
+        assertEquals(535, first.getWidth());
+        assertEquals(425, first.getHeight());
+        int[] pixels = first.getRGB(0, 0, 535, 425, null, 0, 535);
+
+        BufferedImage second = renderer.render(model);
+        assertSame(first, second);
+        assertArrayEquals(pixels, second.getRGB(0, 0, 535, 425, null, 0, 535));
+    }
+
+    /**
+     * Record the states of a simulated game
+     * Render them all in parallel
+     * Assert one readable PNG of the right size is written per state
+     */
+    @Test
+    void testRenderAll() throws IOException {
+        GameModel model = new GameModel();
+        model.reset();
+        model.createPlayers("Alice", "Bob");
+        List<GameSnapshot> states = new ArrayList<>();
+        for (int i = 0; i < 24; i++) {
+            model.playTurns(1, Policy.GREEDY);
+            GameSnapshot state = new GameSnapshot();
+            state.capture(model);
+            states.add(state);
+        }
+
+        Path directory = Files.createTempDirectory("boards");
+        try {
+            BoardImageRenderer.renderAll(model.getBoard(), states, 320, 240, directory, "turn");
+            for (int i = 0; i < states.size(); i++) {
+                BufferedImage image = ImageIO.read(directory.resolve(String.format("turn-%05d.png", i)).toFile());
+                assertNotNull(image);
+                assertEquals(320, image.getWidth());
+                assertEquals(240, image.getHeight());
+            }
+        } finally {
+            try (var files = Files.list(directory)) {
+                for (Path file : (Iterable<Path>) files::iterator) {
+                    Files.delete(file);
+                }
+            }
+            Files.delete(directory);
+        }
+    }
+}
@@ -0,0 +1,139 @@
+package hotelgame.view.tests;
+
+import hotelgame.controller.TurnControls;
+import hotelgame.model.BoardDefinition;
+import hotelgame.model.GameAction;
+import hotelgame.model.GameModel;
+import hotelgame.model.GameSnapshot;
+import hotelgame.view.FramePublisher;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FramePublisherTest {
+
+    /**
+     * Controls recording which buttons are enabled.
+     */
+    private static class RecordedControls implements TurnControls {
+
+        /**
+         * Whether the roll, buy, rate and end turn buttons are enabled.
+         */
+        final boolean[] enabled = new boolean[4];
+
+        @Override
+        public void enableRollButton() {
+            enabled[0] = true;
+        }
+
+        @Override
+        public void enableBuyHotel() {
+            enabled[1] = true;
+        }
+
+        @Override
+        public void enableIncreaseRating() {
+            enabled[2] = true;
+        }
+
+        @Override
+        public void enableEndTurnButton() {
+            enabled[3] = true;
+        }
+
+        @Override
+        public void disableRollButton() {
+            enabled[0] = false;
+        }
+
+        @Override
+        public void disableBuyHotel() {
+            enabled[1] = false;
+        }
+
+        @Override
+        public void disableIncreaseRating() {
+            enabled[2] = false;
+        }
+
+        @Override
+        public void disableEndTurnButton() {
+            enabled[3] = false;
+        }
+    }
+
+    /**
+     * Play twenty turns on a game thread with a publisher observing the model
+     * Publish one frame
+     * Assert the replica was updated once and holds the final state of the model
+     * Assert publishing again with nothing changed does nothing
+     */
+    @Test
+    void testChangesAreCoalesced() throws InterruptedException {
+        BoardDefinition board = BoardDefinition.standard();
+        FramePublisher publisher = new FramePublisher(board, 16, 1_000_000_000L);
+        List<GameSnapshot> published = new ArrayList<>();
+        publisher.getReplica().addObserver((observable, arg) -> {
+            GameSnapshot snapshot = new GameSnapshot();
+            snapshot.capture((GameModel) observable);
+            published.add(snapshot);
+        });
+
+        GameModel model = new GameModel(board);
+        GameSnapshot expected = new GameSnapshot();
+        Thread game = new Thread(() -> {
+            model.addObserver(publisher);
+            model.reset();
+            model.createPlayers("one", "two");
+            for (int turn = 0; turn < 20; turn++) {
+                GameAction.apply(model, GameAction.of(GameAction.ROLL, 0));
+                GameAction.apply(model, GameAction.of(GameAction.BUY, 0));
+                GameAction.apply(model, GameAction.of(GameAction.END_TURN, 0));
+            }
+            expected.capture(model);
+        });
+        game.start();
+        game.join();
+
+        assertTrue(publisher.publish() > 0);
+        assertTrue(publisher.getUpdates() > 20);
+        assertEquals(1, publisher.getFrames());
+        assertEquals(List.of(expected), published);
+        assertEquals(0, publisher.getOverruns());
+
+        assertEquals(0, publisher.publish());
+        assertEquals(1, publisher.getFrames());
+    }
+
+    /**
+     * Queue several button changes and two action results
+     * Publish one frame
+     * Assert only the last change of each button and the last result are applied
+     */
+    @Test
+    void testControlsAndResultsAreQueued() {
+        FramePublisher publisher = new FramePublisher(BoardDefinition.standard(), 16, 1_000_000_000L);
+        RecordedControls controls = new RecordedControls();
+        List<String> results = new ArrayList<>();
+        publisher.setTargets(controls, results::add);
+        controls.enableRollButton();
+
+        TurnControls queued = publisher.getQueuedControls();
+        queued.enableBuyHotel();
+        queued.disableBuyHotel();
+        queued.enableIncreaseRating();
+        queued.enableEndTurnButton();
+        publisher.publishResult("first");
+        publisher.publishResult("second");
+        assertArrayEquals(new boolean[] {true, false, false, false}, controls.enabled);
+
+        publisher.publish();
+        assertArrayEquals(new boolean[] {true, false, true, true}, controls.enabled);
+        assertEquals(List.of("second"), results);
+        assertEquals(1, publisher.getFrames());
+    }
+}
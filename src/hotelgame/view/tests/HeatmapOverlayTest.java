@@ -0,0 +1,92 @@
+package hotelgame.view.tests;
+
+import hotelgame.model.GameModel;
+import hotelgame.model.LandingForecast;
+import hotelgame.view.BoardView;
+import hotelgame.view.HeatmapOverlay;
+import org.junit.jupiter.api.Test;
+
+import javax.swing.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class HeatmapOverlayTest {
+
+    /**
+     * A board that shows nothing.
+     */
+    private static final BoardView NO_BOARD = new BoardView() {
+        @Override
+        public void update(GameModel model) {
+        }
+
+        @Override
+        public JComponent getPanel() {
+            return null;
+        }
+    };
+
+    /**
+     * Wait until an overlay has refined the heatmap of the latest state to its horizon.
+     * @param overlay The overlay
+     */
+    private static void awaitSettled(HeatmapOverlay overlay) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 10_000;
+        while (!overlay.isSettled()) {
+            assertTrue(System.currentTimeMillis() < deadline, "heatmap did not settle");
+            Thread.sleep(1);
+        }
+    }
+
+    /**
+     * Start a game with a heatmap forecasting 10 turns
+     * Assert the landing probabilities of a turn add up to 1 and no fees are expected
+     * Let player one buy the hotel at position 1 and raise it by a star
+     * Assert player two's fee there is priced, averaged over both players' turns, without the forecast being restarted
+     * Move player two
+     * Assert the forecast is restarted
+     */
+    @Test
+    void testRepricesWithoutRestarting() throws InterruptedException {
+        GameModel model = new GameModel();
+        model.reset();
+        HeatmapOverlay overlay = new HeatmapOverlay(model, NO_BOARD, 10, 100);
+        model.addObserver(overlay);
+        model.createPlayers("Player One", "Player Two");
+        awaitSettled(overlay);
+        assertEquals(10, overlay.getTurns());
+        double total = 0;
+        for (int position = 0; position < GameModel.MAX_TILES; position++) {
+            total += overlay.getProbability(position);
+            assertEquals(0, overlay.getExpectedFee(position));
+        }
+        assertEquals(1, total, 1e-9);
+
+        if (model.getCurrentTurn() != model.getPlayerOne()) {
+            model.nextTurn();
+        }
+        model.movePlayer(1);
+        awaitSettled(overlay);
+        long restarts = overlay.getRestarts();
+        model.buyHotel();
+        model.increaseStarRating();
+        awaitSettled(overlay);
+        assertEquals(restarts, overlay.getRestarts());
+        double fee = model.calculateFee(1, 1);
+        assertTrue(fee > 0);
+        assertEquals(0, model.calculateFee(1, 0));
+        LandingForecast forecast = new LandingForecast(model.getDice().getDistribution(), GameModel.MAX_TILES,
+                model.getPlayerOne().getPosition(), model.getPlayerTwo().getPosition());
+        for (int turn = 0; turn < 10; turn++) {
+            forecast.advance();
+        }
+        assertTrue(forecast.getLandingProbability(1, 1) > 0);
+        assertEquals(forecast.getLandingProbability(1, 1) * fee / 2, overlay.getExpectedFee(1), 1e-9);
+
+        model.nextTurn();
+        model.movePlayer(3);
+        awaitSettled(overlay);
+        assertEquals(restarts + 1, overlay.getRestarts());
+        overlay.stop();
+    }
+}